@@ -18,6 +18,7 @@ package com.alipay.sofa.rpc.bootstrap;
 
 import com.alipay.sofa.rpc.client.ClientProxyInvoker;
 import com.alipay.sofa.rpc.client.Cluster;
+import com.alipay.sofa.rpc.codec.CompressNegotiator;
 import com.alipay.sofa.rpc.codec.SerializerFactory;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
@@ -31,6 +32,7 @@ import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
 import com.alipay.sofa.rpc.log.LogCodes;
+import com.alipay.sofa.rpc.message.MethodDescriptor;
 import com.alipay.sofa.rpc.message.ResponseFuture;
 
 import static com.alipay.sofa.rpc.common.RpcConstants.CUSTOM_CALLER_APP;
@@ -90,9 +92,18 @@ public class DefaultClientProxyInvoker extends ClientProxyInvoker {
         request.setTargetServiceUniqueName(serviceName);
         request.setSerializeType(serializeType == null ? 0 : serializeType);
 
+        MethodDescriptor descriptor = request.getMethodDescriptor();
+        boolean described = descriptor != null && descriptor.getMethodName().equals(request.getMethodName());
         if (!consumerConfig.isGeneric()) {
             // 找到调用类型， generic的时候类型在filter里进行判断
-            request.setInvokeType(consumerConfig.getMethodInvokeType(request.getMethodName()));
+            request.setInvokeType(described ? consumerConfig.getMethodInvokeType(descriptor)
+                : consumerConfig.getMethodInvokeType(request.getMethodName()));
+        }
+        // 期望的压缩算法通过HEAD告诉服务端，是否真正压缩由传输层和服务端协商
+        String compress = described ? consumerConfig.getMethodCompress(descriptor)
+            : consumerConfig.getMethodCompress(request.getMethodName());
+        if (compress != null) {
+            CompressNegotiator.offer(request, compress);
         }
 
         RpcInvokeContext invokeCtx = RpcInvokeContext.peekContext();
@@ -23,6 +23,9 @@ import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * bzip2 compressor, faster compression efficiency
@@ -73,4 +76,14 @@ public class Bzip2RpcCompressor implements Compressor {
         }
         return out.toByteArray();
     }
-}
\ No newline at end of file
+
+    @Override
+    public OutputStream compress(OutputStream out) throws IOException {
+        return new BZip2CompressorOutputStream(out);
+    }
+
+    @Override
+    public InputStream deCompress(InputStream in) throws IOException {
+        return new BZip2CompressorInputStream(in);
+    }
+}
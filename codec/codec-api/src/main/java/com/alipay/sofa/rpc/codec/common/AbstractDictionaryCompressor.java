@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.common;
+
+import com.alipay.sofa.rpc.codec.Compressor;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 支持字典的压缩算法基类
+ * <p>
+ * 压缩数据以4字节的字典编号开头（0表示没有使用字典），之后是算法本身的数据，解压时按编号查找 {@link CompressDictionaries}。
+ * 没有指定服务时不使用字典，指定服务时由调用方保证对端已经确认有相同的字典。解压后的大小受 {@link DecompressLimit} 限制
+ *
+ * @since 5.14.3
+ */
+public abstract class AbstractDictionaryCompressor implements Compressor {
+
+    /**
+     * 字典编号的长度
+     */
+    protected static final int HEADER_LENGTH = 4;
+
+    @Override
+    public byte[] compress(byte[] src) {
+        if (null == src || 0 == src.length) {
+            return new byte[0];
+        }
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream(src.length);
+        try (OutputStream compressOut = compress(out)) {
+            compressOut.write(src);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] deCompress(byte[] src) {
+        if (null == src || 0 == src.length) {
+            return new byte[0];
+        }
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream(src.length << 1);
+        try (InputStream in = deCompress(new UnsafeByteArrayInputStream(src))) {
+            out.readFrom(in);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public OutputStream compress(OutputStream out) throws IOException {
+        return compress(out, null);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream out, String service) throws IOException {
+        CompressDictionary dictionary = service == null ? null : CompressDictionaries.get(service);
+        writeDictionaryId(out, dictionary == null ? 0 : dictionary.getId());
+        return wrap(out, dictionary);
+    }
+
+    @Override
+    public int getDictionaryId(String service) {
+        CompressDictionary dictionary = service == null ? null : CompressDictionaries.get(service);
+        return dictionary == null ? 0 : dictionary.getId();
+    }
+
+    @Override
+    public InputStream deCompress(InputStream in) throws IOException {
+        return DecompressLimit.limit(unwrap(in, readDictionary(in)));
+    }
+
+    /**
+     * 包装压缩输出流
+     *
+     * @param out        输出流，关闭返回的流时需要一并关闭
+     * @param dictionary 字典，可以为null
+     * @return 压缩输出流
+     * @throws IOException 写入异常
+     */
+    protected abstract OutputStream wrap(OutputStream out, CompressDictionary dictionary) throws IOException;
+
+    /**
+     * 包装解压输入流
+     *
+     * @param in         已经读过字典编号的输入流
+     * @param dictionary 字典，可以为null
+     * @return 解压输入流
+     * @throws IOException 读取异常
+     */
+    protected abstract InputStream unwrap(InputStream in, CompressDictionary dictionary) throws IOException;
+
+    /**
+     * 写入字典编号
+     *
+     * @param out 输出流
+     * @param id  字典编号
+     * @throws IOException 写入异常
+     */
+    protected static void writeDictionaryId(OutputStream out, int id) throws IOException {
+        out.write(id >>> 24);
+        out.write(id >>> 16);
+        out.write(id >>> 8);
+        out.write(id);
+    }
+
+    /**
+     * 读取字典编号并查找字典
+     *
+     * @param in 输入流
+     * @return 字典，没有使用字典时返回null
+     * @throws IOException 读取异常或者字典不存在
+     */
+    protected static CompressDictionary readDictionary(InputStream in) throws IOException {
+        int id = 0;
+        for (int i = 0; i < HEADER_LENGTH; i++) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Compressed data is too short");
+            }
+            id = (id << 8) | b;
+        }
+        return getDictionary(id);
+    }
+
+    /**
+     * 按编号查找字典
+     *
+     * @param id 字典编号
+     * @return 字典，编号为0时返回null
+     * @throws IOException 字典不存在
+     */
+    protected static CompressDictionary getDictionary(int id) throws IOException {
+        if (id == 0) {
+            return null;
+        }
+        CompressDictionary dictionary = CompressDictionaries.get(id);
+        if (dictionary == null) {
+            throw new IOException("Compress dictionary not found, id=" + id);
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.common;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.log.Logger;
+import com.alipay.sofa.rpc.log.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按服务管理压缩字典
+ * <p>
+ * 启动时从 {@link RpcOptions#COMPRESS_DICTIONARY_DIR} 加载，目录下的 接口名.dict 为该服务的字典，
+ * default.dict 为没有单独配置字典的服务使用的默认字典。两端需要加载相同的字典，解压时按数据中的编号查找字典。
+ *
+ * @since 5.14.3
+ */
+public final class CompressDictionaries {
+
+    private static final Logger                                     LOGGER       = LoggerFactory
+                                                                                     .getLogger(CompressDictionaries.class);
+
+    /**
+     * 默认字典的名字
+     */
+    public static final String                                      DEFAULT_NAME = "default";
+
+    private static final String                                     SUFFIX       = ".dict";
+
+    /**
+     * {接口名：字典}
+     */
+    private static final ConcurrentMap<String, CompressDictionary>  BY_NAME      = new ConcurrentHashMap<String, CompressDictionary>();
+
+    /**
+     * {字典编号：字典}
+     */
+    private static final ConcurrentMap<Integer, CompressDictionary> BY_ID        = new ConcurrentHashMap<Integer, CompressDictionary>();
+
+    static {
+        load(RpcConfigs.getStringValue(RpcOptions.COMPRESS_DICTIONARY_DIR));
+    }
+
+    private CompressDictionaries() {
+    }
+
+    /**
+     * 加载目录下的全部字典
+     *
+     * @param dir 字典目录，为空时不加载
+     */
+    static void load(String dir) {
+        if (StringUtils.isBlank(dir)) {
+            return;
+        }
+        File[] files = new File(dir).listFiles();
+        if (files == null) {
+            LOGGER.warn("Compress dictionary dir {} is not a directory", dir);
+            return;
+        }
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!file.isFile() || !fileName.endsWith(SUFFIX)) {
+                continue;
+            }
+            try {
+                register(fileName.substring(0, fileName.length() - SUFFIX.length()),
+                    Files.readAllBytes(file.toPath()));
+            } catch (IOException e) {
+                LOGGER.error("Failed to load compress dictionary " + file.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    /**
+     * 注册字典
+     *
+     * @param name    接口名，或者 {@link #DEFAULT_NAME}
+     * @param content 字典内容
+     * @return 字典
+     */
+    public static CompressDictionary register(String name, byte[] content) {
+        CompressDictionary dictionary = new CompressDictionary(name, content);
+        CompressDictionary old = BY_NAME.put(name, dictionary);
+        if (old != null && old.getId() != dictionary.getId()) {
+            // 替换字典后，对端可能还在使用旧字典压缩，保留旧字典用于解压
+            LOGGER.warn("Compress dictionary {} is replaced", name);
+        }
+        BY_ID.put(dictionary.getId(), dictionary);
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Compress dictionary {} registered, id={}, size={}", name, dictionary.getId(),
+                content.length);
+        }
+        return dictionary;
+    }
+
+    /**
+     * 取消注册字典，按编号仍然可以找到，用于解压对端在途的数据
+     *
+     * @param name 接口名，或者 {@link #DEFAULT_NAME}
+     */
+    public static void unregister(String name) {
+        BY_NAME.remove(name);
+    }
+
+    /**
+     * 服务压缩时使用的字典
+     *
+     * @param service 服务名（接口名:版本[:uniqueId]）或者接口名，可以为null
+     * @return 该服务的字典，没有时返回默认字典，都没有时返回null
+     */
+    public static CompressDictionary get(String service) {
+        if (BY_NAME.isEmpty()) {
+            return null;
+        }
+        if (service != null) {
+            int index = service.indexOf(':');
+            CompressDictionary dictionary = BY_NAME.get(index < 0 ? service : service.substring(0, index));
+            if (dictionary != null) {
+                return dictionary;
+            }
+        }
+        return BY_NAME.get(DEFAULT_NAME);
+    }
+
+    /**
+     * 解压时按编号查找字典
+     *
+     * @param id 字典编号
+     * @return 字典，不存在时返回null
+     */
+    public static CompressDictionary get(int id) {
+        return BY_ID.get(id);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.common;
+
+import java.util.zip.CRC32;
+
+/**
+ * 压缩字典，两端按内容计算出相同的编号，压缩数据中只带编号
+ *
+ * @since 5.14.3
+ */
+public final class CompressDictionary {
+
+    /**
+     * 字典名，接口名或者 default
+     */
+    private final String name;
+
+    /**
+     * 字典内容
+     */
+    private final byte[] content;
+
+    /**
+     * 字典编号，内容的 CRC32，不会为0
+     */
+    private final int    id;
+
+    public CompressDictionary(String name, byte[] content) {
+        this.name = name;
+        this.content = content;
+        CRC32 crc32 = new CRC32();
+        crc32.update(content, 0, content.length);
+        int crc = (int) crc32.getValue();
+        // 0 表示没有使用字典
+        this.id = crc == 0 ? 1 : crc;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
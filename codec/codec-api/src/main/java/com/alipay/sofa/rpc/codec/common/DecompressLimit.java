@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.common;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 解压后的大小上限
+ * <p>
+ * 压缩数据里的原始大小来自对端，不能直接按它分配内存；超过上限的数据直接拒绝。
+ * 上限由 {@link RpcOptions#COMPRESS_DECOMPRESS_MAX} 配置，没有配置时和最大数据包 {@link RpcOptions#TRANSPORT_PAYLOAD_MAX} 相同
+ *
+ * @since 5.14.3
+ */
+public final class DecompressLimit {
+
+    /**
+     * 解压后的最大字节数
+     */
+    public static final int MAX_SIZE = maxSize();
+
+    private DecompressLimit() {
+    }
+
+    private static int maxSize() {
+        int max = RpcConfigs.getIntValue(RpcOptions.COMPRESS_DECOMPRESS_MAX);
+        return max > 0 ? max : RpcConfigs.getIntValue(RpcOptions.TRANSPORT_PAYLOAD_MAX);
+    }
+
+    /**
+     * 检查对端声明的原始大小
+     *
+     * @param size 原始大小
+     * @throws IllegalStateException 超过上限
+     */
+    public static void checkSize(long size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalStateException("Decompressed size " + size + " exceeds the limit " + MAX_SIZE);
+        }
+    }
+
+    /**
+     * 包装解压输入流，读取超过上限时抛出异常
+     *
+     * @param in 解压输入流
+     * @return 有上限的输入流
+     */
+    public static InputStream limit(InputStream in) {
+        return new FilterInputStream(in) {
+            private long count;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    count(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    count(n);
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                count(skipped);
+                return skipped;
+            }
+
+            private void count(long n) throws IOException {
+                count += n;
+                if (count > MAX_SIZE) {
+                    throw new IOException("Decompressed size exceeds the limit " + MAX_SIZE);
+                }
+            }
+        };
+    }
+}
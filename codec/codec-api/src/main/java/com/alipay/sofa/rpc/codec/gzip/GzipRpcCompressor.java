@@ -21,6 +21,9 @@ import com.alipay.sofa.rpc.ext.Extension;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -67,4 +70,14 @@ public class GzipRpcCompressor implements Compressor {
 
         return byteOutStream.toByteArray();
     }
-}
\ No newline at end of file
+
+    @Override
+    public OutputStream compress(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out);
+    }
+
+    @Override
+    public InputStream deCompress(InputStream in) throws IOException {
+        return new GZIPInputStream(in);
+    }
+}
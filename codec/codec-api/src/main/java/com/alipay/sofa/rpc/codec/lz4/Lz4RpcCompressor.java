@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.lz4;
+
+import com.alipay.sofa.rpc.codec.Compressor;
+import com.alipay.sofa.rpc.codec.common.DecompressLimit;
+import com.alipay.sofa.rpc.ext.Extension;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.util.Arrays;
+
+/**
+ * LZ4 块格式压缩，压缩数据以4字节的原始长度开头，之后是 LZ4 块数据
+ * <p>
+ * 压缩速度优先，不支持字典，需要字典时使用 zstd
+ *
+ * @since 5.14.3
+ */
+@Extension(value = "lz4", code = 5)
+public class Lz4RpcCompressor implements Compressor {
+
+    /**
+     * 原始长度的长度
+     */
+    private static final int                 HEADER_LENGTH = 4;
+
+    /**
+     * LZ4 块格式的最大压缩比
+     */
+    private static final int                 MAX_RATIO     = 255;
+
+    private static final LZ4Compressor       COMPRESSOR    = LZ4Factory.fastestInstance().fastCompressor();
+
+    private static final LZ4SafeDecompressor DECOMPRESSOR  = LZ4Factory.fastestInstance().safeDecompressor();
+
+    @Override
+    public byte[] compress(byte[] src) {
+        if (null == src || 0 == src.length) {
+            return new byte[0];
+        }
+        byte[] dst = new byte[HEADER_LENGTH + COMPRESSOR.maxCompressedLength(src.length)];
+        dst[0] = (byte) (src.length >>> 24);
+        dst[1] = (byte) (src.length >>> 16);
+        dst[2] = (byte) (src.length >>> 8);
+        dst[3] = (byte) src.length;
+        int size = COMPRESSOR.compress(src, 0, src.length, dst, HEADER_LENGTH, dst.length - HEADER_LENGTH);
+        return Arrays.copyOf(dst, HEADER_LENGTH + size);
+    }
+
+    @Override
+    public byte[] deCompress(byte[] src) {
+        if (null == src || 0 == src.length) {
+            return new byte[0];
+        }
+        if (src.length <= HEADER_LENGTH) {
+            throw new IllegalStateException("Compressed data is too short");
+        }
+        int length = ((src[0] & 0xff) << 24) | ((src[1] & 0xff) << 16) | ((src[2] & 0xff) << 8) | (src[3] & 0xff);
+        if (length <= 0) {
+            throw new IllegalStateException("Illegal original length: " + length);
+        }
+        // 原始长度来自对端，分配前先检查：LZ4 每字节最多展开为255字节，且不能超过解压上限
+        if (length > (long) (src.length - HEADER_LENGTH) * MAX_RATIO) {
+            throw new IllegalStateException("Illegal original length: " + length + ", compressed length: "
+                + (src.length - HEADER_LENGTH));
+        }
+        DecompressLimit.checkSize(length);
+        byte[] dst = new byte[length];
+        int size;
+        try {
+            size = DECOMPRESSOR.decompress(src, HEADER_LENGTH, src.length - HEADER_LENGTH, dst, 0, length);
+        } catch (LZ4Exception e) {
+            throw new IllegalStateException(e);
+        }
+        if (size != length) {
+            throw new IllegalStateException("Original length mismatch, expect " + length + " but " + size);
+        }
+        return dst;
+    }
+}
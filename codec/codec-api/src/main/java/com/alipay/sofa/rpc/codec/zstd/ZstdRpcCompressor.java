@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.zstd;
+
+import com.alipay.sofa.rpc.codec.common.AbstractDictionaryCompressor;
+import com.alipay.sofa.rpc.codec.common.CompressDictionaries;
+import com.alipay.sofa.rpc.codec.common.CompressDictionary;
+import com.alipay.sofa.rpc.codec.common.DecompressLimit;
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
+import com.alipay.sofa.rpc.ext.Extension;
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Zstandard 压缩，适合使用按服务训练的字典压缩较小且重复度高的报文
+ * <p>
+ * 压缩和解压上下文放在有上限的公共池中复用，池满时归还的上下文直接关闭，不会随线程数增长占用堆外内存；字典只解析一次后缓存
+ *
+ * @since 5.14.3
+ */
+@Extension(value = "zstd", code = 6)
+public class ZstdRpcCompressor extends AbstractDictionaryCompressor {
+
+    /**
+     * 压缩级别，不超过支持的最大级别；同时在类初始化时加载 zstd-jni，没有引入时不启用该压缩算法
+     */
+    private static final int                                 LEVEL           = Math
+                                                                                 .min(
+                                                                                     RpcConfigs
+                                                                                         .getIntValue(RpcOptions.COMPRESS_ZSTD_LEVEL),
+                                                                                     Zstd.maxCompressionLevel());
+
+    /**
+     * 上下文池的大小
+     */
+    private static final int                                 POOL_SIZE       = Runtime.getRuntime()
+                                                                                 .availableProcessors() * 2;
+
+    /**
+     * 空闲的压缩上下文
+     */
+    private static final BlockingQueue<ZstdCompressCtx>      COMPRESS_CTX    = new ArrayBlockingQueue<ZstdCompressCtx>(
+                                                                                 POOL_SIZE);
+
+    /**
+     * 空闲的解压上下文
+     */
+    private static final BlockingQueue<ZstdDecompressCtx>    DECOMPRESS_CTX  = new ArrayBlockingQueue<ZstdDecompressCtx>(
+                                                                                 POOL_SIZE);
+
+    /**
+     * {字典编号：解析后的压缩字典}
+     */
+    private final ConcurrentMap<Integer, ZstdDictCompress>   compressDicts   = new ConcurrentHashMap<Integer, ZstdDictCompress>();
+
+    /**
+     * {字典编号：解析后的解压字典}
+     */
+    private final ConcurrentMap<Integer, ZstdDictDecompress> decompressDicts = new ConcurrentHashMap<Integer, ZstdDictDecompress>();
+
+    @Override
+    public byte[] compress(byte[] src) {
+        if (null == src || 0 == src.length) {
+            return new byte[0];
+        }
+        return compress(src, 0, src.length, null);
+    }
+
+    @Override
+    public byte[] deCompress(byte[] src) {
+        if (null == src || src.length <= HEADER_LENGTH) {
+            return super.deCompress(src);
+        }
+        byte[] dst = deCompress(src, 0, src.length);
+        return dst != null ? dst : super.deCompress(src);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream out, String service) throws IOException {
+        CompressDictionary dictionary = service == null ? null : CompressDictionaries.get(service);
+        // 报文整体缓存后一次性压缩，比逐个创建压缩流快，且数据头部带有原始大小
+        return new UnsafeByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    if (mCount > 0) {
+                        out.write(ZstdRpcCompressor.this.compress(mBuffer, 0, mCount, dictionary));
+                    }
+                } finally {
+                    out.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    public InputStream deCompress(InputStream in) throws IOException {
+        UnsafeByteArrayOutputStream buffer = new UnsafeByteArrayOutputStream(Math.max(in.available(), 32));
+        int length = buffer.readFrom(in);
+        if (length == 0) {
+            return new UnsafeByteArrayInputStream(new byte[0]);
+        }
+        if (length <= HEADER_LENGTH) {
+            return super.deCompress(buffer.toInputStream());
+        }
+        byte[] dst = deCompress(buffer.toByteArray(), 0, length);
+        return dst != null ? new UnsafeByteArrayInputStream(dst) : super.deCompress(buffer.toInputStream());
+    }
+
+    /**
+     * 使用池中的上下文压缩
+     *
+     * @param src        原始数据
+     * @param offset     起始位置
+     * @param length     长度
+     * @param dictionary 字典，可以为null
+     * @return 字典编号和压缩后的数据
+     */
+    private byte[] compress(byte[] src, int offset, int length, CompressDictionary dictionary) {
+        byte[] dst = new byte[HEADER_LENGTH + (int) Zstd.compressBound(length)];
+        int id = dictionary == null ? 0 : dictionary.getId();
+        dst[0] = (byte) (id >>> 24);
+        dst[1] = (byte) (id >>> 16);
+        dst[2] = (byte) (id >>> 8);
+        dst[3] = (byte) id;
+        ZstdCompressCtx ctx = COMPRESS_CTX.poll();
+        if (ctx == null) {
+            ctx = new ZstdCompressCtx();
+        }
+        int size;
+        try {
+            ctx.setLevel(LEVEL);
+            if (dictionary != null) {
+                ctx.loadDict(getCompressDict(dictionary));
+            }
+            size = ctx.compressByteArray(dst, HEADER_LENGTH, dst.length - HEADER_LENGTH, src, offset, length);
+        } finally {
+            // 清除级别和字典后归还，池满时关闭
+            ctx.reset();
+            if (!COMPRESS_CTX.offer(ctx)) {
+                ctx.close();
+            }
+        }
+        return Arrays.copyOf(dst, HEADER_LENGTH + size);
+    }
+
+    /**
+     * 使用池中的上下文解压
+     *
+     * @param src    字典编号和压缩后的数据
+     * @param offset 起始位置
+     * @param length 长度，需要大于字典编号的长度
+     * @return 解压后的数据，数据头部没有原始大小时返回null
+     */
+    private byte[] deCompress(byte[] src, int offset, int length) {
+        int frameOffset = offset + HEADER_LENGTH;
+        int frameLength = length - HEADER_LENGTH;
+        long size = Zstd.getFrameContentSize(src, frameOffset, frameLength);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            // 流式压缩的数据头部没有原始大小，按流解压
+            return null;
+        }
+        // 原始大小来自对端，分配前先检查
+        DecompressLimit.checkSize(size);
+        int id = ((src[offset] & 0xff) << 24) | ((src[offset + 1] & 0xff) << 16) | ((src[offset + 2] & 0xff) << 8)
+            | (src[offset + 3] & 0xff);
+        CompressDictionary dictionary;
+        try {
+            dictionary = getDictionary(id);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] dst = new byte[(int) size];
+        ZstdDecompressCtx ctx = DECOMPRESS_CTX.poll();
+        if (ctx == null) {
+            ctx = new ZstdDecompressCtx();
+        }
+        int actual;
+        try {
+            if (dictionary != null) {
+                ctx.loadDict(getDecompressDict(dictionary));
+            }
+            actual = ctx.decompressByteArray(dst, 0, dst.length, src, frameOffset, frameLength);
+        } finally {
+            ctx.reset();
+            if (!DECOMPRESS_CTX.offer(ctx)) {
+                ctx.close();
+            }
+        }
+        if (actual != dst.length) {
+            throw new IllegalStateException("Original length mismatch, expect " + dst.length + " but " + actual);
+        }
+        return dst;
+    }
+
+    @Override
+    protected OutputStream wrap(OutputStream out, CompressDictionary dictionary) throws IOException {
+        ZstdOutputStreamNoFinalizer zstdOut = new ZstdOutputStreamNoFinalizer(out, RecyclingBufferPool.INSTANCE,
+            LEVEL);
+        if (dictionary != null) {
+            zstdOut.setDict(getCompressDict(dictionary));
+        }
+        return zstdOut;
+    }
+
+    @Override
+    protected InputStream unwrap(InputStream in, CompressDictionary dictionary) throws IOException {
+        ZstdInputStreamNoFinalizer zstdIn = new ZstdInputStreamNoFinalizer(in, RecyclingBufferPool.INSTANCE);
+        if (dictionary != null) {
+            zstdIn.setDict(getDecompressDict(dictionary));
+        }
+        return zstdIn;
+    }
+
+    private ZstdDictCompress getCompressDict(CompressDictionary dictionary) {
+        return compressDicts.computeIfAbsent(dictionary.getId(),
+            id -> new ZstdDictCompress(dictionary.getContent(), LEVEL));
+    }
+
+    private ZstdDictDecompress getDecompressDict(CompressDictionary dictionary) {
+        return decompressDicts.computeIfAbsent(dictionary.getId(),
+            id -> new ZstdDictDecompress(dictionary.getContent()));
+    }
+}
@@ -21,6 +21,11 @@ import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 
 /**
@@ -50,4 +55,27 @@ public class Bzip2RpcCompressorTest {
         String s1 = new String(compressor.deCompress(bs), "utf-8");
         Assert.assertEquals(TEST_STR, s1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamCompression() throws IOException {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("bzip2");
+        byte[] raw = TEST_STR.getBytes("utf-8");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream compressOut = compressor.compress(out)) {
+            compressOut.write(raw, 0, raw.length / 2);
+            compressOut.write(raw, raw.length / 2, raw.length - raw.length / 2);
+        }
+        Assert.assertArrayEquals(raw, compressor.deCompress(out.toByteArray()));
+
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream in = compressor.deCompress(new ByteArrayInputStream(compressor.compress(raw)))) {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                decompressed.write(buffer, 0, n);
+            }
+        }
+        Assert.assertArrayEquals(raw, decompressed.toByteArray());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.common;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * @since 5.14.3
+ */
+public class CompressDictionariesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLoad() throws IOException {
+        File dir = folder.newFolder();
+        Files.write(new File(dir, "com.test.LoadService.dict").toPath(), "service".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(dir, "ignored.txt").toPath(), "ignored".getBytes(StandardCharsets.UTF_8));
+        CompressDictionaries.load(dir.getAbsolutePath());
+        try {
+            CompressDictionary dictionary = CompressDictionaries.get("com.test.LoadService:1.0:uid");
+            Assert.assertNotNull(dictionary);
+            Assert.assertEquals("com.test.LoadService", dictionary.getName());
+            Assert.assertSame(dictionary, CompressDictionaries.get("com.test.LoadService"));
+            Assert.assertSame(dictionary, CompressDictionaries.get(dictionary.getId()));
+            Assert.assertNull(CompressDictionaries.get("ignored"));
+        } finally {
+            CompressDictionaries.unregister("com.test.LoadService");
+        }
+        // 目录不存在时忽略
+        CompressDictionaries.load(new File(dir, "not_exist").getAbsolutePath());
+        CompressDictionaries.load("");
+    }
+
+    @Test
+    public void testDefault() {
+        CompressDictionary service = CompressDictionaries.register("com.test.DefaultService",
+            "service".getBytes(StandardCharsets.UTF_8));
+        CompressDictionary defaultDict = CompressDictionaries.register(CompressDictionaries.DEFAULT_NAME,
+            "default".getBytes(StandardCharsets.UTF_8));
+        try {
+            Assert.assertSame(service, CompressDictionaries.get("com.test.DefaultService:1.0"));
+            Assert.assertSame(defaultDict, CompressDictionaries.get("com.test.OtherService:1.0"));
+            Assert.assertSame(defaultDict, CompressDictionaries.get((String) null));
+            Assert.assertNotEquals(0, defaultDict.getId());
+        } finally {
+            CompressDictionaries.unregister("com.test.DefaultService");
+            CompressDictionaries.unregister(CompressDictionaries.DEFAULT_NAME);
+        }
+        // 取消注册后仍然可以按编号解压
+        Assert.assertSame(service, CompressDictionaries.get(service.getId()));
+        Assert.assertNull(CompressDictionaries.get("com.test.DefaultService"));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.lz4;
+
+import com.alipay.sofa.rpc.codec.Compressor;
+import com.alipay.sofa.rpc.codec.common.CompressDictionaries;
+import com.alipay.sofa.rpc.codec.common.DecompressLimit;
+import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @since 5.14.3
+ */
+public class Lz4RpcCompressorTest {
+
+    private static final String TEST_STR;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("{\"id\":").append(i).append(",\"name\":\"sofa-rpc\",\"status\":\"OK\"}");
+        }
+        TEST_STR = builder.toString();
+    }
+
+    @Test
+    public void testCompression() {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("lz4");
+        Assert.assertTrue(compressor instanceof Lz4RpcCompressor);
+
+        byte[] raw = TEST_STR.getBytes(StandardCharsets.UTF_8);
+        byte[] bs = compressor.compress(raw);
+        Assert.assertTrue(bs.length < raw.length);
+        Assert.assertArrayEquals(raw, compressor.deCompress(bs));
+        Assert.assertEquals(0, compressor.compress(new byte[0]).length);
+        Assert.assertEquals(0, compressor.deCompress(new byte[0]).length);
+    }
+
+    @Test
+    public void testStreamCompression() throws IOException {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("lz4");
+        byte[] raw = TEST_STR.getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream compressOut = compressor.compress(out)) {
+            compressOut.write(raw, 0, raw.length / 2);
+            compressOut.write(raw, raw.length / 2, raw.length - raw.length / 2);
+        }
+        Assert.assertArrayEquals(raw, compressor.deCompress(out.toByteArray()));
+        Assert.assertArrayEquals(raw, read(compressor.deCompress(new ByteArrayInputStream(compressor.compress(raw)))));
+    }
+
+    @Test
+    public void testDictionaryIgnored() throws IOException {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("lz4");
+        String service = "com.alipay.sofa.rpc.codec.lz4.DictService";
+        byte[] raw = TEST_STR.getBytes(StandardCharsets.UTF_8);
+        CompressDictionaries.register(service, raw);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (OutputStream compressOut = compressor.compress(out, service + ":1.0")) {
+                compressOut.write(raw);
+            }
+            Assert.assertArrayEquals(compressor.compress(raw), out.toByteArray());
+            Assert.assertArrayEquals(raw, compressor.deCompress(out.toByteArray()));
+        } finally {
+            CompressDictionaries.unregister(service);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIllegalData() {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("lz4");
+        byte[] bs = compressor.compress(TEST_STR.getBytes(StandardCharsets.UTF_8));
+        bs[3]++;
+        compressor.deCompress(bs);
+    }
+
+    @Test
+    public void testBogusLength() {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("lz4");
+        // 对端声明的原始长度远超压缩比能展开的长度，不能按它分配内存
+        byte[] bs = new byte[] { 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0, 0, 0, 0 };
+        try {
+            compressor.deCompress(bs);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("Illegal original length"));
+        }
+
+        // 压缩比合法，但超过解压上限
+        byte[] bomb = compressor.compress(new byte[DecompressLimit.MAX_SIZE + 1]);
+        try {
+            compressor.deCompress(bomb);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("exceeds the limit"));
+        }
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+}
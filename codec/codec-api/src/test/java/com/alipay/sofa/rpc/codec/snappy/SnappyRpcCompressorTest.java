@@ -19,6 +19,11 @@ package com.alipay.sofa.rpc.codec.snappy;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 
 /**
@@ -79,4 +84,22 @@ public class SnappyRpcCompressorTest {
             Assert.assertTrue(true);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamCompress() throws IOException {
+        SnappyRpcCompressor compressor = new SnappyRpcCompressor();
+        byte[] raw = "xxxxasdasdasd0as8d0asdkmasldjalsdxxxxasdasdasd0as8d0asdkmasldjalsd".getBytes("utf-8");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream compressOut = compressor.compress(out)) {
+            compressOut.write(raw);
+        }
+        Assert.assertArrayEquals(compressor.compress(raw), out.toByteArray());
+
+        InputStream in = compressor.deCompress(new ByteArrayInputStream(out.toByteArray()));
+        byte[] decompressed = new byte[raw.length];
+        Assert.assertEquals(raw.length, in.read(decompressed));
+        Assert.assertEquals(-1, in.read());
+        Assert.assertArrayEquals(raw, decompressed);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.zstd;
+
+import com.alipay.sofa.rpc.codec.Compressor;
+import com.alipay.sofa.rpc.codec.common.CompressDictionaries;
+import com.alipay.sofa.rpc.codec.common.DecompressLimit;
+import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @since 5.14.3
+ */
+public class ZstdRpcCompressorTest {
+
+    private static final String TEST_STR;
+
+    static {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("{\"id\":").append(i).append(",\"name\":\"sofa-rpc\",\"status\":\"OK\"}");
+        }
+        TEST_STR = builder.toString();
+    }
+
+    @Test
+    public void testCompression() {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("zstd");
+        Assert.assertTrue(compressor instanceof ZstdRpcCompressor);
+
+        byte[] raw = TEST_STR.getBytes(StandardCharsets.UTF_8);
+        byte[] bs = compressor.compress(raw);
+        Assert.assertTrue(bs.length < raw.length);
+        Assert.assertArrayEquals(raw, compressor.deCompress(bs));
+        Assert.assertEquals(0, compressor.compress(new byte[0]).length);
+        Assert.assertEquals(0, compressor.deCompress(new byte[0]).length);
+    }
+
+    @Test
+    public void testStreamCompression() throws IOException {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("zstd");
+        byte[] raw = TEST_STR.getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream compressOut = compressor.compress(out)) {
+            compressOut.write(raw, 0, raw.length / 2);
+            compressOut.write(raw, raw.length / 2, raw.length - raw.length / 2);
+        }
+        Assert.assertArrayEquals(raw, compressor.deCompress(out.toByteArray()));
+        Assert.assertArrayEquals(raw, read(compressor.deCompress(new ByteArrayInputStream(compressor.compress(raw)))));
+    }
+
+    @Test
+    public void testDictionary() throws IOException {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("zstd");
+        String service = "com.alipay.sofa.rpc.codec.zstd.DictService";
+        byte[] small = "{\"id\":1,\"name\":\"sofa-rpc\",\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+        CompressDictionaries.register(service, TEST_STR.getBytes(StandardCharsets.UTF_8));
+        try {
+            ByteArrayOutputStream withDict = new ByteArrayOutputStream();
+            try (OutputStream compressOut = compressor.compress(withDict, service + ":1.0")) {
+                compressOut.write(small);
+            }
+            ByteArrayOutputStream withoutDict = new ByteArrayOutputStream();
+            try (OutputStream compressOut = compressor.compress(withoutDict, "other")) {
+                compressOut.write(small);
+            }
+            Assert.assertTrue(withDict.size() < withoutDict.size());
+            Assert.assertArrayEquals(small, compressor.deCompress(withDict.toByteArray()));
+            Assert.assertArrayEquals(small, read(compressor.deCompress(new ByteArrayInputStream(withDict
+                .toByteArray()))));
+        } finally {
+            CompressDictionaries.unregister(service);
+        }
+    }
+
+    @Test
+    public void testNoDictionaryWithoutService() throws IOException {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("zstd");
+        byte[] raw = TEST_STR.getBytes(StandardCharsets.UTF_8);
+        CompressDictionaries.register(CompressDictionaries.DEFAULT_NAME, raw);
+        try {
+            Assert.assertEquals(CompressDictionaries.get("other").getId(), compressor.getDictionaryId("other"));
+            Assert.assertEquals(0, compressor.getDictionaryId(null));
+
+            // 没有指定服务时不使用字典，对端没有字典也可以解压
+            byte[] bs = compressor.compress(raw);
+            Assert.assertEquals(0, bs[0] | bs[1] | bs[2] | bs[3]);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (OutputStream compressOut = compressor.compress(out, null)) {
+                compressOut.write(raw);
+            }
+            byte[] streamed = out.toByteArray();
+            Assert.assertEquals(0, streamed[0] | streamed[1] | streamed[2] | streamed[3]);
+        } finally {
+            CompressDictionaries.unregister(CompressDictionaries.DEFAULT_NAME);
+        }
+    }
+
+    @Test
+    public void testBogusFrameSize() {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("zstd");
+        // 字典编号0，帧头声明原始大小为1G，后面只有一个空的数据块
+        byte[] bs = new byte[] { 0, 0, 0, 0, 0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, (byte) 0xe0,
+                0, 0, 0, 0x40, 0, 0, 0, 0, 1, 0, 0 };
+        try {
+            compressor.deCompress(bs);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("exceeds the limit"));
+        }
+    }
+
+    @Test
+    public void testStreamLimit() throws IOException {
+        Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension("zstd");
+        // 流式压缩的帧头没有原始大小，解压时按读取的字节数限制
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[4]);
+        try (OutputStream zstdOut = new ZstdOutputStream(out)) {
+            byte[] zeros = new byte[8192];
+            for (int n = 0; n <= DecompressLimit.MAX_SIZE; n += zeros.length) {
+                zstdOut.write(zeros);
+            }
+        }
+        try {
+            compressor.deCompress(out.toByteArray());
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("exceeds the limit"));
+        }
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        final Compressor compressor = ExtensionLoaderFactory.getExtensionLoader(Compressor.class).getExtension(
+            "zstd");
+        final byte[] raw = TEST_STR.getBytes(StandardCharsets.UTF_8);
+        Thread[] threads = new Thread[Runtime.getRuntime().availableProcessors() * 4];
+        final AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 50; j++) {
+                        if (!Arrays.equals(raw, compressor.deCompress(compressor.compress(raw)))) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, failures.get());
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+}
@@ -215,7 +215,8 @@ public class JacksonSerializer extends AbstractSerializer {
             throw buildDeserializeError("class is null!");
         } else {
             try {
-                result = mapper.readValue(data.array(), clazz);
+                result = data.hasArray() ? mapper.readValue(data.array(), clazz) : mapper.readValue(
+                    data.inputStream(), clazz);
             } catch (IOException e) {
                 throw buildDeserializeError(e.getMessage());
             }
@@ -292,7 +293,7 @@ public class JacksonSerializer extends AbstractSerializer {
 
         try {
 
-            JsonNode node = mapper.readTree(data.array());
+            JsonNode node = data.hasArray() ? mapper.readTree(data.array()) : mapper.readTree(data.inputStream());
 
             // json data is json arry
             if (node.isArray()) {
@@ -382,7 +383,8 @@ public class JacksonSerializer extends AbstractSerializer {
             JavaType respType = jacksonHelper.getResClass(targetService, methodName);
             Object result;
             try {
-                result = mapper.readValue(data.array(), respType);
+                result = data.hasArray() ? mapper.readValue(data.array(), respType) : mapper.readValue(
+                    data.inputStream(), respType);
             } catch (IOException e) {
                 throw buildDeserializeError(e.getMessage());
             }
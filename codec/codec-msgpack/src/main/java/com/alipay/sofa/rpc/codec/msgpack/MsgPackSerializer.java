@@ -100,14 +100,14 @@ public class MsgPackSerializer extends AbstractSerializer {
         } else if (helper.isJavaClass(clazz)) {
             //jdk原始类型
             try {
-                return messagePack.read(data.array(), clazz);
+                return data.hasArray() ? messagePack.read(data.array(), clazz) : messagePack.read(data.inputStream(), clazz);
             } catch (IOException e) {
                 throw buildDeserializeError(e.getMessage());
             }
         } else {
             try {
                 registerClass(clazz);
-                return messagePack.read(data.array(), clazz);
+                return data.hasArray() ? messagePack.read(data.array(), clazz) : messagePack.read(data.inputStream(), clazz);
             } catch (IOException e) {
                 throw buildDeserializeError(e.getMessage());
             }
@@ -36,28 +36,35 @@ public class ProtobufHelper {
     /**
      * Support multiple classloader?
      */
-    private static final boolean         MULTIPLE_CLASSLOADER = RpcConfigs
-                                                                  .getBooleanValue(RpcOptions.MULTIPLE_CLASSLOADER_ENABLE);
+    private static final boolean         MULTIPLE_CLASSLOADER     = RpcConfigs
+                                                                      .getBooleanValue(RpcOptions.MULTIPLE_CLASSLOADER_ENABLE);
 
     /**
      * Cache of parseFrom method
      */
-    ConcurrentMap<Class, Method>         parseFromMethodMap   = new ConcurrentHashMap<Class, Method>();
+    ConcurrentMap<Class, Method>         parseFromMethodMap       = new ConcurrentHashMap<Class, Method>();
+
+    /**
+     * Cache of parseFrom(InputStream) method, used when the data can not be read as byte[] without copying
+     *
+     * @since 5.14.3
+     */
+    ConcurrentMap<Class, Method>         parseFromStreamMethodMap = new ConcurrentHashMap<Class, Method>();
 
     /**
      * Cache of toByteArray method
      */
-    ConcurrentMap<Class, Method>         toByteArrayMethodMap = new ConcurrentHashMap<Class, Method>();
+    ConcurrentMap<Class, Method>         toByteArrayMethodMap     = new ConcurrentHashMap<Class, Method>();
 
     /**
      * 请求参数类型缓存 {service+method:class}
      */
-    private ConcurrentMap<String, Class> requestClassCache    = new ConcurrentHashMap<String, Class>();
+    private ConcurrentMap<String, Class> requestClassCache        = new ConcurrentHashMap<String, Class>();
 
     /**
      * 返回结果类型缓存 {service+method:class}
      */
-    private ConcurrentMap<String, Class> responseClassCache   = new ConcurrentHashMap<String, Class>();
+    private ConcurrentMap<String, Class> responseClassCache       = new ConcurrentHashMap<String, Class>();
 
     /**
      * 从缓存中获取请求值类
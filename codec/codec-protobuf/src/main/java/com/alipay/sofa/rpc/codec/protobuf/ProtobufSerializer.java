@@ -30,6 +30,7 @@ import com.alipay.sofa.rpc.ext.Extension;
 import com.alipay.sofa.rpc.transport.AbstractByteBuf;
 import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
 
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -145,25 +146,15 @@ public class ProtobufSerializer extends AbstractSerializer {
                     throw buildDeserializeError("Error when invoke " + clazz.getName() + ".newInstance().", e);
                 }
             } else {
-                Method method = protobufHelper.parseFromMethodMap.get(clazz);
-                if (method == null) {
-                    try {
-                        method = clazz.getMethod(METHOD_PARSEFROM, byte[].class);
-                        if (!Modifier.isStatic(method.getModifiers())) {
-                            throw buildDeserializeError("Cannot found static method " + clazz.getName()
-                                + ".parseFrom(byte[]), please check the generated code");
-                        }
-                        method.setAccessible(true);
-                        protobufHelper.parseFromMethodMap.put(clazz, method);
-                    } catch (NoSuchMethodException e) {
-                        throw buildDeserializeError("Cannot found method " + clazz.getName()
-                            + ".parseFrom(byte[]), please check the generated code", e);
-                    }
-                }
+                // 数据不是现成的 byte[] 时（例如 Netty 的 ByteBuf），直接从流中解析，不再拷贝一份
+                boolean hasArray = data.hasArray();
+                Method method = hasArray ? getParseFromMethod(clazz, byte[].class, protobufHelper.parseFromMethodMap)
+                    : getParseFromMethod(clazz, InputStream.class, protobufHelper.parseFromStreamMethodMap);
                 try {
-                    return method.invoke(null, data.array());
+                    return method.invoke(null, hasArray ? data.array() : data.inputStream());
                 } catch (Exception e) {
-                    throw buildDeserializeError("Error when invoke " + clazz.getName() + ".parseFrom(byte[]).", e);
+                    throw buildDeserializeError("Error when invoke " + clazz.getName() + ".parseFrom("
+                        + method.getParameterTypes()[0].getSimpleName() + ").", e);
                 }
             }
         } else if (clazz == String.class) {
@@ -173,6 +164,26 @@ public class ProtobufSerializer extends AbstractSerializer {
         }
     }
 
+    private Method getParseFromMethod(Class clazz, Class paramType, Map<Class, Method> cache) {
+        Method method = cache.get(clazz);
+        if (method == null) {
+            String methodDesc = clazz.getName() + ".parseFrom(" + paramType.getSimpleName() + ")";
+            try {
+                method = clazz.getMethod(METHOD_PARSEFROM, paramType);
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    throw buildDeserializeError("Cannot found static method " + methodDesc
+                        + ", please check the generated code");
+                }
+                method.setAccessible(true);
+                cache.put(clazz, method);
+            } catch (NoSuchMethodException e) {
+                throw buildDeserializeError("Cannot found method " + methodDesc + ", please check the generated code",
+                    e);
+            }
+        }
+        return method;
+    }
+
     @Override
     public void decode(AbstractByteBuf data, Object template, Map<String, String> context) throws SofaRpcException {
         if (template == null) {
@@ -33,6 +33,7 @@ import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
 import io.protostuff.runtime.RuntimeSchema;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -111,7 +112,15 @@ public class ProtostuffSerializer extends AbstractSerializer {
         } else {
             Schema schema = RuntimeSchema.getSchema(clazz);
             Object fooParsed = schema.newMessage();
-            ProtostuffIOUtil.mergeFrom(data.array(), fooParsed, schema);
+            if (data.hasArray()) {
+                ProtostuffIOUtil.mergeFrom(data.array(), fooParsed, schema);
+            } else {
+                try {
+                    ProtostuffIOUtil.mergeFrom(data.inputStream(), fooParsed, schema);
+                } catch (IOException e) {
+                    throw buildDeserializeError(e.getMessage(), e);
+                }
+            }
             return fooParsed;
         }
     }
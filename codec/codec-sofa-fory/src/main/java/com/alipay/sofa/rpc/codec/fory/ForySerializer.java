@@ -38,6 +38,7 @@ import org.apache.fory.memory.MemoryBuffer;
 import org.apache.fory.resolver.AllowListChecker;
 import org.apache.fory.resolver.ClassResolver;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -145,7 +146,7 @@ public class ForySerializer extends AbstractSerializer {
             if (customSerializer != null) {
                 return customSerializer.decodeObject(data, context);
             } else {
-                MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+                MemoryBuffer readBuffer = toMemoryBuffer(data);
                 return fory.deserialize(readBuffer);
             }
         } catch (SofaRpcException e) {
@@ -174,4 +175,21 @@ public class ForySerializer extends AbstractSerializer {
             throw buildDeserializeError(e.getMessage(), e);
         }
     }
+
+    /**
+     * 反序列化时的读缓冲区，数据在堆外时（例如 Netty 的直接内存）直接读取，不再拷贝成 byte[]
+     *
+     * @param data 数据
+     * @return 读缓冲区
+     * @since 5.14.3
+     */
+    public static MemoryBuffer toMemoryBuffer(AbstractByteBuf data) {
+        if (!data.hasArray()) {
+            ByteBuffer buffer = data.nioBuffer();
+            if (buffer.isDirect()) {
+                return MemoryBuffer.fromByteBuffer(buffer);
+            }
+        }
+        return MemoryBuffer.fromByteArray(data.array());
+    }
 }
@@ -17,6 +17,7 @@
 package com.alipay.sofa.rpc.codec.fory.serialize;
 
 import com.alipay.sofa.rpc.codec.CustomSerializer;
+import com.alipay.sofa.rpc.codec.fory.ForySerializer;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.config.ConfigUniqueNameGenerator;
 import com.alipay.sofa.rpc.core.exception.RpcErrorType;
@@ -68,7 +69,7 @@ public class SofaRequestForySerializer implements CustomSerializer<SofaRequest>
 
     @Override
     public SofaRequest decodeObject(AbstractByteBuf data, Map<String, String> context) throws SofaRpcException {
-        MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+        MemoryBuffer readBuffer = ForySerializer.toMemoryBuffer(data);
         try {
             SofaRequest sofaRequest = (SofaRequest) fory.deserialize(readBuffer);
             String targetServiceName = sofaRequest.getTargetServiceUniqueName();
@@ -94,7 +95,7 @@ public class SofaRequestForySerializer implements CustomSerializer<SofaRequest>
             throw new SofaRpcException(RpcErrorType.SERVER_DESERIALIZE, "Deserialized array is empty.");
         }
         try {
-            MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+            MemoryBuffer readBuffer = ForySerializer.toMemoryBuffer(data);
             SofaRequest tmp = (SofaRequest) fory.deserialize(readBuffer);
             String targetServiceName = tmp.getTargetServiceUniqueName();
             if (targetServiceName == null) {
@@ -17,6 +17,7 @@
 package com.alipay.sofa.rpc.codec.fory.serialize;
 
 import com.alipay.sofa.rpc.codec.CustomSerializer;
+import com.alipay.sofa.rpc.codec.fory.ForySerializer;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.core.exception.RpcErrorType;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
@@ -58,7 +59,7 @@ public class SofaResponseForySerializer implements CustomSerializer<SofaResponse
 
     @Override
     public SofaResponse decodeObject(AbstractByteBuf data, Map<String, String> context) throws SofaRpcException {
-        MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+        MemoryBuffer readBuffer = ForySerializer.toMemoryBuffer(data);
         try {
             boolean genericSerialize = context != null && isGenericResponse(
                 context.get(RemotingConstants.HEAD_GENERIC_TYPE));
@@ -84,7 +85,7 @@ public class SofaResponseForySerializer implements CustomSerializer<SofaResponse
             throw new SofaRpcException(RpcErrorType.CLIENT_DESERIALIZE, "Deserialized array is empty.");
         }
         try {
-            MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+            MemoryBuffer readBuffer = ForySerializer.toMemoryBuffer(data);
             boolean genericSerialize = context != null && isGenericResponse(
                 context.get(RemotingConstants.HEAD_GENERIC_TYPE));
             if (genericSerialize) {
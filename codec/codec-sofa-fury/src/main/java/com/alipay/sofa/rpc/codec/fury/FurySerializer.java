@@ -37,6 +37,7 @@ import io.fury.config.Language;
 import io.fury.memory.MemoryBuffer;
 import io.fury.resolver.AllowListChecker;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -144,7 +145,7 @@ public class FurySerializer extends AbstractSerializer {
             if (customSerializer != null) {
                 return customSerializer.decodeObject(data, context);
             } else {
-                MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+                MemoryBuffer readBuffer = toMemoryBuffer(data);
                 return fury.deserialize(readBuffer);
             }
         } catch (Exception e) {
@@ -172,4 +173,20 @@ public class FurySerializer extends AbstractSerializer {
         }
     }
 
+    /**
+     * 反序列化时的读缓冲区，数据在堆外时（例如 Netty 的直接内存）直接读取，不再拷贝成 byte[]
+     *
+     * @param data 数据
+     * @return 读缓冲区
+     * @since 5.14.3
+     */
+    public static MemoryBuffer toMemoryBuffer(AbstractByteBuf data) {
+        if (!data.hasArray()) {
+            ByteBuffer buffer = data.nioBuffer();
+            if (buffer.isDirect()) {
+                return MemoryBuffer.fromByteBuffer(buffer);
+            }
+        }
+        return MemoryBuffer.fromByteArray(data.array());
+    }
 }
@@ -17,6 +17,7 @@
 package com.alipay.sofa.rpc.codec.fury.serialize;
 
 import com.alipay.sofa.rpc.codec.CustomSerializer;
+import com.alipay.sofa.rpc.codec.fury.FurySerializer;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.config.ConfigUniqueNameGenerator;
 import com.alipay.sofa.rpc.core.exception.RpcErrorType;
@@ -66,7 +67,7 @@ public class SofaRequestFurySerializer implements CustomSerializer<SofaRequest>
 
     @Override
     public SofaRequest decodeObject(AbstractByteBuf data, Map<String, String> context) throws SofaRpcException {
-        MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+        MemoryBuffer readBuffer = FurySerializer.toMemoryBuffer(data);
         try {
             SofaRequest sofaRequest = (SofaRequest) fury.deserialize(readBuffer);
             String targetServiceName = sofaRequest.getTargetServiceUniqueName();
@@ -90,7 +91,7 @@ public class SofaRequestFurySerializer implements CustomSerializer<SofaRequest>
             throw new SofaRpcException(RpcErrorType.SERVER_DESERIALIZE, "Deserialized array is empty.");
         }
         try {
-            MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+            MemoryBuffer readBuffer = FurySerializer.toMemoryBuffer(data);
             SofaRequest tmp = (SofaRequest) fury.deserialize(readBuffer);
             String targetServiceName = tmp.getTargetServiceUniqueName();
             if (targetServiceName == null) {
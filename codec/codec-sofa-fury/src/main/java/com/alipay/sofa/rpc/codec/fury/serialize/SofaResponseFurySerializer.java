@@ -17,6 +17,7 @@
 package com.alipay.sofa.rpc.codec.fury.serialize;
 
 import com.alipay.sofa.rpc.codec.CustomSerializer;
+import com.alipay.sofa.rpc.codec.fury.FurySerializer;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.core.exception.RpcErrorType;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
@@ -54,7 +55,7 @@ public class SofaResponseFurySerializer implements CustomSerializer<SofaResponse
 
     @Override
     public SofaResponse decodeObject(AbstractByteBuf data, Map<String, String> context) throws SofaRpcException {
-        MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+        MemoryBuffer readBuffer = FurySerializer.toMemoryBuffer(data);
         try {
             boolean genericSerialize = context != null && isGenericResponse(
                 context.get(RemotingConstants.HEAD_GENERIC_TYPE));
@@ -75,7 +76,7 @@ public class SofaResponseFurySerializer implements CustomSerializer<SofaResponse
             throw new SofaRpcException(RpcErrorType.CLIENT_SERIALIZE, "Deserialized array is empty.");
         }
         try {
-            MemoryBuffer readBuffer = MemoryBuffer.fromByteArray(data.array());
+            MemoryBuffer readBuffer = FurySerializer.toMemoryBuffer(data);
             // 根据SerializeType信息决定序列化器
             boolean genericSerialize = context != null && isGenericResponse(
                 context.get(RemotingConstants.HEAD_GENERIC_TYPE));
@@ -27,7 +27,6 @@ import com.alipay.sofa.rpc.common.RpcConfigs;
 import com.alipay.sofa.rpc.common.RpcOptions;
 import com.alipay.sofa.rpc.common.SofaConfigs;
 import com.alipay.sofa.rpc.common.SofaOptions;
-import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
 import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.common.utils.ClassUtils;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
@@ -43,6 +42,8 @@ import com.caucho.hessian.io.Hessian2Output;
 import com.caucho.hessian.io.SerializerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -134,16 +135,25 @@ public class SofaHessianSerializer extends AbstractSerializer {
             return serializer.encodeObject(object, context);
         } else {
             UnsafeByteArrayOutputStream byteArray = new UnsafeByteArrayOutputStream();
-            Hessian2Output output = new Hessian2Output(byteArray);
+            encode(object, context, byteArray);
+            return new ByteStreamWrapperByteBuf(byteArray);
+        }
+    }
+
+    @Override
+    public void encode(Object object, Map<String, String> context, OutputStream out) throws SofaRpcException {
+        CustomHessianSerializer serializer = getCustomSerializer(object);
+        if (serializer != null) {
+            serializer.encodeObject(object, context, out);
+        } else {
+            Hessian2Output output = new Hessian2Output(out);
             try {
                 output.setSerializerFactory(serializerFactory);
                 output.writeObject(object);
                 output.close();
-                return new ByteStreamWrapperByteBuf(byteArray);
             } catch (Exception e) {
                 throw buildSerializeError(e.getMessage(), e);
             }
-
         }
     }
 
@@ -157,7 +167,7 @@ public class SofaHessianSerializer extends AbstractSerializer {
                 return serializer.decodeObject(data, context);
             } else {
                 try {
-                    UnsafeByteArrayInputStream inputStream = new UnsafeByteArrayInputStream(data.array());
+                    InputStream inputStream = data.inputStream();
                     Hessian2Input input = new Hessian2Input(inputStream);
                     input.setSerializerFactory(serializerFactory);
                     Object object = input.readObject();
@@ -16,9 +16,12 @@
  */
 package com.alipay.sofa.rpc.codec.sofahessian.serialize;
 
+import com.alipay.sofa.rpc.core.exception.RpcErrorType;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.transport.AbstractByteBuf;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -56,4 +59,21 @@ public interface CustomHessianSerializer<T> {
      * @throws SofaRpcException 序列化异常
      */
     public AbstractByteBuf encodeObject(T object, Map<String, String> context);
+
+    /**
+     * 序列化到指定的输出流，默认先序列化再写入
+     *
+     * @param object  对象
+     * @param context 上下文
+     * @param out     输出流
+     * @throws SofaRpcException 序列化异常
+     * @since 5.14.3
+     */
+    default void encodeObject(T object, Map<String, String> context, OutputStream out) throws SofaRpcException {
+        try {
+            encodeObject(object, context).writeTo(out);
+        } catch (IOException e) {
+            throw new SofaRpcException(RpcErrorType.UNKNOWN, e.getMessage(), e);
+        }
+    }
 }
\ No newline at end of file
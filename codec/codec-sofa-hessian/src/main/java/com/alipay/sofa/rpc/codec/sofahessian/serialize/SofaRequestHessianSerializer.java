@@ -17,7 +17,6 @@
 package com.alipay.sofa.rpc.codec.sofahessian.serialize;
 
 import com.alipay.sofa.rpc.common.RemotingConstants;
-import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
 import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.common.utils.ClassTypeUtils;
 import com.alipay.sofa.rpc.config.ConfigUniqueNameGenerator;
@@ -30,6 +29,8 @@ import com.caucho.hessian.io.Hessian2Output;
 import com.caucho.hessian.io.SerializerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -46,7 +47,7 @@ public class SofaRequestHessianSerializer extends AbstractCustomHessianSerialize
     public void decodeObjectByTemplate(AbstractByteBuf data, Map<String, String> context, SofaRequest template)
         throws SofaRpcException {
         try {
-            UnsafeByteArrayInputStream inputStream = new UnsafeByteArrayInputStream(data.array());
+            InputStream inputStream = data.inputStream();
             Hessian2Input input = new Hessian2Input(inputStream);
             input.setSerializerFactory(serializerFactory);
             Object object = input.readObject();
@@ -82,7 +83,7 @@ public class SofaRequestHessianSerializer extends AbstractCustomHessianSerialize
     @Override
     public SofaRequest decodeObject(AbstractByteBuf data, Map<String, String> context) throws SofaRpcException {
         try {
-            UnsafeByteArrayInputStream inputStream = new UnsafeByteArrayInputStream(data.array());
+            InputStream inputStream = data.inputStream();
             Hessian2Input input = new Hessian2Input(inputStream);
             input.setSerializerFactory(serializerFactory);
             Object object = input.readObject();
@@ -111,8 +112,14 @@ public class SofaRequestHessianSerializer extends AbstractCustomHessianSerialize
 
     @Override
     public AbstractByteBuf encodeObject(SofaRequest sofaRequest, Map<String, String> context) {
+        UnsafeByteArrayOutputStream outputStream = new UnsafeByteArrayOutputStream();
+        encodeObject(sofaRequest, context, outputStream);
+        return new ByteStreamWrapperByteBuf(outputStream);
+    }
+
+    @Override
+    public void encodeObject(SofaRequest sofaRequest, Map<String, String> context, OutputStream outputStream) {
         try {
-            UnsafeByteArrayOutputStream outputStream = new UnsafeByteArrayOutputStream();
             Hessian2Output output = new Hessian2Output(outputStream);
 
             // 根据SerializeType信息决定序列化器
@@ -132,10 +139,8 @@ public class SofaRequestHessianSerializer extends AbstractCustomHessianSerialize
                 }
             }
             output.close();
-
-            return new ByteStreamWrapperByteBuf(outputStream);
         } catch (IOException e) {
             throw buildSerializeError(e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
@@ -18,7 +18,6 @@ package com.alipay.sofa.rpc.codec.sofahessian.serialize;
 
 import com.alipay.hessian.generic.model.GenericObject;
 import com.alipay.sofa.rpc.common.RemotingConstants;
-import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
 import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
@@ -29,6 +28,8 @@ import com.caucho.hessian.io.Hessian2Output;
 import com.caucho.hessian.io.SerializerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 import static com.alipay.sofa.rpc.codec.sofahessian.serialize.GenericCustomThrowableDeterminer.judgeCustomThrowableForGenericObject;
@@ -47,7 +48,7 @@ public class SofaResponseHessianSerializer extends AbstractCustomHessianSerializ
     public void decodeObjectByTemplate(AbstractByteBuf data, Map<String, String> context, SofaResponse template)
         throws SofaRpcException {
         try {
-            UnsafeByteArrayInputStream inputStream = new UnsafeByteArrayInputStream(data.array());
+            InputStream inputStream = data.inputStream();
             Hessian2Input input = new Hessian2Input(inputStream);
             // 根据SerializeType信息决定序列化器
             boolean genericSerialize = context != null && isGenericResponse(
@@ -75,7 +76,7 @@ public class SofaResponseHessianSerializer extends AbstractCustomHessianSerializ
     @Override
     public SofaResponse decodeObject(AbstractByteBuf data, Map<String, String> context) throws SofaRpcException {
         try {
-            UnsafeByteArrayInputStream inputStream = new UnsafeByteArrayInputStream(data.array());
+            InputStream inputStream = data.inputStream();
             Hessian2Input input = new Hessian2Input(inputStream);
             // 根据SerializeType信息决定序列化器
             Object object;
@@ -103,15 +104,20 @@ public class SofaResponseHessianSerializer extends AbstractCustomHessianSerializ
 
     @Override
     public AbstractByteBuf encodeObject(SofaResponse sofaResponse, Map<String, String> context) {
+        UnsafeByteArrayOutputStream byteArray = new UnsafeByteArrayOutputStream();
+        encodeObject(sofaResponse, context, byteArray);
+        return new ByteStreamWrapperByteBuf(byteArray);
+    }
+
+    @Override
+    public void encodeObject(SofaResponse sofaResponse, Map<String, String> context, OutputStream outputStream) {
         try {
-            UnsafeByteArrayOutputStream byteArray = new UnsafeByteArrayOutputStream();
-            Hessian2Output output = new Hessian2Output(byteArray);
+            Hessian2Output output = new Hessian2Output(outputStream);
             output.setSerializerFactory(serializerFactory);
             output.writeObject(sofaResponse);
             output.close();
-            return new ByteStreamWrapperByteBuf(byteArray);
         } catch (IOException e) {
             throw buildSerializeError(e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.sofahessian;
+
+import com.alipay.sofa.rpc.codec.Compressor;
+import com.alipay.sofa.rpc.codec.CompressorFactory;
+import com.alipay.sofa.rpc.codec.common.CompressDictionaries;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+import com.github.luben.zstd.Zstd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各压缩算法在 1~4KB 的 SofaRequest/SofaResponse 报文上的压缩、解压吞吐，启动时打印压缩比
+ * <p>
+ * dictionary=true 时用一半报文训练 zstd 字典作为该服务的字典，另一半报文参与压测，只有 zstd 使用字典
+ *
+ * @since 5.14.3
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompressorBenchMark {
+
+    private static final String SERVICE     = "com.alipay.sofa.rpc.bench.OrderService";
+
+    private static final int    CORPUS_SIZE = 256;
+
+    private static final int    DICT_SIZE   = 16 * 1024;
+
+    @Param({ "gzip", "snappy", "lz4", "zstd" })
+    private String              codec;
+
+    @Param({ "request", "response" })
+    private String              payload;
+
+    @Param({ "false", "true" })
+    private boolean             dictionary;
+
+    private Compressor          compressor;
+
+    private byte[][]            raws;
+
+    private byte[][]            compressed;
+
+    private int                 index;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(CompressorBenchMark.class.getSimpleName())
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        compressor = CompressorFactory.getCompressor(codec);
+        byte[][] corpus = buildCorpus("request".equals(payload));
+        byte[][] samples = Arrays.copyOfRange(corpus, 0, CORPUS_SIZE / 2);
+        raws = Arrays.copyOfRange(corpus, CORPUS_SIZE / 2, CORPUS_SIZE);
+        if (dictionary) {
+            byte[] dict = new byte[DICT_SIZE];
+            long size = Zstd.trainFromBuffer(samples, dict);
+            CompressDictionaries.register(SERVICE, Arrays.copyOf(dict, (int) size));
+        }
+        compressed = new byte[raws.length][];
+        long rawTotal = 0;
+        long compressedTotal = 0;
+        for (int i = 0; i < raws.length; i++) {
+            compressed[i] = compress(raws[i]);
+            rawTotal += raws[i].length;
+            compressedTotal += compressed[i].length;
+        }
+        System.out.printf("%n%s %s dictionary=%s: avg %d bytes, ratio %.3f%n", codec, payload, dictionary,
+            rawTotal / raws.length, (double) compressedTotal / rawTotal);
+    }
+
+    @TearDown
+    public void tearDown() {
+        CompressDictionaries.unregister(SERVICE);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return compress(raws[next()]);
+    }
+
+    @Benchmark
+    public byte[] deCompress() {
+        return compressor.deCompress(compressed[next()]);
+    }
+
+    private int next() {
+        int i = index++;
+        if (index == raws.length) {
+            index = 0;
+        }
+        return i;
+    }
+
+    private byte[] compress(byte[] raw) throws IOException {
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream(raw.length);
+        try (OutputStream compressOut = compressor.compress(out, SERVICE)) {
+            compressOut.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 模拟业务报文：字段名和大部分取值重复，只有编号、金额、时间等字段变化
+     */
+    private static byte[][] buildCorpus(boolean request) {
+        SofaHessianSerializer serializer = new SofaHessianSerializer();
+        Random random = new Random(20240501L);
+        byte[][] corpus = new byte[CORPUS_SIZE][];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            Map<String, Object> order = buildOrder(random, 8 + random.nextInt(24));
+            Object message;
+            if (request) {
+                SofaRequest sofaRequest = new SofaRequest();
+                sofaRequest.setInterfaceName(SERVICE);
+                sofaRequest.setTargetServiceUniqueName(SERVICE + ":1.0");
+                sofaRequest.setMethodName("createOrder");
+                sofaRequest.setMethodArgs(new Object[] { order });
+                sofaRequest.setMethodArgSigs(new String[] { Map.class.getName() });
+                sofaRequest.setTargetAppName("order-center");
+                message = sofaRequest;
+            } else {
+                SofaResponse sofaResponse = new SofaResponse();
+                sofaResponse.setAppResponse(order);
+                message = sofaResponse;
+            }
+            corpus[i] = serializer.encode(message, new HashMap<String, String>()).array();
+        }
+        return corpus;
+    }
+
+    private static Map<String, Object> buildOrder(Random random, int itemCount) {
+        Map<String, Object> order = new HashMap<String, Object>();
+        order.put("orderId", "20240501" + (100000000L + random.nextInt(900000000)));
+        order.put("buyerId", "2088" + (100000000000L + random.nextInt(1000000000)));
+        order.put("status", random.nextBoolean() ? "WAIT_BUYER_PAY" : "TRADE_SUCCESS");
+        order.put("currency", "CNY");
+        order.put("channel", "ALIPAY_APP");
+        order.put("createTime", 1714521600000L + random.nextInt(86400000));
+        List<Map<String, Object>> items = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < itemCount; i++) {
+            Map<String, Object> item = new HashMap<String, Object>();
+            item.put("skuId", "SKU" + (10000 + random.nextInt(500)));
+            item.put("title", "SOFAStack 定制款周边 " + random.nextInt(20));
+            item.put("quantity", 1 + random.nextInt(5));
+            item.put("price", (1 + random.nextInt(100000)) / 100.0d);
+            item.put("promotion", random.nextInt(4) == 0 ? "FULL_REDUCTION" : "NONE");
+            items.add(item);
+        }
+        order.put("items", items);
+        return order;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.sofahessian;
+
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+import com.alipay.sofa.rpc.transport.AbstractByteBuf;
+import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆外数据反序列化：先拷贝成 byte[] 再解析，和直接从缓冲区中解析对比
+ *
+ * @since 5.14.3
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HessianDecodeBenchMark {
+
+    @Param({ "1024", "65536", "4194304" })
+    private int                   size;
+
+    private SofaHessianSerializer serializer;
+
+    private AbstractByteBuf       data;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(HessianDecodeBenchMark.class.getSimpleName())
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        serializer = new SofaHessianSerializer();
+        SofaResponse response = new SofaResponse();
+        response.setAppResponse(new byte[size]);
+        byte[] bs = serializer.encode(response, null).array();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bs.length);
+        buffer.put(bs).flip();
+        data = new DirectByteBuf(buffer);
+    }
+
+    @Benchmark
+    public Object copy() {
+        return serializer.decode(new ByteArrayWrapperByteBuf(data.array()), SofaResponse.class, null);
+    }
+
+    @Benchmark
+    public Object inPlace() {
+        return serializer.decode(data, SofaResponse.class, null);
+    }
+
+    /**
+     * 模拟网络层的堆外缓冲区
+     */
+    private static class DirectByteBuf extends AbstractByteBuf {
+
+        private final ByteBuffer buffer;
+
+        DirectByteBuf(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public byte[] array() {
+            byte[] bs = new byte[buffer.remaining()];
+            buffer.duplicate().get(bs);
+            return bs;
+        }
+
+        @Override
+        public int readableBytes() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean hasArray() {
+            return false;
+        }
+
+        @Override
+        public InputStream inputStream() {
+            final ByteBuffer view = buffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    int n = Math.min(len, view.remaining());
+                    view.get(b, off, n);
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public boolean release() {
+            return true;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.alipay.sofa.rpc.codec.sofahessian;
 import com.alipay.hessian.generic.model.GenericObject;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
 import com.alipay.sofa.rpc.core.request.RequestBase;
@@ -26,6 +27,7 @@ import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
 import com.alipay.sofa.rpc.invoke.Invoker;
 import com.alipay.sofa.rpc.transport.AbstractByteBuf;
+import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -148,6 +150,39 @@ public class SofaHessianSerializerTest {
         Assert.assertEquals(response.getAppResponse(), newResponse.getAppResponse());
     }
 
+    @Test
+    public void encodeToStream() throws Exception {
+        Object[] objects = new Object[] { "xxx", buildRequest(), new SofaResponse() };
+        for (Object object : objects) {
+            UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream();
+            serializer.encode(object, null, out);
+            Assert.assertArrayEquals(serializer.encode(object, null).array(), out.toByteArray());
+        }
+
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream();
+        serializer.encode(buildRequest(), null, out);
+        SofaRequest newRequest = (SofaRequest) serializer.decode(new ByteArrayWrapperByteBuf(out.toByteArray()),
+            SofaRequest.class, null);
+        Assert.assertEquals("invoke", newRequest.getMethodName());
+        Assert.assertEquals(1, newRequest.getMethodArgs().length);
+    }
+
+    @Test
+    public void decodeFromStream() throws Exception {
+        // ByteStreamWrapperByteBuf 没有现成的 byte[]，从输入流中解析
+        AbstractByteBuf data = serializer.encode(buildRequest(), null);
+        Assert.assertFalse(data.hasArray());
+        SofaRequest newRequest = (SofaRequest) serializer.decode(data, SofaRequest.class, null);
+        Assert.assertEquals("invoke", newRequest.getMethodName());
+
+        SofaRequest template = new SofaRequest();
+        serializer.decode(data, template, null);
+        Assert.assertEquals("invoke", template.getMethodName());
+
+        data = serializer.encode("xxx", null);
+        Assert.assertEquals("xxx", serializer.decode(data, String.class, null));
+    }
+
     private SofaRequest buildRequest() throws NoSuchMethodException {
         SofaRequest request = new SofaRequest();
         request.setInterfaceName(Invoker.class.getName());
@@ -27,6 +27,8 @@ import com.alipay.sofa.rpc.common.utils.CommonUtils;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
 import com.alipay.sofa.rpc.config.ConsumerConfig;
 import com.alipay.sofa.rpc.context.AsyncRuntime;
+import com.alipay.sofa.rpc.context.InvokePhase;
+import com.alipay.sofa.rpc.context.PhaseTimings;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.context.RpcRuntimeContext;
@@ -53,6 +55,8 @@ import com.alipay.sofa.rpc.listener.ConsumerStateListener;
 import com.alipay.sofa.rpc.log.LogCodes;
 import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
+import com.alipay.sofa.rpc.message.AbstractResponseFuture;
+import com.alipay.sofa.rpc.message.MethodDescriptor;
 import com.alipay.sofa.rpc.message.ResponseFuture;
 import com.alipay.sofa.rpc.transport.ClientTransport;
 
@@ -388,7 +392,7 @@ public abstract class AbstractCluster extends Cluster {
      * @throws SofaRpcException rpc异常
      */
     protected ProviderInfo select(SofaRequest message, List<ProviderInfo> invokedProviderInfos)
-            throws SofaRpcException {
+        throws SofaRpcException {
         // 粘滞连接，当前连接可用
         if (consumerConfig.isSticky()) {
             if (lastProviderInfo != null) {
@@ -406,8 +410,9 @@ public abstract class AbstractCluster extends Cluster {
         List<ProviderInfo> providerInfos = routerChain.route(message, null);
         RpcInternalContext context = RpcInternalContext.peekContext();
         RpcInvokeContext rpcInvokeContext = RpcInvokeContext.getContext();
-        rpcInvokeContext.put(RpcConstants.INTERNAL_KEY_CLIENT_ROUTER_TIME_NANO, System.nanoTime()-routerStartTime);
+        rpcInvokeContext.recordPhase(InvokePhase.CLIENT_ROUTER_TIME_NANO, System.nanoTime() - routerStartTime);
         //保存一下原始地址,为了打印
+        //路由结果可能是地址管理器发布的只读快照，正常路径下不复制，只有需要剔除地址时才复制一份
         List<ProviderInfo> originalProviderInfos;
 
         if (CommonUtils.isEmpty(providerInfos)) {
@@ -428,14 +433,15 @@ public abstract class AbstractCluster extends Cluster {
 
             throw noAvailableProviderException(message.getTargetServiceUniqueName());
         } else {
-            originalProviderInfos = new ArrayList<>(providerInfos);
+            originalProviderInfos = providerInfos;
         }
         if (CommonUtils.isNotEmpty(invokedProviderInfos)) {
             // 已经调用异常的本次不再重试
-            providerInfos.removeAll(invokedProviderInfos);
+            List<ProviderInfo> remainProviderInfos = new ArrayList<ProviderInfo>(providerInfos);
+            remainProviderInfos.removeAll(invokedProviderInfos);
             // If all providers have retried once, then select by loadBalancer without filter.
-            if(CommonUtils.isEmpty(providerInfos)){
-                providerInfos = originalProviderInfos;
+            if (CommonUtils.isNotEmpty(remainProviderInfos)) {
+                providerInfos = remainProviderInfos;
             }
         }
 
@@ -459,17 +465,22 @@ public abstract class AbstractCluster extends Cluster {
                 // 再进行负载均衡筛选
                 long loadBalanceStartTime = System.nanoTime();
                 providerInfo = loadBalancer.select(message, providerInfos);
-                rpcInvokeContext.put(RpcConstants.INTERNAL_KEY_CLIENT_BALANCER_TIME_NANO, System.nanoTime()-loadBalanceStartTime);
+                rpcInvokeContext.recordPhase(InvokePhase.CLIENT_BALANCER_TIME_NANO, System.nanoTime() -
+                    loadBalanceStartTime);
 
                 ClientTransport transport = selectByProvider(message, providerInfo);
                 if (transport != null) {
                     return providerInfo;
                 }
+                if (providerInfos == originalProviderInfos) {
+                    // 不能修改原始列表（可能是只读快照），第一次剔除时复制
+                    providerInfos = new ArrayList<ProviderInfo>(providerInfos);
+                }
                 providerInfos.remove(providerInfo);
             } while (!providerInfos.isEmpty());
         }
         throw unavailableProviderException(message.getTargetServiceUniqueName(),
-                convertProviders2Urls(originalProviderInfos));
+            convertProviders2Urls(originalProviderInfos));
     }
 
     /**
@@ -560,26 +571,26 @@ public abstract class AbstractCluster extends Cluster {
     protected SofaResponse filterChain(ProviderInfo providerInfo, SofaRequest request) throws SofaRpcException {
         RpcInternalContext context = RpcInternalContext.getContext();
         context.setProviderInfo(providerInfo);
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CONSUMER_FILTER_START_TIME_NANO, System.nanoTime());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.CONSUMER_FILTER_START_TIME_NANO, System.nanoTime());
         SofaResponse sofaResponse = filterChain.invoke(request);
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CONSUMER_FILTER_END_TIME_NANO, System.nanoTime());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.CONSUMER_FILTER_END_TIME_NANO, System.nanoTime());
         calculateConsumerFilterTime();
         return sofaResponse;
     }
 
     private void calculateConsumerFilterTime() {
         // R3: Record consumer filter execution time
-        Long filterStartTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_CONSUMER_FILTER_START_TIME_NANO);
-        Long filterEndTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_CONSUMER_FILTER_END_TIME_NANO);
-        Long invokerStartTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_CONSUMER_INVOKE_START_TIME_NANO);
-        Long invokerEndTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_CONSUMER_INVOKE_END_TIME_NANO);
-        if (filterStartTime != null && filterEndTime != null && invokerStartTime != null && invokerEndTime != null) {
-            RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CLIENT_FILTER_TIME_NANO,
-                filterEndTime - filterStartTime - (invokerEndTime - invokerStartTime));
+        RpcInvokeContext invokeContext = RpcInvokeContext.getContext();
+        PhaseTimings timings = invokeContext.getPhaseTimings();
+        if (timings == null) {
+            return;
+        }
+        long filterTime = timings.between(InvokePhase.CONSUMER_FILTER_START_TIME_NANO,
+            InvokePhase.CONSUMER_FILTER_END_TIME_NANO);
+        long invokeTime = timings.between(InvokePhase.CONSUMER_INVOKE_START_TIME_NANO,
+            InvokePhase.CONSUMER_INVOKE_END_TIME_NANO);
+        if (filterTime >= 0 && invokeTime >= 0) {
+            invokeContext.recordPhase(InvokePhase.CLIENT_FILTER_TIME_NANO, filterTime - invokeTime);
         }
     }
 
@@ -587,7 +598,7 @@ public abstract class AbstractCluster extends Cluster {
     public SofaResponse sendMsg(ProviderInfo providerInfo, SofaRequest request) throws SofaRpcException {
         long start = System.nanoTime();
         ClientTransport clientTransport = connectionHolder.getAvailableClientTransport(providerInfo);
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CONN_CREATE_TIME_NANO, System.nanoTime() - start);
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.CONN_CREATE_TIME_NANO, System.nanoTime() - start);
         if (clientTransport != null && clientTransport.isAvailable()) {
             return doSendMsg(providerInfo, clientTransport, request);
         } else {
@@ -608,6 +619,9 @@ public abstract class AbstractCluster extends Cluster {
         RpcInternalContext context = RpcInternalContext.getContext();
         // 添加调用的服务端远程地址
         RpcInternalContext.getContext().setRemoteAddress(providerInfo.getHost(), providerInfo.getPort());
+        // 需要感知调用结束的负载均衡
+        InvokeTracker tracker = null;
+        SofaResponseCallback originCallback = request.getSofaResponseCallback();
         try {
             checkProviderVersion(providerInfo, request); // 根据服务端版本特殊处理
             String invokeType = request.getInvokeType();
@@ -627,12 +641,18 @@ public abstract class AbstractCluster extends Cluster {
             }
 
             request.setTimeout(timeout);
+            if (loadBalancer instanceof InvokeAwareLoadBalancer) {
+                tracker = InvokeTracker.start((InvokeAwareLoadBalancer) loadBalancer, providerInfo, request);
+            }
             SofaResponse response = null;
             // 同步调用
             if (RpcConstants.INVOKER_TYPE_SYNC.equals(invokeType)) {
                 long start = RpcRuntimeContext.now();
                 try {
                     response = transport.syncSend(request, timeout);
+                    if (tracker != null) {
+                        tracker.end(response != null && !response.isError());
+                    }
                 } finally {
                     if (RpcInternalContext.isAttachmentEnable()) {
                         long elapsed = RpcRuntimeContext.now() - start;
@@ -645,6 +665,9 @@ public abstract class AbstractCluster extends Cluster {
                 long start = RpcRuntimeContext.now();
                 try {
                     transport.oneWaySend(request, timeout);
+                    if (tracker != null) {
+                        tracker.end(true);
+                    }
                     response = buildEmptyResponse(request);
                 } finally {
                     if (RpcInternalContext.isAttachmentEnable()) {
@@ -664,10 +687,17 @@ public abstract class AbstractCluster extends Cluster {
                         request.setSofaResponseCallback(methodResponseCallback);
                     }
                 }
+                // 没有回调时传输层会转为future调用，由future通知调用结束
+                if (tracker != null && request.getSofaResponseCallback() != null) {
+                    request.setSofaResponseCallback(tracker.wrap(request.getSofaResponseCallback()));
+                }
                 // 记录发送开始时间
                 context.setAttachment(RpcConstants.INTERNAL_KEY_CLIENT_SEND_TIME, RpcRuntimeContext.now());
                 // 开始调用
-                transport.asyncSend(request, timeout);
+                ResponseFuture future = transport.asyncSend(request, timeout);
+                if (tracker != null && tracker.getDelegate() == null) {
+                    trackFuture(tracker, future);
+                }
                 response = buildEmptyResponse(request);
             }
             // Future调用
@@ -676,6 +706,9 @@ public abstract class AbstractCluster extends Cluster {
                 context.setAttachment(RpcConstants.INTERNAL_KEY_CLIENT_SEND_TIME, RpcRuntimeContext.now());
                 // 开始调用
                 ResponseFuture future = transport.asyncSend(request, timeout);
+                if (tracker != null) {
+                    trackFuture(tracker, future);
+                }
                 // 放入线程上下文
                 RpcInternalContext.getContext().setFuture(future);
                 response = buildEmptyResponse(request);
@@ -684,12 +717,42 @@ public abstract class AbstractCluster extends Cluster {
             }
             return response;
         } catch (SofaRpcException e) {
+            endOnSendFailure(tracker, request, originCallback);
             throw e;
         } catch (Throwable e) { // 客户端其它异常
+            endOnSendFailure(tracker, request, originCallback);
             throw new SofaRpcException(RpcErrorType.CLIENT_UNDECLARED_ERROR, e);
         }
     }
 
+    /**
+     * future完成时通知调用结束，不支持完成回调的future在发送后即结束
+     *
+     * @param tracker 调用记录
+     * @param future  future
+     */
+    private void trackFuture(InvokeTracker tracker, ResponseFuture future) {
+        if (future instanceof AbstractResponseFuture) {
+            ((AbstractResponseFuture) future).setCompletionCallback(tracker);
+        } else {
+            tracker.end(true);
+        }
+    }
+
+    /**
+     * 发送失败（含同步调用异常），通知调用结束并还原请求上的回调，避免重试时重复包装
+     *
+     * @param tracker        调用记录
+     * @param request        请求
+     * @param originCallback 原始回调
+     */
+    private void endOnSendFailure(InvokeTracker tracker, SofaRequest request, SofaResponseCallback originCallback) {
+        if (tracker != null) {
+            tracker.end(false);
+            request.setSofaResponseCallback(originCallback);
+        }
+    }
+
     private SofaResponse buildEmptyResponse(SofaRequest request) {
         SofaResponse response = new SofaResponse();
         Method method = request.getMethod();
@@ -731,7 +794,11 @@ public abstract class AbstractCluster extends Cluster {
         Integer timeout = request.getTimeout();
         if (timeout == null || timeout <= 0) {
             // 取客户端配置（先方法级别再接口级别）
-            timeout = consumerConfig.getMethodTimeout(request.getMethodName());
+            // 过滤器可能改写方法名（例如泛化调用），此时不能使用代理生成时的方法描述
+            MethodDescriptor descriptor = request.getMethodDescriptor();
+            timeout = descriptor != null && descriptor.getMethodName().equals(request.getMethodName())
+                ? consumerConfig.getMethodTimeout(descriptor)
+                : consumerConfig.getMethodTimeout(request.getMethodName());
             if (timeout == null || timeout <= 0) {
                 // 再取服务端配置
                 timeout = StringUtils.parseInteger(providerInfo.getAttr(ATTR_TIMEOUT));
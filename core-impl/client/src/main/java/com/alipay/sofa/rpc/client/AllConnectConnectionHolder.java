@@ -40,20 +40,27 @@ import com.alipay.sofa.rpc.transport.ClientTransport;
 import com.alipay.sofa.rpc.transport.ClientTransportConfig;
 import com.alipay.sofa.rpc.transport.ClientTransportFactory;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -95,45 +102,146 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
     protected AllConnectConnectionHolder(ConsumerBootstrap consumerBootstrap) {
         super(consumerBootstrap);
         this.consumerConfig = consumerBootstrap.getConsumerConfig();
+        String poolMax = consumerConfig.getParameter(RpcConstants.CONFIG_KEY_CONNECTION_POOL_MAX);
+        this.poolMaxSize = StringUtils.isBlank(poolMax) ? RpcConfigs
+            .getIntValue(RpcOptions.CONSUMER_CONNECTION_POOL_MAX) : Integer.parseInt(poolMax);
+        String select = consumerConfig.getParameter(RpcConstants.CONFIG_KEY_CONNECTION_SELECT);
+        this.poolSelect = StringUtils.isBlank(select) ? RpcConfigs
+            .getStringValue(RpcOptions.CONSUMER_CONNECTION_SELECT) : select;
+        this.poolGrowPending = RpcConfigs.getIntValue(RpcOptions.CONSUMER_CONNECTION_POOL_GROW_PENDING);
+        this.poolGrowBytes = RpcConfigs.<Number> getOrDefaultValue(RpcOptions.CONSUMER_CONNECTION_POOL_GROW_BYTES,
+            0L).longValue();
     }
 
     /**
-     * 未初始化的（从未连接过，例如lazy=true）
+     * 连接池最大连接数，不大于1时不使用连接池
      */
-    protected ConcurrentMap<ProviderInfo, ClientTransport> uninitializedConnections = new ConcurrentHashMap<ProviderInfo, ClientTransport>();
+    private final int                                               poolMaxSize;
 
     /**
-     * 存活的客户端列表（保持了长连接，且一切正常的）
+     * 连接池选择连接的方式
      */
-    protected ConcurrentMap<ProviderInfo, ClientTransport> aliveConnections         = new ConcurrentHashMap<ProviderInfo, ClientTransport>();
+    private final String                                            poolSelect;
 
     /**
-     * 存活但是亚健康节点（连续心跳超时，这种只发心跳，不发请求）
+     * 连接池扩容阈值：平均每个连接的在途请求数
+     */
+    private final int                                               poolGrowPending;
+
+    /**
+     * 连接池扩容阈值：平均每个连接每秒发送的字节数
+     */
+    private final long                                              poolGrowBytes;
+
+    /**
+     * 连接状态：未初始化的（从未连接过，例如lazy=true）
+     */
+    protected static final int                                      STATE_UNINITIALIZED      = 0;
+
+    /**
+     * 连接状态：存活的（保持了长连接，且一切正常的）
+     */
+    protected static final int                                      STATE_ALIVE              = 1;
+
+    /**
+     * 连接状态：存活但是亚健康（连续心跳超时，这种只发心跳，不发请求）
+     */
+    protected static final int                                      STATE_SUB_HEALTH         = 2;
+
+    /**
+     * 连接状态：失败待重试的（连上后断开的）
      */
-    protected ConcurrentMap<ProviderInfo, ClientTransport> subHealthConnections     = new ConcurrentHashMap<ProviderInfo, ClientTransport>();
+    protected static final int                                      STATE_RETRY              = 3;
 
     /**
-     * 失败待重试的客户端列表（连上后断开的）
+     * 连接状态：已删除，记录不再使用
      */
-    protected ConcurrentMap<ProviderInfo, ClientTransport> retryConnections         = new ConcurrentHashMap<ProviderInfo, ClientTransport>();
+    protected static final int                                      STATE_REMOVED            = 4;
+
+    /**
+     * 全部服务端的连接记录，每个服务端一条，状态通过 CAS 切换
+     *
+     * @since 5.14.3
+     */
+    protected final ConcurrentMap<ProviderInfo, ProviderConnection> connections              = new ConcurrentHashMap<ProviderInfo, ProviderConnection>();
+
+    /**
+     * 存活的连接数
+     */
+    private final AtomicInteger                                     aliveCount               = new AtomicInteger();
+
+    /**
+     * 亚健康的连接数
+     */
+    private final AtomicInteger                                     subHealthCount           = new AtomicInteger();
 
     /**
      * last address for registry pushed
      */
-    protected Set<ProviderInfo>                            lastAddresses            = new HashSet<ProviderInfo>();
+    protected Set<ProviderInfo>                                     lastAddresses            = new ConcurrentHashSet<ProviderInfo>();
+
+    /**
+     * 未初始化的（从未连接过，例如lazy=true）
+     *
+     * @deprecated 状态记录在 {@link #connections} 中，这里是按状态过滤的视图，读写都直接作用到 {@link #connections}
+     */
+    @Deprecated
+    protected ConcurrentMap<ProviderInfo, ClientTransport>          uninitializedConnections = new StateConnectionMap(
+                                                                                                 STATE_UNINITIALIZED);
 
     /**
-     * 客户端变化provider的锁
+     * 存活的（保持了长连接，且一切正常的）
+     *
+     * @deprecated 状态记录在 {@link #connections} 中，这里是按状态过滤的视图，读写都直接作用到 {@link #connections}
      */
-    protected Lock                                         providerLock             = new ReentrantLock();
+    @Deprecated
+    protected ConcurrentMap<ProviderInfo, ClientTransport>          aliveConnections         = new StateConnectionMap(
+                                                                                                 STATE_ALIVE);
+
+    /**
+     * 存活但是亚健康节点（连续心跳超时，这种只发心跳，不发请求）
+     *
+     * @deprecated 状态记录在 {@link #connections} 中，这里是按状态过滤的视图，读写都直接作用到 {@link #connections}
+     */
+    @Deprecated
+    protected ConcurrentMap<ProviderInfo, ClientTransport>          subHealthConnections     = new StateConnectionMap(
+                                                                                                 STATE_SUB_HEALTH);
+
+    /**
+     * 失败待重试的（连上后断开的）
+     *
+     * @deprecated 状态记录在 {@link #connections} 中，这里是按状态过滤的视图，读写都直接作用到 {@link #connections}
+     */
+    @Deprecated
+    protected ConcurrentMap<ProviderInfo, ClientTransport>          retryConnections         = new StateConnectionMap(
+                                                                                                 STATE_RETRY);
+
+    /**
+     * 子类组合多个操作时使用的锁
+     *
+     * @deprecated 状态切换改为对单条记录 CAS，本类内部不再使用这把锁
+     */
+    @Deprecated
+    protected Lock                                                  providerLock             = new ReentrantLock();
 
     /**
      * Gets retry connections.
      *
-     * @return the retry connections
+     * @return the retry connections (snapshot)
      */
     public ConcurrentMap<ProviderInfo, ClientTransport> getRetryConnections() {
-        return retryConnections;
+        return snapshot(STATE_RETRY);
+    }
+
+    /**
+     * Add uninitialized, the transport will be connected on first use.
+     *
+     * @param providerInfo the provider
+     * @param transport    the transport
+     * @since 5.14.3
+     */
+    protected void addUninitialized(ProviderInfo providerInfo, ClientTransport transport) {
+        putConnection(providerInfo, transport, STATE_UNINITIALIZED);
     }
 
     /**
@@ -144,7 +252,7 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      */
     protected void addAlive(ProviderInfo providerInfo, ClientTransport transport) {
         if (checkState(providerInfo, transport)) {
-            aliveConnections.put(providerInfo, transport);
+            putConnection(providerInfo, transport, STATE_ALIVE);
         }
     }
 
@@ -155,7 +263,7 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @param transport    the transport
      */
     protected void addRetry(ProviderInfo providerInfo, ClientTransport transport) {
-        retryConnections.put(providerInfo, transport);
+        putConnection(providerInfo, transport, STATE_RETRY);
     }
 
     /**
@@ -165,14 +273,7 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @param transport    连接
      */
     protected void aliveToRetry(ProviderInfo providerInfo, ClientTransport transport) {
-        providerLock.lock();
-        try {
-            if (aliveConnections.remove(providerInfo) != null) {
-                retryConnections.put(providerInfo, transport);
-            }
-        } finally {
-            providerLock.unlock();
-        }
+        transition(providerInfo, STATE_ALIVE, STATE_RETRY);
     }
 
     /**
@@ -182,15 +283,8 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @param transport    连接
      */
     protected void retryToAlive(ProviderInfo providerInfo, ClientTransport transport) {
-        providerLock.lock();
-        try {
-            if (retryConnections.remove(providerInfo) != null) {
-                if (checkState(providerInfo, transport)) {
-                    aliveConnections.put(providerInfo, transport);
-                }
-            }
-        } finally {
-            providerLock.unlock();
+        if (checkState(providerInfo, transport)) {
+            transition(providerInfo, STATE_RETRY, STATE_ALIVE);
         }
     }
 
@@ -218,14 +312,7 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @param transport    连接
      */
     protected void aliveToSubHealth(ProviderInfo providerInfo, ClientTransport transport) {
-        providerLock.lock();
-        try {
-            if (aliveConnections.remove(providerInfo) != null) {
-                subHealthConnections.put(providerInfo, transport);
-            }
-        } finally {
-            providerLock.unlock();
-        }
+        transition(providerInfo, STATE_ALIVE, STATE_SUB_HEALTH);
     }
 
     /**
@@ -235,15 +322,8 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @param transport    连接
      */
     protected void subHealthToAlive(ProviderInfo providerInfo, ClientTransport transport) {
-        providerLock.lock();
-        try {
-            if (subHealthConnections.remove(providerInfo) != null) {
-                if (checkState(providerInfo, transport)) {
-                    aliveConnections.put(providerInfo, transport);
-                }
-            }
-        } finally {
-            providerLock.unlock();
+        if (checkState(providerInfo, transport)) {
+            transition(providerInfo, STATE_SUB_HEALTH, STATE_ALIVE);
         }
     }
 
@@ -254,14 +334,7 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @param transport    连接
      */
     protected void subHealthToRetry(ProviderInfo providerInfo, ClientTransport transport) {
-        providerLock.lock();
-        try {
-            if (subHealthConnections.remove(providerInfo) != null) {
-                retryConnections.put(providerInfo, transport);
-            }
-        } finally {
-            providerLock.unlock();
-        }
+        transition(providerInfo, STATE_SUB_HEALTH, STATE_RETRY);
     }
 
     /**
@@ -271,24 +344,115 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @return 如果已经建立连接 ，返回ClientTransport
      */
     protected ClientTransport remove(ProviderInfo providerInfo) {
-        providerLock.lock();
-        try {
-            ClientTransport transport = uninitializedConnections.remove(providerInfo);
-            if (transport == null) {
-                transport = aliveConnections.remove(providerInfo);
-                if (transport == null) {
-                    transport = subHealthConnections.remove(providerInfo);
-                    if (transport == null) {
-                        transport = retryConnections.remove(providerInfo);
-                    }
+        ProviderConnection connection = connections.remove(providerInfo);
+        if (connection == null) {
+            return null;
+        }
+        markRemoved(connection);
+        return connection.getTransport();
+    }
+
+    /**
+     * 切换服务端的连接状态，只有当前状态等于期望状态时才会成功
+     *
+     * @param providerInfo Provider
+     * @param expect       期望的当前状态
+     * @param update       新状态
+     * @return 是否切换成功
+     * @since 5.14.3
+     */
+    protected boolean transition(ProviderInfo providerInfo, int expect, int update) {
+        ProviderConnection connection = connections.get(providerInfo);
+        if (connection != null && connection.compareAndSetState(expect, update)) {
+            onStateChanged(expect, update);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 设置服务端的连接和状态。同一个连接只切换状态，不同的连接替换原来的记录
+     *
+     * @param providerInfo Provider
+     * @param transport    连接
+     * @param state        状态
+     */
+    private void putConnection(ProviderInfo providerInfo, ClientTransport transport, int state) {
+        for (;;) {
+            ProviderConnection old = connections.get(providerInfo);
+            if (old != null && old.getTransport() == transport) {
+                int current = old.getState();
+                if (current == STATE_REMOVED) {
+                    // 被替换掉的旧记录，重新放入
+                    connections.remove(providerInfo, old);
+                    continue;
+                }
+                if (old.compareAndSetState(current, state)) {
+                    onStateChanged(current, state);
+                    return;
                 }
+                continue;
             }
-            return transport;
-        } finally {
-            providerLock.unlock();
+            ProviderConnection connection = new ProviderConnection(providerInfo, transport, state);
+            boolean put = old == null ? connections.putIfAbsent(providerInfo, connection) == null
+                : connections.replace(providerInfo, old, connection);
+            if (put) {
+                onStateChanged(STATE_REMOVED, state);
+                if (old != null) {
+                    markRemoved(old);
+                }
+                return;
+            }
+        }
+    }
+
+    private void markRemoved(ProviderConnection connection) {
+        int last = connection.getAndSetState(STATE_REMOVED);
+        onStateChanged(last, STATE_REMOVED);
+    }
+
+    /**
+     * 状态切换成功后维护存活和亚健康计数
+     */
+    private void onStateChanged(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        if (from == STATE_ALIVE) {
+            aliveCount.decrementAndGet();
+        } else if (from == STATE_SUB_HEALTH) {
+            subHealthCount.decrementAndGet();
+        }
+        if (to == STATE_ALIVE) {
+            aliveCount.incrementAndGet();
+        } else if (to == STATE_SUB_HEALTH) {
+            subHealthCount.incrementAndGet();
         }
     }
 
+    /**
+     * 得到某个状态的连接快照
+     *
+     * @param state 状态
+     * @return 服务端和连接
+     */
+    private ConcurrentMap<ProviderInfo, ClientTransport> snapshot(int state) {
+        ConcurrentMap<ProviderInfo, ClientTransport> map = new ConcurrentHashMap<ProviderInfo, ClientTransport>();
+        for (ProviderConnection connection : connections.values()) {
+            if (connection.getState() == state) {
+                map.put(connection.getProviderInfo(), connection.getTransport());
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 可用的状态：有存活的就用存活的，存活为空的，那就用亚健康的
+     */
+    private int availableState() {
+        return aliveCount.get() > 0 ? STATE_ALIVE : STATE_SUB_HEALTH;
+    }
+
     /**
      * 通知状态变成不可用,主要是：<br>
      * 1.注册中心删除，更新节点后变成不可用时<br>
@@ -428,50 +592,104 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
             LOGGER.infoWithApp(appName, "Add provider of {}, size is : {}", interfaceId, providerSize);
         }
         if (providerSize > 0) {
-            // 多线程建立连接
-            int threads = Math.min(10, providerSize); // 最大10个
-            final CountDownLatch latch = new CountDownLatch(providerSize);
-            ThreadPoolExecutor initPool = new ThreadPoolExecutor(threads, threads,
-                0L, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<Runnable>(providerInfoList.size()),
-                new NamedThreadFactory("CLI-CONN-" + interfaceId, true));
-            int connectTimeout = consumerConfig.getConnectTimeout();
-            for (final ProviderInfo providerInfo : providerInfoList) {
-                initClientRunnable(initPool, latch, providerInfo);
-            }
+            connect(providerInfoList, readyCount(providerSize));
+        }
+    }
 
-            try {
-                int totalTimeout = ((providerSize % threads == 0) ? (providerSize / threads) : ((providerSize /
-                    threads) + 1)) * connectTimeout + 500;
-                latch.await(totalTimeout, TimeUnit.MILLISECONDS); // 一直等到子线程都结束
-            } catch (InterruptedException e) {
-                LOGGER.errorWithApp(appName,
-                    LogCodes.getLog(LogCodes.ERROR_UPDATE_PROVIDERS, consumerConfig.getInterfaceId(), ""), e);
-            } finally {
-                initPool.shutdown(); // 关闭线程池
+    /**
+     * 初始化连接时，连上多少个服务端即认为就绪
+     *
+     * @param providerSize 服务端数量
+     * @return 就绪需要连上的数量
+     * @since 5.14.3
+     */
+    protected int readyCount(int providerSize) {
+        String readyPercent = consumerConfig.getParameter(RpcConstants.CONFIG_KEY_CONNECT_READY_PERCENT);
+        int percent = StringUtils.isBlank(readyPercent) ? RpcConfigs
+            .getIntValue(RpcOptions.CONSUMER_CONNECT_READY_PERCENT) : Integer.parseInt(readyPercent);
+        if (percent >= 100) {
+            return providerSize;
+        }
+        return percent <= 0 ? 0 : (int) Math.ceil(providerSize * percent / 100.0);
+    }
+
+    /**
+     * 通过共享的建连调度器建立长连接，连上的数量达到就绪数量、全部结束或者超时后返回，剩下的在后台继续建立
+     *
+     * @param providerInfoList 服务端列表
+     * @param readyCount       就绪需要连上的数量
+     * @since 5.14.3
+     */
+    protected void connect(List<ProviderInfo> providerInfoList, int readyCount) {
+        String appName = consumerConfig.getAppName();
+        int providerSize = providerInfoList.size();
+        List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(providerSize);
+        for (ProviderInfo providerInfo : providerInfoList) {
+            tasks.add(connectTask(providerInfo));
+        }
+        // 每个消费者同时只占用有限个建连线程，超时时间按这个并发数估算
+        int concurrency = ConnectScheduler.getBatchConcurrency();
+        ConnectScheduler.ConnectBatch batch = ConnectScheduler.submit(tasks, concurrency);
+        int totalTimeout = ((providerSize % concurrency == 0) ? (providerSize / concurrency)
+            : ((providerSize / concurrency) + 1)) * consumerConfig.getConnectTimeout() + 500;
+        try {
+            boolean ready = batch.awaitReady(readyCount, totalTimeout);
+            if (LOGGER.isInfoEnabled(appName)) {
+                LOGGER.infoWithApp(appName, "Connect to {} providers of {}, ready: {}, connected: {}/{}",
+                    providerSize, consumerConfig.getInterfaceId(), ready, batch.getConnected(), readyCount);
             }
+        } catch (InterruptedException e) {
+            LOGGER.errorWithApp(appName,
+                LogCodes.getLog(LogCodes.ERROR_UPDATE_PROVIDERS, consumerConfig.getInterfaceId(), ""), e);
+            Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * 建立到一个服务端的长连接的任务
+     *
+     * @param providerInfo 服务端
+     * @return 任务，返回是否已经可用（lazy 时直接认为可用）
+     * @since 5.14.3
+     */
+    protected Callable<Boolean> connectTask(final ProviderInfo providerInfo) {
+        final ClientTransportConfig config = providerToClientConfig(providerInfo);
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                ClientTransport transport = createClientTransport(config);
+                if (consumerConfig.isLazy()) {
+                    addUninitialized(providerInfo, transport);
+                    return true;
+                }
+                initClientTransport(consumerConfig.getInterfaceId(), providerInfo, transport);
+                ProviderConnection connection = connections.get(providerInfo);
+                return connection != null && connection.getState() == STATE_ALIVE;
+            }
+        };
+    }
+
     /**
      * 线程池建立长连接
+     *
+     * @deprecated 建连统一由 {@link #connect(List, int)} 提交到共享的建连调度器，这里保留给自己管理线程池的子类
      */
+    @Deprecated
     protected void initClientRunnable(ThreadPoolExecutor initPool, final CountDownLatch latch,
                                       final ProviderInfo providerInfo) {
-        final ClientTransportConfig config = providerToClientConfig(providerInfo);
+        final Callable<Boolean> task = connectTask(providerInfo);
         initPool.execute(new Runnable() {
             @Override
             public void run() {
-                ClientTransport transport = ClientTransportFactory.getClientTransport(config);
-                if (consumerConfig.isLazy()) {
-                    uninitializedConnections.put(providerInfo, transport);
-                    latch.countDown();
-                } else {
-                    try {
-                        initClientTransport(consumerConfig.getInterfaceId(), providerInfo, transport);
-                    } finally {
-                        latch.countDown(); // 连上或者抛异常
-                    }
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    LOGGER.errorWithApp(
+                        consumerConfig.getAppName(),
+                        LogCodes.getLog(LogCodes.ERROR_UPDATE_PROVIDERS, consumerConfig.getInterfaceId(), providerInfo),
+                        e);
+                } finally {
+                    latch.countDown(); // 连上或者抛异常
                 }
             }
         });
@@ -527,43 +745,42 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
 
     @Override
     public ConcurrentMap<ProviderInfo, ClientTransport> getAvailableConnections() {
-        return aliveConnections.isEmpty() ? subHealthConnections : aliveConnections;
+        return snapshot(availableState());
     }
 
     @Override
     public List<ProviderInfo> getAvailableProviders() {
         // 存活为空的，那就用亚健康的
-        ConcurrentMap<ProviderInfo, ClientTransport> map =
-                aliveConnections.isEmpty() ? subHealthConnections : aliveConnections;
-        return new ArrayList<ProviderInfo>(map.keySet());
+        int state = availableState();
+        List<ProviderInfo> providers = new ArrayList<ProviderInfo>();
+        for (ProviderConnection connection : connections.values()) {
+            if (connection.getState() == state) {
+                providers.add(connection.getProviderInfo());
+            }
+        }
+        return providers;
     }
 
     @Override
     public ClientTransport getAvailableClientTransport(ProviderInfo providerInfo) {
-        // 先去存活列表
-        ClientTransport transport = aliveConnections.get(providerInfo);
-        if (transport != null) {
-            return transport;
-        }
-        // 再去亚健康列表
-        transport = subHealthConnections.get(providerInfo);
-        if (transport != null) {
-            return transport;
-        }
-        // 最后看看是否第一次调用未初始化
-        transport = uninitializedConnections.get(providerInfo);
-        if (transport != null) {
-            // 未初始化则初始化
-            providerLock.lock();
-            try {
-                transport = uninitializedConnections.get(providerInfo);
-                if (transport != null) {
-                    initClientTransport(consumerConfig.getInterfaceId(), providerInfo, transport);
-                    uninitializedConnections.remove(providerInfo);
+        ClientTransport transport = null;
+        ProviderConnection connection = connections.get(providerInfo);
+        if (connection != null) {
+            int state = connection.getState();
+            if (state == STATE_ALIVE || state == STATE_SUB_HEALTH) {
+                return connection.getTransport();
+            }
+            if (state == STATE_UNINITIALIZED) {
+                // 第一次调用未初始化则初始化，同一个服务端只初始化一次，不同服务端互不阻塞
+                initLazily(connection);
+                connection = connections.get(providerInfo);
+                if (connection != null) {
+                    state = connection.getState();
+                    if (state == STATE_ALIVE || state == STATE_SUB_HEALTH) {
+                        return connection.getTransport();
+                    }
                 }
-                return getAvailableClientTransport(providerInfo);
-            } finally {
-                providerLock.unlock();
+                return null;
             }
         }
 
@@ -576,7 +793,7 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
              */
             if (StringUtils.isNotBlank(targetIP)) {
                 ClientTransportConfig transportConfig = providerToClientConfig(providerInfo);
-                transport = ClientTransportFactory.getClientTransport(transportConfig);
+                transport = createClientTransport(transportConfig);
                 initClientTransport(consumerConfig.getInterfaceId(), providerInfo, transport);
             }
         }
@@ -584,9 +801,44 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
         return transport;
     }
 
+    /**
+     * 初始化延迟建立的连接：第一个调用方执行连接，同一服务端的其它调用方等待同一个 Future
+     *
+     * @param connection 未初始化的连接记录
+     */
+    private void initLazily(final ProviderConnection connection) {
+        FutureTask<Void> task = connection.initTask.get();
+        if (task == null) {
+            FutureTask<Void> newTask = new FutureTask<Void>(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    initClientTransport(consumerConfig.getInterfaceId(), connection.getProviderInfo(),
+                        connection.getTransport());
+                    return null;
+                }
+            });
+            if (connection.initTask.compareAndSet(null, newTask)) {
+                newTask.run();
+                return;
+            }
+            task = connection.initTask.get();
+        }
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // initClientTransport 内部已经处理了异常，失败的会进入重试状态
+            if (LOGGER.isDebugEnabled(consumerConfig.getAppName())) {
+                LOGGER.debugWithApp(consumerConfig.getAppName(), "Failed to init " + connection.getProviderInfo(),
+                    e.getCause());
+            }
+        }
+    }
+
     @Override
     public boolean isAvailableEmpty() {
-        return aliveConnections.isEmpty() && subHealthConnections.isEmpty();
+        return aliveCount.get() == 0 && subHealthCount.get() == 0;
     }
 
     /**
@@ -607,6 +859,21 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
             .setChannelListeners(consumerConfig.getOnConnect());
     }
 
+    /**
+     * 创建到服务端的长连接，配置了连接池最大连接数（connectionPoolMax）大于1时创建连接池
+     *
+     * @param transportConfig ClientTransportConfig
+     * @return ClientTransport
+     * @since 5.14.3
+     */
+    protected ClientTransport createClientTransport(ClientTransportConfig transportConfig) {
+        if (poolMaxSize <= 1) {
+            return ClientTransportFactory.getClientTransport(transportConfig);
+        }
+        return new PooledClientTransport(transportConfig, consumerConfig.getConnectionNum(), poolMaxSize, poolSelect,
+            poolGrowPending, poolGrowBytes);
+    }
+
     /**
      * 获取当前的Provider列表（包括连上和没连上的）
      *
@@ -614,29 +881,18 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      */
     @Override
     public Set<ProviderInfo> currentProviderList() {
-        providerLock.lock();
-        try {
-            ConcurrentHashSet<ProviderInfo> providerInfos = new ConcurrentHashSet<ProviderInfo>();
-            providerInfos.addAll(lastAddresses);
-            return providerInfos;
-        } finally {
-            providerLock.unlock();
-        }
+        ConcurrentHashSet<ProviderInfo> providerInfos = new ConcurrentHashSet<ProviderInfo>();
+        providerInfos.addAll(lastAddresses);
+        return providerInfos;
     }
 
     @Override
     public void setUnavailable(ProviderInfo providerInfo, ClientTransport transport) {
-        providerLock.lock();
-        try {
-            boolean first = isAvailableEmpty();
-            if (aliveConnections.remove(providerInfo) != null) {
-                retryConnections.put(providerInfo, transport);
-                if (!first && isAvailableEmpty()) { // 原来不空，变成空
-                    notifyStateChangeToUnavailable();
-                }
+        boolean first = isAvailableEmpty();
+        if (transition(providerInfo, STATE_ALIVE, STATE_RETRY)) {
+            if (!first && isAvailableEmpty()) { // 原来不空，变成空
+                notifyStateChangeToUnavailable();
             }
-        } finally {
-            providerLock.unlock();
         }
     }
 
@@ -659,22 +915,16 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @return 带回收的服务列表
      */
     protected Map<ProviderInfo, ClientTransport> clearProviders() {
-        providerLock.lock();
-        try {
-            // 当前存活+重试的
-            HashMap<ProviderInfo, ClientTransport> all = new HashMap<ProviderInfo, ClientTransport>(aliveConnections);
-            all.putAll(subHealthConnections);
-            all.putAll(retryConnections);
-            all.putAll(uninitializedConnections);
-            subHealthConnections.clear();
-            aliveConnections.clear();
-            retryConnections.clear();
-            uninitializedConnections.clear();
-            lastAddresses.clear();
-            return all;
-        } finally {
-            providerLock.unlock();
+        // 当前全部状态的
+        HashMap<ProviderInfo, ClientTransport> all = new HashMap<ProviderInfo, ClientTransport>();
+        for (ProviderInfo providerInfo : connections.keySet()) {
+            ClientTransport transport = remove(providerInfo);
+            if (transport != null) {
+                all.put(providerInfo, transport);
+            }
         }
+        lastAddresses.clear();
+        return all;
     }
 
     /**
@@ -790,18 +1040,13 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
      * @return 当前的Provider列表 set
      */
     public Map<String, Set<ProviderInfo>> currentProviderMap() {
-        providerLock.lock();
-        try {
-            Map<String, Set<ProviderInfo>> tmp = new HashMap<String, Set<ProviderInfo>>();
-            tmp.put("alive", new HashSet<ProviderInfo>(aliveConnections.keySet()));
-            tmp.put("subHealth", new HashSet<ProviderInfo>(subHealthConnections.keySet()));
-            tmp.put("retry", new HashSet<ProviderInfo>(retryConnections.keySet()));
-            tmp.put("uninitialized", new HashSet<ProviderInfo>(uninitializedConnections.keySet()));
-            tmp.put("all", new HashSet<ProviderInfo>(lastAddresses));
-            return tmp;
-        } finally {
-            providerLock.unlock();
-        }
+        Map<String, Set<ProviderInfo>> tmp = new HashMap<String, Set<ProviderInfo>>();
+        tmp.put("alive", new HashSet<ProviderInfo>(snapshot(STATE_ALIVE).keySet()));
+        tmp.put("subHealth", new HashSet<ProviderInfo>(snapshot(STATE_SUB_HEALTH).keySet()));
+        tmp.put("retry", new HashSet<ProviderInfo>(snapshot(STATE_RETRY).keySet()));
+        tmp.put("uninitialized", new HashSet<ProviderInfo>(snapshot(STATE_UNINITIALIZED).keySet()));
+        tmp.put("all", new HashSet<ProviderInfo>(lastAddresses));
+        return tmp;
     }
 
     /**
@@ -885,10 +1130,10 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
         boolean print = thisTime % 6 == 0; //是否打印error,每6次打印一次
         boolean isAliveEmptyFirst = isAvailableEmpty();
         // 检查可用连接  todo subHealth
-        for (Map.Entry<ProviderInfo, ClientTransport> alive : aliveConnections.entrySet()) {
-            ClientTransport connection = alive.getValue();
-            if (connection != null && !connection.isAvailable()) {
-                aliveToRetry(alive.getKey(), connection);
+        for (ProviderConnection alive : connections.values()) {
+            ClientTransport connection = alive.getTransport();
+            if (alive.getState() == STATE_ALIVE && connection != null && !connection.isAvailable()) {
+                aliveToRetry(alive.getProviderInfo(), connection);
             }
         }
         for (Map.Entry<ProviderInfo, ClientTransport> entry : getRetryConnections()
@@ -937,4 +1182,181 @@ public class AllConnectConnectionHolder extends ConnectionHolder {
             reconThread = null;
         }
     }
+
+    /**
+     * 某个状态的连接视图，兼容直接读写原来几个状态 Map 的子类：读取时按状态过滤 {@link #connections}，
+     * 写入时切换对应服务端记录的状态，遍历的是快照
+     */
+    private final class StateConnectionMap extends AbstractMap<ProviderInfo, ClientTransport>
+                                                                                             implements
+                                                                                             ConcurrentMap<ProviderInfo, ClientTransport> {
+
+        private final int state;
+
+        StateConnectionMap(int state) {
+            this.state = state;
+        }
+
+        private ProviderConnection connectionOf(Object key) {
+            ProviderConnection connection = connections.get(key);
+            return connection != null && connection.getState() == state ? connection : null;
+        }
+
+        @Override
+        public ClientTransport get(Object key) {
+            ProviderConnection connection = connectionOf(key);
+            return connection == null ? null : connection.getTransport();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return connectionOf(key) != null;
+        }
+
+        @Override
+        public ClientTransport put(ProviderInfo key, ClientTransport value) {
+            ClientTransport old = get(key);
+            putConnection(key, value, state);
+            return old;
+        }
+
+        @Override
+        public ClientTransport putIfAbsent(ProviderInfo key, ClientTransport value) {
+            ClientTransport old = get(key);
+            if (old == null) {
+                putConnection(key, value, state);
+            }
+            return old;
+        }
+
+        @Override
+        public ClientTransport remove(Object key) {
+            ProviderConnection connection = connectionOf(key);
+            return connection != null && removeConnection(connection) ? connection.getTransport() : null;
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            ProviderConnection connection = connectionOf(key);
+            return connection != null && connection.getTransport() == value && removeConnection(connection);
+        }
+
+        private boolean removeConnection(ProviderConnection connection) {
+            if (connection.compareAndSetState(state, STATE_REMOVED)) {
+                onStateChanged(state, STATE_REMOVED);
+                connections.remove(connection.getProviderInfo(), connection);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean replace(ProviderInfo key, ClientTransport oldValue, ClientTransport newValue) {
+            ProviderConnection connection = connectionOf(key);
+            if (connection == null || connection.getTransport() != oldValue) {
+                return false;
+            }
+            putConnection(key, newValue, state);
+            return true;
+        }
+
+        @Override
+        public ClientTransport replace(ProviderInfo key, ClientTransport value) {
+            ClientTransport old = get(key);
+            if (old != null) {
+                putConnection(key, value, state);
+            }
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            for (ProviderConnection connection : connections.values()) {
+                if (connection.getState() == state) {
+                    removeConnection(connection);
+                }
+            }
+        }
+
+        @Override
+        public Set<Entry<ProviderInfo, ClientTransport>> entrySet() {
+            final Map<ProviderInfo, ClientTransport> snapshot = snapshot(state);
+            return new AbstractSet<Entry<ProviderInfo, ClientTransport>>() {
+                @Override
+                public Iterator<Entry<ProviderInfo, ClientTransport>> iterator() {
+                    final Iterator<Entry<ProviderInfo, ClientTransport>> it = snapshot.entrySet().iterator();
+                    return new Iterator<Entry<ProviderInfo, ClientTransport>>() {
+                        private Entry<ProviderInfo, ClientTransport> last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<ProviderInfo, ClientTransport> next() {
+                            last = it.next();
+                            return last;
+                        }
+
+                        @Override
+                        public void remove() {
+                            it.remove();
+                            StateConnectionMap.this.remove(last.getKey(), last.getValue());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return snapshot.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * 一个服务端的连接记录：连接对象不变，状态通过 CAS 切换
+     *
+     * @since 5.14.3
+     */
+    protected static final class ProviderConnection {
+
+        private final ProviderInfo                      providerInfo;
+
+        private final ClientTransport                   transport;
+
+        private final AtomicInteger                     state;
+
+        /**
+         * 延迟建立连接的任务，保证只执行一次
+         */
+        private final AtomicReference<FutureTask<Void>> initTask = new AtomicReference<FutureTask<Void>>();
+
+        ProviderConnection(ProviderInfo providerInfo, ClientTransport transport, int state) {
+            this.providerInfo = providerInfo;
+            this.transport = transport;
+            this.state = new AtomicInteger(state);
+        }
+
+        public ProviderInfo getProviderInfo() {
+            return providerInfo;
+        }
+
+        public ClientTransport getTransport() {
+            return transport;
+        }
+
+        public int getState() {
+            return state.get();
+        }
+
+        boolean compareAndSetState(int expect, int update) {
+            return state.compareAndSet(expect, update);
+        }
+
+        int getAndSetState(int update) {
+            return state.getAndSet(update);
+        }
+    }
 }
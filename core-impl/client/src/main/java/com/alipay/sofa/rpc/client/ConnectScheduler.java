@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.struct.NamedThreadFactory;
+import com.alipay.sofa.rpc.log.Logger;
+import com.alipay.sofa.rpc.log.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 全部服务消费者共用的建连调度器。
+ * <p>
+ * 有界线程池限制同时建立长连接的数量，每批次的建连顺序随机打乱，避免大量消费者同时按相同顺序连接服务端；
+ * 调用方只需等待批次达到就绪条件，剩下的连接在后台继续建立。
+ * <p>
+ * 每个批次（一个服务消费者的一次建连）同时只占用有限个线程，每建完一个连接就重新排队，
+ * 服务端很多的消费者不会占满线程池和队列，其它消费者的建连不会排在它的全部任务之后。
+ * 队列有界，队列满时由提交的线程自己建连。
+ *
+ * @since 5.14.3
+ */
+public final class ConnectScheduler {
+
+    /**
+     * slf4j Logger for this class
+     */
+    private final static Logger                LOGGER = LoggerFactory.getLogger(ConnectScheduler.class);
+
+    /**
+     * 建连线程池
+     */
+    private static volatile ThreadPoolExecutor connectPool;
+
+    private ConnectScheduler() {
+    }
+
+    /**
+     * 得到建连线程池，线程数即最大并发数，空闲时线程会回收
+     *
+     * @return 建连线程池
+     */
+    static ThreadPoolExecutor getConnectPool() {
+        if (connectPool == null) {
+            synchronized (ConnectScheduler.class) {
+                if (connectPool == null) {
+                    int concurrency = Math.max(1, RpcConfigs.getIntValue(RpcOptions.CONSUMER_CONNECT_CONCURRENCY));
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(concurrency, concurrency,
+                        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(concurrency * 10),
+                        new NamedThreadFactory("CLI-CONN", true));
+                    pool.allowCoreThreadTimeOut(true);
+                    connectPool = pool;
+                }
+            }
+        }
+        return connectPool;
+    }
+
+    /**
+     * 得到最大建连并发数
+     *
+     * @return 最大建连并发数
+     */
+    public static int getConcurrency() {
+        return getConnectPool().getMaximumPoolSize();
+    }
+
+    /**
+     * 得到单个批次的最大建连并发数，不超过线程池的并发数
+     *
+     * @return 单个批次的最大建连并发数
+     */
+    public static int getBatchConcurrency() {
+        int concurrency = RpcConfigs.getIntValue(RpcOptions.CONSUMER_CONNECT_CONSUMER_CONCURRENCY);
+        return Math.max(1, Math.min(concurrency, getConcurrency()));
+    }
+
+    /**
+     * 提交一批建连任务，任务返回是否连接成功
+     *
+     * @param tasks 建连任务
+     * @return 批次，可以等待就绪
+     */
+    public static ConnectBatch submit(List<? extends Callable<Boolean>> tasks) {
+        return submit(tasks, getBatchConcurrency());
+    }
+
+    /**
+     * 提交一批建连任务，任务返回是否连接成功
+     *
+     * @param tasks       建连任务
+     * @param concurrency 这批任务同时占用的最大线程数
+     * @return 批次，可以等待就绪
+     */
+    static ConnectBatch submit(List<? extends Callable<Boolean>> tasks, int concurrency) {
+        List<Callable<Boolean>> shuffled = new ArrayList<Callable<Boolean>>(tasks);
+        Collections.shuffle(shuffled, ThreadLocalRandom.current());
+        ConnectBatch batch = new ConnectBatch(shuffled);
+        ThreadPoolExecutor pool = getConnectPool();
+        int workers = Math.min(Math.max(1, concurrency), shuffled.size());
+        for (int i = 0; i < workers; i++) {
+            Runnable worker = batch.newWorker(pool);
+            if (!batch.schedule(pool, worker)) {
+                // 队列已满，由提交线程自己执行这个 worker
+                worker.run();
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * 一批建连任务的进度
+     */
+    public static final class ConnectBatch {
+
+        private final int                      total;
+
+        private final Queue<Callable<Boolean>> pending;
+
+        private final AtomicInteger            finished  = new AtomicInteger();
+
+        private final AtomicInteger            connected = new AtomicInteger();
+
+        ConnectBatch(List<Callable<Boolean>> tasks) {
+            this.total = tasks.size();
+            this.pending = new ConcurrentLinkedQueue<Callable<Boolean>>(tasks);
+        }
+
+        /**
+         * 每次执行一个任务，还有剩余任务时重新排到线程池队列末尾，让出线程给其它批次
+         */
+        private Runnable newWorker(final ThreadPoolExecutor pool) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    Callable<Boolean> task;
+                    while ((task = pending.poll()) != null) {
+                        execute(task);
+                        if (pending.isEmpty() || schedule(pool, this)) {
+                            return;
+                        }
+                        // 队列已满，继续在当前线程执行
+                    }
+                }
+            };
+        }
+
+        private boolean schedule(ThreadPoolExecutor pool, Runnable worker) {
+            try {
+                pool.execute(worker);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void execute(Callable<Boolean> task) {
+            boolean success = false;
+            try {
+                success = Boolean.TRUE.equals(task.call());
+            } catch (Throwable e) {
+                LOGGER.warn("Exception when connect to provider", e);
+            } finally {
+                if (success) {
+                    connected.incrementAndGet();
+                }
+                finished.incrementAndGet();
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * 等待连上的数量达到要求，或者全部任务已经结束，或者超时
+         *
+         * @param readyCount    需要连上的数量
+         * @param timeoutMillis 超时时间
+         * @return 是否达到就绪要求
+         * @throws InterruptedException 等待被中断
+         */
+        public boolean awaitReady(int readyCount, long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            synchronized (this) {
+                while (connected.get() < readyCount && finished.get() < total) {
+                    long remain = deadline - System.currentTimeMillis();
+                    if (remain <= 0) {
+                        break;
+                    }
+                    wait(remain);
+                }
+            }
+            return connected.get() >= readyCount;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getFinished() {
+            return finished.get();
+        }
+
+        public int getConnected() {
+            return connected.get();
+        }
+    }
+}
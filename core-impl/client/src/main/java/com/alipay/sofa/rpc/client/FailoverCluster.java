@@ -84,6 +84,7 @@ public class FailoverCluster extends AbstractCluster {
                 }
             } catch (SofaRpcException e) { // 服务端异常+ 超时异常 才发起rpc异常重试
                 if (e.getErrorType() == RpcErrorType.SERVER_BUSY
+                    || e.getErrorType() == RpcErrorType.SERVER_OVERLOAD
                     || e.getErrorType() == RpcErrorType.CLIENT_TIMEOUT) {
                     throwable = e;
                     time++;
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
+import com.alipay.sofa.rpc.core.request.RequestBase;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 记录一次调用的开始和结束，通知给 {@link InvokeAwareLoadBalancer}。
+ * <p>
+ * 异步调用时作为回调使用：callback 方式包装用户的回调，future 方式注册为 future 的完成回调。
+ * 无论从哪条路径结束，都只通知一次。
+ *
+ * @since 5.14.3
+ */
+final class InvokeTracker implements SofaResponseCallback {
+
+    private final InvokeAwareLoadBalancer loadBalancer;
+
+    private final ProviderInfo            providerInfo;
+
+    private final SofaRequest             request;
+
+    private final long                    startNanos;
+
+    private final AtomicBoolean           ended = new AtomicBoolean();
+
+    /**
+     * callback 方式下用户的回调
+     */
+    private SofaResponseCallback          delegate;
+
+    private InvokeTracker(InvokeAwareLoadBalancer loadBalancer, ProviderInfo providerInfo, SofaRequest request) {
+        this.loadBalancer = loadBalancer;
+        this.providerInfo = providerInfo;
+        this.request = request;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 通知调用开始
+     *
+     * @param loadBalancer 负载均衡
+     * @param providerInfo 服务端
+     * @param request      请求
+     * @return 调用记录
+     */
+    static InvokeTracker start(InvokeAwareLoadBalancer loadBalancer, ProviderInfo providerInfo,
+                               SofaRequest request) {
+        loadBalancer.onInvokeStart(providerInfo, request);
+        return new InvokeTracker(loadBalancer, providerInfo, request);
+    }
+
+    /**
+     * 包装用户的回调，结束时先通知负载均衡再调用用户回调
+     *
+     * @param delegate 用户的回调
+     * @return 调用记录本身
+     */
+    InvokeTracker wrap(SofaResponseCallback delegate) {
+        this.delegate = delegate;
+        return this;
+    }
+
+    /**
+     * 被包装的用户回调
+     *
+     * @return 用户的回调，没有包装时为null
+     */
+    SofaResponseCallback getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 通知调用结束，重复调用时忽略
+     *
+     * @param success 是否成功
+     */
+    void end(boolean success) {
+        if (ended.compareAndSet(false, true)) {
+            loadBalancer.onInvokeEnd(providerInfo, request, System.nanoTime() - startNanos, success);
+        }
+    }
+
+    @Override
+    public void onAppResponse(Object appResponse, String methodName, RequestBase request) {
+        end(true);
+        if (delegate != null) {
+            delegate.onAppResponse(appResponse, methodName, request);
+        }
+    }
+
+    @Override
+    public void onAppException(Throwable throwable, String methodName, RequestBase request) {
+        end(true);
+        if (delegate != null) {
+            delegate.onAppException(throwable, methodName, request);
+        }
+    }
+
+    @Override
+    public void onSofaException(SofaRpcException sofaException, String methodName, RequestBase request) {
+        end(false);
+        if (delegate != null) {
+            delegate.onSofaException(sofaException, methodName, request);
+        }
+    }
+}
@@ -0,0 +1,534 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.base.Destroyable;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.annotation.VisibleForTesting;
+import com.alipay.sofa.rpc.common.struct.NamedThreadFactory;
+import com.alipay.sofa.rpc.common.utils.ThreadPoolUtils;
+import com.alipay.sofa.rpc.context.RpcInternalContext;
+import com.alipay.sofa.rpc.context.RpcRuntimeContext;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.exception.SofaRpcRuntimeException;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+import com.alipay.sofa.rpc.log.Logger;
+import com.alipay.sofa.rpc.log.LoggerFactory;
+import com.alipay.sofa.rpc.message.ResponseFuture;
+import com.alipay.sofa.rpc.transport.AbstractChannel;
+import com.alipay.sofa.rpc.transport.ClientTransport;
+import com.alipay.sofa.rpc.transport.ClientTransportConfig;
+import com.alipay.sofa.rpc.transport.ClientTransportFactory;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 同一个服务端的多个长连接，对连接管理器表现为一个 {@link ClientTransport}。
+ * <p>
+ * 每次调用按在途请求数最少或者轮询选择一个可用连接。连接数在 [minSize, maxSize] 之间伸缩：
+ * 每个统计窗口内平均每个连接的在途请求数或者发送字节数超过阈值时异步新建一个连接，
+ * 都低于阈值的四分之一时关闭一个连接（等待在途请求结束）。伸缩检查由调用触发，没有调用时连接数保持不变。
+ * <p>
+ * 发送字节数取传输层序列化后记录的 {@link RpcConstants#INTERNAL_KEY_REQ_SIZE}，需要开启上下文附件。
+ *
+ * @since 5.14.3
+ */
+public class PooledClientTransport extends ClientTransport {
+
+    /**
+     * slf4j Logger for this class
+     */
+    private static final Logger        LOGGER        = LoggerFactory.getLogger(PooledClientTransport.class);
+
+    /**
+     * 按在途请求数最少选择连接
+     */
+    public static final String         LEAST_PENDING = "leastPending";
+
+    /**
+     * 轮询选择连接
+     */
+    public static final String         ROUND_ROBIN   = "roundRobin";
+
+    /**
+     * 伸缩检查的统计窗口
+     */
+    private static final long          WINDOW_NANOS  = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 扩容、缩容使用的公共线程池，第一次伸缩时创建，框架销毁时关闭
+     */
+    private static ThreadPoolExecutor  resizePool;
+
+    static {
+        RpcRuntimeContext.registryDestroyHook(new Destroyable.DestroyHook() {
+            @Override
+            public void preDestroy() {
+
+            }
+
+            @Override
+            public void postDestroy() {
+                shutdownResizePool();
+            }
+        });
+    }
+
+    /**
+     * 最少连接数
+     */
+    private final int                  minSize;
+
+    /**
+     * 最多连接数
+     */
+    private final int                  maxSize;
+
+    /**
+     * 是否轮询选择
+     */
+    private final boolean              roundRobin;
+
+    /**
+     * 扩容阈值：平均每个连接的在途请求数
+     */
+    private final int                  growPending;
+
+    /**
+     * 扩容阈值：平均每个连接每个窗口发送的字节数
+     */
+    private final long                 growBytes;
+
+    /**
+     * 当前连接，写时复制
+     */
+    private volatile ClientTransport[] transports    = new ClientTransport[0];
+
+    /**
+     * 修改连接列表的锁
+     */
+    private final Object               lock          = new Object();
+
+    /**
+     * 选择连接的起始位置
+     */
+    private final AtomicInteger        sequence      = new AtomicInteger();
+
+    /**
+     * 当前窗口发送的字节数
+     */
+    private final LongAdder            windowBytes   = new LongAdder();
+
+    /**
+     * 下次伸缩检查的时间
+     */
+    private final AtomicLong           nextCheckTime = new AtomicLong(System.nanoTime() + WINDOW_NANOS);
+
+    /**
+     * 是否正在伸缩
+     */
+    private final AtomicBoolean        resizing      = new AtomicBoolean();
+
+    /**
+     * 是否已销毁
+     */
+    private volatile boolean           destroyed;
+
+    /**
+     * 构造函数
+     *
+     * @param transportConfig 传输层配置，每个连接复制一份
+     * @param minSize         最少连接数
+     * @param maxSize         最多连接数
+     * @param select          选择连接的方式
+     * @param growPending     扩容阈值：平均每个连接的在途请求数
+     * @param growBytes       扩容阈值：平均每个连接每秒发送的字节数
+     */
+    public PooledClientTransport(ClientTransportConfig transportConfig, int minSize, int maxSize, String select,
+                                 int growPending, long growBytes) {
+        super(transportConfig);
+        this.minSize = Math.max(minSize, 1);
+        this.maxSize = Math.max(maxSize, this.minSize);
+        this.roundRobin = ROUND_ROBIN.equals(select);
+        this.growPending = Math.max(growPending, 1);
+        this.growBytes = growBytes;
+    }
+
+    @Override
+    public void connect() {
+        synchronized (lock) {
+            if (destroyed) {
+                return;
+            }
+            ClientTransport[] current = transports;
+            if (current.length < minSize) {
+                current = Arrays.copyOf(current, minSize);
+                for (int i = transports.length; i < minSize; i++) {
+                    current[i] = ClientTransportFactory.getClientTransport(copyConfig(transportConfig, i));
+                }
+                transports = current;
+            }
+            RuntimeException failure = null;
+            for (ClientTransport transport : current) {
+                if (!transport.isAvailable()) {
+                    try {
+                        transport.connect();
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null && !isAvailable()) {
+                throw failure;
+            }
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        for (ClientTransport transport : transports) {
+            transport.disconnect();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ClientTransport[] current;
+        synchronized (lock) {
+            destroyed = true;
+            current = transports;
+            transports = new ClientTransport[0];
+        }
+        for (ClientTransport transport : current) {
+            // 上层已经等待过在途请求，这里直接关闭
+            ClientTransportFactory.releaseTransport(transport, 0);
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        for (ClientTransport transport : transports) {
+            if (transport.isAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void setChannel(AbstractChannel channel) {
+        selectOrThrow().setChannel(channel);
+    }
+
+    @Override
+    public AbstractChannel getChannel() {
+        ClientTransport transport = select();
+        return transport == null ? null : transport.getChannel();
+    }
+
+    @Override
+    public int currentRequests() {
+        int count = 0;
+        for (ClientTransport transport : transports) {
+            count += transport.currentRequests();
+        }
+        return count;
+    }
+
+    @Override
+    public ResponseFuture asyncSend(SofaRequest message, int timeout) throws SofaRpcException {
+        ClientTransport transport = selectOrThrow();
+        try {
+            return transport.asyncSend(message, timeout);
+        } finally {
+            afterSend();
+        }
+    }
+
+    @Override
+    public SofaResponse syncSend(SofaRequest message, int timeout) throws SofaRpcException {
+        ClientTransport transport = selectOrThrow();
+        try {
+            return transport.syncSend(message, timeout);
+        } finally {
+            afterSend();
+        }
+    }
+
+    @Override
+    public void oneWaySend(SofaRequest message, int timeout) throws SofaRpcException {
+        ClientTransport transport = selectOrThrow();
+        try {
+            transport.oneWaySend(message, timeout);
+        } finally {
+            afterSend();
+        }
+    }
+
+    @Override
+    public void receiveRpcResponse(SofaResponse response) {
+        selectOrThrow().receiveRpcResponse(response);
+    }
+
+    @Override
+    public void handleRpcRequest(SofaRequest request) {
+        selectOrThrow().handleRpcRequest(request);
+    }
+
+    @Override
+    public InetSocketAddress remoteAddress() {
+        ClientTransport transport = select();
+        return transport == null ? null : transport.remoteAddress();
+    }
+
+    @Override
+    public InetSocketAddress localAddress() {
+        ClientTransport transport = select();
+        return transport == null ? null : transport.localAddress();
+    }
+
+    /**
+     * 当前连接数
+     *
+     * @return 连接数
+     */
+    public int size() {
+        return transports.length;
+    }
+
+    /**
+     * 当前连接，只读
+     *
+     * @return 连接数组
+     */
+    ClientTransport[] getTransports() {
+        return transports;
+    }
+
+    /**
+     * 选择一个连接，优先选择可用的连接
+     *
+     * @return 连接，没有连接时返回null
+     */
+    protected ClientTransport select() {
+        ClientTransport[] current = transports;
+        int size = current.length;
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return current[0];
+        }
+        int start = (sequence.getAndIncrement() & Integer.MAX_VALUE) % size;
+        ClientTransport selected = null;
+        int selectedPending = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ClientTransport transport = current[(start + i) % size];
+            if (!transport.isAvailable()) {
+                continue;
+            }
+            if (roundRobin) {
+                return transport;
+            }
+            int pending = transport.currentRequests();
+            if (pending < selectedPending) {
+                selected = transport;
+                selectedPending = pending;
+            }
+        }
+        return selected == null ? current[start] : selected;
+    }
+
+    private ClientTransport selectOrThrow() {
+        ClientTransport transport = select();
+        if (transport == null) {
+            throw new SofaRpcRuntimeException("Connection pool of " + transportConfig.getProviderInfo()
+                + " has been destroyed");
+        }
+        return transport;
+    }
+
+    /**
+     * 记录发送字节数，到达窗口时检查是否需要伸缩
+     */
+    private void afterSend() {
+        if (RpcInternalContext.isAttachmentEnable()) {
+            RpcInternalContext context = RpcInternalContext.peekContext();
+            Object size = context == null ? null : context.getAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE);
+            if (size instanceof Number) {
+                windowBytes.add(((Number) size).longValue());
+            }
+        }
+        long now = System.nanoTime();
+        long next = nextCheckTime.get();
+        if (now - next >= 0 && nextCheckTime.compareAndSet(next, now + WINDOW_NANOS)) {
+            long elapsed = now - next + WINDOW_NANOS;
+            checkResize(elapsed);
+        }
+    }
+
+    /**
+     * 检查是否需要伸缩
+     *
+     * @param elapsedNanos 本窗口的时长
+     */
+    void checkResize(long elapsedNanos) {
+        ClientTransport[] current = transports;
+        int size = current.length;
+        long bytesPerSecond = windowBytes.sumThenReset() * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1L);
+        int pending = 0;
+        for (ClientTransport transport : current) {
+            pending += transport.currentRequests();
+        }
+        boolean bytesEnabled = growBytes > 0;
+        if (size < maxSize
+            && (pending >= (long) growPending * size || (bytesEnabled && bytesPerSecond >= growBytes * size))) {
+            resize(true);
+        } else if (size > minSize && pending * 4L < (long) growPending * (size - 1)
+            && (!bytesEnabled || bytesPerSecond * 4 < growBytes * (size - 1))) {
+            resize(false);
+        }
+    }
+
+    /**
+     * 异步扩容或者缩容一个连接
+     *
+     * @param grow 是否扩容
+     */
+    private void resize(final boolean grow) {
+        if (!resizing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            getResizePool().execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (grow) {
+                            grow();
+                        } else {
+                            shrink();
+                        }
+                    } catch (Exception e) {
+                        if (LOGGER.isWarnEnabled()) {
+                            LOGGER.warn("Failed to resize connection pool of " + transportConfig.getProviderInfo(), e);
+                        }
+                    } finally {
+                        resizing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resizing.set(false);
+        }
+    }
+
+    /**
+     * 新建一个连接加入连接池
+     */
+    @VisibleForTesting
+    void grow() {
+        int index;
+        synchronized (lock) {
+            if (destroyed || transports.length >= maxSize) {
+                return;
+            }
+            index = transports.length;
+        }
+        ClientTransport transport = ClientTransportFactory.getClientTransport(copyConfig(transportConfig, index));
+        transport.connect();
+        synchronized (lock) {
+            if (!destroyed && transports.length == index) {
+                ClientTransport[] current = Arrays.copyOf(transports, transports.length + 1);
+                current[current.length - 1] = transport;
+                transports = current;
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Connection pool of {} grows to {}", transportConfig.getProviderInfo(),
+                        current.length);
+                }
+                return;
+            }
+        }
+        ClientTransportFactory.releaseTransport(transport, 0);
+    }
+
+    /**
+     * 从连接池移除最后一个连接
+     */
+    @VisibleForTesting
+    void shrink() {
+        ClientTransport removed;
+        synchronized (lock) {
+            if (destroyed || transports.length <= minSize) {
+                return;
+            }
+            removed = transports[transports.length - 1];
+            transports = Arrays.copyOf(transports, transports.length - 1);
+        }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Connection pool of {} shrinks to {}", transportConfig.getProviderInfo(), transports.length);
+        }
+        // 等待在途请求结束再关闭
+        ClientTransportFactory.releaseTransport(removed, transportConfig.getDisconnectTimeout());
+    }
+
+    private static synchronized ThreadPoolExecutor getResizePool() {
+        if (resizePool == null) {
+            resizePool = ThreadPoolUtils.newCachedThreadPool(1, 4, new LinkedBlockingQueue<Runnable>(),
+                new NamedThreadFactory("CLI-CONN-POOL", true));
+        }
+        return resizePool;
+    }
+
+    /**
+     * 关闭扩容、缩容使用的公共线程池
+     */
+    static synchronized void shutdownResizePool() {
+        if (resizePool != null) {
+            resizePool.shutdownNow();
+            resizePool = null;
+        }
+    }
+
+    /**
+     * 每个连接使用独立的配置，否则会被当成同一个连接复用；序号不同的连接各自建立物理连接
+     */
+    private static ClientTransportConfig copyConfig(ClientTransportConfig config, int index) {
+        return new ClientTransportConfig()
+            .setConsumerConfig(config.getConsumerConfig())
+            .setProviderInfo(config.getProviderInfo())
+            .setContainer(config.getContainer())
+            .setConnectTimeout(config.getConnectTimeout())
+            .setDisconnectTimeout(config.getDisconnectTimeout())
+            .setInvokeTimeout(config.getInvokeTimeout())
+            .setConnectionNum(1)
+            .setPoolIndex(index)
+            .setPayload(config.getPayload())
+            .setUseEpoll(config.isUseEpoll())
+            .setChannelListeners(config.getChannelListeners());
+    }
+}
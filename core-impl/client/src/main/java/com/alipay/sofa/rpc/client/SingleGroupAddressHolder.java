@@ -24,7 +24,7 @@ import com.alipay.sofa.rpc.ext.Extension;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 只支持单个分组的地址选择器（额外存一个直连分组）
@@ -37,20 +37,25 @@ public class SingleGroupAddressHolder extends AddressHolder {
     /**
      * 配置的直连地址列表
      */
-    protected ProviderGroup        directUrlGroup;
+    protected ProviderGroup               directUrlGroup;
     /**
      * 注册中心来的地址列表
      */
-    protected ProviderGroup        registryGroup;
+    protected ProviderGroup               registryGroup;
 
     /**
-     * 地址变化的锁
+     * 直连分组的只读快照，每次变化后整体替换
      */
-    private ReentrantReadWriteLock lock  = new ReentrantReadWriteLock();
-    // 读锁，允许并发读
-    private Lock                   rLock = lock.readLock();
-    // 写锁，写的时候不允许读
-    private Lock                   wLock = lock.writeLock();
+    private volatile ProviderInfoSnapshot directUrlSnapshot = ProviderInfoSnapshot.EMPTY;
+    /**
+     * 注册中心分组的只读快照，每次变化后整体替换
+     */
+    private volatile ProviderInfoSnapshot registrySnapshot  = ProviderInfoSnapshot.EMPTY;
+
+    /**
+     * 地址变化的锁，只有写操作需要加锁，读操作直接读取快照
+     */
+    private final Lock                    wLock             = new ReentrantLock();
 
     /**
      * 构造函数
@@ -63,49 +68,33 @@ public class SingleGroupAddressHolder extends AddressHolder {
         registryGroup = new ProviderGroup();
     }
 
+    /**
+     * 得到某分组的服务列表，返回的是不可修改的快照，读取时无锁也不复制
+     *
+     * @param groupName 服务列表的标签
+     * @return 当前分组下的服务列表快照
+     */
     @Override
     public List<ProviderInfo> getProviderInfos(String groupName) {
-        rLock.lock();
-        try {
-            // 复制一份
-            return new ArrayList<ProviderInfo>(getProviderGroup(groupName).getProviderInfos());
-        } finally {
-            rLock.unlock();
-        }
+        return RpcConstants.ADDRESS_DIRECT_GROUP.equals(groupName) ? directUrlSnapshot : registrySnapshot;
     }
 
     @Override
     public ProviderGroup getProviderGroup(String groupName) {
-        rLock.lock();
-        try {
-            return RpcConstants.ADDRESS_DIRECT_GROUP.equals(groupName) ? directUrlGroup
-                : registryGroup;
-        } finally {
-            rLock.unlock();
-        }
+        return RpcConstants.ADDRESS_DIRECT_GROUP.equals(groupName) ? directUrlGroup : registryGroup;
     }
 
     @Override
     public List<ProviderGroup> getProviderGroups() {
-        rLock.lock();
-        try {
-            List<ProviderGroup> list = new ArrayList<ProviderGroup>();
-            list.add(registryGroup);
-            list.add(directUrlGroup);
-            return list;
-        } finally {
-            rLock.unlock();
-        }
+        List<ProviderGroup> list = new ArrayList<ProviderGroup>();
+        list.add(registryGroup);
+        list.add(directUrlGroup);
+        return list;
     }
 
     @Override
     public int getAllProviderSize() {
-        rLock.lock();
-        try {
-            return directUrlGroup.size() + registryGroup.size();
-        } finally {
-            rLock.unlock();
-        }
+        return directUrlGroup.size() + registryGroup.size();
     }
 
     @Override
@@ -116,6 +105,7 @@ public class SingleGroupAddressHolder extends AddressHolder {
         wLock.lock();
         try {
             getProviderGroup(providerGroup.getName()).addAll(providerGroup.getProviderInfos());
+            publishSnapshot(providerGroup.getName());
         } finally {
             wLock.unlock();
         }
@@ -129,6 +119,7 @@ public class SingleGroupAddressHolder extends AddressHolder {
         wLock.lock();
         try {
             getProviderGroup(providerGroup.getName()).removeAll(providerGroup.getProviderInfos());
+            publishSnapshot(providerGroup.getName());
         } finally {
             wLock.unlock();
         }
@@ -140,6 +131,7 @@ public class SingleGroupAddressHolder extends AddressHolder {
         try {
             getProviderGroup(providerGroup.getName())
                 .setProviderInfos(new ArrayList<ProviderInfo>(providerGroup.getProviderInfos()));
+            publishSnapshot(providerGroup.getName());
         } finally {
             wLock.unlock();
         }
@@ -162,8 +154,23 @@ public class SingleGroupAddressHolder extends AddressHolder {
         try {
             this.directUrlGroup.setProviderInfos(new ArrayList<ProviderInfo>(tmpDirectUrl));
             this.registryGroup.setProviderInfos(new ArrayList<ProviderInfo>(tmpRegistry));
+            publishSnapshot(RpcConstants.ADDRESS_DIRECT_GROUP);
+            publishSnapshot(RpcConstants.ADDRESS_DEFAULT_GROUP);
         } finally {
             wLock.unlock();
         }
     }
+
+    /**
+     * 根据分组当前的列表生成新的快照并发布，需要在写锁内调用
+     *
+     * @param groupName 服务列表的标签
+     */
+    private void publishSnapshot(String groupName) {
+        if (RpcConstants.ADDRESS_DIRECT_GROUP.equals(groupName)) {
+            directUrlSnapshot = ProviderInfoSnapshot.of(directUrlGroup.getProviderInfos());
+        } else {
+            registrySnapshot = ProviderInfoSnapshot.of(registryGroup.getProviderInfos());
+        }
+    }
 }
\ No newline at end of file
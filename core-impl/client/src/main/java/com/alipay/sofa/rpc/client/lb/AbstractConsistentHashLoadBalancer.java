@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
+import com.alipay.sofa.rpc.client.AbstractLoadBalancer;
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 一致性hash负载均衡的公共部分：hash环按服务列表构建一次后复用，hash算法和hash key提取方式可扩展。
+ * <p>
+ * hash算法取消费者参数 hashFunction，默认见 {@link RpcOptions#CONSUMER_HASH_FUNCTION}；
+ * hash key提取方式取方法级或接口级参数 hashKeyExtractor，默认见 {@link RpcOptions#CONSUMER_HASH_KEY_EXTRACTOR}；
+ * 配置了方法级或接口级参数 hashKeyArgIndex 时，以对应下标的参数作为hash key，见 {@link ArgIndexHashKeyExtractor}。
+ *
+ * @since 5.14.3
+ */
+public abstract class AbstractConsistentHashLoadBalancer extends AbstractLoadBalancer {
+
+    /**
+     * hash算法
+     */
+    protected final HashFunction                          hashFunction;
+
+    /**
+     * {method : hash key提取器}
+     */
+    private final ConcurrentMap<String, HashKeyExtractor> extractorCache = new ConcurrentHashMap<String, HashKeyExtractor>();
+
+    /**
+     * 当前的hash环
+     */
+    private volatile ConsistentHashRing                   ring;
+
+    /**
+     * 构造函数
+     *
+     * @param consumerBootstrap 服务消费者配置
+     */
+    public AbstractConsistentHashLoadBalancer(ConsumerBootstrap consumerBootstrap) {
+        super(consumerBootstrap);
+        String alias = consumerConfig == null ? null : consumerConfig.getParameter(
+            RpcConstants.CONFIG_KEY_HASH_FUNCTION);
+        if (StringUtils.isBlank(alias)) {
+            alias = RpcConfigs.getOrDefaultValue(RpcOptions.CONSUMER_HASH_FUNCTION, "md5");
+        }
+        this.hashFunction = ExtensionLoaderFactory.getExtensionLoader(HashFunction.class).getExtension(alias);
+    }
+
+    @Override
+    public ProviderInfo doSelect(SofaRequest request, List<ProviderInfo> providerInfos) {
+        ConsistentHashRing current = getRing(providerInfos);
+        String key = getHashKeyExtractor(request.getMethodName()).extract(request);
+        return doSelect(request, current, key);
+    }
+
+    /**
+     * 在hash环上选择节点
+     *
+     * @param request 请求
+     * @param ring    hash环
+     * @param key     hash key
+     * @return 服务端
+     */
+    protected ProviderInfo doSelect(SofaRequest request, ConsistentHashRing ring, String key) {
+        return ring.select(key);
+    }
+
+    /**
+     * 得到服务列表对应的hash环，服务列表变化时重建
+     *
+     * @param providerInfos 服务列表
+     * @return hash环
+     */
+    protected ConsistentHashRing getRing(List<ProviderInfo> providerInfos) {
+        ConsistentHashRing current = ring;
+        if (current == null || !current.isBuiltFrom(providerInfos, hashFunction)) {
+            current = ConsistentHashRing.build(providerInfos, hashFunction, this::getVirtualNodeNum);
+            ring = current;
+        }
+        return current;
+    }
+
+    /**
+     * 某个节点的虚拟节点数
+     *
+     * @param providerInfo 服务端
+     * @return 虚拟节点数
+     */
+    protected abstract int getVirtualNodeNum(ProviderInfo providerInfo);
+
+    /**
+     * 得到方法对应的hash key提取器
+     *
+     * @param methodName 方法名
+     * @return hash key提取器
+     */
+    protected HashKeyExtractor getHashKeyExtractor(String methodName) {
+        if (methodName == null) {
+            methodName = StringUtils.EMPTY;
+        }
+        HashKeyExtractor extractor = extractorCache.get(methodName);
+        if (extractor == null) {
+            extractor = createHashKeyExtractor(methodName);
+            HashKeyExtractor old = extractorCache.putIfAbsent(methodName, extractor);
+            if (old != null) {
+                extractor = old;
+            }
+        }
+        return extractor;
+    }
+
+    /**
+     * 创建方法对应的hash key提取器，hashKeyArgIndex 优先于 hashKeyExtractor
+     *
+     * @param methodName 方法名
+     * @return hash key提取器
+     */
+    private HashKeyExtractor createHashKeyExtractor(String methodName) {
+        String alias = null;
+        if (consumerConfig != null) {
+            Object index = consumerConfig.getMethodConfigValue(methodName, RpcConstants.CONFIG_KEY_HASH_KEY_ARG_INDEX);
+            if (index == null) {
+                index = consumerConfig.getParameter(RpcConstants.CONFIG_KEY_HASH_KEY_ARG_INDEX);
+            }
+            if (index != null && StringUtils.isNotBlank(index.toString())) {
+                return new ArgIndexHashKeyExtractor(Integer.parseInt(index.toString().trim()));
+            }
+            alias = (String) consumerConfig.getMethodConfigValue(methodName,
+                RpcConstants.CONFIG_KEY_HASH_KEY_EXTRACTOR);
+            if (StringUtils.isBlank(alias)) {
+                alias = consumerConfig.getParameter(RpcConstants.CONFIG_KEY_HASH_KEY_EXTRACTOR);
+            }
+        }
+        if (StringUtils.isBlank(alias)) {
+            alias = RpcConfigs.getOrDefaultValue(RpcOptions.CONSUMER_HASH_KEY_EXTRACTOR, "firstArg");
+        }
+        return ExtensionLoaderFactory.getExtensionLoader(HashKeyExtractor.class).getExtension(alias);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
+import com.alipay.sofa.rpc.client.AbstractLoadBalancer;
+import com.alipay.sofa.rpc.client.InvokeAwareLoadBalancer;
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按负载选择节点的公共部分：随机取两个不同节点，选负载（除以权重后）较低的一个（power of two choices），
+ * 选择的开销和服务端个数无关。
+ * <p>
+ * 负载由子类根据 {@link ProviderLoadStats} 计算，统计由集群在调用开始和结束时回调更新。
+ *
+ * @since 5.14.3
+ */
+public abstract class AbstractPowerOfTwoChoicesLoadBalancer extends AbstractLoadBalancer implements
+                                                                                        InvokeAwareLoadBalancer {
+
+    /**
+     * 负载统计
+     */
+    protected final ProviderLoadStats stats           = new ProviderLoadStats();
+
+    /**
+     * 上次清理统计时的服务列表版本号
+     */
+    private volatile long             retainedVersion = -1;
+
+    /**
+     * 构造函数
+     *
+     * @param consumerBootstrap 服务消费者配置
+     */
+    public AbstractPowerOfTwoChoicesLoadBalancer(ConsumerBootstrap consumerBootstrap) {
+        super(consumerBootstrap);
+    }
+
+    @Override
+    public ProviderInfo doSelect(SofaRequest request, List<ProviderInfo> providerInfos) {
+        int size = providerInfos.size();
+        if (size == 1) {
+            return providerInfos.get(0);
+        }
+        retainIfChanged(providerInfos);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ProviderInfo a = providerInfos.get(first);
+        ProviderInfo b = providerInfos.get(second);
+        double loadA = getLoad(a, stats.get(a)) / Math.max(getWeight(a), 1);
+        double loadB = getLoad(b, stats.get(b)) / Math.max(getWeight(b), 1);
+        if (loadA == loadB) {
+            return random.nextBoolean() ? a : b;
+        }
+        return loadA < loadB ? a : b;
+    }
+
+    /**
+     * 计算节点负载，越小越优先
+     *
+     * @param providerInfo 服务端
+     * @param stat         负载统计，还没有调用过时为null
+     * @return 负载
+     */
+    protected abstract double getLoad(ProviderInfo providerInfo, ProviderLoadStat stat);
+
+    @Override
+    public void onInvokeStart(ProviderInfo providerInfo, SofaRequest request) {
+        stats.onInvokeStart(providerInfo);
+    }
+
+    @Override
+    public void onInvokeEnd(ProviderInfo providerInfo, SofaRequest request, long elapsedNanos, boolean success) {
+        stats.onInvokeEnd(providerInfo, -1L);
+    }
+
+    /**
+     * 服务列表版本变化且统计中有多余节点时，清理已下线的节点
+     *
+     * @param providerInfos 服务列表
+     */
+    private void retainIfChanged(List<ProviderInfo> providerInfos) {
+        if (providerInfos instanceof ProviderInfoSnapshot) {
+            long version = ((ProviderInfoSnapshot) providerInfos).getVersion();
+            if (version != retainedVersion) {
+                retainedVersion = version;
+                if (stats.size() > providerInfos.size()) {
+                    stats.retain(providerInfos);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+
+/**
+ * 以指定下标的参数作为hash key，下标按方法配置（方法参数 hashKeyArgIndex），
+ * 由一致性hash负载均衡按方法创建，参数不够时hash key为空字符串。
+ *
+ * @since 5.14.3
+ */
+public class ArgIndexHashKeyExtractor implements HashKeyExtractor {
+
+    /**
+     * 参数下标，从0开始
+     */
+    private final int index;
+
+    /**
+     * 构造函数
+     *
+     * @param index 参数下标，从0开始
+     */
+    public ArgIndexHashKeyExtractor(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("hashKeyArgIndex must not be negative: " + index);
+        }
+        this.index = index;
+    }
+
+    @Override
+    public String extract(SofaRequest request) {
+        Object[] args = request.getMethodArgs();
+        if (args == null || args.length <= index) {
+            return StringUtils.EMPTY;
+        }
+        return StringUtils.toString(args[index], StringUtils.EMPTY);
+    }
+
+    /**
+     * 参数下标
+     *
+     * @return 参数下标
+     */
+    public int getIndex() {
+        return index;
+    }
+}
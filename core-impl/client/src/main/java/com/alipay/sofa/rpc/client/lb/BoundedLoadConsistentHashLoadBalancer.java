@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
+import com.alipay.sofa.rpc.client.InvokeAwareLoadBalancer;
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.core.exception.SofaRpcRuntimeException;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.ext.Extension;
+
+import java.util.List;
+
+/**
+ * 有界负载的一致性hash：同样的请求优先打到环上同样的节点，
+ * 但节点并发数达到 (1+hashBalanceFactor)*平均并发 时沿环顺延到下一个未超限的节点，避免热点key压垮单个节点。
+ * <p>
+ * 并发数按本消费者的在途请求统计，由集群在调用开始和结束时回调。
+ *
+ * @since 5.14.3
+ */
+@Extension("consistentHashBoundedLoad")
+public class BoundedLoadConsistentHashLoadBalancer extends AbstractConsistentHashLoadBalancer implements
+                                                                                             InvokeAwareLoadBalancer {
+
+    /**
+     * 每个节点的虚拟节点数
+     */
+    private static final int            VIRTUAL_NODE_NUM = 128;
+
+    /**
+     * 允许超出平均并发的比例
+     */
+    private final double                balanceFactor;
+
+    /**
+     * 在途请求数统计
+     */
+    private final ProviderLoadStats     stats            = new ProviderLoadStats();
+
+    /**
+     * 上次清理统计时的hash环
+     */
+    private volatile ConsistentHashRing prunedRing;
+
+    /**
+     * 构造函数
+     *
+     * @param consumerBootstrap 服务消费者配置
+     */
+    public BoundedLoadConsistentHashLoadBalancer(ConsumerBootstrap consumerBootstrap) {
+        super(consumerBootstrap);
+        String factor = consumerConfig == null ? null : consumerConfig.getParameter(
+            RpcConstants.CONFIG_KEY_HASH_BALANCE_FACTOR);
+        if (StringUtils.isBlank(factor)) {
+            factor = String.valueOf(RpcConfigs.getOrDefaultValue(RpcOptions.CONSUMER_HASH_BALANCE_FACTOR, 0.25d));
+        }
+        this.balanceFactor = Double.parseDouble(factor);
+        if (!(balanceFactor > 0)) {
+            throw new SofaRpcRuntimeException("Illegal hash balance factor: " + factor + ", must be positive");
+        }
+    }
+
+    @Override
+    protected int getVirtualNodeNum(ProviderInfo providerInfo) {
+        return VIRTUAL_NODE_NUM;
+    }
+
+    @Override
+    protected ConsistentHashRing getRing(List<ProviderInfo> providerInfos) {
+        ConsistentHashRing current = super.getRing(providerInfos);
+        if (current != prunedRing) {
+            prunedRing = current;
+            stats.retain(providerInfos);
+        }
+        return current;
+    }
+
+    @Override
+    protected ProviderInfo doSelect(SofaRequest request, ConsistentHashRing ring, String key) {
+        int index = ring.ceilingIndex(ring.hash(key));
+        if (index < 0) {
+            return null;
+        }
+        ProviderInfo selected = ring.getProvider(index);
+        int providerSize = ring.providerSize();
+        if (providerSize <= 1) {
+            return selected;
+        }
+        long capacity = capacity(providerSize);
+        if (getInflight(selected) < capacity) {
+            return selected;
+        }
+        // 沿环顺延，每个真实节点只检查一次
+        boolean[] visited = new boolean[providerSize];
+        visited[ring.getProviderIndex(index)] = true;
+        int checked = 1;
+        int size = ring.size();
+        int next = index;
+        for (int i = 1; i < size && checked < providerSize; i++) {
+            if (++next == size) {
+                next = 0;
+            }
+            int owner = ring.getProviderIndex(next);
+            if (visited[owner]) {
+                continue;
+            }
+            visited[owner] = true;
+            checked++;
+            ProviderInfo candidate = ring.getProvider(next);
+            if (getInflight(candidate) < capacity) {
+                return candidate;
+            }
+        }
+        // 理论上总有节点未超限，统计误差时回到原始节点
+        return selected;
+    }
+
+    /**
+     * 单个节点的并发上限，加上本次请求后的平均并发乘以 (1+balanceFactor)，向上取整
+     *
+     * @param providerSize 节点数
+     * @return 并发上限
+     */
+    long capacity(int providerSize) {
+        long total = stats.getTotalActive() + 1;
+        return (long) Math.ceil(total * (1 + balanceFactor) / providerSize);
+    }
+
+    /**
+     * 节点的在途请求数
+     *
+     * @param providerInfo 服务端
+     * @return 在途请求数
+     */
+    long getInflight(ProviderInfo providerInfo) {
+        return stats.getActive(providerInfo);
+    }
+
+    @Override
+    public void onInvokeStart(ProviderInfo providerInfo, SofaRequest request) {
+        stats.onInvokeStart(providerInfo);
+    }
+
+    @Override
+    public void onInvokeEnd(ProviderInfo providerInfo, SofaRequest request, long elapsedNanos, boolean success) {
+        // 只关心并发数，不记录响应时间
+        stats.onInvokeEnd(providerInfo, -1L);
+    }
+}
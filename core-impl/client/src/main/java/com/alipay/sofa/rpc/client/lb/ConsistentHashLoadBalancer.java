@@ -17,32 +17,21 @@
 package com.alipay.sofa.rpc.client.lb;
 
 import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
-import com.alipay.sofa.rpc.client.AbstractLoadBalancer;
 import com.alipay.sofa.rpc.client.ProviderInfo;
-import com.alipay.sofa.rpc.common.utils.CommonUtils;
-import com.alipay.sofa.rpc.common.utils.HashUtils;
-import com.alipay.sofa.rpc.common.utils.StringUtils;
-import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.ext.Extension;
 
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-
 /**
  * 一致性hash算法，同样的请求（第一参数）会打到同样的节点
  *
  * @author <a href=mailto:zhanggeng.zg@antfin.com>GengZhang</a>
  */
 @Extension("consistentHash")
-public class ConsistentHashLoadBalancer extends AbstractLoadBalancer {
+public class ConsistentHashLoadBalancer extends AbstractConsistentHashLoadBalancer {
 
     /**
-     * {interface#method : selector}
+     * 每个节点的虚拟节点数（较多比较均匀）
      */
-    private ConcurrentMap<String, Selector> selectorCache = new ConcurrentHashMap<String, Selector>();
+    private static final int VIRTUAL_NODE_NUM = 128;
 
     /**
      * 构造函数
@@ -54,130 +43,7 @@ public class ConsistentHashLoadBalancer extends AbstractLoadBalancer {
     }
 
     @Override
-    public ProviderInfo doSelect(SofaRequest request, List<ProviderInfo> providerInfos) {
-        String interfaceId = request.getInterfaceName();
-        String method = request.getMethodName();
-        String key = interfaceId + "#" + method;
-        int hashcode = providerInfos.hashCode(); // 判断是否同样的服务列表
-        Selector selector = selectorCache.get(key);
-        if (selector == null // 原来没有
-            ||
-            selector.getHashCode() != hashcode) { // 或者服务列表已经变化
-            selector = new Selector(interfaceId, method, providerInfos, hashcode);
-            selectorCache.put(key, selector);
-        }
-        return selector.select(request);
-    }
-
-    /**
-     * 选择器
-     */
-    private static class Selector {
-
-        /**
-         * The Hashcode.
-         */
-        private final int                         hashcode;
-
-        /**
-         * The Interface id.
-         */
-        private final String                      interfaceId;
-
-        /**
-         * The Method name.
-         */
-        private final String                      method;
-
-        /**
-         * 虚拟节点
-         */
-        private final TreeMap<Long, ProviderInfo> virtualNodes;
-
-        /**
-         * Instantiates a new Selector.
-         *
-         * @param interfaceId the interface id
-         * @param method      the method
-         * @param actualNodes the actual nodes
-         */
-        public Selector(String interfaceId, String method, List<ProviderInfo> actualNodes) {
-            this(interfaceId, method, actualNodes, actualNodes.hashCode());
-        }
-
-        /**
-         * Instantiates a new Selector.
-         *
-         * @param interfaceId the interface id
-         * @param method      the method
-         * @param actualNodes the actual nodes
-         * @param hashcode    the hashcode
-         */
-        public Selector(String interfaceId, String method, List<ProviderInfo> actualNodes, int hashcode) {
-            this.interfaceId = interfaceId;
-            this.method = method;
-            this.hashcode = hashcode;
-            // 创建虚拟节点环 （默认一个provider共创建128个虚拟节点，较多比较均匀）
-            this.virtualNodes = new TreeMap<Long, ProviderInfo>();
-            int num = 128;
-            for (ProviderInfo providerInfo : actualNodes) {
-                for (int i = 0; i < num / 4; i++) {
-                    byte[] digest = HashUtils.messageDigest(providerInfo.getHost() + providerInfo.getPort() + i);
-                    for (int h = 0; h < 4; h++) {
-                        long m = HashUtils.hash(digest, h);
-                        virtualNodes.put(m, providerInfo);
-                    }
-                }
-            }
-        }
-
-        /**
-         * Select provider.
-         *
-         * @param request the request
-         * @return the provider
-         */
-        public ProviderInfo select(SofaRequest request) {
-            String key = buildKeyOfHash(request.getMethodArgs());
-            byte[] digest = HashUtils.messageDigest(key);
-            return selectForKey(HashUtils.hash(digest, 0));
-        }
-
-        /**
-         * 获取第一参数作为hash的key
-         *
-         * @param args the args
-         * @return the string
-         */
-        private String buildKeyOfHash(Object[] args) {
-            if (CommonUtils.isEmpty(args)) {
-                return StringUtils.EMPTY;
-            } else {
-                return StringUtils.toString(args[0]);
-            }
-        }
-
-        /**
-         * Select for key.
-         *
-         * @param hash the hash
-         * @return the provider
-         */
-        private ProviderInfo selectForKey(long hash) {
-            Map.Entry<Long, ProviderInfo> entry = virtualNodes.ceilingEntry(hash);
-            if (entry == null) {
-                entry = virtualNodes.firstEntry();
-            }
-            return entry.getValue();
-        }
-
-        /**
-         * Gets hash code.
-         *
-         * @return the hash code
-         */
-        public int getHashCode() {
-            return hashcode;
-        }
+    protected int getVirtualNodeNum(ProviderInfo providerInfo) {
+        return VIRTUAL_NODE_NUM;
     }
 }
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 一致性hash环，虚拟节点按hash值排序后保存在基本类型数组中，查找使用二分。
+ * <p>
+ * 环只和服务列表有关，和方法无关，服务列表是 {@link ProviderInfoSnapshot} 时按版本号判断是否需要重建，
+ * 否则退化为比较列表的 hashCode。
+ *
+ * @since 5.14.3
+ */
+public final class ConsistentHashRing {
+
+    /**
+     * 虚拟节点数计算
+     */
+    public interface ReplicaCounter {
+
+        /**
+         * 某个节点的虚拟节点数
+         *
+         * @param providerInfo 服务端
+         * @return 虚拟节点数
+         */
+        int replicas(ProviderInfo providerInfo);
+    }
+
+    /**
+     * 构建环时的服务列表版本号，不是快照时为 -1
+     */
+    private final long           version;
+
+    /**
+     * 构建环时的服务列表 hashCode，只有不是快照时才计算
+     */
+    private final int            hashcode;
+
+    /**
+     * 构建环使用的hash算法
+     */
+    private final HashFunction   hashFunction;
+
+    /**
+     * 真实节点
+     */
+    private final ProviderInfo[] providers;
+
+    /**
+     * 虚拟节点hash值，升序
+     */
+    private final long[]         points;
+
+    /**
+     * 虚拟节点对应的真实节点下标
+     */
+    private final int[]          owners;
+
+    private ConsistentHashRing(long version, int hashcode, HashFunction hashFunction, ProviderInfo[] providers,
+                               long[] points, int[] owners) {
+        this.version = version;
+        this.hashcode = hashcode;
+        this.hashFunction = hashFunction;
+        this.providers = providers;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    /**
+     * 构建hash环
+     *
+     * @param providerInfos  服务列表
+     * @param hashFunction   hash算法
+     * @param replicaCounter 虚拟节点数计算
+     * @return hash环
+     */
+    public static ConsistentHashRing build(List<ProviderInfo> providerInfos, HashFunction hashFunction,
+                                           ReplicaCounter replicaCounter) {
+        long version = -1;
+        int hashcode = 0;
+        if (providerInfos instanceof ProviderInfoSnapshot) {
+            version = ((ProviderInfoSnapshot) providerInfos).getVersion();
+        } else {
+            hashcode = providerInfos.hashCode();
+        }
+        ProviderInfo[] providers = providerInfos.toArray(new ProviderInfo[0]);
+        long[][] nodeHashes = new long[providers.length][];
+        int total = 0;
+        for (int i = 0; i < providers.length; i++) {
+            ProviderInfo providerInfo = providers[i];
+            int replicas = Math.max(replicaCounter.replicas(providerInfo), 0);
+            nodeHashes[i] = hashFunction.virtualNodeHashes(providerInfo.getHost() + providerInfo.getPort(), replicas);
+            total += nodeHashes[i].length;
+        }
+        // 高位放32位hash值，低位放插入顺序，排序后hash值相同的虚拟节点保持插入顺序
+        long[] packed = new long[total];
+        int[] sequenceOwners = new int[total];
+        int seq = 0;
+        for (int i = 0; i < providers.length; i++) {
+            for (long hash : nodeHashes[i]) {
+                packed[seq] = (hash << 31) | seq;
+                sequenceOwners[seq] = i;
+                seq++;
+            }
+        }
+        Arrays.sort(packed);
+        long[] points = new long[total];
+        int[] owners = new int[total];
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            long hash = packed[i] >>> 31;
+            int owner = sequenceOwners[(int) (packed[i] & 0x7FFFFFFFL)];
+            if (size > 0 && points[size - 1] == hash) {
+                // hash冲突时后插入的覆盖先插入的，和 TreeMap.put 的行为一致
+                owners[size - 1] = owner;
+            } else {
+                points[size] = hash;
+                owners[size] = owner;
+                size++;
+            }
+        }
+        if (size < total) {
+            points = Arrays.copyOf(points, size);
+            owners = Arrays.copyOf(owners, size);
+        }
+        return new ConsistentHashRing(version, hashcode, hashFunction, providers, points, owners);
+    }
+
+    /**
+     * 环是否由该服务列表和hash算法构建
+     *
+     * @param providerInfos 服务列表
+     * @param hashFunction  hash算法
+     * @return 是否可以复用
+     */
+    public boolean isBuiltFrom(List<ProviderInfo> providerInfos, HashFunction hashFunction) {
+        if (this.hashFunction != hashFunction) {
+            return false;
+        }
+        if (providerInfos instanceof ProviderInfoSnapshot) {
+            return version == ((ProviderInfoSnapshot) providerInfos).getVersion();
+        }
+        return version == -1 && hashcode == providerInfos.hashCode();
+    }
+
+    /**
+     * 按hash key选择节点
+     *
+     * @param key hash key
+     * @return 服务端，环为空时返回null
+     */
+    public ProviderInfo select(String key) {
+        int index = ceilingIndex(hashFunction.hash(key));
+        return index < 0 ? null : providers[owners[index]];
+    }
+
+    /**
+     * 找到第一个不小于hash值的虚拟节点，超过最大值则回到环的起点
+     *
+     * @param hash hash值
+     * @return 虚拟节点下标，环为空时返回-1
+     */
+    public int ceilingIndex(long hash) {
+        if (points.length == 0) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * 虚拟节点对应的服务端
+     *
+     * @param index 虚拟节点下标
+     * @return 服务端
+     */
+    public ProviderInfo getProvider(int index) {
+        return providers[owners[index]];
+    }
+
+    /**
+     * 虚拟节点对应的真实节点下标
+     *
+     * @param index 虚拟节点下标
+     * @return 真实节点下标，范围为 [0, providerSize())
+     */
+    public int getProviderIndex(int index) {
+        return owners[index];
+    }
+
+    /**
+     * 虚拟节点数
+     *
+     * @return 虚拟节点数
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * 真实节点数
+     *
+     * @return 真实节点数
+     */
+    public int providerSize() {
+        return providers.length;
+    }
+
+    /**
+     * 计算hash值
+     *
+     * @param key hash key
+     * @return hash值
+     */
+    public long hash(String key) {
+        return hashFunction.hash(key);
+    }
+}
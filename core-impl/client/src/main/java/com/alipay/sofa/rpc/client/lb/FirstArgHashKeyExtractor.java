@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.common.utils.CommonUtils;
+import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.ext.Extension;
+
+/**
+ * 以第一个参数作为hash key（默认方式，和老版本一致）
+ * <p>
+ * 没有参数或者第一个参数为null时使用空字符串，所有这样的请求落到同一个节点。老版本第一个参数为null时计算hash会抛出空指针异常
+ *
+ * @since 5.14.3
+ */
+@Extension("firstArg")
+public class FirstArgHashKeyExtractor implements HashKeyExtractor {
+
+    @Override
+    public String extract(SofaRequest request) {
+        Object[] args = request.getMethodArgs();
+        if (CommonUtils.isEmpty(args)) {
+            return StringUtils.EMPTY;
+        }
+        return StringUtils.toString(args[0], StringUtils.EMPTY);
+    }
+}
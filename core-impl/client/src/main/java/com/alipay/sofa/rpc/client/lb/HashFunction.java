@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.ext.Extensible;
+
+/**
+ * 一致性hash使用的hash算法，结果都是32位无符号整数（用long表示）
+ *
+ * @since 5.14.3
+ */
+@Extensible
+public interface HashFunction {
+
+    /**
+     * 计算请求hash key的hash值
+     *
+     * @param key hash key
+     * @return 32位无符号hash值
+     */
+    long hash(String key);
+
+    /**
+     * 计算某个节点全部虚拟节点的hash值
+     *
+     * @param nodeKey  节点标识，例如 host + port
+     * @param replicas 虚拟节点数
+     * @return hash值数组，一般长度为 replicas，实现可以按自身算法取整（见 {@link Md5HashFunction}）
+     */
+    long[] virtualNodeHashes(String nodeKey, int replicas);
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.ext.Extensible;
+
+/**
+ * 一致性hash负载均衡从请求中提取hash key，可以按方法配置（方法参数 hashKeyExtractor）
+ *
+ * @since 5.14.3
+ */
+@Extensible
+public interface HashKeyExtractor {
+
+    /**
+     * 提取hash key
+     *
+     * @param request 请求
+     * @return hash key，不能为null
+     */
+    String extract(SofaRequest request);
+}
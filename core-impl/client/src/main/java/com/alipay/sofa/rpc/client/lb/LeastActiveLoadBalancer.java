@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.ext.Extension;
+
+/**
+ * 最少活跃调用：随机取两个节点，选在途请求数（除以权重后）较少的一个。
+ *
+ * @since 5.14.3
+ */
+@Extension("leastActive")
+public class LeastActiveLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    /**
+     * 构造函数
+     *
+     * @param consumerBootstrap 服务消费者配置
+     */
+    public LeastActiveLoadBalancer(ConsumerBootstrap consumerBootstrap) {
+        super(consumerBootstrap);
+    }
+
+    @Override
+    protected double getLoad(ProviderInfo providerInfo, ProviderLoadStat stat) {
+        return stat == null ? 0d : stat.getActive();
+    }
+}
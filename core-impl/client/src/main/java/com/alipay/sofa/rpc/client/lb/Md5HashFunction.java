@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.common.utils.HashUtils;
+import com.alipay.sofa.rpc.ext.Extension;
+
+/**
+ * MD5 hash，和老版本的 TreeMap 实现节点分布完全一致，方便平滑迁移
+ *
+ * @since 5.14.3
+ */
+@Extension("md5")
+public class Md5HashFunction implements HashFunction {
+
+    @Override
+    public long hash(String key) {
+        return HashUtils.hash(HashUtils.messageDigest(key), 0);
+    }
+
+    /**
+     * 一次摘要得到4个hash值，和老版本一样只取 replicas / 4 次摘要，返回 replicas / 4 * 4 个hash值，
+     * replicas 不是4的倍数时向下取整。向上取整会多出虚拟节点，节点分布就和老版本不一致了
+     *
+     * @param nodeKey  节点标识，例如 host + port
+     * @param replicas 虚拟节点数
+     * @return 长度为 replicas / 4 * 4 的hash值数组
+     */
+    @Override
+    public long[] virtualNodeHashes(String nodeKey, int replicas) {
+        long[] hashes = new long[replicas / 4 * 4];
+        int idx = 0;
+        for (int i = 0; i < replicas / 4; i++) {
+            byte[] digest = HashUtils.messageDigest(nodeKey + i);
+            for (int h = 0; h < 4; h++) {
+                hashes[idx++] = HashUtils.hash(digest, h);
+            }
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.ext.Extension;
+
+/**
+ * MurmurHash3 (x86_32)，直接对字符串的 char 计算，请求路径上不需要编码成 byte[]
+ *
+ * @since 5.14.3
+ */
+@Extension("murmur3")
+public class Murmur3HashFunction implements HashFunction {
+
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    @Override
+    public long hash(String key) {
+        return murmur3(key, 0) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long[] virtualNodeHashes(String nodeKey, int replicas) {
+        long[] hashes = new long[replicas];
+        for (int i = 0; i < replicas; i++) {
+            // 虚拟节点序号作为种子，不需要拼接字符串
+            hashes[i] = murmur3(nodeKey, i) & 0xFFFFFFFFL;
+        }
+        return hashes;
+    }
+
+    /**
+     * Murmur3 32位 hash，每两个 char 组成一个 block
+     *
+     * @param key  字符串
+     * @param seed 种子
+     * @return hash值
+     */
+    static int murmur3(String key, int seed) {
+        int h1 = seed;
+        int length = key.length();
+        for (int i = 1; i < length; i += 2) {
+            int k1 = key.charAt(i - 1) | (key.charAt(i) << 16);
+            h1 = mixH1(h1, mixK1(k1));
+        }
+        if ((length & 1) == 1) {
+            h1 ^= mixK1(key.charAt(length - 1));
+        }
+        h1 ^= 2 * length;
+        return fmix(h1);
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= C1;
+        k1 = Integer.rotateLeft(k1, 15);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static int mixH1(int h1, int k1) {
+        h1 ^= k1;
+        h1 = Integer.rotateLeft(h1, 13);
+        h1 = h1 * 5 + 0xe6546b64;
+        return h1;
+    }
+
+    private static int fmix(int h1) {
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.ext.Extension;
+
+/**
+ * 按响应时间选择：负载为 peak EWMA 响应时间 * (在途请求数 + 1)，随机取两个节点选负载较低的一个。
+ * 节点变慢（例如GC停顿）时响应时间立即反映到负载中，读取时按距上次样本的时间衰减到当前时刻，
+ * 因此一次慢调用后没有再被选中的节点也会逐渐恢复，重新获得流量。
+ * <p>
+ * 失败的调用按 max(耗时, 衰减后的平均响应时间) 的两倍记录，避免快速失败的节点看起来响应很快。
+ *
+ * @since 5.14.3
+ */
+@Extension("peakEwma")
+public class PeakEwmaLoadBalancer extends AbstractPowerOfTwoChoicesLoadBalancer {
+
+    /**
+     * 有在途请求但还没有响应时间样本的节点的惩罚值，使其排在有样本的节点之后
+     */
+    private static final double PENALTY = Integer.MAX_VALUE;
+
+    /**
+     * 构造函数
+     *
+     * @param consumerBootstrap 服务消费者配置
+     */
+    public PeakEwmaLoadBalancer(ConsumerBootstrap consumerBootstrap) {
+        super(consumerBootstrap);
+    }
+
+    @Override
+    protected double getLoad(ProviderInfo providerInfo, ProviderLoadStat stat) {
+        if (stat == null) {
+            return 0d;
+        }
+        long active = stat.getActive();
+        double cost = stat.getCost(nanoTime(), stats.getDecayNanos());
+        if (cost == 0d) {
+            return active == 0 ? 0d : PENALTY + active;
+        }
+        return cost * (active + 1);
+    }
+
+    @Override
+    public void onInvokeEnd(ProviderInfo providerInfo, SofaRequest request, long elapsedNanos, boolean success) {
+        long now = nanoTime();
+        long rtt = elapsedNanos;
+        if (!success) {
+            ProviderLoadStat stat = stats.get(providerInfo);
+            double cost = stat == null ? 0d : stat.getCost(now, stats.getDecayNanos());
+            rtt = (long) (Math.max(elapsedNanos, cost) * 2);
+        }
+        stats.onInvokeEnd(providerInfo, rtt, now);
+    }
+
+    /**
+     * 当前时间
+     *
+     * @return 当前时间（纳秒）
+     */
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+}
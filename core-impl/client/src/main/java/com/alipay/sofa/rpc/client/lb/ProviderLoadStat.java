@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个服务端的负载统计：在途请求数，以及带峰值敏感的指数加权平均响应时间（peak EWMA）。
+ * <p>
+ * 在途请求数使用分段计数器，调用开始和结束互不竞争；平均响应时间用CAS更新，不加锁。
+ *
+ * @since 5.14.3
+ */
+public class ProviderLoadStat {
+
+    /**
+     * 在途请求数
+     */
+    private final LongAdder  active   = new LongAdder();
+
+    /**
+     * 平均响应时间（纳秒），按 double 的位存储
+     */
+    private final AtomicLong costBits = new AtomicLong(Double.doubleToRawLongBits(0d));
+
+    /**
+     * 上次更新平均响应时间的时间戳（纳秒）
+     */
+    private volatile long    lastSampleNanos;
+
+    /**
+     * 调用开始
+     */
+    public void start() {
+        active.increment();
+    }
+
+    /**
+     * 调用结束
+     */
+    public void end() {
+        active.decrement();
+    }
+
+    /**
+     * 在途请求数
+     *
+     * @return 在途请求数，统计有误差时不小于0
+     */
+    public long getActive() {
+        return Math.max(active.sum(), 0L);
+    }
+
+    /**
+     * 记录一次响应时间。比当前平均值大时直接取该值（对变慢敏感），
+     * 否则按距上次记录的时间衰减：cost = cost * w + rtt * (1 - w)，w = exp(-间隔 / decayNanos)
+     *
+     * @param rttNanos   响应时间（纳秒）
+     * @param nowNanos   当前时间（纳秒）
+     * @param decayNanos 衰减时间窗口（纳秒）
+     */
+    public void sample(long rttNanos, long nowNanos, long decayNanos) {
+        double rtt = Math.max(rttNanos, 0L);
+        long elapsed = Math.max(nowNanos - lastSampleNanos, 0L);
+        lastSampleNanos = nowNanos;
+        double w = Math.exp(-(double) elapsed / decayNanos);
+        for (;;) {
+            long bits = costBits.get();
+            double cost = Double.longBitsToDouble(bits);
+            double newCost = rtt > cost ? rtt : cost * w + rtt * (1 - w);
+            if (costBits.compareAndSet(bits, Double.doubleToRawLongBits(newCost))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 上次记录的平均响应时间，没有衰减到当前时刻
+     *
+     * @return 平均响应时间（纳秒），还没有样本时为0
+     */
+    public double getCost() {
+        return Double.longBitsToDouble(costBits.get());
+    }
+
+    /**
+     * 衰减到当前时刻的平均响应时间：cost * exp(-距上次记录的时间 / decayNanos)。
+     * 一次慢调用之后不再被选中的节点，负载也会随时间下降，重新获得流量和样本。
+     *
+     * @param nowNanos   当前时间（纳秒）
+     * @param decayNanos 衰减时间窗口（纳秒）
+     * @return 平均响应时间（纳秒），还没有样本时为0
+     */
+    public double getCost(long nowNanos, long decayNanos) {
+        double cost = getCost();
+        long elapsed = nowNanos - lastSampleNanos;
+        if (cost == 0d || elapsed <= 0) {
+            return cost;
+        }
+        return cost * Math.exp(-(double) elapsed / decayNanos);
+    }
+}
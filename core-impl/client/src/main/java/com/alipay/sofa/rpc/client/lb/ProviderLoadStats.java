@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.client.ProviderInfo;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个负载均衡实例内所有服务端的负载统计，由 {@link com.alipay.sofa.rpc.client.InvokeAwareLoadBalancer} 的回调更新。
+ *
+ * @since 5.14.3
+ */
+public class ProviderLoadStats {
+
+    /**
+     * 默认的响应时间衰减窗口
+     */
+    public static final long                                    DEFAULT_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * {服务端 : 负载统计}
+     */
+    private final ConcurrentMap<ProviderInfo, ProviderLoadStat> stats               = new ConcurrentHashMap<ProviderInfo, ProviderLoadStat>();
+
+    /**
+     * 总在途请求数
+     */
+    private final LongAdder                                     totalActive         = new LongAdder();
+
+    /**
+     * 响应时间衰减窗口（纳秒）
+     */
+    private final long                                          decayNanos;
+
+    /**
+     * 构造函数
+     */
+    public ProviderLoadStats() {
+        this(DEFAULT_DECAY_NANOS);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param decayNanos 响应时间衰减窗口（纳秒）
+     */
+    public ProviderLoadStats(long decayNanos) {
+        this.decayNanos = decayNanos;
+    }
+
+    /**
+     * 响应时间衰减窗口
+     *
+     * @return 衰减窗口（纳秒）
+     */
+    public long getDecayNanos() {
+        return decayNanos;
+    }
+
+    /**
+     * 得到服务端的统计
+     *
+     * @param providerInfo 服务端
+     * @return 统计，还没有调用过时返回null
+     */
+    public ProviderLoadStat get(ProviderInfo providerInfo) {
+        return stats.get(providerInfo);
+    }
+
+    /**
+     * 调用开始
+     *
+     * @param providerInfo 服务端
+     */
+    public void onInvokeStart(ProviderInfo providerInfo) {
+        ProviderLoadStat stat = stats.get(providerInfo);
+        if (stat == null) {
+            ProviderLoadStat newStat = new ProviderLoadStat();
+            stat = stats.putIfAbsent(providerInfo, newStat);
+            if (stat == null) {
+                stat = newStat;
+            }
+        }
+        stat.start();
+        totalActive.increment();
+    }
+
+    /**
+     * 调用结束
+     *
+     * @param providerInfo 服务端
+     * @param elapsedNanos 耗时（纳秒），小于0时不记录响应时间
+     */
+    public void onInvokeEnd(ProviderInfo providerInfo, long elapsedNanos) {
+        onInvokeEnd(providerInfo, elapsedNanos, System.nanoTime());
+    }
+
+    /**
+     * 调用结束
+     *
+     * @param providerInfo 服务端
+     * @param elapsedNanos 耗时（纳秒），小于0时不记录响应时间
+     * @param nowNanos     当前时间（纳秒）
+     */
+    public void onInvokeEnd(ProviderInfo providerInfo, long elapsedNanos, long nowNanos) {
+        totalActive.decrement();
+        ProviderLoadStat stat = stats.get(providerInfo);
+        if (stat != null) {
+            stat.end();
+            if (elapsedNanos >= 0) {
+                stat.sample(elapsedNanos, nowNanos, decayNanos);
+            }
+        }
+    }
+
+    /**
+     * 服务端的在途请求数
+     *
+     * @param providerInfo 服务端
+     * @return 在途请求数
+     */
+    public long getActive(ProviderInfo providerInfo) {
+        ProviderLoadStat stat = stats.get(providerInfo);
+        return stat == null ? 0L : stat.getActive();
+    }
+
+    /**
+     * 总在途请求数
+     *
+     * @return 总在途请求数
+     */
+    public long getTotalActive() {
+        return Math.max(totalActive.sum(), 0L);
+    }
+
+    /**
+     * 统计的服务端个数
+     *
+     * @return 服务端个数
+     */
+    public int size() {
+        return stats.size();
+    }
+
+    /**
+     * 服务列表变化后，清理已经下线且没有在途请求的服务端
+     *
+     * @param providerInfos 当前服务列表
+     */
+    public void retain(Collection<ProviderInfo> providerInfos) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        Set<ProviderInfo> alive = new HashSet<ProviderInfo>(providerInfos);
+        for (Iterator<Map.Entry<ProviderInfo, ProviderLoadStat>> it = stats.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<ProviderInfo, ProviderLoadStat> entry = it.next();
+            if (!alive.contains(entry.getKey()) && entry.getValue().getActive() == 0) {
+                it.remove();
+            }
+        }
+    }
+}
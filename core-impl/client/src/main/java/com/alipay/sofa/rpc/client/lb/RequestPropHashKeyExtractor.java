@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.ext.Extension;
+
+/**
+ * 以请求属性 {@link #HASH_KEY} 作为hash key，没有设置时退化为第一个参数。
+ * 适合hash key不在参数里（例如租户、用户标识）的场景，由调用方或者 Filter 设置。
+ *
+ * @since 5.14.3
+ */
+@Extension("requestProp")
+public class RequestPropHashKeyExtractor extends FirstArgHashKeyExtractor {
+
+    /**
+     * 请求属性中的hash key
+     */
+    public static final String HASH_KEY = "sofa_hash_key";
+
+    @Override
+    public String extract(SofaRequest request) {
+        Object key = request.getRequestProp(HASH_KEY);
+        if (key != null) {
+            return key.toString();
+        }
+        return super.extract(request);
+    }
+}
@@ -17,29 +17,19 @@
 package com.alipay.sofa.rpc.client.lb;
 
 import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
-import com.alipay.sofa.rpc.client.AbstractLoadBalancer;
 import com.alipay.sofa.rpc.client.ProviderInfo;
-import com.alipay.sofa.rpc.common.utils.CommonUtils;
-import com.alipay.sofa.rpc.common.utils.HashUtils;
-import com.alipay.sofa.rpc.common.utils.StringUtils;
-import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.ext.Extension;
 
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * @author 景竹 2018/8/13 since 5.5.0
  */
 @Extension("weightConsistentHash")
-public class WeightConsistentHashLoadBalancer extends AbstractLoadBalancer {
+public class WeightConsistentHashLoadBalancer extends AbstractConsistentHashLoadBalancer {
 
     /**
-     * {interface#method :  selector}
+     * 每单位权重的虚拟节点数，设置越大越慢，精度越高
      */
-    private final ConcurrentHashMap<String, Selector> selectorCache = new ConcurrentHashMap<String, Selector>();
+    private static final int VIRTUAL_NODE_NUM_PER_WEIGHT = 32;
 
     /**
      * 构造函数
@@ -51,134 +41,8 @@ public class WeightConsistentHashLoadBalancer extends AbstractLoadBalancer {
     }
 
     @Override
-    public ProviderInfo doSelect(SofaRequest request, List<ProviderInfo> providerInfos) {
-        String interfaceId = request.getInterfaceName();
-        String method = request.getMethodName();
-        String key = interfaceId + "#" + method;
-        // 判断是否同样的服务列表
-        int hashcode = providerInfos.hashCode();
-        Selector selector = selectorCache.get(key);
-        // 原来没有
-        if (selector == null ||
-            // 或者服务列表已经变化
-            selector.getHashCode() != hashcode) {
-            selector = new Selector(interfaceId, method, providerInfos, hashcode);
-            selectorCache.put(key, selector);
-        }
-        return selector.select(request);
-    }
-
-    /**
-     * 选择器
-     */
-    private static class Selector {
-
-        /**
-         * The Hashcode.
-         */
-        private final int                         hashcode;
-
-        /**
-         * The Interface id.
-         */
-        private final String                      interfaceId;
-
-        /**
-         * The Method name.
-         */
-        private final String                      method;
-
-        /**
-         * 虚拟节点
-         */
-        private final TreeMap<Long, ProviderInfo> virtualNodes;
-
-        /**
-         * Instantiates a new Selector .
-         *
-         * @param interfaceId the interface id
-         * @param method      the method
-         * @param actualNodes the actual nodes
-         */
-        public Selector(String interfaceId, String method, List<ProviderInfo> actualNodes) {
-            this(interfaceId, method, actualNodes, actualNodes.hashCode());
-        }
-
-        /**
-         * Instantiates a new Selector.
-         *
-         * @param interfaceId the interface id
-         * @param method      the method
-         * @param actualNodes the actual nodes
-         * @param hashcode    the hashcode
-         */
-        public Selector(String interfaceId, String method, List<ProviderInfo> actualNodes, int hashcode) {
-            this.interfaceId = interfaceId;
-            this.method = method;
-            this.hashcode = hashcode;
-            // 创建虚拟节点环 （provider创建虚拟节点数 =  真实节点权重 * 32）
-            this.virtualNodes = new TreeMap<Long, ProviderInfo>();
-            // 设置越大越慢，精度越高
-            int num = 32;
-            for (ProviderInfo providerInfo : actualNodes) {
-                for (int i = 0; i < num * providerInfo.getWeight() / 4; i++) {
-                    byte[] digest = HashUtils.messageDigest(providerInfo.getHost() + providerInfo.getPort() + i);
-                    for (int h = 0; h < 4; h++) {
-                        long m = HashUtils.hash(digest, h);
-                        virtualNodes.put(m, providerInfo);
-                    }
-                }
-            }
-        }
-
-        /**
-         * Select provider.
-         *
-         * @param request the request
-         * @return the provider
-         */
-        public ProviderInfo select(SofaRequest request) {
-            String key = buildKeyOfHash(request.getMethodArgs());
-            byte[] digest = HashUtils.messageDigest(key);
-            return selectForKey(HashUtils.hash(digest, 0));
-        }
-
-        /**
-         * 获取第一参数作为hash的key
-         *
-         * @param args the args
-         * @return the string
-         */
-        private String buildKeyOfHash(Object[] args) {
-            if (CommonUtils.isEmpty(args)) {
-                return StringUtils.EMPTY;
-            } else {
-                return StringUtils.toString(args[0]);
-            }
-        }
-
-        /**
-         * Select for key.
-         *
-         * @param hash the hash
-         * @return the provider
-         */
-        private ProviderInfo selectForKey(long hash) {
-            Map.Entry<Long, ProviderInfo> entry = virtualNodes.ceilingEntry(hash);
-            if (entry == null) {
-                entry = virtualNodes.firstEntry();
-            }
-            return entry.getValue();
-        }
-
-        /**
-         * Gets hash code.
-         *
-         * @return the hash code
-         */
-        public int getHashCode() {
-            return hashcode;
-        }
+    protected int getVirtualNodeNum(ProviderInfo providerInfo) {
+        // provider创建虚拟节点数 = 真实节点权重 * 32，按4的倍数取整
+        return VIRTUAL_NODE_NUM_PER_WEIGHT * providerInfo.getWeight() / 4 * 4;
     }
-
 }
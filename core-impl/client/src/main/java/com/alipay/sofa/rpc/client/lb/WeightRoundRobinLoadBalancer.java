@@ -19,27 +19,39 @@ package com.alipay.sofa.rpc.client.lb;
 import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
 import com.alipay.sofa.rpc.client.AbstractLoadBalancer;
 import com.alipay.sofa.rpc.client.ProviderInfo;
-import com.alipay.sofa.rpc.common.struct.PositiveAtomicCounter;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+import com.alipay.sofa.rpc.common.utils.StringUtils;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.ext.Extension;
 
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * 按权重的负载均衡轮询算法，按方法级进行轮询，性能较差，不推荐<br>
- *  例如：权重为1、2、3、4三个节点，顺序为 1234234344
+ * 按权重的负载均衡轮询算法，按方法级进行平滑加权轮询（同 nginx 的 smooth weighted round-robin）<br>
+ *  例如：权重为1、2、3、4四个节点，顺序为 4324134234
+ * <p>
+ * 每个方法的轮询状态保存在基本类型数组中，服务列表或者权重（例如预热权重）变化时才重建，选择过程不分配对象。
+ * 服务列表为 {@link ProviderInfoSnapshot} 时按版本号判断列表是否变化，权重每隔 {@link #WEIGHT_RECHECK_INTERVAL} 毫秒才重新比对一次。
  *
  * @author <a href=mailto:zhanggeng.zg@antfin.com>GengZhang</a>
  */
 @Extension("weightRoundRobin")
-@Deprecated
 public class WeightRoundRobinLoadBalancer extends AbstractLoadBalancer {
 
-    private final ConcurrentMap<String, PositiveAtomicCounter> sequences = new ConcurrentHashMap<String, PositiveAtomicCounter>();
+    /**
+     * 快照版本号不变时，重新比对权重（例如预热结束）的间隔，单位毫秒
+     *
+     * @since 5.14.3
+     */
+    static final long                                      WEIGHT_RECHECK_INTERVAL = 1000L;
+
+    /**
+     * {方法名 : 轮询状态}，负载均衡实例和接口一一对应，只需要按方法名区分
+     */
+    private final ConcurrentMap<String, SmoothWeightState> states                  = new ConcurrentHashMap<String, SmoothWeightState>();
 
     /**
      * 构造函数
@@ -52,110 +64,142 @@ public class WeightRoundRobinLoadBalancer extends AbstractLoadBalancer {
 
     @Override
     public ProviderInfo doSelect(SofaRequest request, List<ProviderInfo> providerInfos) {
-        String key = getServiceKey(request); // 每个方法级自己轮询，互不影响
-        int length = providerInfos.size(); // 总个数
-        int maxWeight = 0; // 最大权重
-        int minWeight = Integer.MAX_VALUE; // 最小权重
-
-        final LinkedHashMap<ProviderInfo, IntegerWrapper> invokerToWeightMap = new LinkedHashMap<ProviderInfo, IntegerWrapper>();
-        int weightSum = 0;
-        for (ProviderInfo providerInfo : providerInfos) {
-            int weight = getWeight(providerInfo);
-            maxWeight = Math.max(maxWeight, weight); // 累计最大权重
-            minWeight = Math.min(minWeight, weight); // 累计最小权重
-            if (weight > 0) {
-                invokerToWeightMap.put(providerInfo, new IntegerWrapper(weight));
-                weightSum += weight;
-            }
-        }
-        PositiveAtomicCounter sequence = sequences.get(key);
-        if (sequence == null) {
-            sequences.putIfAbsent(key, new PositiveAtomicCounter());
-            sequence = sequences.get(key);
+        String methodName = request.getMethodName();
+        if (methodName == null) {
+            methodName = StringUtils.EMPTY;
         }
-        int currentSequence = sequence.getAndIncrement();
-        if (maxWeight > 0 && minWeight < maxWeight) { // 权重不一样
-            int mod = currentSequence % weightSum;
-            for (int i = 0; i < maxWeight; i++) {
-                for (Map.Entry<ProviderInfo, IntegerWrapper> each : invokerToWeightMap.entrySet()) {
-                    final ProviderInfo k = each.getKey();
-                    final IntegerWrapper v = each.getValue();
-                    if (mod == 0 && v.getValue() > 0) {
-                        return k;
-                    }
-                    if (v.getValue() > 0) {
-                        v.decrement();
-                        mod--;
-                    }
-                }
+        SmoothWeightState state = states.get(methodName); // 每个方法级自己轮询，互不影响
+        if (state == null) {
+            SmoothWeightState newState = new SmoothWeightState();
+            state = states.putIfAbsent(methodName, newState);
+            if (state == null) {
+                state = newState;
             }
         }
-        return providerInfos.get(currentSequence % length);
-        /*
-        for (int i = 0; i < length; i++) {
-            int weight = getWeight(providerInfos.get(i));
-            maxWeight = Math.max(maxWeight, weight); // 累计最大权重
-            minWeight = Math.min(minWeight, weight); // 累计最小权重
-        }
-        if (maxWeight > 0 && minWeight < maxWeight) { // 权重不一样,不再按照之前轮询顺序，
-            PositiveAtomicCounter weightSequence = weightSequences.get(key);
-            if (weightSequence == null) {
-                weightSequences.putIfAbsent(key, new PositiveAtomicCounter());
-                weightSequence = weightSequences.get(key);
-            }
-            int currentWeight = weightSequence.getAndIncrement() % maxWeight;
-            List<ProviderInfo> weightInvokers = new ArrayList<ProviderInfo>();
-            for (ProviderInfo invoker : providerInfos) { // 筛选权重大于当前权重基数的provider,保证权重大的服务哪怕是轮询，被调用的机会也是最多的
-                if (getWeight(invoker) > currentWeight) {
-                    weightInvokers.add(invoker);
-                }
-            }
-            int weightLength = weightInvokers.size();
-            if (weightLength == 1) {
-                return weightInvokers.get(0);
-            } else if (weightLength > 1) {
-                providerInfos = weightInvokers;
-                length = providerInfos.size();
-            }
-        }
-        PositiveAtomicCounter sequence = sequences.get(key);
-        if (sequence == null) {
-            sequences.putIfAbsent(key, new PositiveAtomicCounter());
-            sequence = sequences.get(key);
-        }
-        return providerInfos.get(sequence.getAndIncrement() % length);*/
+        return state.select(providerInfos);
     }
 
-    private String getServiceKey(SofaRequest request) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(request.getTargetAppName()).append("#")
-            .append(request.getMethodName());
-        return builder.toString();
-    }
+    /**
+     * 一个方法的平滑加权轮询状态，并发调用时串行更新（使用显式锁，虚拟线程不会被钉住）
+     */
+    private final class SmoothWeightState {
 
-    private static final class IntegerWrapper {
-        public IntegerWrapper(int value) {
-            this.value = value;
-        }
+        private final ReentrantLock lock      = new ReentrantLock();
+
+        /**
+         * 构建状态时的服务列表
+         */
+        private ProviderInfo[]      providers = new ProviderInfo[0];
+
+        /**
+         * 构建状态时的权重
+         */
+        private int[]               weights   = new int[0];
+
+        /**
+         * 当前权重
+         */
+        private long[]              currents  = new long[0];
+
+        /**
+         * 总权重
+         */
+        private long                totalWeight;
 
-        private int value;
+        /**
+         * 所有权重都为0时的轮询位置
+         */
+        private int                 position;
 
-        public int getValue() {
-            return value;
+        /**
+         * 构建或者比对状态时的快照版本号，-1 表示不是快照
+         */
+        private long                version   = -1;
+
+        /**
+         * 下次需要重新比对权重的时间
+         */
+        private long                nextCheckTime;
+
+        ProviderInfo select(List<ProviderInfo> providerInfos) {
+            lock.lock();
+            try {
+                int size = providerInfos.size();
+                if (!isUnchanged(providerInfos) && !isSame(providerInfos, size)) {
+                    rebuild(providerInfos, size);
+                }
+                if (totalWeight <= 0) {
+                    // 权重都为0则均等轮询
+                    if (position >= size) {
+                        position = 0;
+                    }
+                    return providers[position++];
+                }
+                int best = -1;
+                long bestWeight = Long.MIN_VALUE;
+                for (int i = 0; i < size; i++) {
+                    long current = currents[i] + weights[i];
+                    currents[i] = current;
+                    if (current > bestWeight) {
+                        bestWeight = current;
+                        best = i;
+                    }
+                }
+                currents[best] -= totalWeight;
+                return providers[best];
+            } finally {
+                lock.unlock();
+            }
         }
 
-        public void setValue(int value) {
-            this.value = value;
+        /**
+         * 快照版本号没变且还没到重新比对权重的时间，则跳过逐个比对
+         */
+        private boolean isUnchanged(List<ProviderInfo> providerInfos) {
+            if (!(providerInfos instanceof ProviderInfoSnapshot)) {
+                version = -1;
+                return false;
+            }
+            long snapshotVersion = ((ProviderInfoSnapshot) providerInfos).getVersion();
+            long now = System.currentTimeMillis();
+            if (snapshotVersion == version && now < nextCheckTime) {
+                return true;
+            }
+            // 调用方接着会比对并按需重建，比对后到下个间隔前都可以复用
+            version = snapshotVersion;
+            nextCheckTime = now + WEIGHT_RECHECK_INTERVAL;
+            return false;
         }
 
-        public void decrement() {
-            this.value--;
+        /**
+         * 服务列表和权重是否和构建状态时一致
+         */
+        private boolean isSame(List<ProviderInfo> providerInfos, int size) {
+            if (size != providers.length) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                ProviderInfo providerInfo = providerInfos.get(i);
+                if (providerInfo != providers[i] || getWeight(providerInfo) != weights[i]) {
+                    return false;
+                }
+            }
+            return true;
         }
 
-        @Override
-        public String toString() {
-            return value + "";
+        /**
+         * 服务列表或权重变化后重建，当前权重清零
+         */
+        private void rebuild(List<ProviderInfo> providerInfos, int size) {
+            providers = providerInfos.toArray(new ProviderInfo[size]);
+            weights = new int[size];
+            currents = new long[size];
+            totalWeight = 0;
+            position = 0;
+            for (int i = 0; i < size; i++) {
+                weights[i] = getWeight(providers[i]);
+                totalWeight += weights[i];
+            }
         }
     }
-
 }
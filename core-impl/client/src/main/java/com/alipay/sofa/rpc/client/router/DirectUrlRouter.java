@@ -21,11 +21,13 @@ import com.alipay.sofa.rpc.client.AddressHolder;
 import com.alipay.sofa.rpc.client.ProviderInfo;
 import com.alipay.sofa.rpc.client.Router;
 import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.utils.CommonUtils;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.ext.Extension;
 import com.alipay.sofa.rpc.filter.AutoActive;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -69,13 +71,22 @@ public class DirectUrlRouter extends Router {
         return StringUtils.isNotEmpty(consumerBootstrap.getConsumerConfig().getDirectUrl());
     }
 
+    @Override
+    public boolean supportReadOnlyProviders() {
+        return true;
+    }
+
     @Override
     public List<ProviderInfo> route(SofaRequest request, List<ProviderInfo> providerInfos) {
         AddressHolder addressHolder = consumerBootstrap.getCluster().getAddressHolder();
         if (addressHolder != null) {
+            // 地址列表是只读快照，只有前面的路由已经有结果时才合并成新列表
             List<ProviderInfo> current = addressHolder.getProviderInfos(RpcConstants.ADDRESS_DIRECT_GROUP);
-            if (providerInfos != null) {
-                providerInfos.addAll(current);
+            if (CommonUtils.isNotEmpty(providerInfos)) {
+                List<ProviderInfo> merged = new ArrayList<ProviderInfo>(providerInfos.size() + current.size());
+                merged.addAll(providerInfos);
+                merged.addAll(current);
+                providerInfos = merged;
             } else {
                 providerInfos = current;
             }
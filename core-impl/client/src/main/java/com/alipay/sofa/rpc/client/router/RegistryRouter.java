@@ -64,6 +64,11 @@ public class RegistryRouter extends Router {
         return StringUtils.isEmpty(consumerConfig.getDirectUrl()) && consumerConfig.isSubscribe();
     }
 
+    @Override
+    public boolean supportReadOnlyProviders() {
+        return true;
+    }
+
     @Override
     public List<ProviderInfo> route(SofaRequest request, List<ProviderInfo> providerInfos) {
 
@@ -74,12 +79,8 @@ public class RegistryRouter extends Router {
 
         AddressHolder addressHolder = consumerBootstrap.getCluster().getAddressHolder();
         if (addressHolder != null) {
-            List<ProviderInfo> current = addressHolder.getProviderInfos(RpcConstants.ADDRESS_DEFAULT_GROUP);
-            if (providerInfos != null) {
-                providerInfos.addAll(current);
-            } else {
-                providerInfos = current;
-            }
+            // 前面的路由没有结果，直接使用只读快照，不复制
+            providerInfos = addressHolder.getProviderInfos(RpcConstants.ADDRESS_DEFAULT_GROUP);
         }
         recordRouterWay(RPC_REGISTRY_ROUTER);
         return providerInfos;
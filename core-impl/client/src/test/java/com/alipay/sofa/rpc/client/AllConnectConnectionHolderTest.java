@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.transport.ClientTransport;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class AllConnectConnectionHolderTest {
+
+    static ConsumerBootstrap buildBootstrap(boolean lazy) {
+        ConsumerConfig<Object> consumerConfig = new ConsumerConfig<Object>()
+            .setInterfaceId(AllConnectConnectionHolderTest.class.getName())
+            .setProtocol("poolTest")
+            .setLazy(lazy)
+            .setReconnectPeriod(0);
+        return new ConsumerBootstrap(consumerConfig) {
+            @Override
+            public Object refer() {
+                return null;
+            }
+
+            @Override
+            public void unRefer() {
+            }
+
+            @Override
+            public Object getProxyIns() {
+                return null;
+            }
+
+            @Override
+            public Cluster getCluster() {
+                return null;
+            }
+
+            @Override
+            public List<ProviderGroup> subscribe() {
+                return null;
+            }
+
+            @Override
+            public boolean isSubscribed() {
+                return false;
+            }
+        };
+    }
+
+    static List<ProviderInfo> buildProviders(int size) {
+        List<ProviderInfo> providers = new ArrayList<ProviderInfo>();
+        for (int i = 0; i < size; i++) {
+            providers.add(ProviderHelper.toProviderInfo("127.0.0.1:" + (20000 + i)));
+        }
+        return providers;
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedStateMaps() {
+        AllConnectConnectionHolder holder = new AllConnectConnectionHolder(buildBootstrap(false));
+        List<ProviderInfo> providers = buildProviders(2);
+        holder.updateProviders(new ProviderGroup(providers));
+        ProviderInfo p0 = providers.get(0);
+        ProviderInfo p1 = providers.get(1);
+        ClientTransport t0 = holder.getAvailableClientTransport(p0);
+        // 原来的几个 Map 是状态视图
+        Assert.assertEquals(2, holder.aliveConnections.size());
+        Assert.assertSame(t0, holder.aliveConnections.get(p0));
+        Assert.assertTrue(holder.retryConnections.isEmpty());
+
+        holder.aliveToRetry(p0, t0);
+        Assert.assertFalse(holder.aliveConnections.containsKey(p0));
+        Assert.assertSame(t0, holder.retryConnections.get(p0));
+
+        // 直接写 Map 会切换状态并维护计数
+        Assert.assertSame(t0, holder.retryConnections.remove(p0));
+        Assert.assertNull(holder.getAvailableClientTransport(p0));
+        holder.subHealthConnections.put(p0, t0);
+        Assert.assertEquals(1, holder.aliveConnections.size());
+        Assert.assertSame(t0, holder.subHealthConnections.get(p0));
+        holder.aliveConnections.remove(p1);
+        Assert.assertFalse(holder.isAvailableEmpty());
+        Assert.assertEquals(p0, holder.getAvailableProviders().get(0));
+        Iterator<ProviderInfo> it = holder.subHealthConnections.keySet().iterator();
+        it.next();
+        it.remove();
+        Assert.assertTrue(holder.isAvailableEmpty());
+        Assert.assertTrue(holder.connections.isEmpty());
+        holder.destroy();
+    }
+
+    @Test
+    public void testStateTransition() {
+        AllConnectConnectionHolder holder = new AllConnectConnectionHolder(buildBootstrap(false));
+        List<ProviderInfo> providers = buildProviders(2);
+        holder.updateProviders(new ProviderGroup(providers));
+        ProviderInfo p0 = providers.get(0);
+        ProviderInfo p1 = providers.get(1);
+        ClientTransport t0 = holder.getAvailableClientTransport(p0);
+        ClientTransport t1 = holder.getAvailableClientTransport(p1);
+        Assert.assertNotNull(t0);
+        Assert.assertEquals(2, holder.getAvailableConnections().size());
+
+        holder.aliveToSubHealth(p0, t0);
+        // 有存活的只返回存活的
+        Assert.assertEquals(1, holder.getAvailableProviders().size());
+        Assert.assertEquals(p1, holder.getAvailableProviders().get(0));
+        Assert.assertSame(t0, holder.getAvailableClientTransport(p0));
+
+        holder.setUnavailable(p1, t1);
+        // 存活为空的，那就用亚健康的
+        Assert.assertFalse(holder.isAvailableEmpty());
+        Assert.assertEquals(p0, holder.getAvailableProviders().get(0));
+        Assert.assertSame(t1, holder.getRetryConnections().get(p1));
+        Assert.assertNull(holder.getAvailableClientTransport(p1));
+
+        // 状态不符合时不切换
+        holder.setUnavailable(p0, t0);
+        Assert.assertFalse(holder.getRetryConnections().containsKey(p0));
+
+        holder.subHealthToRetry(p0, t0);
+        Assert.assertTrue(holder.isAvailableEmpty());
+        Assert.assertEquals(2, holder.getRetryConnections().size());
+
+        holder.retryToAlive(p1, t1);
+        Assert.assertEquals(1, holder.getAvailableConnections().size());
+        Assert.assertSame(t1, holder.remove(p1));
+        Assert.assertNull(holder.remove(p1));
+        Assert.assertTrue(holder.isAvailableEmpty());
+
+        holder.closeAllClientTransports(null);
+        Assert.assertTrue(holder.currentProviderList().isEmpty());
+        Assert.assertTrue(holder.getRetryConnections().isEmpty());
+    }
+
+    @Test
+    public void testLazyInitOnce() throws Exception {
+        final AtomicInteger inits = new AtomicInteger();
+        final AllConnectConnectionHolder holder = new AllConnectConnectionHolder(buildBootstrap(true)) {
+            @Override
+            protected void initClientTransport(String interfaceId, ProviderInfo providerInfo,
+                                               ClientTransport transport) {
+                inits.incrementAndGet();
+                super.initClientTransport(interfaceId, providerInfo, transport);
+            }
+        };
+        List<ProviderInfo> providers = buildProviders(1);
+        final ProviderInfo provider = providers.get(0);
+        holder.updateProviders(new ProviderGroup(providers));
+        Assert.assertTrue(holder.isAvailableEmpty());
+        Assert.assertEquals(1, holder.currentProviderMap().get("uninitialized").size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ClientTransport>> futures = new ArrayList<Future<ClientTransport>>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(new Callable<ClientTransport>() {
+                    @Override
+                    public ClientTransport call() {
+                        return holder.getAvailableClientTransport(provider);
+                    }
+                }));
+            }
+            ClientTransport first = futures.get(0).get();
+            Assert.assertNotNull(first);
+            for (Future<ClientTransport> future : futures) {
+                Assert.assertSame(first, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, inits.get());
+        Assert.assertFalse(holder.isAvailableEmpty());
+        holder.destroy();
+    }
+
+    @Test
+    public void testLazyInitNotBlockOtherProvider() throws Exception {
+        final List<ProviderInfo> providers = buildProviders(2);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AllConnectConnectionHolder holder = new AllConnectConnectionHolder(buildBootstrap(true)) {
+            @Override
+            protected void initClientTransport(String interfaceId, ProviderInfo providerInfo,
+                                               ClientTransport transport) {
+                if (providerInfo.equals(providers.get(0))) {
+                    blocking.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.initClientTransport(interfaceId, providerInfo, transport);
+            }
+        };
+        holder.updateProviders(new ProviderGroup(providers));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ClientTransport> slow = executor.submit(new Callable<ClientTransport>() {
+                @Override
+                public ClientTransport call() {
+                    return holder.getAvailableClientTransport(providers.get(0));
+                }
+            });
+            Assert.assertTrue(blocking.await(5, TimeUnit.SECONDS));
+            // 第一个服务端还在建连，第二个服务端不受影响
+            Assert.assertNotNull(holder.getAvailableClientTransport(providers.get(1)));
+            Assert.assertFalse(slow.isDone());
+            release.countDown();
+            Assert.assertNotNull(slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        holder.destroy();
+    }
+
+    @Test
+    public void testConcurrentTransition() throws Exception {
+        final AllConnectConnectionHolder holder = new AllConnectConnectionHolder(buildBootstrap(false));
+        final List<ProviderInfo> providers = buildProviders(20);
+        holder.updateProviders(new ProviderGroup(providers));
+        Assert.assertEquals(20, holder.getAvailableConnections().size());
+
+        int threads = 8;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            ThreadLocalRandom random = ThreadLocalRandom.current();
+                            for (int j = 0; j < 10000; j++) {
+                                ProviderInfo provider = providers.get(random.nextInt(providers.size()));
+                                switch (random.nextInt(4)) {
+                                    case 0:
+                                        holder.aliveToRetry(provider, null);
+                                        break;
+                                    case 1:
+                                        holder.retryToAlive(provider, null);
+                                        break;
+                                    case 2:
+                                        holder.aliveToSubHealth(provider, null);
+                                        break;
+                                    default:
+                                        holder.subHealthToAlive(provider, null);
+                                        break;
+                                }
+                            }
+                        } finally {
+                            latch.countDown();
+                        }
+                    }
+                });
+            }
+            Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        int alive = holder.currentProviderMap().get("alive").size();
+        int subHealth = holder.currentProviderMap().get("subHealth").size();
+        int retry = holder.getRetryConnections().size();
+        Assert.assertEquals(20, alive + subHealth + retry);
+        Assert.assertEquals(alive == 0 && subHealth == 0, holder.isAvailableEmpty());
+        Assert.assertEquals(alive > 0 ? alive : subHealth, holder.getAvailableConnections().size());
+        holder.destroy();
+    }
+
+    @Test
+    public void testReadyPercent() throws Exception {
+        final List<ProviderInfo> providers = buildProviders(10);
+        final CountDownLatch release = new CountDownLatch(1);
+        ConsumerBootstrap bootstrap = buildBootstrap(false);
+        bootstrap.getConsumerConfig().setParameter(RpcConstants.CONFIG_KEY_CONNECT_READY_PERCENT, "30");
+        final AllConnectConnectionHolder holder = new AllConnectConnectionHolder(bootstrap) {
+            @Override
+            protected void initClientTransport(String interfaceId, ProviderInfo providerInfo,
+                                               ClientTransport transport) {
+                if (providers.indexOf(providerInfo) >= 3) {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.initClientTransport(interfaceId, providerInfo, transport);
+            }
+        };
+        try {
+            // 连上30%就返回，剩下的在后台继续
+            holder.updateProviders(new ProviderGroup(providers));
+            Assert.assertEquals(3, holder.getAvailableConnections().size());
+            Assert.assertEquals(10, holder.currentProviderList().size());
+        } finally {
+            release.countDown();
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (holder.getAvailableConnections().size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(10, holder.getAvailableConnections().size());
+        holder.destroy();
+    }
+}
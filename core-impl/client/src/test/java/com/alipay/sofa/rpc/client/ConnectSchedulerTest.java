@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class ConnectSchedulerTest {
+
+    private Callable<Boolean> task(final boolean result, final CountDownLatch release) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                if (release != null) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                return result;
+            }
+        };
+    }
+
+    @Test
+    public void testReadyBeforeAllFinished() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(task(true, null));
+        }
+        for (int i = 0; i < 5; i++) {
+            tasks.add(task(true, release));
+        }
+        ConnectScheduler.ConnectBatch batch = ConnectScheduler.submit(tasks);
+        try {
+            Assert.assertTrue(batch.awaitReady(3, 5000));
+            Assert.assertFalse(batch.awaitReady(8, 50));
+            Assert.assertTrue(batch.getFinished() < 8);
+        } finally {
+            release.countDown();
+        }
+        Assert.assertTrue(batch.awaitReady(8, 5000));
+        Assert.assertEquals(8, batch.getTotal());
+    }
+
+    @Test
+    public void testAllFinishedWithFailure() throws Exception {
+        List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+        tasks.add(task(true, null));
+        tasks.add(task(false, null));
+        tasks.add(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                throw new IllegalStateException("connect failed");
+            }
+        });
+        ConnectScheduler.ConnectBatch batch = ConnectScheduler.submit(tasks);
+        long start = System.currentTimeMillis();
+        // 全部结束后不再等待超时
+        Assert.assertFalse(batch.awaitReady(3, 10000));
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assert.assertEquals(3, batch.getFinished());
+        Assert.assertEquals(1, batch.getConnected());
+    }
+
+    @Test
+    public void testBatchDoesNotStarveOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Callable<Boolean>> slow = new ArrayList<Callable<Boolean>>();
+        for (int i = 0; i < ConnectScheduler.getConcurrency() * 5; i++) {
+            slow.add(task(true, release));
+        }
+        List<Callable<Boolean>> fast = new ArrayList<Callable<Boolean>>();
+        for (int i = 0; i < 3; i++) {
+            fast.add(task(true, null));
+        }
+        try {
+            ConnectScheduler.ConnectBatch slowBatch = ConnectScheduler.submit(slow);
+            // 一个批次最多占用单批次并发数个线程，后提交的批次不用等它全部建完
+            ConnectScheduler.ConnectBatch fastBatch = ConnectScheduler.submit(fast);
+            Assert.assertTrue(fastBatch.awaitReady(3, 3000));
+            Assert.assertEquals(0, slowBatch.getFinished());
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.transport.ClientTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程取连接，同时重连线程等不停切换连接状态时的竞争情况
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionHolderBenchMark {
+
+    @Param({ "100", "2000" })
+    private int                        providerNum;
+
+    private AllConnectConnectionHolder holder;
+
+    private ProviderInfo[]             providers;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(ConnectionHolderBenchMark.class.getSimpleName())
+            .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        holder = new AllConnectConnectionHolder(AllConnectConnectionHolderTest.buildBootstrap(false));
+        List<ProviderInfo> providerInfos = AllConnectConnectionHolderTest.buildProviders(providerNum);
+        holder.updateProviders(new ProviderGroup(providerInfos));
+        providers = providerInfos.toArray(new ProviderInfo[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        holder.destroy();
+    }
+
+    private ProviderInfo randomProvider() {
+        return providers[ThreadLocalRandom.current().nextInt(providers.length)];
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ClientTransport select() {
+        return holder.getAvailableClientTransport(randomProvider());
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(6)
+    public ClientTransport churnSelect() {
+        return holder.getAvailableClientTransport(randomProvider());
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(2)
+    public void churnTransition() {
+        ProviderInfo provider = randomProvider();
+        holder.aliveToRetry(provider, null);
+        holder.retryToAlive(provider, null);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+import com.alipay.sofa.rpc.ext.Extension;
+import com.alipay.sofa.rpc.message.ResponseFuture;
+import com.alipay.sofa.rpc.transport.AbstractChannel;
+import com.alipay.sofa.rpc.transport.ClientTransport;
+import com.alipay.sofa.rpc.transport.ClientTransportConfig;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @since 5.14.3
+ */
+@Extension("poolTest")
+public class MockClientTransport extends ClientTransport {
+
+    private volatile boolean    available;
+
+    private final AtomicInteger currentRequests = new AtomicInteger();
+
+    private final AtomicInteger sendCount       = new AtomicInteger();
+
+    public MockClientTransport(ClientTransportConfig transportConfig) {
+        super(transportConfig);
+    }
+
+    public void setCurrentRequests(int requests) {
+        currentRequests.set(requests);
+    }
+
+    public int getSendCount() {
+        return sendCount.get();
+    }
+
+    @Override
+    public void connect() {
+        available = true;
+    }
+
+    @Override
+    public void disconnect() {
+        available = false;
+    }
+
+    @Override
+    public void destroy() {
+        available = false;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public void setChannel(AbstractChannel channel) {
+    }
+
+    @Override
+    public AbstractChannel getChannel() {
+        return null;
+    }
+
+    @Override
+    public int currentRequests() {
+        return currentRequests.get();
+    }
+
+    @Override
+    public ResponseFuture asyncSend(SofaRequest message, int timeout) throws SofaRpcException {
+        sendCount.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public SofaResponse syncSend(SofaRequest message, int timeout) throws SofaRpcException {
+        sendCount.incrementAndGet();
+        return new SofaResponse();
+    }
+
+    @Override
+    public void oneWaySend(SofaRequest message, int timeout) throws SofaRpcException {
+        sendCount.incrementAndGet();
+    }
+
+    @Override
+    public void receiveRpcResponse(SofaResponse response) {
+    }
+
+    @Override
+    public void handleRpcRequest(SofaRequest request) {
+    }
+
+    @Override
+    public InetSocketAddress remoteAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress localAddress() {
+        return null;
+    }
+}
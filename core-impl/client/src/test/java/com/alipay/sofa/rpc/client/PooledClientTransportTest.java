@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.transport.ClientTransport;
+import com.alipay.sofa.rpc.transport.ClientTransportConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class PooledClientTransportTest {
+
+    private ClientTransportConfig buildConfig() {
+        return new ClientTransportConfig().setContainer("poolTest")
+            .setProviderInfo(ProviderHelper.toProviderInfo("127.0.0.1:12200"))
+            .setDisconnectTimeout(0);
+    }
+
+    @Test
+    public void testLeastPending() {
+        PooledClientTransport pool = new PooledClientTransport(buildConfig(), 3, 3,
+            PooledClientTransport.LEAST_PENDING, 64, 0);
+        pool.connect();
+        Assert.assertEquals(3, pool.size());
+        Assert.assertTrue(pool.isAvailable());
+
+        for (ClientTransport transport : pool.getTransports()) {
+            ((MockClientTransport) transport).setCurrentRequests(10);
+        }
+        MockClientTransport idle = (MockClientTransport) pool.getTransports()[1];
+        idle.setCurrentRequests(1);
+        for (int i = 0; i < 10; i++) {
+            pool.syncSend(new SofaRequest(), 1000);
+        }
+        Assert.assertEquals(10, idle.getSendCount());
+        Assert.assertEquals(21, pool.currentRequests());
+
+        pool.destroy();
+        Assert.assertEquals(0, pool.size());
+        Assert.assertFalse(pool.isAvailable());
+    }
+
+    @Test
+    public void testRoundRobin() {
+        PooledClientTransport pool = new PooledClientTransport(buildConfig(), 2, 2,
+            PooledClientTransport.ROUND_ROBIN, 64, 0);
+        pool.connect();
+        for (int i = 0; i < 10; i++) {
+            pool.oneWaySend(new SofaRequest(), 1000);
+        }
+        for (ClientTransport transport : pool.getTransports()) {
+            Assert.assertEquals(5, ((MockClientTransport) transport).getSendCount());
+        }
+        pool.destroy();
+    }
+
+    @Test
+    public void testGrowAndShrink() throws Exception {
+        PooledClientTransport pool = new PooledClientTransport(buildConfig(), 1, 3,
+            PooledClientTransport.LEAST_PENDING, 8, 0);
+        pool.connect();
+        Assert.assertEquals(1, pool.size());
+
+        ((MockClientTransport) pool.getTransports()[0]).setCurrentRequests(8);
+        pool.checkResize(TimeUnit.SECONDS.toNanos(1));
+        waitSize(pool, 2);
+        // 新连接没有在途请求，平均值低于阈值不再扩容
+        pool.checkResize(TimeUnit.SECONDS.toNanos(1));
+        Thread.sleep(100);
+        Assert.assertEquals(2, pool.size());
+
+        for (ClientTransport transport : pool.getTransports()) {
+            ((MockClientTransport) transport).setCurrentRequests(0);
+        }
+        pool.checkResize(TimeUnit.SECONDS.toNanos(1));
+        waitSize(pool, 1);
+        pool.checkResize(TimeUnit.SECONDS.toNanos(1));
+        Thread.sleep(100);
+        Assert.assertEquals(1, pool.size());
+        pool.destroy();
+    }
+
+    private void waitSize(PooledClientTransport pool, int size) throws InterruptedException {
+        for (int i = 0; i < 100 && pool.size() != size; i++) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(size, pool.size());
+    }
+}
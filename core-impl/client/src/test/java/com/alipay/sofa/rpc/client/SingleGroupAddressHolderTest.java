@@ -234,6 +234,36 @@ public class SingleGroupAddressHolderTest {
         Assert.assertTrue(addressHolder.getAllProviderSize() == 2);
     }
 
+    @Test
+    public void getProviderInfosSnapshot() throws Exception {
+        SingleGroupAddressHolder addressHolder = new SingleGroupAddressHolder(null);
+        List<ProviderInfo> empty = addressHolder.getProviderInfos(ADDRESS_DEFAULT_GROUP);
+        Assert.assertTrue(empty.isEmpty());
+
+        addressHolder.updateProviders(new ProviderGroup("xxx", Arrays.asList(
+            ProviderHelper.toProviderInfo("127.0.0.1:12200"),
+            ProviderHelper.toProviderInfo("127.0.0.1:12201"))));
+        List<ProviderInfo> first = addressHolder.getProviderInfos(ADDRESS_DEFAULT_GROUP);
+        Assert.assertEquals(2, first.size());
+        // 没有变化时返回同一个快照，不复制
+        Assert.assertSame(first, addressHolder.getProviderInfos(ADDRESS_DEFAULT_GROUP));
+        Assert.assertTrue(first instanceof ProviderInfoSnapshot);
+        try {
+            first.remove(0);
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        addressHolder.addProvider(new ProviderGroup("xxx", Collections.singletonList(
+            ProviderHelper.toProviderInfo("127.0.0.1:12202"))));
+        List<ProviderInfo> second = addressHolder.getProviderInfos(ADDRESS_DEFAULT_GROUP);
+        Assert.assertEquals(3, second.size());
+        Assert.assertEquals(2, first.size());
+        Assert.assertTrue(((ProviderInfoSnapshot) second).getVersion() > ((ProviderInfoSnapshot) first).getVersion());
+        Assert.assertTrue(addressHolder.getProviderInfos(ADDRESS_DIRECT_GROUP).isEmpty());
+    }
+
     @Test
     public void readAndWriteLock() {
         final SingleGroupAddressHolder addressHolder = new SingleGroupAddressHolder(null);
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class BoundedLoadConsistentHashLoadBalancerTest extends BaseLoadBalancerTest {
+
+    private SofaRequest buildRequest(String key) throws Exception {
+        SofaRequest request = new SofaRequest();
+        request.setInterfaceName(BoundedLoadConsistentHashLoadBalancerTest.class.getName());
+        request.setMethod(BoundedLoadConsistentHashLoadBalancerTest.class.getMethod("testSameAsConsistentHash"));
+        request.setMethodArgs(new Object[] { key });
+        return request;
+    }
+
+    @Test
+    public void testSameAsConsistentHash() throws Exception {
+        BoundedLoadConsistentHashLoadBalancer loadBalancer = new BoundedLoadConsistentHashLoadBalancer(null);
+        ConsistentHashLoadBalancer consistentHash = new ConsistentHashLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(10);
+        for (int i = 0; i < 100; i++) {
+            SofaRequest request = buildRequest("key" + i);
+            Assert.assertEquals(consistentHash.doSelect(request, providers), loadBalancer.doSelect(request, providers));
+        }
+    }
+
+    @Test
+    public void testHotKeyBounded() throws Exception {
+        BoundedLoadConsistentHashLoadBalancer loadBalancer = new BoundedLoadConsistentHashLoadBalancer(null);
+        List<ProviderInfo> providers = ProviderInfoSnapshot.of(buildSameWeightProviderList(10));
+        SofaRequest request = buildRequest("hot");
+        ProviderInfo home = loadBalancer.doSelect(request, providers);
+
+        int total = 200;
+        List<ProviderInfo> selected = new ArrayList<ProviderInfo>();
+        for (int i = 0; i < total; i++) {
+            ProviderInfo providerInfo = loadBalancer.doSelect(request, providers);
+            loadBalancer.onInvokeStart(providerInfo, request);
+            selected.add(providerInfo);
+        }
+        Set<ProviderInfo> used = new HashSet<ProviderInfo>(selected);
+        Assert.assertTrue(used.size() > 1);
+        // (1+0.25)*200/10 向上取整
+        long bound = (long) Math.ceil(1.25 * total / 10);
+        for (ProviderInfo providerInfo : providers) {
+            Assert.assertTrue(loadBalancer.getInflight(providerInfo) <= bound);
+        }
+        Assert.assertEquals(bound, loadBalancer.getInflight(home));
+
+        for (ProviderInfo providerInfo : selected) {
+            loadBalancer.onInvokeEnd(providerInfo, request, 1000L, true);
+        }
+        for (ProviderInfo providerInfo : providers) {
+            Assert.assertEquals(0L, loadBalancer.getInflight(providerInfo));
+        }
+        Assert.assertEquals(home, loadBalancer.doSelect(request, providers));
+    }
+
+    @Test
+    public void testSingleProvider() throws Exception {
+        BoundedLoadConsistentHashLoadBalancer loadBalancer = new BoundedLoadConsistentHashLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(1);
+        SofaRequest request = buildRequest("hot");
+        for (int i = 0; i < 10; i++) {
+            ProviderInfo providerInfo = loadBalancer.doSelect(request, providers);
+            Assert.assertEquals(providers.get(0), providerInfo);
+            loadBalancer.onInvokeStart(providerInfo, request);
+        }
+        Assert.assertEquals(10L, loadBalancer.getInflight(providers.get(0)));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+import com.alipay.sofa.rpc.common.utils.HashUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一致性hash选择：老的 TreeMap + 每次计算列表 hashCode 的实现，和按快照版本复用的基本类型数组环对比
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConsistentHashBenchMark {
+
+    @Param({ "10", "200", "2000" })
+    private int                         providerNum;
+
+    private List<ProviderInfo>          providers;
+
+    private TreeMap<Long, ProviderInfo> legacyRing;
+
+    private int                         legacyHashCode;
+
+    private final HashFunction          md5     = new Md5HashFunction();
+
+    private final HashFunction          murmur3 = new Murmur3HashFunction();
+
+    private ConsistentHashRing          md5Ring;
+
+    private ConsistentHashRing          murmur3Ring;
+
+    private String[]                    keys;
+
+    private int                         index;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(ConsistentHashBenchMark.class.getSimpleName())
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        List<ProviderInfo> list = new ArrayList<ProviderInfo>();
+        for (int i = 0; i < providerNum; i++) {
+            ProviderInfo providerInfo = new ProviderInfo();
+            providerInfo.setHost("10.0." + (i / 250) + "." + (i % 250));
+            providerInfo.setPort(12200);
+            list.add(providerInfo);
+        }
+        providers = ProviderInfoSnapshot.of(list);
+        legacyRing = new TreeMap<Long, ProviderInfo>();
+        for (ProviderInfo providerInfo : providers) {
+            for (int i = 0; i < 128 / 4; i++) {
+                byte[] digest = HashUtils.messageDigest(providerInfo.getHost() + providerInfo.getPort() + i);
+                for (int h = 0; h < 4; h++) {
+                    legacyRing.put(HashUtils.hash(digest, h), providerInfo);
+                }
+            }
+        }
+        legacyHashCode = providers.hashCode();
+        ConsistentHashRing.ReplicaCounter counter = new ConsistentHashRing.ReplicaCounter() {
+            @Override
+            public int replicas(ProviderInfo providerInfo) {
+                return 128;
+            }
+        };
+        md5Ring = ConsistentHashRing.build(providers, md5, counter);
+        murmur3Ring = ConsistentHashRing.build(providers, murmur3, counter);
+        keys = new String[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "user-" + i;
+        }
+    }
+
+    private String nextKey() {
+        return keys[(index++) & (keys.length - 1)];
+    }
+
+    @Benchmark
+    public void legacyTreeMap(Blackhole bh) {
+        // 老实现每次都要计算列表的 hashCode 判断列表是否变化
+        bh.consume(providers.hashCode() == legacyHashCode);
+        long hash = HashUtils.hash(HashUtils.messageDigest(nextKey()), 0);
+        Map.Entry<Long, ProviderInfo> entry = legacyRing.ceilingEntry(hash);
+        if (entry == null) {
+            entry = legacyRing.firstEntry();
+        }
+        bh.consume(entry.getValue());
+    }
+
+    @Benchmark
+    public void arrayRingMd5(Blackhole bh) {
+        // 新实现按快照版本号判断列表是否变化
+        bh.consume(md5Ring.isBuiltFrom(providers, md5));
+        bh.consume(md5Ring.select(nextKey()));
+    }
+
+    @Benchmark
+    public void arrayRingMurmur3(Blackhole bh) {
+        bh.consume(murmur3Ring.isBuiltFrom(providers, murmur3));
+        bh.consume(murmur3Ring.select(nextKey()));
+    }
+}
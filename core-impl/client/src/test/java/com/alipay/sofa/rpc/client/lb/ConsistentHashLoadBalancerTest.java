@@ -16,11 +16,19 @@
  */
 package com.alipay.sofa.rpc.client.lb;
 
+import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
+import com.alipay.sofa.rpc.client.Cluster;
+import com.alipay.sofa.rpc.client.ProviderGroup;
 import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.config.MethodConfig;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -67,4 +75,118 @@ public class ConsistentHashLoadBalancerTest extends BaseLoadBalancerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testRingReusedBySnapshotVersion() throws Exception {
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer(null);
+        SofaRequest request = new SofaRequest();
+        request.setInterfaceName(ConsistentHashLoadBalancerTest.class.getName());
+        request.setMethod(ConsistentHashLoadBalancerTest.class.getMethod("doSelect"));
+        request.setMethodArgs(new Object[] { "key" });
+
+        ProviderInfoSnapshot snapshot = ProviderInfoSnapshot.of(buildSameWeightProviderList(10));
+        ProviderInfo first = loadBalancer.doSelect(request, snapshot);
+        ConsistentHashRing ring = loadBalancer.getRing(snapshot);
+        Assert.assertSame(first, loadBalancer.doSelect(request, snapshot));
+        Assert.assertSame(ring, loadBalancer.getRing(snapshot));
+
+        ProviderInfoSnapshot newSnapshot = ProviderInfoSnapshot.of(buildSameWeightProviderList(10));
+        Assert.assertEquals(first, loadBalancer.doSelect(request, newSnapshot));
+        Assert.assertNotSame(ring, loadBalancer.getRing(newSnapshot));
+    }
+
+    @Test
+    public void testFirstArgHashKey() throws Exception {
+        FirstArgHashKeyExtractor extractor = new FirstArgHashKeyExtractor();
+        SofaRequest request = new SofaRequest();
+        request.setMethodArgs(new Object[] { "arg", "b" });
+        Assert.assertEquals("arg", extractor.extract(request));
+        request.setMethodArgs(new Object[0]);
+        Assert.assertEquals("", extractor.extract(request));
+        // 第一个参数为null时和没有参数一样，不再抛出空指针异常
+        request.setMethodArgs(new Object[] { null, "b" });
+        Assert.assertEquals("", extractor.extract(request));
+
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(10);
+        Assert.assertSame(loadBalancer.getRing(providers).select(""), loadBalancer.doSelect(request, providers));
+    }
+
+    @Test
+    public void testRequestPropHashKey() throws Exception {
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(10);
+        RequestPropHashKeyExtractor extractor = new RequestPropHashKeyExtractor();
+
+        SofaRequest request = new SofaRequest();
+        request.setMethodArgs(new Object[] { "arg" });
+        Assert.assertEquals("arg", extractor.extract(request));
+        request.addRequestProp(RequestPropHashKeyExtractor.HASH_KEY, "tenant");
+        Assert.assertEquals("tenant", extractor.extract(request));
+        Assert.assertSame(loadBalancer.getRing(providers).select("tenant"),
+            loadBalancer.getRing(providers).select(extractor.extract(request)));
+    }
+
+    @Test
+    public void testArgIndexHashKey() throws Exception {
+        ArgIndexHashKeyExtractor extractor = new ArgIndexHashKeyExtractor(1);
+        SofaRequest request = new SofaRequest();
+        request.setMethodArgs(new Object[] { "a", "b" });
+        Assert.assertEquals("b", extractor.extract(request));
+        request.setMethodArgs(new Object[] { "a" });
+        Assert.assertEquals("", extractor.extract(request));
+
+        MethodConfig methodConfig = new MethodConfig().setName("sayHello");
+        methodConfig.setParameter(RpcConstants.CONFIG_KEY_HASH_KEY_ARG_INDEX, "1");
+        ConsumerConfig<Object> consumerConfig = new ConsumerConfig<Object>()
+            .setInterfaceId(Runnable.class.getName())
+            .setMethods(Collections.singletonList(methodConfig));
+        consumerConfig.getConfigValueCache(true);
+        ConsistentHashLoadBalancer loadBalancer = new ConsistentHashLoadBalancer(buildBootstrap(consumerConfig));
+
+        // 只对配置了的方法生效，其它方法仍然取第一个参数
+        HashKeyExtractor configured = loadBalancer.getHashKeyExtractor("sayHello");
+        Assert.assertTrue(configured instanceof ArgIndexHashKeyExtractor);
+        Assert.assertEquals(1, ((ArgIndexHashKeyExtractor) configured).getIndex());
+        Assert.assertSame(configured, loadBalancer.getHashKeyExtractor("sayHello"));
+        Assert.assertTrue(loadBalancer.getHashKeyExtractor("other") instanceof FirstArgHashKeyExtractor);
+
+        List<ProviderInfo> providers = buildSameWeightProviderList(10);
+        request = new SofaRequest();
+        request.setMethodName("sayHello");
+        request.setMethodArgs(new Object[] { "ignored", "user" });
+        Assert.assertSame(loadBalancer.getRing(providers).select("user"), loadBalancer.doSelect(request, providers));
+    }
+
+    private ConsumerBootstrap buildBootstrap(ConsumerConfig<Object> consumerConfig) {
+        return new ConsumerBootstrap<Object>(consumerConfig) {
+            @Override
+            public Object refer() {
+                return null;
+            }
+
+            @Override
+            public void unRefer() {
+            }
+
+            @Override
+            public Object getProxyIns() {
+                return null;
+            }
+
+            @Override
+            public Cluster getCluster() {
+                return null;
+            }
+
+            @Override
+            public List<ProviderGroup> subscribe() {
+                return null;
+            }
+
+            @Override
+            public boolean isSubscribed() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+import com.alipay.sofa.rpc.common.utils.HashUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ *
+ */
+public class ConsistentHashRingTest extends BaseLoadBalancerTest {
+
+    private final ConsistentHashRing.ReplicaCounter counter = new ConsistentHashRing.ReplicaCounter() {
+                                                                @Override
+                                                                public int replicas(ProviderInfo providerInfo) {
+                                                                    return 128;
+                                                                }
+                                                            };
+
+    @Test
+    public void testMd5CompatibleWithTreeMap() {
+        List<ProviderInfo> providers = buildSameWeightProviderList(50);
+        ConsistentHashRing ring = ConsistentHashRing.build(providers, new Md5HashFunction(), counter);
+        TreeMap<Long, ProviderInfo> legacy = buildLegacyRing(providers);
+        Assert.assertEquals(legacy.size(), ring.size());
+        for (int i = 0; i < 10000; i++) {
+            String key = "key" + i;
+            Map.Entry<Long, ProviderInfo> entry = legacy.ceilingEntry(HashUtils.hash(HashUtils.messageDigest(key), 0));
+            if (entry == null) {
+                entry = legacy.firstEntry();
+            }
+            Assert.assertSame(entry.getValue(), ring.select(key));
+        }
+    }
+
+    @Test
+    public void testMd5ReplicasRoundedDown() {
+        Md5HashFunction hashFunction = new Md5HashFunction();
+        Assert.assertEquals(128, hashFunction.virtualNodeHashes("127.0.0.1:12200", 128).length);
+        Assert.assertEquals(8, hashFunction.virtualNodeHashes("127.0.0.1:12200", 10).length);
+        Assert.assertEquals(0, hashFunction.virtualNodeHashes("127.0.0.1:12200", 3).length);
+    }
+
+    @Test
+    public void testMurmur3() {
+        List<ProviderInfo> providers = buildSameWeightProviderList(20);
+        ConsistentHashRing ring = ConsistentHashRing.build(providers, new Murmur3HashFunction(), counter);
+        Set<ProviderInfo> hit = new HashSet<ProviderInfo>();
+        for (int i = 0; i < 10000; i++) {
+            ProviderInfo providerInfo = ring.select("key" + i);
+            Assert.assertSame(providerInfo, ring.select("key" + i));
+            hit.add(providerInfo);
+        }
+        Assert.assertEquals(20, hit.size());
+    }
+
+    @Test
+    public void testEmpty() {
+        ConsistentHashRing ring = ConsistentHashRing.build(new ArrayList<ProviderInfo>(), new Md5HashFunction(),
+            counter);
+        Assert.assertEquals(0, ring.size());
+        Assert.assertNull(ring.select("xxx"));
+    }
+
+    @Test
+    public void testIsBuiltFrom() {
+        HashFunction md5 = new Md5HashFunction();
+        List<ProviderInfo> providers = buildSameWeightProviderList(5);
+        ProviderInfoSnapshot snapshot = ProviderInfoSnapshot.of(providers);
+        ConsistentHashRing ring = ConsistentHashRing.build(snapshot, md5, counter);
+        Assert.assertTrue(ring.isBuiltFrom(snapshot, md5));
+        Assert.assertFalse(ring.isBuiltFrom(snapshot, new Murmur3HashFunction()));
+        Assert.assertFalse(ring.isBuiltFrom(ProviderInfoSnapshot.of(providers), md5));
+        Assert.assertFalse(ring.isBuiltFrom(providers, md5));
+
+        ring = ConsistentHashRing.build(providers, md5, counter);
+        Assert.assertTrue(ring.isBuiltFrom(new ArrayList<ProviderInfo>(providers), md5));
+        Assert.assertFalse(ring.isBuiltFrom(providers.subList(0, 4), md5));
+    }
+
+    private TreeMap<Long, ProviderInfo> buildLegacyRing(List<ProviderInfo> providers) {
+        TreeMap<Long, ProviderInfo> virtualNodes = new TreeMap<Long, ProviderInfo>();
+        for (ProviderInfo providerInfo : providers) {
+            for (int i = 0; i < 128 / 4; i++) {
+                byte[] digest = HashUtils.messageDigest(providerInfo.getHost() + providerInfo.getPort() + i);
+                for (int h = 0; h < 4; h++) {
+                    virtualNodes.put(HashUtils.hash(digest, h), providerInfo);
+                }
+            }
+        }
+        return virtualNodes;
+    }
+}
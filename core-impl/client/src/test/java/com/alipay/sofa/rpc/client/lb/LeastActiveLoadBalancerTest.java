@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class LeastActiveLoadBalancerTest extends BaseLoadBalancerTest {
+
+    @Test
+    public void testAvoidBusyProvider() throws Exception {
+        LeastActiveLoadBalancer loadBalancer = new LeastActiveLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(2);
+        SofaRequest request = new SofaRequest();
+        ProviderInfo busy = providers.get(0);
+        for (int i = 0; i < 10; i++) {
+            loadBalancer.onInvokeStart(busy, request);
+        }
+        // 只有两个节点时每次都会比较这两个
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(providers.get(1), loadBalancer.doSelect(request, providers));
+        }
+        for (int i = 0; i < 10; i++) {
+            loadBalancer.onInvokeEnd(busy, request, 1000L, true);
+        }
+        Assert.assertEquals(0L, loadBalancer.stats.getActive(busy));
+    }
+
+    @Test
+    public void testBalanceInflight() throws Exception {
+        LeastActiveLoadBalancer loadBalancer = new LeastActiveLoadBalancer(null);
+        int size = 10;
+        List<ProviderInfo> providers = buildSameWeightProviderList(size);
+        SofaRequest request = new SofaRequest();
+        Map<ProviderInfo, Integer> cnt = new HashMap<ProviderInfo, Integer>();
+        int total = 1000;
+        for (int i = 0; i < total; i++) {
+            ProviderInfo providerInfo = loadBalancer.doSelect(request, providers);
+            loadBalancer.onInvokeStart(providerInfo, request);
+            Integer old = cnt.get(providerInfo);
+            cnt.put(providerInfo, old == null ? 1 : old + 1);
+        }
+        // 只开始不结束，在途请求数应该接近平均
+        for (ProviderInfo providerInfo : providers) {
+            long active = loadBalancer.stats.getActive(providerInfo);
+            Assert.assertTrue("active: " + active, active > total / size / 2 && active < total / size * 2);
+        }
+    }
+
+    @Test
+    public void testRetainStats() throws Exception {
+        LeastActiveLoadBalancer loadBalancer = new LeastActiveLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(4);
+        SofaRequest request = new SofaRequest();
+        for (ProviderInfo providerInfo : providers) {
+            loadBalancer.onInvokeStart(providerInfo, request);
+            loadBalancer.onInvokeEnd(providerInfo, request, 1000L, true);
+        }
+        Assert.assertEquals(4, loadBalancer.stats.size());
+        loadBalancer.doSelect(request, ProviderInfoSnapshot.of(providers.subList(0, 2)));
+        Assert.assertEquals(2, loadBalancer.stats.size());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client.lb;
+
+import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class PeakEwmaLoadBalancerTest extends BaseLoadBalancerTest {
+
+    @Test
+    public void testAvoidSlowProvider() throws Exception {
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(2);
+        SofaRequest request = new SofaRequest();
+        ProviderInfo slow = providers.get(0);
+        ProviderInfo fast = providers.get(1);
+        loadBalancer.onInvokeStart(slow, request);
+        loadBalancer.onInvokeEnd(slow, request, TimeUnit.MILLISECONDS.toNanos(500), true);
+        loadBalancer.onInvokeStart(fast, request);
+        loadBalancer.onInvokeEnd(fast, request, TimeUnit.MILLISECONDS.toNanos(5), true);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(fast, loadBalancer.doSelect(request, providers));
+        }
+    }
+
+    @Test
+    public void testFailurePenalty() throws Exception {
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(null);
+        List<ProviderInfo> providers = buildSameWeightProviderList(2);
+        SofaRequest request = new SofaRequest();
+        ProviderInfo failing = providers.get(0);
+        ProviderInfo healthy = providers.get(1);
+        loadBalancer.onInvokeStart(healthy, request);
+        loadBalancer.onInvokeEnd(healthy, request, TimeUnit.MILLISECONDS.toNanos(10), true);
+        loadBalancer.onInvokeStart(failing, request);
+        loadBalancer.onInvokeEnd(failing, request, TimeUnit.MILLISECONDS.toNanos(10), true);
+        // 快速失败不能让节点看起来更快
+        loadBalancer.onInvokeStart(failing, request);
+        loadBalancer.onInvokeEnd(failing, request, 1000L, false);
+        Assert.assertTrue(loadBalancer.stats.get(failing).getCost() > loadBalancer.stats.get(healthy).getCost());
+        Assert.assertEquals(healthy, loadBalancer.doSelect(request, providers));
+    }
+
+    @Test
+    public void testPeakAndDecay() {
+        ProviderLoadStat stat = new ProviderLoadStat();
+        long decay = TimeUnit.SECONDS.toNanos(10);
+        long now = System.nanoTime();
+        stat.sample(100, now, decay);
+        Assert.assertEquals(100d, stat.getCost(), 0.001d);
+        // 变慢立即生效
+        stat.sample(1000, now + 1, decay);
+        Assert.assertEquals(1000d, stat.getCost(), 0.001d);
+        // 变快按时间衰减
+        stat.sample(100, now + decay, decay);
+        double cost = stat.getCost();
+        Assert.assertTrue(cost > 100d && cost < 1000d);
+        stat.sample(100, now + decay * 20, decay);
+        Assert.assertEquals(100d, stat.getCost(), 1d);
+    }
+
+    @Test
+    public void testRecoverAfterDecay() throws Exception {
+        final AtomicLong clock = new AtomicLong(System.nanoTime());
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(null) {
+            @Override
+            protected long nanoTime() {
+                return clock.get();
+            }
+        };
+        List<ProviderInfo> providers = buildSameWeightProviderList(2);
+        SofaRequest request = new SofaRequest();
+        ProviderInfo penalized = providers.get(0);
+        ProviderInfo healthy = providers.get(1);
+        loadBalancer.onInvokeStart(healthy, request);
+        loadBalancer.onInvokeEnd(healthy, request, TimeUnit.MILLISECONDS.toNanos(5), true);
+        // 一次失败后被惩罚，短时间内不会被选中
+        loadBalancer.onInvokeStart(penalized, request);
+        loadBalancer.onInvokeEnd(penalized, request, TimeUnit.MILLISECONDS.toNanos(500), false);
+        Assert.assertEquals(healthy, loadBalancer.doSelect(request, providers));
+
+        // 只有健康节点持续有样本，被惩罚的节点按时间衰减后重新被选中
+        long decay = loadBalancer.stats.getDecayNanos();
+        boolean selected = false;
+        for (int i = 0; i < 100 && !selected; i++) {
+            clock.addAndGet(decay);
+            loadBalancer.onInvokeStart(healthy, request);
+            loadBalancer.onInvokeEnd(healthy, request, TimeUnit.MILLISECONDS.toNanos(5), true);
+            selected = penalized.equals(loadBalancer.doSelect(request, providers));
+        }
+        Assert.assertTrue(selected);
+    }
+}
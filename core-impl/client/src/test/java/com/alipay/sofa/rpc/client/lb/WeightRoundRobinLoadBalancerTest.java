@@ -17,13 +17,18 @@
 package com.alipay.sofa.rpc.client.lb;
 
 import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.client.ProviderInfoSnapshot;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
@@ -91,4 +96,95 @@ public class WeightRoundRobinLoadBalancerTest extends BaseLoadBalancerTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSmoothSequence() throws Exception {
+        WeightRoundRobinLoadBalancer loadBalancer = new WeightRoundRobinLoadBalancer(null);
+        SofaRequest request = new SofaRequest();
+        List<ProviderInfo> providers = buildSameWeightProviderList(4);
+        for (int i = 0; i < 4; i++) {
+            providers.get(i).setWeight(i + 1);
+        }
+        StringBuilder sequence = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            sequence.append(loadBalancer.doSelect(request, providers).getPort() - 8999);
+        }
+        Assert.assertEquals("4324134234", sequence.toString());
+
+        // 权重变化后按新权重轮询
+        providers.get(3).setWeight(0);
+        for (int i = 0; i < 12; i++) {
+            Assert.assertTrue(loadBalancer.doSelect(request, providers).getPort() != 9003);
+        }
+    }
+
+    @Test
+    public void testConcurrentSelect() throws Exception {
+        final WeightRoundRobinLoadBalancer loadBalancer = new WeightRoundRobinLoadBalancer(null);
+        final SofaRequest request = new SofaRequest();
+        final List<ProviderInfo> providers = buildSameWeightProviderList(3);
+        providers.get(0).setWeight(1);
+        providers.get(1).setWeight(2);
+        providers.get(2).setWeight(3);
+        final Map<Integer, AtomicInteger> cnt = new ConcurrentHashMap<Integer, AtomicInteger>();
+        for (ProviderInfo providerInfo : providers) {
+            cnt.put(providerInfo.getPort(), new AtomicInteger());
+        }
+        int threads = 6;
+        final int perThread = 6000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        List<Thread> list = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < perThread; j++) {
+                        cnt.get(loadBalancer.doSelect(request, providers).getPort()).incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            });
+            list.add(thread);
+            thread.start();
+        }
+        latch.await();
+        // 总次数是权重和的整数倍时，严格按权重分配
+        int rounds = threads * perThread / 6;
+        Assert.assertEquals(rounds, cnt.get(9000).get());
+        Assert.assertEquals(rounds * 2, cnt.get(9001).get());
+        Assert.assertEquals(rounds * 3, cnt.get(9002).get());
+    }
+
+    @Test
+    public void testSnapshotVersion() throws Exception {
+        WeightRoundRobinLoadBalancer loadBalancer = new WeightRoundRobinLoadBalancer(null);
+        SofaRequest request = new SofaRequest();
+        List<ProviderInfo> list = buildSameWeightProviderList(2);
+        ProviderInfoSnapshot snapshot = ProviderInfoSnapshot.of(list);
+        loadBalancer.doSelect(request, snapshot);
+
+        // 版本号不变且未到比对间隔，沿用已构建的权重
+        list.get(1).setWeight(0);
+        int hit = 0;
+        for (int i = 0; i < 4; i++) {
+            if (loadBalancer.doSelect(request, snapshot).getPort() == 9001) {
+                hit++;
+            }
+        }
+        Assert.assertEquals(2, hit);
+
+        // 新版本号立即重新比对
+        ProviderInfoSnapshot newSnapshot = ProviderInfoSnapshot.of(list);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(9000, loadBalancer.doSelect(request, newSnapshot).getPort());
+        }
+
+        // 版本号不变时，超过比对间隔后也能感知权重变化（例如预热结束）
+        list.get(1).setWeight(100);
+        list.get(0).setWeight(0);
+        Thread.sleep(WeightRoundRobinLoadBalancer.WEIGHT_RECHECK_INTERVAL + 100);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(9001, loadBalancer.doSelect(request, newSnapshot).getPort());
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package com.alipay.sofa.rpc.filter;
 
 import com.alipay.sofa.common.utils.Ordered;
-import com.alipay.sofa.rpc.common.utils.CommonUtils;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
@@ -40,8 +39,8 @@ public class ConsumerCustomHeaderFilter extends Filter {
     public SofaResponse invoke(FilterInvoker invoker, SofaRequest request) throws SofaRpcException {
         RpcInvokeContext context = RpcInvokeContext.getContext();
         try {
-            Map customHeader = context.getCustomHeader();
-            if (CommonUtils.isNotEmpty(customHeader)) {
+            if (context.hasCustomHeader()) {
+                Map customHeader = context.getCustomHeader();
                 request.addRequestProps(customHeader);
             }
             return invoker.invoke(request);
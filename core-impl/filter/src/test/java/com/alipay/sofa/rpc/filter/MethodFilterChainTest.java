@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.filter;
+
+import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.context.RpcInvokeContext;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按方法编译的调用链里，默认与方法无关的内置过滤器保留，不需要的按方法过滤器被去掉
+ *
+ * @since 5.14.3
+ */
+public class MethodFilterChainTest {
+
+    @Test
+    public void testMethodChainDropsFilter() {
+        final AtomicInteger checked = new AtomicInteger();
+        final AtomicInteger invoked = new AtomicInteger();
+        Filter methodFilter = new Filter() {
+            @Override
+            public boolean isMethodAgnostic() {
+                return false;
+            }
+
+            @Override
+            public boolean needToLoad(FilterInvoker invoker, String methodName) {
+                checked.incrementAndGet();
+                return "sayHello".equals(methodName);
+            }
+
+            @Override
+            public SofaResponse invoke(FilterInvoker invoker, SofaRequest request) throws SofaRpcException {
+                invoked.incrementAndGet();
+                return invoker.invoke(request);
+            }
+        };
+        List<Filter> filters = new ArrayList<Filter>();
+        filters.add(methodFilter);
+        ConsumerConfig consumerConfig = new ConsumerConfig();
+        consumerConfig.setInterfaceId(Runnable.class.getName());
+        consumerConfig.setFilterRef(filters);
+
+        FilterChain chain = FilterChain.buildConsumerChain(consumerConfig, new FilterInvoker(consumerConfig) {
+            @Override
+            public SofaResponse invoke(SofaRequest request) throws SofaRpcException {
+                if ("fail".equals(request.getMethodName())) {
+                    throw new IllegalStateException("fail");
+                }
+                return new SofaResponse();
+            }
+        });
+
+        for (int i = 0; i < 2; i++) {
+            RpcInvokeContext.getContext().addCustomHeader("a", "b");
+            SofaRequest request = buildRequest("sayHello");
+            chain.invoke(request);
+            Assert.assertEquals("b", request.getRequestProp("a"));
+
+            // 按方法过滤器被去掉，内置过滤器仍然生效
+            RpcInvokeContext.getContext().addCustomHeader("a", "c");
+            request = buildRequest("run");
+            chain.invoke(request);
+            Assert.assertEquals("c", request.getRequestProp("a"));
+        }
+        Assert.assertEquals(2, invoked.get());
+
+        try {
+            chain.invoke(buildRequest("fail"));
+            Assert.fail();
+        } catch (SofaRpcException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(2, invoked.get());
+        // 每个方法只判断一次
+        Assert.assertEquals(3, checked.get());
+    }
+
+    private SofaRequest buildRequest(String methodName) {
+        SofaRequest request = new SofaRequest();
+        request.setMethodName(methodName);
+        request.setInvokeType("sync");
+        return request;
+    }
+}
@@ -20,6 +20,7 @@ import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
 import com.alipay.sofa.rpc.invoke.Invoker;
 import com.alipay.sofa.rpc.message.MessageBuilder;
+import com.alipay.sofa.rpc.message.MethodDescriptor;
 import net.bytebuddy.implementation.bind.annotation.AllArguments;
 import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
@@ -51,19 +52,21 @@ public class BytebuddyInvocationHandler {
     @RuntimeType
     public Object byteBuddyInvoke(@This Object proxy, @Origin Method method, @AllArguments @RuntimeType Object[] args)
         throws Throwable {
-        String name = method.getName();
-        if ("equals".equals(name)) {
-            Object another = args[0];
-            return proxy == another ||
-                (proxy.getClass().isInstance(another) && proxyInvoker.equals(BytebuddyProxy.parseInvoker(another)));
-        } else if ("hashCode".equals(name)) {
-            return proxyInvoker.hashCode();
-        } else if ("toString".equals(name)) {
-            return proxyInvoker.toString();
+        MethodDescriptor descriptor = MethodDescriptor.of(method);
+        switch (descriptor.getKind()) {
+            case MethodDescriptor.KIND_EQUALS:
+                Object another = args[0];
+                return proxy == another ||
+                    (proxy.getClass().isInstance(another) && proxyInvoker.equals(BytebuddyProxy.parseInvoker(another)));
+            case MethodDescriptor.KIND_HASH_CODE:
+                return proxyInvoker.hashCode();
+            case MethodDescriptor.KIND_TO_STRING:
+                return proxyInvoker.toString();
+            default:
+                break;
         }
 
-        SofaRequest request = MessageBuilder.buildSofaRequest(method.getDeclaringClass(), method,
-            method.getParameterTypes(), args);
+        SofaRequest request = MessageBuilder.buildSofaRequest(descriptor, args);
         SofaResponse response = proxyInvoker.invoke(request);
 
         return response.getAppResponse();
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.proxy.javassist;
+
+import com.alipay.sofa.rpc.invoke.DispatchArgumentException;
+
+/**
+ * 生成的分发器把包装类型参数转为基本类型，和 {@link java.lang.reflect.Method#invoke(Object, Object...)} 一样允许基本类型的放宽转换
+ * （例如 Integer 传给 long 参数），不允许收窄
+ *
+ * @since 5.14.3
+ */
+public final class DispatchArgs {
+
+    private DispatchArgs() {
+    }
+
+    public static boolean toBoolean(Object arg) {
+        if (arg instanceof Boolean) {
+            return ((Boolean) arg).booleanValue();
+        }
+        throw mismatch();
+    }
+
+    public static byte toByte(Object arg) {
+        if (arg instanceof Byte) {
+            return ((Byte) arg).byteValue();
+        }
+        throw mismatch();
+    }
+
+    public static char toChar(Object arg) {
+        if (arg instanceof Character) {
+            return ((Character) arg).charValue();
+        }
+        throw mismatch();
+    }
+
+    public static short toShort(Object arg) {
+        if (arg instanceof Short || arg instanceof Byte) {
+            return ((Number) arg).shortValue();
+        }
+        throw mismatch();
+    }
+
+    public static int toInt(Object arg) {
+        if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            return ((Number) arg).intValue();
+        }
+        if (arg instanceof Character) {
+            return ((Character) arg).charValue();
+        }
+        throw mismatch();
+    }
+
+    public static long toLong(Object arg) {
+        if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            return ((Number) arg).longValue();
+        }
+        if (arg instanceof Character) {
+            return ((Character) arg).charValue();
+        }
+        throw mismatch();
+    }
+
+    public static float toFloat(Object arg) {
+        if (arg instanceof Float || arg instanceof Long || arg instanceof Integer || arg instanceof Short
+            || arg instanceof Byte) {
+            return ((Number) arg).floatValue();
+        }
+        if (arg instanceof Character) {
+            return ((Character) arg).charValue();
+        }
+        throw mismatch();
+    }
+
+    public static double toDouble(Object arg) {
+        if (arg instanceof Double || arg instanceof Float || arg instanceof Long || arg instanceof Integer
+            || arg instanceof Short || arg instanceof Byte) {
+            return ((Number) arg).doubleValue();
+        }
+        if (arg instanceof Character) {
+            return ((Character) arg).charValue();
+        }
+        throw mismatch();
+    }
+
+    private static DispatchArgumentException mismatch() {
+        return new DispatchArgumentException("argument type mismatch");
+    }
+}
@@ -30,6 +30,7 @@ import com.alipay.sofa.rpc.log.LogCodes;
 import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
 import com.alipay.sofa.rpc.message.MessageBuilder;
+import com.alipay.sofa.rpc.message.MethodDescriptor;
 import com.alipay.sofa.rpc.proxy.Proxy;
 import javassist.ClassPool;
 import javassist.CtClass;
@@ -196,26 +197,24 @@ public class JavassistProxy implements Proxy {
             }
             sb.append("{");
 
-            sb.append(" Class clazz = ").append(interfaceClass.getCanonicalName()).append(".class;");
-            sb.append(" ").append(Method.class.getCanonicalName()).append(" method =  method_").append(mi).append(";");
-            sb.append(" Class[] paramTypes = new Class[").append(c).append("];");
             sb.append(" Object[] paramValues = new Object[").append(c).append("];");
             StringBuilder methodSig = new StringBuilder();
             for (int i = 0; i < c; i++) {
                 sb.append("paramValues[").append(i).append("] = ($w)$").append(i + 1).append(";");
-                sb.append("paramTypes[").append(i).append("] = ").append(mType[i].getCanonicalName()).append(".class;");
                 methodSig.append("," + mType[i].getCanonicalName() + ".class");
             }
 
-            fieldList.add("private " + Method.class.getCanonicalName() + " method_" + mi + " = "
+            // 方法描述在代理生成时获取一次，调用时直接构建请求
+            fieldList.add("private " + MethodDescriptor.class.getCanonicalName() + " method_" + mi + " = "
+                + MethodDescriptor.class.getCanonicalName() + ".of(" + interfaceClass.getCanonicalName() + ".class, "
                 + ReflectUtils.class.getCanonicalName() + ".getMethod("
                 + interfaceClass.getCanonicalName() + ".class, \"" + m.getName() + "\", "
-                + (c > 0 ? "new Class[]{" + methodSig.toString().substring(1) + "}" : "new Class[0]") + ");"
+                + (c > 0 ? "new Class[]{" + methodSig.toString().substring(1) + "}" : "new Class[0]") + "));"
                 );
 
             sb.append(SofaRequest.class.getCanonicalName()).append(" request = ")
                 .append(MessageBuilder.class.getCanonicalName())
-                .append(".buildSofaRequest(clazz, method, paramTypes, paramValues);");
+                .append(".buildSofaRequest(method_").append(mi).append(", paramValues);");
             sb.append(SofaResponse.class.getCanonicalName()).append(" response = ")
                 .append("proxyInvoker.invoke(request);");
             sb.append("if(response.isError()){");
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.proxy.javassist;
+
+import com.alipay.sofa.rpc.common.utils.ClassLoaderUtils;
+import com.alipay.sofa.rpc.common.utils.ClassTypeUtils;
+import com.alipay.sofa.rpc.core.exception.SofaRpcRuntimeException;
+import com.alipay.sofa.rpc.ext.Extension;
+import com.alipay.sofa.rpc.invoke.DispatchArgumentException;
+import com.alipay.sofa.rpc.invoke.ServiceDispatcher;
+import com.alipay.sofa.rpc.invoke.ServiceDispatcherFactory;
+import com.alipay.sofa.rpc.log.LogCodes;
+import com.alipay.sofa.rpc.log.Logger;
+import com.alipay.sofa.rpc.log.LoggerFactory;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtMethod;
+import javassist.LoaderClassPath;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 javassist 生成服务方法分发器：按方法下标 switch，强转参数后直接调用接口方法。静态方法不生成分发代码。
+ * 基本类型参数按 {@link DispatchArgs} 转换，和反射调用一样接受放宽转换。
+ *
+ * @since 5.14.3
+ */
+@Extension("javassist")
+public class JavassistServiceDispatcherFactory implements ServiceDispatcherFactory {
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger                          LOGGER         = LoggerFactory
+                                                                            .getLogger(JavassistServiceDispatcherFactory.class);
+
+    private static final AtomicInteger                   COUNTER        = new AtomicInteger();
+
+    /**
+     * 接口和分发器的映射，同一接口重复发布时复用
+     */
+    private static final Map<Class<?>, DispatcherHolder> DISPATCHER_MAP = new ConcurrentHashMap<Class<?>, DispatcherHolder>();
+
+    @Override
+    public ServiceDispatcher create(Class<?> interfaceClass, Method[] methods) {
+        DispatcherHolder holder = DISPATCHER_MAP.get(interfaceClass);
+        if (holder != null && Arrays.equals(holder.methods, methods)) {
+            return holder.dispatcher;
+        }
+        ServiceDispatcher dispatcher = generate(interfaceClass, methods);
+        DISPATCHER_MAP.put(interfaceClass, new DispatcherHolder(methods.clone(), dispatcher));
+        return dispatcher;
+    }
+
+    private ServiceDispatcher generate(Class<?> interfaceClass, Method[] methods) {
+        String interfaceName = ClassTypeUtils.getTypeStr(interfaceClass);
+        StringBuilder debug = LOGGER.isDebugEnabled() ? new StringBuilder() : null;
+        try {
+            ClassPool mPool = ClassPool.getDefault();
+            mPool.appendClassPath(new LoaderClassPath(ClassLoaderUtils
+                .getClassLoader(JavassistServiceDispatcherFactory.class)));
+            if (interfaceClass.getClassLoader() != null) {
+                mPool.appendClassPath(new LoaderClassPath(interfaceClass.getClassLoader()));
+            }
+            CtClass mCtc = mPool.makeClass(interfaceClass.getName() + "_dispatcher_" + COUNTER.getAndIncrement());
+            mCtc.addInterface(mPool.get(ServiceDispatcher.class.getName()));
+
+            StringBuilder sb = new StringBuilder(256);
+            sb.append("public Object invoke(Object target, int methodIndex, Object[] args) throws Throwable {")
+                .append(" switch (methodIndex) {");
+            for (int i = 0; i < methods.length; i++) {
+                if (!Modifier.isStatic(methods[i].getModifiers())) {
+                    sb.append(" case ").append(i).append(": return invoke").append(i).append("(target, args);");
+                }
+            }
+            sb.append(" default: throw new ").append(DispatchArgumentException.class.getName())
+                .append("(\"unknown method index: \" + methodIndex);").append(" } }");
+            String dispatch = sb.toString();
+
+            for (int i = 0; i < methods.length; i++) {
+                if (Modifier.isStatic(methods[i].getModifiers())) {
+                    continue;
+                }
+                String methodStr = buildMethod(interfaceName, methods[i], i);
+                if (debug != null) {
+                    debug.append(methodStr).append("\n");
+                }
+                mCtc.addMethod(CtMethod.make(methodStr, mCtc));
+            }
+            if (debug != null) {
+                debug.append(dispatch).append("\n");
+                LOGGER.debug("javassist dispatcher of interface: {} \r\n{}", interfaceClass, debug.toString());
+            }
+            mCtc.addMethod(CtMethod.make(dispatch, mCtc));
+
+            // 和 JavassistProxy 一样以接口类作为 neighbour，兼容 jdk 11+
+            Class<?> clazz = mPool.toClass(mCtc, interfaceClass, interfaceClass.getClassLoader(),
+                interfaceClass.getProtectionDomain());
+            mCtc.detach();
+            return (ServiceDispatcher) clazz.newInstance();
+        } catch (Exception e) {
+            throw new SofaRpcRuntimeException(LogCodes.getLog(LogCodes.ERROR_PROXY_CONSTRUCT, "javassist"), e);
+        }
+    }
+
+    /**
+     * 生成单个方法的分发代码，参数强转失败统一抛出 {@link DispatchArgumentException}
+     */
+    private String buildMethod(String interfaceName, Method method, int index) {
+        Class<?>[] paramTypes = method.getParameterTypes();
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("private Object invoke").append(index).append("(Object target, Object[] args) throws Throwable {");
+        sb.append(" if ((args == null ? 0 : args.length) != ").append(paramTypes.length).append(") {")
+            .append(" throw new ").append(DispatchArgumentException.class.getName())
+            .append("(\"wrong number of arguments\"); }");
+        sb.append(" ").append(interfaceName).append(" t = null;");
+        for (int i = 0; i < paramTypes.length; i++) {
+            Class<?> type = paramTypes[i];
+            sb.append(" ").append(ClassTypeUtils.getTypeStr(type)).append(" a").append(i).append(" = ")
+                .append(type.isPrimitive() ? (type == boolean.class ? "false" : "0") : "null").append(";");
+        }
+        sb.append(" try { t = (").append(interfaceName).append(") target;");
+        for (int i = 0; i < paramTypes.length; i++) {
+            sb.append(" a").append(i).append(" = ").append(unbox(paramTypes[i], "args[" + i + "]")).append(";");
+        }
+        sb.append(" } catch (ClassCastException e) {")
+            .append(" throw new ").append(DispatchArgumentException.class.getName())
+            .append("(\"argument type mismatch\");")
+            .append(" } catch (NullPointerException e) {")
+            .append(" throw new ").append(DispatchArgumentException.class.getName())
+            .append("(\"argument type mismatch\"); }");
+
+        StringBuilder call = new StringBuilder(64);
+        call.append("t.").append(method.getName()).append("(");
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (i > 0) {
+                call.append(", ");
+            }
+            call.append("a").append(i);
+        }
+        call.append(")");
+        if (method.getReturnType() == void.class) {
+            sb.append(" ").append(call).append("; return null; }");
+        } else {
+            sb.append(" return ($w) ").append(call).append("; }");
+        }
+        return sb.toString();
+    }
+
+    private String unbox(Class<?> type, String value) {
+        if (!type.isPrimitive()) {
+            return "(" + ClassTypeUtils.getTypeStr(type) + ") " + value;
+        }
+        // 基本类型走 DispatchArgs，和反射调用一样允许放宽转换
+        String name = type.getName();
+        return DispatchArgs.class.getName() + ".to" + Character.toUpperCase(name.charAt(0)) + name.substring(1)
+            + "(" + value + ")";
+    }
+
+    private static class DispatcherHolder {
+        private final Method[]          methods;
+        private final ServiceDispatcher dispatcher;
+
+        DispatcherHolder(Method[] methods, ServiceDispatcher dispatcher) {
+            this.methods = methods;
+            this.dispatcher = dispatcher;
+        }
+    }
+}
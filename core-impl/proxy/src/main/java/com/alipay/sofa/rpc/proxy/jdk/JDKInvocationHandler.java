@@ -23,6 +23,7 @@ import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
 import com.alipay.sofa.rpc.invoke.Invoker;
 import com.alipay.sofa.rpc.message.MessageBuilder;
+import com.alipay.sofa.rpc.message.MethodDescriptor;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -58,19 +59,20 @@ public class JDKInvocationHandler implements InvocationHandler {
     @Override
     public Object invoke(Object proxy, Method method, Object[] paramValues)
         throws Throwable {
-        String methodName = method.getName();
-        Class[] paramTypes = method.getParameterTypes();
-        if ("toString".equals(methodName) && paramTypes.length == 0) {
-            return proxyInvoker.toString();
-        } else if ("hashCode".equals(methodName) && paramTypes.length == 0) {
-            return proxyInvoker.hashCode();
-        } else if ("equals".equals(methodName) && paramTypes.length == 1) {
-            Object another = paramValues[0];
-            return proxy == another ||
-                (proxy.getClass().isInstance(another) && proxyInvoker.equals(JDKProxy.parseInvoker(another)));
+        MethodDescriptor descriptor = MethodDescriptor.of(method);
+        switch (descriptor.getKind()) {
+            case MethodDescriptor.KIND_TO_STRING:
+                return proxyInvoker.toString();
+            case MethodDescriptor.KIND_HASH_CODE:
+                return proxyInvoker.hashCode();
+            case MethodDescriptor.KIND_EQUALS:
+                Object another = paramValues[0];
+                return proxy == another ||
+                    (proxy.getClass().isInstance(another) && proxyInvoker.equals(JDKProxy.parseInvoker(another)));
+            default:
+                break;
         }
-        SofaRequest sofaRequest = MessageBuilder.buildSofaRequest(method.getDeclaringClass(),
-            method, paramTypes, paramValues);
+        SofaRequest sofaRequest = MessageBuilder.buildSofaRequest(descriptor, paramValues);
         SofaResponse response = proxyInvoker.invoke(sofaRequest);
         if (response.isError()) {
             throw new SofaRpcException(RpcErrorType.SERVER_UNDECLARED_ERROR, response.getErrorMsg());
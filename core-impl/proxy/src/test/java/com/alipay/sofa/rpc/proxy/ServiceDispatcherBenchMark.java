@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.proxy;
+
+import com.alipay.sofa.rpc.invoke.ServiceDispatcher;
+import com.alipay.sofa.rpc.proxy.javassist.JavassistServiceDispatcherFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端反射调用和生成的分发器调用对比
+ *
+ * @since 5.14.3
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceDispatcherBenchMark {
+
+    private TestInterface     ref;
+
+    private Method            method;
+
+    private ServiceDispatcher dispatcher;
+
+    private Object[]          args;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(ServiceDispatcherBenchMark.class.getSimpleName())
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        ref = new TestInterfaceImpl();
+        method = TestInterface.class.getMethod("sayNum", boolean.class);
+        dispatcher = new JavassistServiceDispatcherFactory().create(TestInterface.class, new Method[] { method });
+        args = new Object[] { Boolean.TRUE };
+    }
+
+    @Benchmark
+    public Object reflect() throws Exception {
+        return method.invoke(ref, args);
+    }
+
+    @Benchmark
+    public Object dispatcher() throws Throwable {
+        return dispatcher.invoke(ref, 0, args);
+    }
+}
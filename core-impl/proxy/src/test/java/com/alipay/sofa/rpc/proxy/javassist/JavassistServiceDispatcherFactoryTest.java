@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.proxy.javassist;
+
+import com.alipay.sofa.rpc.config.ProviderConfig;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+import com.alipay.sofa.rpc.filter.ProviderInvoker;
+import com.alipay.sofa.rpc.invoke.DispatchArgumentException;
+import com.alipay.sofa.rpc.invoke.ServiceDispatcher;
+import com.alipay.sofa.rpc.proxy.TestInterface;
+import com.alipay.sofa.rpc.proxy.TestInterfaceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * @since 5.14.3
+ */
+public class JavassistServiceDispatcherFactoryTest {
+
+    private static final Method[] METHODS = methods();
+
+    private static Method[] methods() {
+        try {
+            return new Method[] {
+                    TestInterface.class.getMethod("sayHello", String.class),
+                    TestInterface.class.getMethod("sayNoting"),
+                    TestInterface.class.getMethod("sayNum", boolean.class),
+                    TestInterface.class.getMethod("sayNums", java.util.List.class, HashMap.class),
+                    TestInterface.class.getMethod("throwbiz1"),
+                    TestInterface.class.getMethod("throwbiz2")
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testInvoke() throws Throwable {
+        ServiceDispatcher dispatcher = new JavassistServiceDispatcherFactory().create(TestInterface.class, METHODS);
+        TestInterfaceImpl ref = new TestInterfaceImpl();
+
+        Assert.assertEquals("sayHello", dispatcher.invoke(ref, 0, new Object[] { "x" }));
+        Assert.assertNull(dispatcher.invoke(ref, 1, null));
+        Assert.assertNull(dispatcher.invoke(ref, 1, new Object[0]));
+        Assert.assertEquals(678, dispatcher.invoke(ref, 2, new Object[] { true }));
+        Assert.assertArrayEquals(new int[] { 6, 7, 8 },
+            (int[]) dispatcher.invoke(ref, 3, new Object[] { new ArrayList(), new HashMap() }));
+
+        try {
+            dispatcher.invoke(ref, 4, null);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("RuntimeException", e.getMessage());
+        }
+        try {
+            dispatcher.invoke(ref, 5, null);
+            Assert.fail();
+        } catch (Throwable e) {
+            Assert.assertEquals("Throwable", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testArgumentMismatch() throws Throwable {
+        ServiceDispatcher dispatcher = new JavassistServiceDispatcherFactory().create(TestInterface.class, METHODS);
+        TestInterfaceImpl ref = new TestInterfaceImpl();
+
+        Object[][] badArgs = new Object[][] { null, new Object[] { "x", "y" }, new Object[] { 1 },
+                new Object[] { null } };
+        int[] indexes = new int[] { 0, 0, 2, 2 };
+        for (int i = 0; i < badArgs.length; i++) {
+            try {
+                dispatcher.invoke(ref, indexes[i], badArgs[i]);
+                Assert.fail();
+            } catch (DispatchArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            dispatcher.invoke(new Object(), 0, new Object[] { "x" });
+            Assert.fail();
+        } catch (DispatchArgumentException e) {
+            // expected
+        }
+        try {
+            dispatcher.invoke(ref, METHODS.length, null);
+            Assert.fail();
+        } catch (DispatchArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWidening() throws Throwable {
+        Method sum = PrimitiveService.class.getMethod("sum", long.class, int.class, double.class, char.class);
+        ServiceDispatcher dispatcher = new JavassistServiceDispatcherFactory().create(PrimitiveService.class,
+            new Method[] { sum });
+        PrimitiveService ref = new PrimitiveService() {
+            @Override
+            public double sum(long a, int b, double c, char d) {
+                return a + b + c + d;
+            }
+        };
+        Object[] args = new Object[] { 1L, 2, 3D, 'a' };
+        Assert.assertEquals(sum.invoke(ref, args), dispatcher.invoke(ref, 0, args));
+        // 和反射调用一样接受放宽转换
+        args = new Object[] { 1, (short) 2, 3F, 'a' };
+        Assert.assertEquals(sum.invoke(ref, args), dispatcher.invoke(ref, 0, args));
+        args = new Object[] { (byte) 1, 'b', 3L, 'a' };
+        Assert.assertEquals(sum.invoke(ref, args), dispatcher.invoke(ref, 0, args));
+        // 收窄转换两者都拒绝
+        Object[][] badArgs = new Object[][] { { 1D, 2, 3D, 'a' }, { 1L, 2L, 3D, 'a' }, { 1L, 2, 3D, 97 } };
+        for (Object[] bad : badArgs) {
+            try {
+                sum.invoke(ref, bad);
+                Assert.fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                dispatcher.invoke(ref, 0, bad);
+                Assert.fail();
+            } catch (DispatchArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testCache() {
+        JavassistServiceDispatcherFactory factory = new JavassistServiceDispatcherFactory();
+        ServiceDispatcher dispatcher = factory.create(TestInterface.class, METHODS);
+        Assert.assertSame(dispatcher, factory.create(TestInterface.class, METHODS.clone()));
+        Assert.assertNotSame(dispatcher,
+            factory.create(TestInterface.class, new Method[] { METHODS[1], METHODS[0] }));
+    }
+
+    @Test
+    public void testProviderInvoker() throws Exception {
+        ProviderConfig<TestInterface> providerConfig = new ProviderConfig<TestInterface>()
+            .setInterfaceId(TestInterface.class.getName())
+            .setRef(new TestInterfaceImpl());
+        ProviderInvoker<TestInterface> invoker = new ProviderInvoker<TestInterface>(providerConfig);
+
+        Method sayHello = TestInterface.class.getMethod("sayHello", String.class);
+        int index = invoker.getMethodIndex(sayHello);
+        Assert.assertTrue(index >= 0);
+
+        SofaRequest request = new SofaRequest();
+        request.setMethod(sayHello);
+        request.setMethodArgs(new Object[] { "x" });
+        request.setMethodIndex(index);
+        Assert.assertEquals("sayHello", invoker.invoke(request).getAppResponse());
+        Assert.assertSame(sayHello.getName(), invoker.getMethodTable().getMethod(index).getName());
+
+        // 静态方法没有生成分发代码，退回反射调用
+        Method doNothing = TestInterface.class.getMethod("doNothing");
+        request = new SofaRequest();
+        request.setMethod(doNothing);
+        request.setMethodArgs(new Object[0]);
+        request.setMethodIndex(invoker.getMethodIndex(doNothing));
+        Assert.assertFalse(invoker.invoke(request).isError());
+
+        // 未设置下标时按方法查找
+        Method throwbiz1 = TestInterface.class.getMethod("throwbiz1");
+        request = new SofaRequest();
+        request.setMethod(throwbiz1);
+        request.setMethodArgs(new Object[0]);
+        SofaResponse response = invoker.invoke(request);
+        Assert.assertFalse(response.isError());
+        Assert.assertTrue(response.getAppResponse() instanceof RuntimeException);
+
+        request = new SofaRequest();
+        request.setMethod(sayHello);
+        request.setMethodArgs(new Object[] { 1 });
+        request.setMethodIndex(index);
+        response = invoker.invoke(request);
+        Assert.assertTrue(response.isError());
+    }
+
+    public interface PrimitiveService {
+        double sum(long a, int b, double c, char d);
+    }
+}
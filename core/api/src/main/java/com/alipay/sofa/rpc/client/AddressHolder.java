@@ -45,7 +45,8 @@ public abstract class AddressHolder implements ProviderInfoListener {
     }
 
     /**
-     * 得到某分组的服务列表，注意获取的地址列表最好是只读，不要随便修改
+     * 得到某分组的服务列表，注意获取的地址列表是只读的，不要修改。
+     * 推荐返回 {@link ProviderInfoSnapshot}，调用方可以根据版本号缓存计算结果
      *
      * @param groupName 服务列表的标签
      * @return 当前分组下的服务列表
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+
+/**
+ * 需要感知每次调用开始和结束的负载均衡（例如按并发数、按响应时间选择节点）实现该接口，
+ * 集群在请求发送前和调用结束后回调，异步调用在收到响应或者异常时回调。
+ * <p>
+ * 回调在调用线程或者回调线程中执行，实现必须线程安全且足够轻量。
+ *
+ * @since 5.14.3
+ */
+public interface InvokeAwareLoadBalancer {
+
+    /**
+     * 请求发送前
+     *
+     * @param providerInfo 选中的服务端
+     * @param request      请求
+     */
+    void onInvokeStart(ProviderInfo providerInfo, SofaRequest request);
+
+    /**
+     * 调用结束，每次 {@link #onInvokeStart(ProviderInfo, SofaRequest)} 对应一次
+     *
+     * @param providerInfo 服务端
+     * @param request      请求
+     * @param elapsedNanos 耗时（纳秒）
+     * @param success      是否成功，业务异常也算成功，框架异常（超时、连接断开等）算失败
+     */
+    void onInvokeEnd(ProviderInfo providerInfo, SofaRequest request, long elapsedNanos, boolean success);
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable and versioned view of a provider list, published by {@link AddressHolder}.
+ * <p>
+ * 地址列表变化时整体替换，读路径不加锁、不复制。同一版本号的快照内容一定相同，
+ * 负载均衡等组件可以按 {@link #getVersion()} 缓存预计算的结果。
+ *
+ * @since 5.14.3
+ */
+public final class ProviderInfoSnapshot extends AbstractList<ProviderInfo> implements RandomAccess {
+
+    /**
+     * 全局版本号生成器，保证不同地址管理器、不同分组的快照版本号也不会重复
+     */
+    private static final AtomicLong          VERSION_GENERATOR = new AtomicLong();
+
+    /**
+     * 空快照
+     */
+    public static final ProviderInfoSnapshot EMPTY             = new ProviderInfoSnapshot(new ProviderInfo[0]);
+
+    /**
+     * 版本号
+     */
+    private final long                       version;
+
+    /**
+     * 服务端列表
+     */
+    private final ProviderInfo[]             providers;
+
+    private ProviderInfoSnapshot(ProviderInfo[] providers) {
+        this.version = VERSION_GENERATOR.incrementAndGet();
+        this.providers = providers;
+    }
+
+    /**
+     * Build a snapshot from a provider list, the list is copied once.
+     *
+     * @param providerInfos the provider infos
+     * @return the snapshot
+     */
+    public static ProviderInfoSnapshot of(Collection<ProviderInfo> providerInfos) {
+        if (providerInfos == null || providerInfos.isEmpty()) {
+            return EMPTY;
+        }
+        return new ProviderInfoSnapshot(providerInfos.toArray(new ProviderInfo[0]));
+    }
+
+    /**
+     * Gets version, a new version is generated every time the provider list changes.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public ProviderInfo get(int index) {
+        return providers[index];
+    }
+
+    @Override
+    public int size() {
+        return providers.length;
+    }
+
+    /**
+     * Copy to a new mutable list, only used on the slow path (for example retry).
+     *
+     * @return mutable copy
+     */
+    public List<ProviderInfo> toMutableList() {
+        return new ArrayList<ProviderInfo>(this);
+    }
+}
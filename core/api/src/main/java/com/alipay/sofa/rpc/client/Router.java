@@ -54,6 +54,11 @@ public abstract class Router {
 
     /**
      * 筛选Provider
+     * <p>
+     * 从 5.14.3 开始地址列表以只读的 {@link ProviderInfoSnapshot} 发布，前面的路由可能直接返回快照。
+     * {@link #supportReadOnlyProviders()} 返回 false（默认）时，路由链会先复制一份可修改的列表再传入，
+     * 因此原地筛选（remove、removeIf 等）仍然可用；返回 true 时传入的列表可能是只读的，
+     * 需要筛选时应返回新的列表，原地修改会抛出 {@link UnsupportedOperationException}。
      *
      * @param request       本次调用（可以得到类名，方法名，方法参数，参数值等）
      * @param providerInfos providers（<b>当前可用</b>的服务Provider列表）
@@ -61,6 +66,16 @@ public abstract class Router {
      */
     public abstract List<ProviderInfo> route(SofaRequest request, List<ProviderInfo> providerInfos);
 
+    /**
+     * 是否接受只读的服务列表。不会原地修改传入列表的路由返回 true，可以省去一次复制。
+     *
+     * @return 是否接受只读的服务列表
+     * @since 5.14.3
+     */
+    public boolean supportReadOnlyProviders() {
+        return false;
+    }
+
     /**
      * 记录路由路径记录
      *
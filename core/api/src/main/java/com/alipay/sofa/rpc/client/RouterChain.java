@@ -121,6 +121,10 @@ public class RouterChain {
      */
     public List<ProviderInfo> route(SofaRequest request, List<ProviderInfo> providerInfos) {
         for (Router router : routers) {
+            if (providerInfos instanceof ProviderInfoSnapshot && !router.supportReadOnlyProviders()) {
+                // 自定义路由可能原地筛选，给一份可修改的副本
+                providerInfos = new ArrayList<ProviderInfo>(providerInfos);
+            }
             providerInfos = router.route(request, providerInfos);
         }
         return providerInfos;
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec;
+
+import com.alipay.sofa.rpc.common.RemotingConstants;
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.context.InvokePhase;
+import com.alipay.sofa.rpc.context.RpcInternalContext;
+import com.alipay.sofa.rpc.context.RpcInvokeContext;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * 压缩协商，记录对端已经确认可以解压的压缩算法，并提供两端共用的判断和统计。
+ * <p>
+ * 调用端在请求头 {@link RemotingConstants#HEAD_COMPRESS_ACCEPT} 中带上方法配置的压缩算法，
+ * 服务端支持该算法时在响应头中原样返回，并压缩超过 {@link RpcOptions#COMPRESS_SIZE_BASELINE} 的响应；
+ * 调用端收到确认后，之后发给该服务端的请求才会压缩。不认识这个头的老版本既不确认也不压缩，双方按原样通信。
+ * <p>
+ * 支持字典的算法同时在 {@link RemotingConstants#HEAD_COMPRESS_DICT} 中带上本端该服务的字典编号，
+ * 对端字典编号相同时才原样返回并使用字典压缩，否则退回不使用字典压缩，避免对端找不到字典无法解压。
+ *
+ * @since 5.14.3
+ */
+public final class CompressNegotiator {
+
+    /**
+     * 压缩的大小基线，小于基线的数据不压缩
+     */
+    private static final int   SIZE_BASELINE        = RpcConfigs.getIntValue(RpcOptions.COMPRESS_SIZE_BASELINE);
+
+    /**
+     * 对端已经确认可以解压的压缩算法，只会增加且数量很少
+     */
+    private final Set<String>  accepted             = new CopyOnWriteArraySet<String>();
+
+    /**
+     * 对端已经确认有相同字典的字典编号
+     */
+    private final Set<Integer> acceptedDictionaries = new CopyOnWriteArraySet<Integer>();
+
+    /**
+     * 对端是否已经确认可以解压该算法
+     *
+     * @param compress 压缩算法
+     * @return 已确认时返回true
+     */
+    public boolean isAccepted(String compress) {
+        return compress != null && accepted.contains(compress);
+    }
+
+    /**
+     * 收到对端的确认
+     *
+     * @param compress 对端在响应头中确认的压缩算法，可以为null
+     */
+    public void onAccept(String compress) {
+        if (compress != null && !accepted.contains(compress) && CompressorFactory.isSupported(compress)) {
+            accepted.add(compress);
+        }
+    }
+
+    /**
+     * 收到对端的确认
+     *
+     * @param compress   对端在响应头中确认的压缩算法，可以为null
+     * @param dictionary 对端在响应头中确认的字典编号，可以为null
+     */
+    public void onAccept(String compress, String dictionary) {
+        onAccept(compress);
+        Integer id = parseDictionaryId(dictionary);
+        if (id != null && isAccepted(compress) && !acceptedDictionaries.contains(id)) {
+            acceptedDictionaries.add(id);
+        }
+    }
+
+    /**
+     * 对端是否已经确认有该字典
+     *
+     * @param dictionary 请求头中本端的字典编号，可以为null
+     * @return 已确认时返回true
+     */
+    public boolean isDictionaryAccepted(Object dictionary) {
+        Integer id = dictionary instanceof String ? parseDictionaryId((String) dictionary) : null;
+        return id != null && acceptedDictionaries.contains(id);
+    }
+
+    /**
+     * 服务端判断是否支持调用端期望的压缩算法
+     *
+     * @param compress 调用端期望的压缩算法，可以为null
+     * @return 支持时返回该算法，否则返回null
+     */
+    public static String accept(String compress) {
+        return CompressorFactory.isSupported(compress) ? compress : null;
+    }
+
+    /**
+     * 本端压缩该服务时使用的字典编号
+     *
+     * @param compress 压缩算法，可以为null
+     * @param service  服务名，可以为null
+     * @return 字典编号，不支持该算法或者没有字典时返回0
+     */
+    public static int getDictionaryId(String compress, String service) {
+        return CompressorFactory.isSupported(compress) ? CompressorFactory.getCompressor(compress).getDictionaryId(
+            service) : 0;
+    }
+
+    /**
+     * 调用端在请求头中带上期望的压缩算法和本端的字典编号
+     *
+     * @param request  请求
+     * @param compress 期望的压缩算法
+     */
+    public static void offer(SofaRequest request, String compress) {
+        request.addRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT, compress);
+        int id = getDictionaryId(compress, request.getTargetServiceUniqueName());
+        if (id != 0) {
+            request.addRequestProp(RemotingConstants.HEAD_COMPRESS_DICT, String.valueOf(id));
+        }
+    }
+
+    /**
+     * 服务端支持调用端期望的压缩算法时，在响应头中确认，之后按该算法压缩响应
+     * <p>
+     * 两端该服务的字典编号相同时一并确认，并把服务名记录在当前上下文中，响应在当前线程序列化，压缩时据此选择该服务的字典；
+     * 编号不同时不记录服务名，响应不使用字典压缩
+     *
+     * @param request  请求
+     * @param response 响应
+     */
+    public static void confirm(SofaRequest request, SofaResponse response) {
+        if (request == null || response == null) {
+            return;
+        }
+        Object compress = request.getRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT);
+        if (compress instanceof String && accept((String) compress) != null) {
+            response.addResponseProp(RemotingConstants.HEAD_COMPRESS_ACCEPT, (String) compress);
+            String service = request.getTargetServiceUniqueName();
+            Object dictionary = request.getRequestProp(RemotingConstants.HEAD_COMPRESS_DICT);
+            int id = getDictionaryId((String) compress, service);
+            if (id != 0 && String.valueOf(id).equals(dictionary)) {
+                response.addResponseProp(RemotingConstants.HEAD_COMPRESS_DICT, (String) dictionary);
+                RpcInternalContext context = RpcInternalContext.peekContext();
+                if (context != null) {
+                    context.setAttachment(RpcConstants.HIDDEN_KEY_COMPRESS_SERVICE, service);
+                }
+            }
+        }
+    }
+
+    private static Integer parseDictionaryId(String dictionary) {
+        if (dictionary == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(dictionary);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 数据大小是否达到压缩的基线
+     *
+     * @param size 压缩前大小
+     * @return 达到基线时返回true
+     */
+    public static boolean isOverBaseline(int size) {
+        return size >= SIZE_BASELINE;
+    }
+
+    /**
+     * 记录一次压缩或者解压的耗时和压缩比
+     *
+     * @param context        记录压缩比的上下文
+     * @param request        是否请求体，否则是响应体
+     * @param rawSize        压缩前大小
+     * @param compressedSize 压缩后大小
+     * @param elapsedNanos   耗时
+     */
+    public static void record(RpcInternalContext context, boolean request, int rawSize, int compressedSize,
+                              long elapsedNanos) {
+        RpcInvokeContext.getContext().recordPhase(
+            request ? InvokePhase.REQ_COMPRESS_TIME_NANO : InvokePhase.RESP_COMPRESS_TIME_NANO, elapsedNanos);
+        if (RpcInternalContext.isAttachmentEnable() && rawSize > 0) {
+            context.setAttachment(request ? RpcConstants.INTERNAL_KEY_REQ_COMPRESS_RATIO
+                : RpcConstants.INTERNAL_KEY_RESP_COMPRESS_RATIO, (double) compressedSize / rawSize);
+        }
+    }
+}
@@ -16,8 +16,15 @@
  */
 package com.alipay.sofa.rpc.codec;
 
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.ext.Extensible;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * Compressor
  *
@@ -40,4 +47,94 @@ public interface Compressor {
      * @return 解压缩后的字节数组
      */
     byte[] deCompress(byte[] src);
+
+    /**
+     * 包装一个压缩输出流，写入的数据压缩后写到 out，关闭返回的流时完成压缩并关闭 out
+     * <p>
+     * 默认实现先缓存全部数据，关闭时整体压缩，支持流式压缩的算法应该覆盖这个方法
+     *
+     * @param out 压缩后数据的输出流
+     * @return 压缩输出流
+     * @throws IOException 写入异常
+     * @since 5.14.3
+     */
+    default OutputStream compress(OutputStream out) throws IOException {
+        return new FilterOutputStream(out) {
+            private final UnsafeByteArrayOutputStream buffer = new UnsafeByteArrayOutputStream();
+
+            private boolean                           closed;
+
+            @Override
+            public void write(int b) {
+                buffer.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                buffer.write(b, off, len);
+            }
+
+            @Override
+            public void flush() {
+                // 关闭时才整体压缩
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    out.write(Compressor.this.compress(buffer.toByteArray()));
+                } finally {
+                    out.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * 包装一个压缩输出流，支持字典的算法使用该服务的字典
+     *
+     * @param out     压缩后数据的输出流
+     * @param service 服务名，为null时不使用字典
+     * @return 压缩输出流
+     * @throws IOException 写入异常
+     * @since 5.14.3
+     */
+    default OutputStream compress(OutputStream out, String service) throws IOException {
+        return compress(out);
+    }
+
+    /**
+     * 该服务压缩时使用的字典编号，协商时告诉对端，对端有相同的字典才会按服务压缩
+     *
+     * @param service 服务名，可以为null
+     * @return 字典编号，不支持字典或者没有字典时返回0
+     * @since 5.14.3
+     */
+    default int getDictionaryId(String service) {
+        return 0;
+    }
+
+    /**
+     * 包装一个解压输入流，从返回的流中读取 in 解压后的数据
+     * <p>
+     * 默认实现先读完 in 再整体解压，支持流式解压的算法应该覆盖这个方法
+     *
+     * @param in 压缩数据的输入流
+     * @return 解压输入流
+     * @throws IOException 读取异常
+     * @since 5.14.3
+     */
+    default InputStream deCompress(InputStream in) throws IOException {
+        UnsafeByteArrayOutputStream buffer = new UnsafeByteArrayOutputStream(Math.max(in.available(), 32));
+        byte[] bs = new byte[1024];
+        int n;
+        while ((n = in.read(bs)) >= 0) {
+            buffer.write(bs, 0, n);
+        }
+        return new UnsafeByteArrayInputStream(deCompress(buffer.toByteArray()));
+    }
 }
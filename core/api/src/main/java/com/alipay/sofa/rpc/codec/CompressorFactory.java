@@ -16,13 +16,18 @@
  */
 package com.alipay.sofa.rpc.codec;
 
+import com.alipay.sofa.rpc.common.utils.ExceptionUtils;
 import com.alipay.sofa.rpc.core.exception.SofaRpcRuntimeException;
 import com.alipay.sofa.rpc.ext.ExtensionClass;
 import com.alipay.sofa.rpc.ext.ExtensionLoader;
 import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
 import com.alipay.sofa.rpc.ext.ExtensionLoaderListener;
 import com.alipay.sofa.rpc.log.LogCodes;
+import com.alipay.sofa.rpc.log.Logger;
+import com.alipay.sofa.rpc.log.LoggerFactory;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -33,6 +38,9 @@ import java.util.concurrent.ConcurrentMap;
  */
 public final class CompressorFactory {
 
+    private final static Logger                          LOGGER              = LoggerFactory
+                                                                                 .getLogger(CompressorFactory.class);
+
     /**
      * 除了托管给扩展加载器的工厂模式（保留alias：实例）外<br>
      * 还需要额外保留编码和实例的映射：{编码：压缩器}
@@ -54,8 +62,17 @@ public final class CompressorFactory {
         extensionLoader.addListener(new ExtensionLoaderListener<Compressor>() {
             @Override
             public void onLoad(ExtensionClass<Compressor> extensionClass) {
+                Compressor compressor;
+                try {
+                    compressor = extensionClass.getExtInstance();
+                } catch (LinkageError e) {
+                    // zstd、lz4 等依赖的三方包是可选的，没有引入时不启用对应的压缩算法
+                    LOGGER.warn("Compressor {} is disabled, cause by: {}", extensionClass.getAlias(),
+                        ExceptionUtils.toShortString(e, 2));
+                    return;
+                }
                 // 除了保留 tag：Compressor外， 需要保留 code：Compressor
-                TYPE_COMPRESSOR_MAP.put(extensionClass.getCode(), extensionClass.getExtInstance());
+                TYPE_COMPRESSOR_MAP.put(extensionClass.getCode(), compressor);
                 TYPE_CODE_MAP.put(extensionClass.getAlias(), extensionClass.getCode());
             }
         });
@@ -96,4 +113,25 @@ public final class CompressorFactory {
     public static byte getCodeByAlias(String compress) {
         return TYPE_CODE_MAP.get(compress);
     }
+
+    /**
+     * 是否支持该压缩算法
+     *
+     * @param compress 压缩名字
+     * @return 已加载对应的扩展并且依赖的三方包存在时返回true
+     * @since 5.14.3
+     */
+    public static boolean isSupported(String compress) {
+        return compress != null && TYPE_CODE_MAP.containsKey(compress);
+    }
+
+    /**
+     * 已加载的全部压缩算法名字
+     *
+     * @return 压缩名字集合，不可修改
+     * @since 5.14.3
+     */
+    public static Set<String> getAliases() {
+        return Collections.unmodifiableSet(TYPE_CODE_MAP.keySet());
+    }
 }
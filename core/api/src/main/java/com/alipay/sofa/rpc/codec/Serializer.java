@@ -17,10 +17,13 @@
 package com.alipay.sofa.rpc.codec;
 
 import com.alipay.sofa.rpc.common.annotation.Unstable;
+import com.alipay.sofa.rpc.core.exception.RpcErrorType;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.ext.Extensible;
 import com.alipay.sofa.rpc.transport.AbstractByteBuf;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -42,6 +45,28 @@ public interface Serializer {
      */
     AbstractByteBuf encode(Object object, Map<String, String> context) throws SofaRpcException;
 
+    /**
+     * 序列化到指定的输出流，例如直接写入网络层的缓冲区，避免中间的 byte[] 拷贝。
+     * <p>
+     * 默认先序列化再写入，序列化器可以覆盖此方法直接写入输出流。
+     *
+     * @param object  对象
+     * @param context 上下文
+     * @param out     输出流，调用方负责关闭
+     * @throws SofaRpcException 序列化异常
+     * @since 5.14.3
+     */
+    default void encode(Object object, Map<String, String> context, OutputStream out) throws SofaRpcException {
+        AbstractByteBuf data = encode(object, context);
+        try {
+            data.writeTo(out);
+        } catch (IOException e) {
+            throw new SofaRpcException(RpcErrorType.UNKNOWN, e.getMessage(), e);
+        } finally {
+            data.release();
+        }
+    }
+
     /**
      * 反序列化，只有类型，返回对象
      *
@@ -30,12 +30,12 @@ public class RemotingConstants {
      * 协议：tr，老协议
      * // com.taobao.remoting.TRConstants#PROCOCOL_VERSION;
      */
-    public static final byte   PROTOCOL_TR                = 13;
+    public static final byte   PROTOCOL_TR                    = 13;
     /**
      * 协议：bolt
      * // RpcProtocol.PROTOCOL_CODE;
      */
-    public static final byte   PROTOCOL_BOLT              = 1;
+    public static final byte   PROTOCOL_BOLT                  = 1;
 
     /*
     将TrConstant的序列化   com.taobao.remoting.TRConstants
@@ -56,14 +56,14 @@ public class RemotingConstants {
      * @see com.alipay.sofa.rpc.common.RpcConstants#SERIALIZE_HESSIAN
      * @see com.alipay.sofa.rpc.common.RpcConstants#SERIALIZE_HESSIAN2
      */
-    public static final byte   SERIALIZE_CODE_HESSIAN     = 1;
+    public static final byte   SERIALIZE_CODE_HESSIAN         = 1;
 
     /**
      * java  对应bolt固定同步里的codec字段
      *
      * @see com.alipay.sofa.rpc.common.RpcConstants#SERIALIZE_JAVA
      */
-    public static final byte   SERIALIZE_CODE_JAVA        = 2;
+    public static final byte   SERIALIZE_CODE_JAVA            = 2;
 
     /**
      * hessian2  对应bolt固定同步里的codec字段
@@ -72,89 +72,89 @@ public class RemotingConstants {
      * @deprecated use {@link #SERIALIZE_CODE_HESSIAN}
      */
     @Deprecated
-    public static final byte   SERIALIZE_CODE_HESSIAN2    = 4;
+    public static final byte   SERIALIZE_CODE_HESSIAN2        = 4;
 
     /**
      * protobuf  对应bolt固定同步里的codec字段
      *
      * @see com.alipay.sofa.rpc.common.RpcConstants#SERIALIZE_PROTOBUF
      */
-    public static final byte   SERIALIZE_CODE_PROTOBUF    = 11;
+    public static final byte   SERIALIZE_CODE_PROTOBUF        = 11;
 
     /**
      * json  对应bolt固定同步里的codec字段
      *
      * @see com.alipay.sofa.rpc.common.RpcConstants#SERIALIZE_JSON
      */
-    public static final byte   SERIALIZE_CODE_JSON        = 12;
+    public static final byte   SERIALIZE_CODE_JSON            = 12;
 
     /**
      * 普通序列化：序列化反序列化均使用SofaSerializerFactory
      */
-    public static final String SERIALIZE_FACTORY_NORMAL   = "0";
+    public static final String SERIALIZE_FACTORY_NORMAL       = "0";
 
     /**
      * 混合序列化：序列化使用SofaGenericSerializerFactory, 反序列化使用SofaSerializerFactory
      */
-    public static final String SERIALIZE_FACTORY_MIX      = "1";
+    public static final String SERIALIZE_FACTORY_MIX          = "1";
 
     /**
      * 泛型序列化：序列化反序列化均使用SofaGenericSerializerFactory
      */
-    public static final String SERIALIZE_FACTORY_GENERIC  = "2";
+    public static final String SERIALIZE_FACTORY_GENERIC      = "2";
 
     //========= tracer 相关 ===========
     /**
      * 老 Trace上下文
      */
-    public static final String RPC_TRACE_NAME             = "rpc_trace_context";
+    public static final String RPC_TRACE_NAME                 = "rpc_trace_context";
 
     /***
      * 新 tracer 需要在服务端和客户端缓存数据,用此 key 标示在请求头中的数据
      */
-    public static final String NEW_RPC_TRACE_NAME         = "new_rpc_trace_context";
+    public static final String NEW_RPC_TRACE_NAME             = "new_rpc_trace_context";
 
     /***
      * 新 tracer 需要在服务端和客户端缓存数据,用此 key 标示在请求头中的数据
      */
-    public static final String HTTP_HEADER_TRACE_ID_KEY   = "SOFA-TraceId";
+    public static final String HTTP_HEADER_TRACE_ID_KEY       = "SOFA-TraceId";
 
     /***
      * 新 tracer 需要在服务端和客户端缓存数据,用此 key 标示在请求头中的数据
      */
-    public static final String HTTP_HEADER_RPC_ID_KEY     = "SOFA-RpcId";
+    public static final String HTTP_HEADER_RPC_ID_KEY         = "SOFA-RpcId";
 
     /** TraceId 放在透传上下文中的 key */
-    public static final String TRACE_ID_KEY               = "sofaTraceId";
+    public static final String TRACE_ID_KEY                   = "sofaTraceId";
 
     /** RpcId 放在透传上下文中的 key */
-    public static final String RPC_ID_KEY                 = "sofaRpcId";
+    public static final String RPC_ID_KEY                     = "sofaRpcId";
 
     /** penetrateAttributes 放在透传上下文中的 key */
-    public static final String PEN_ATTRS_KEY              = "sofaPenAttrs";
+    public static final String PEN_ATTRS_KEY                  = "sofaPenAttrs";
 
     // ============ 序列化相关 ===========
     /**
      * 对方服务名
      */
-    public static final String HEAD_SERVICE               = "service";
+    public static final String HEAD_SERVICE                   = "service";
     /**
      * 客户端的调用类型
      */
-    public static final String HEAD_INVOKE_TYPE           = "type";
+    public static final String HEAD_INVOKE_TYPE               = "type";
     /**
      * 客户端应用
      */
-    public static final String HEAD_APP_NAME              = "app";
+    public static final String HEAD_APP_NAME                  = "app";
     /**
      * 客户端应用
      */
-    public static final String HEAD_PROTOCOL              = "protocol";
+    public static final String HEAD_PROTOCOL                  = "protocol";
 
     /**
      * 忽略浏览器的图标请求
      */
-    public static final String IGNORE_WEB_BROWSER         = "/favicon.ico";
+    public static final String IGNORE_WEB_BROWSER             = "/favicon.ico";
 
     // ========== 头相关 ============
     /**
@@ -163,21 +163,21 @@ public class RemotingConstants {
      * @see SofaRequest#methodName
      * @since 5.1.0
      */
-    public static final String HEAD_METHOD_NAME           = "sofa_head_method_name";
+    public static final String HEAD_METHOD_NAME               = "sofa_head_method_name";
     /**
      * 对应 SofaRequest#targetAppName
      *
      * @see SofaRequest#targetAppName
      * @since 5.1.0
      */
-    public static final String HEAD_TARGET_APP            = "sofa_head_target_app";
+    public static final String HEAD_TARGET_APP                = "sofa_head_target_app";
     /**
      * 对应 RequestBase#targetServiceUniqueName
      *
      * @see com.alipay.sofa.rpc.core.request.RequestBase#targetServiceUniqueName
      * @since 5.1.0
      */
-    public static final String HEAD_TARGET_SERVICE        = "sofa_head_target_service";
+    public static final String HEAD_TARGET_SERVICE            = "sofa_head_target_service";
     /**
      * 对应 RequestBase#methodArgSigs
      *
@@ -185,7 +185,7 @@ public class RemotingConstants {
      * @since 5.1.0
      */
     @Deprecated
-    public static final String HEAD_METHOD_ARGSIGS        = "sofa_head_method_argsigs";
+    public static final String HEAD_METHOD_ARGSIGS            = "sofa_head_method_argsigs";
     /**
      * 对应 SofaRequest#requestProps
      *
@@ -193,7 +193,7 @@ public class RemotingConstants {
      * @since 5.1.0
      */
     @Deprecated
-    public static final String HEAD_REQUEST_PROPS         = "sofa_head_request_props";
+    public static final String HEAD_REQUEST_PROPS             = "sofa_head_request_props";
 
     /**
      * 对应 SofaResponse#isError
@@ -201,37 +201,58 @@ public class RemotingConstants {
      * @see SofaResponse#isError
      * @since 5.1.0
      */
-    public static final String HEAD_RESPONSE_ERROR        = "sofa_head_response_error";
+    public static final String HEAD_RESPONSE_ERROR            = "sofa_head_response_error";
     /**
      * 是否泛化调用
      *
      * @since 5.4.0
      */
-    public static final String HEAD_GENERIC_TYPE          = "sofa_head_generic_type";
+    public static final String HEAD_GENERIC_TYPE              = "sofa_head_generic_type";
     /**
      *
      * @since 5.4.0
      */
-    public static final String HEAD_SERIALIZE_TYPE        = "sofa_head_serialize_type";
+    public static final String HEAD_SERIALIZE_TYPE            = "sofa_head_serialize_type";
 
     /**
      * deadline remain time
      */
-    public static final String HEAD_DEADLINE_REMAIN_TIME  = "sofa_head_deadline_remain_time";
+    public static final String HEAD_DEADLINE_REMAIN_TIME      = "sofa_head_deadline_remain_time";
+
+    /**
+     * 调用端期望的压缩算法，服务端支持时在响应头中原样返回，表示可以解压该算法压缩的请求
+     *
+     * @since 5.14.3
+     */
+    public static final String HEAD_COMPRESS_ACCEPT           = "sofa_head_compress_accept";
+
+    /**
+     * 和 {@link #HEAD_COMPRESS_ACCEPT} 一起发送的本端字典编号，对端有相同的字典时在响应头中原样返回，之后双方才使用字典压缩
+     *
+     * @since 5.14.3
+     */
+    public static final String HEAD_COMPRESS_DICT             = "sofa_head_compress_dict";
+
+    /**
+     * 请求体或者响应体使用的压缩算法，没有表示未压缩
+     *
+     * @since 5.14.3
+     */
+    public static final String HEAD_COMPRESS                  = "sofa_head_compress";
 
     /**
      * RPC透传请求链路数据
      *
      * @since 4.12.0
      */
-    public static final String RPC_REQUEST_BAGGAGE        = "rpc_req_baggage";
+    public static final String RPC_REQUEST_BAGGAGE            = "rpc_req_baggage";
 
     /**
      * RPC响应链路透传数据
      *
      * @since 4.12.0
      */
-    public static final String RPC_RESPONSE_BAGGAGE       = "rpc_resp_baggage";
+    public static final String RPC_RESPONSE_BAGGAGE           = "rpc_resp_baggage";
 
     // =========RpcInvokeContext的Key========
     /**
@@ -239,31 +260,38 @@ public class RemotingConstants {
      *
      * @since 5.1.0
      */
-    public static final String INVOKE_CTX_RPC_CTX         = "rpc.ctx";
+    public static final String INVOKE_CTX_RPC_CTX             = "rpc.ctx";
 
     /**
      * bolt RpcInvokeContext的Key
      *
      * @since 5.1.1
      */
-    public static final String INVOKE_CTX_RPC_SER_CTX     = "rpc.service.ctx";
+    public static final String INVOKE_CTX_RPC_SER_CTX         = "rpc.service.ctx";
     /**
      * bolt RpcInvokeContext的Key
      *
      * @since 5.1.1
      */
-    public static final String INVOKE_CTX_RPC_REF_CTX     = "rpc.reference.ctx";
+    public static final String INVOKE_CTX_RPC_REF_CTX         = "rpc.reference.ctx";
     /**
      * bolt RpcInvokeContext的Key
      *
      * @since 5.1.1
      */
-    public static final String INVOKE_CTX_RPC_RESULT_CODE = "rpc.result.code";
+    public static final String INVOKE_CTX_RPC_RESULT_CODE     = "rpc.result.code";
 
     /**
      * bolt RpcInvokeContext的Key
      *
      * @since 5.1.0
      */
-    public static final String INVOKE_CTX_IS_ASYNC_CHAIN  = "rpc.async.chain";
+    public static final String INVOKE_CTX_IS_ASYNC_CHAIN      = "rpc.async.chain";
+
+    /**
+     * bolt InvokeContext的Key，对端的压缩协商状态
+     *
+     * @since 5.14.3
+     */
+    public static final String INVOKE_CTX_COMPRESS_NEGOTIATOR = "rpc.compress.negotiator";
 }
\ No newline at end of file
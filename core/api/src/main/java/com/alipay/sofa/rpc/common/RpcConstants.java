@@ -290,6 +290,13 @@ public class RpcConstants {
      */
     public static final String  HIDDEN_KEY_DESTROY                           = HIDE_KEY_PREFIX + "destroy";
 
+    /**
+     * 隐藏属性的key：服务端压缩响应时使用的服务名，用于选择压缩字典
+     *
+     * @since 5.14.3
+     */
+    public static final String  HIDDEN_KEY_COMPRESS_SERVICE                  = HIDE_KEY_PREFIX + "compress_service";
+
     /**
      * 内部使用的key：_app_name，string
      */
@@ -516,6 +523,56 @@ public class RpcConstants {
      * 配置key:protocol
      */
     public static final String  CONFIG_KEY_PROTOCOL                          = "protocol";
+
+    /**
+     * 配置key:hashFunction，一致性hash负载均衡使用的hash算法
+     *
+     * @since 5.14.3
+     */
+    public static final String  CONFIG_KEY_HASH_FUNCTION                     = "hashFunction";
+
+    /**
+     * 配置key:hashKeyExtractor，一致性hash负载均衡从请求中提取hash key的方式，支持方法级配置
+     *
+     * @since 5.14.3
+     */
+    public static final String  CONFIG_KEY_HASH_KEY_EXTRACTOR                = "hashKeyExtractor";
+
+    /**
+     * 配置key:hashKeyArgIndex，一致性hash负载均衡以第几个参数（从0开始）作为hash key，支持方法级配置，
+     * 配置后优先于 hashKeyExtractor
+     *
+     * @since 5.14.3
+     */
+    public static final String  CONFIG_KEY_HASH_KEY_ARG_INDEX                = "hashKeyArgIndex";
+
+    /**
+     * 配置key:hashBalanceFactor，有界负载一致性hash允许单个节点超出平均并发的比例
+     *
+     * @since 5.14.3
+     */
+    public static final String  CONFIG_KEY_HASH_BALANCE_FACTOR               = "hashBalanceFactor";
+
+    /**
+     * 配置key:connectionPoolMax，每个服务端连接池的最大连接数
+     *
+     * @since 5.14.3
+     */
+    public static final String  CONFIG_KEY_CONNECTION_POOL_MAX               = "connectionPoolMax";
+
+    /**
+     * 配置key:connectionSelect，连接池内选择连接的方式
+     *
+     * @since 5.14.3
+     */
+    public static final String  CONFIG_KEY_CONNECTION_SELECT                 = "connectionSelect";
+
+    /**
+     * 配置key:connectReadyPercent，初始化连接时连上多少百分比的服务端即认为就绪
+     *
+     * @since 5.14.3
+     */
+    public static final String  CONFIG_KEY_CONNECT_READY_PERCENT             = "connectReadyPercent";
     /*--------配置项相关结束---------*/
 
     /*--------客户端相关开始---------*/
@@ -634,6 +691,38 @@ public class RpcConstants {
     public static final String  INTERNAL_KEY_RESP_DESERIALIZE_TIME_NANO      = INTERNAL_KEY_PREFIX +
                                                                                  "resp_des_time_nano";
 
+    /**
+     * R5-3：_req_compress_time_nano 请求体压缩或者解压耗时，long，纳秒级别
+     *
+     * @since 5.14.3
+     */
+    public static final String  INTERNAL_KEY_REQ_COMPRESS_TIME_NANO          = INTERNAL_KEY_PREFIX +
+                                                                                 "req_compress_time_nano";
+
+    /**
+     * R6-3：_resp_compress_time_nano 响应体压缩或者解压耗时，long，纳秒级别
+     *
+     * @since 5.14.3
+     */
+    public static final String  INTERNAL_KEY_RESP_COMPRESS_TIME_NANO         = INTERNAL_KEY_PREFIX +
+                                                                                 "resp_compress_time_nano";
+
+    /**
+     * 内部使用的key：_req_compress_ratio 请求体压缩后与压缩前的大小之比，double
+     *
+     * @since 5.14.3
+     */
+    public static final String  INTERNAL_KEY_REQ_COMPRESS_RATIO              = INTERNAL_KEY_PREFIX +
+                                                                                 "req_compress_ratio";
+
+    /**
+     * 内部使用的key：_resp_compress_ratio 响应体压缩后与压缩前的大小之比，double
+     *
+     * @since 5.14.3
+     */
+    public static final String  INTERNAL_KEY_RESP_COMPRESS_RATIO             = INTERNAL_KEY_PREFIX +
+                                                                                 "resp_compress_ratio";
+
     /**
      * R7：_process_wait_time_nano 在业务线程池里等待时间，long，纳秒级别
      *
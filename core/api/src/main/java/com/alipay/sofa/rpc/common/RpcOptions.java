@@ -49,10 +49,28 @@ public class RpcOptions {
      * 是否允许线程上下文携带自定义参数，关闭后，可能tracer等会失效，但是可以提高性能
      */
     public static final String CONTEXT_ATTACHMENT_ENABLE                = "context.attachment.enable";
+    /**
+     * 内部上下文是否使用TransmittableThreadLocal，关闭后使用普通ThreadLocal，不再自动传递到子线程，但是可以提高性能
+     *
+     * @since 5.14.3
+     */
+    public static final String CONTEXT_TRANSMITTABLE_ENABLE             = "context.transmittable.enable";
     /**
      * 是否启动事件总线，关闭后，可能tracer等会失效，但是可以提高性能
      */
     public static final String EVENT_BUS_ENABLE                         = "event.bus.enable";
+    /**
+     * 事件总线每种事件每个异步订阅者的环形缓冲区大小，写满后丢弃并计数
+     *
+     * @since 5.14.3
+     */
+    public static final String EVENT_BUS_RING_BUFFER_SIZE               = "event.bus.ring.buffer.size";
+    /**
+     * 事件总线异步派发时每种事件每次批量处理的最大数量
+     *
+     * @since 5.14.3
+     */
+    public static final String EVENT_BUS_BATCH_SIZE                     = "event.bus.batch.size";
     /**
      * 是否主动监听JVM关闭事件，默认true
      */
@@ -61,6 +79,12 @@ public class RpcOptions {
      * 是否增加序列化安全黑名单，关闭后可提供性能
      */
     public static final String SERIALIZE_BLACKLIST_ENABLE               = "serialize.blacklist.enable";
+    /**
+     * 序列化时线程内复用的输出缓冲区最多保留多少字节，超过后用完即丢弃，避免偶发的大包长期占用内存
+     *
+     * @since 5.14.3
+     */
+    public static final String SERIALIZE_BUFFER_MAX_RETAINED            = "serialize.buffer.max.retained";
     /**
      * 是否支持多ClassLoader支持，如果是但ClassLoader环境，可以关闭提高性能
      */
@@ -235,6 +259,42 @@ public class RpcOptions {
      * 服务端关闭超时时间
      */
     public static final String SERVER_STOP_TIMEOUT                      = "server.stop.timeout";
+    /**
+     * 服务端自适应并发限制算法，为空表示不限制
+     *
+     * @since 5.14.3
+     */
+    public static final String SERVER_CONCURRENCY_LIMITER               = "server.concurrency.limiter";
+    /**
+     * 服务端自适应并发限制的初始值
+     *
+     * @since 5.14.3
+     */
+    public static final String SERVER_CONCURRENCY_LIMIT_INITIAL         = "server.concurrency.limit.initial";
+    /**
+     * 服务端自适应并发限制的最小值
+     *
+     * @since 5.14.3
+     */
+    public static final String SERVER_CONCURRENCY_LIMIT_MIN             = "server.concurrency.limit.min";
+    /**
+     * 服务端自适应并发限制的最大值
+     *
+     * @since 5.14.3
+     */
+    public static final String SERVER_CONCURRENCY_LIMIT_MAX             = "server.concurrency.limit.max";
+    /**
+     * 服务端是否每个请求使用一个虚拟线程处理（需要 JDK 21 及以上）
+     *
+     * @since 5.14.3
+     */
+    public static final String SERVER_VIRTUAL_THREAD                    = "server.virtual.thread";
+    /**
+     * 虚拟线程模式下服务端同时处理的最大请求数，超过时直接拒绝，小于等于0表示不限制
+     *
+     * @since 5.14.3
+     */
+    public static final String SERVER_VIRTUAL_THREAD_MAX_CONCURRENCY    = "server.virtual.thread.max.concurrency";
 
     /**
      * 默认服务是否注册
@@ -282,6 +342,12 @@ public class RpcOptions {
      * @since 5.2.0
      */
     public static final String PROVIDER_REPEATED_EXPORT_LIMIT           = "provider.repeated.export.limit";
+    /**
+     * 服务端调用业务实现的分发器，为空或者不存在时使用反射调用
+     *
+     * @since 5.14.3
+     */
+    public static final String PROVIDER_INVOKE_DISPATCHER               = "provider.invoke.dispatcher";
 
     /**
      * 默认集群策略
@@ -331,6 +397,30 @@ public class RpcOptions {
      * 默认一个ip端口建立的长连接数量
      */
     public static final String CONSUMER_CONNECTION_NUM                  = "consumer.connection.num";
+    /**
+     * 默认每个服务端连接池的最大连接数，大于1时按在途请求数和发送字节数在 connectionNum 和该值之间伸缩
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_CONNECTION_POOL_MAX             = "consumer.connection.pool.max";
+    /**
+     * 默认连接池内选择连接的方式，可选 leastPending、roundRobin
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_CONNECTION_SELECT               = "consumer.connection.select";
+    /**
+     * 连接池扩容阈值：平均每个连接的在途请求数
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_CONNECTION_POOL_GROW_PENDING    = "consumer.connection.pool.grow.pending";
+    /**
+     * 连接池扩容阈值：平均每个连接每秒发送的字节数
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_CONNECTION_POOL_GROW_BYTES      = "consumer.connection.pool.grow.bytes";
     /**
      * 默认consumer连provider超时时间
      */
@@ -373,6 +463,24 @@ public class RpcOptions {
      * @since 5.5.0
      */
     public static final String CONCUMER_CONNECT_ELASTIC_SIZE            = "consumer.connect.elastic.size";
+    /**
+     * 全部服务消费者共用的建立长连接的最大并发数
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_CONNECT_CONCURRENCY             = "consumer.connect.concurrency";
+    /**
+     * 单个服务消费者同时建立长连接的最大数量，避免一个消费者占满共用的建连线程
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_CONNECT_CONSUMER_CONCURRENCY    = "consumer.connect.consumer.concurrency";
+    /**
+     * 初始化连接时，连上的服务端达到该百分比即认为就绪，剩下的在后台继续建立连接
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_CONNECT_READY_PERCENT           = "consumer.connect.ready.percent";
     /**
      * 默认回调线程池满时的默认拒绝策略
      *
@@ -494,11 +602,50 @@ public class RpcOptions {
      * 开启压缩的大小基线
      */
     public static final String COMPRESS_SIZE_BASELINE                   = "compress.size.baseline";
+    /**
+     * 压缩字典所在目录，目录下的 接口名.dict 为该服务的字典，default.dict 为默认字典
+     *
+     * @since 5.14.3
+     */
+    public static final String COMPRESS_DICTIONARY_DIR                  = "compress.dictionary.dir";
+    /**
+     * zstd 压缩级别
+     *
+     * @since 5.14.3
+     */
+    public static final String COMPRESS_ZSTD_LEVEL                      = "compress.zstd.level";
+    /**
+     * 解压后的最大字节数，小于等于0时和 transport.payload.max 相同
+     *
+     * @since 5.14.3
+     */
+    public static final String COMPRESS_DECOMPRESS_MAX                  = "compress.decompress.max";
 
     /**
      * Consumer共享心跳重连线程
      */
     public static final String CONSUMER_SHARE_RECONNECT_THREAD          = "consumer.share.reconnect.thread";
+
+    /**
+     * 一致性hash负载均衡默认的hash算法，md5兼容老版本的节点分布
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_HASH_FUNCTION                   = "consumer.hash.function";
+
+    /**
+     * 一致性hash负载均衡默认的hash key提取方式
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_HASH_KEY_EXTRACTOR              = "consumer.hash.key.extractor";
+
+    /**
+     * 有界负载一致性hash默认允许单个节点超出平均并发的比例，节点并发上限为 (1+比例)*平均并发
+     *
+     * @since 5.14.3
+     */
+    public static final String CONSUMER_HASH_BALANCE_FACTOR             = "consumer.hash.balance.factor";
     /**
      * 自定义设置：序列化是否检测Object的类型（父子类检查）
      */
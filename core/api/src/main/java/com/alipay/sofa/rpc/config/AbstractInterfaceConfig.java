@@ -1036,7 +1036,17 @@ public abstract class AbstractInterfaceConfig<T, S extends AbstractInterfaceConf
      * @return 配置值 method config value
      */
     public Object getMethodConfigValue(String methodName, String configKey) {
-        String key = buildmkey(methodName, configKey);
+        return getMethodConfigValueByKey(buildmkey(methodName, configKey));
+    }
+
+    /**
+     * 按预先拼好的key得到方法级配置，找不到则返回null
+     *
+     * @param key 方法级配置的key，见 {@link #buildMethodConfigKey(String, String)}
+     * @return 配置值 method config value
+     * @since 5.14.3
+     */
+    protected Object getMethodConfigValueByKey(String key) {
         Object value = null;
         if (dynamicConfigValueCache != null) {
             value = dynamicConfigValueCache.get(key);
@@ -1057,6 +1067,18 @@ public abstract class AbstractInterfaceConfig<T, S extends AbstractInterfaceConf
      * @return the string
      */
     private String buildmkey(String methodName, String key) {
+        return buildMethodConfigKey(methodName, key);
+    }
+
+    /**
+     * 拼接方法级配置的key，调用路径上可以预先拼好后复用
+     *
+     * @param methodName 方法名
+     * @param key        配置key
+     * @return 方法级配置的key
+     * @since 5.14.3
+     */
+    public static String buildMethodConfigKey(String methodName, String key) {
         return RpcConstants.HIDE_KEY_PREFIX + methodName + RpcConstants.HIDE_KEY_PREFIX + key;
     }
 
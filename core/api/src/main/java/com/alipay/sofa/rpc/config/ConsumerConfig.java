@@ -30,6 +30,7 @@ import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
 import com.alipay.sofa.rpc.listener.ChannelListener;
 import com.alipay.sofa.rpc.listener.ConsumerStateListener;
 import com.alipay.sofa.rpc.listener.ProviderInfoListener;
+import com.alipay.sofa.rpc.message.MethodDescriptor;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
@@ -40,6 +41,7 @@ import static com.alipay.sofa.rpc.common.RpcConfigs.getBooleanValue;
 import static com.alipay.sofa.rpc.common.RpcConfigs.getIntValue;
 import static com.alipay.sofa.rpc.common.RpcConfigs.getListValue;
 import static com.alipay.sofa.rpc.common.RpcConfigs.getStringValue;
+import static com.alipay.sofa.rpc.common.RpcOptions.COMPRESS_OPEN;
 import static com.alipay.sofa.rpc.common.RpcOptions.CONSUMER_REJECTED_EXECUTION_POLICY;
 import static com.alipay.sofa.rpc.common.RpcOptions.CONSUMER_ADDRESS_HOLDER;
 import static com.alipay.sofa.rpc.common.RpcOptions.CONSUMER_ADDRESS_WAIT;
@@ -60,6 +62,7 @@ import static com.alipay.sofa.rpc.common.RpcOptions.CONSUMER_REPEATED_REFERENCE_
 import static com.alipay.sofa.rpc.common.RpcOptions.CONSUMER_RETRIES;
 import static com.alipay.sofa.rpc.common.RpcOptions.CONSUMER_ROUTERS;
 import static com.alipay.sofa.rpc.common.RpcOptions.CONSUMER_STICKY;
+import static com.alipay.sofa.rpc.common.RpcOptions.DEFAULT_COMPRESS;
 import static com.alipay.sofa.rpc.common.RpcOptions.DEFAULT_PROTOCOL;
 
 /**
@@ -940,6 +943,21 @@ public class ConsumerConfig<T> extends AbstractInterfaceConfig<T, ConsumerConfig
         return (Integer) methodTimeout;
     }
 
+    /**
+     * Gets the timeout of the method, the config key is prebuilt by the descriptor
+     *
+     * @param descriptor the method descriptor
+     * @return the time out
+     * @since 5.14.3
+     */
+    public int getMethodTimeout(MethodDescriptor descriptor) {
+        Object methodTimeout = getMethodConfigValueByKey(descriptor.getTimeoutKey());
+        if (methodTimeout == null || ((Integer) methodTimeout) == 0) {
+            return getTimeout();
+        }
+        return (Integer) methodTimeout;
+    }
+
     /**
      * 得到方法名对应的自定义参数列表
      *
@@ -962,6 +980,49 @@ public class ConsumerConfig<T> extends AbstractInterfaceConfig<T, ConsumerConfig
             getInvokeType());
     }
 
+    /**
+     * Gets the call type of the method, the config key is prebuilt by the descriptor
+     *
+     * @param descriptor the method descriptor
+     * @return the call type
+     * @since 5.14.3
+     */
+    public String getMethodInvokeType(MethodDescriptor descriptor) {
+        Object invokeType = getMethodConfigValueByKey(descriptor.getInvokeTypeKey());
+        return invokeType == null ? getInvokeType() : (String) invokeType;
+    }
+
+    /**
+     * Gets the compress of the method, method config first, then interface config,
+     * then {@link com.alipay.sofa.rpc.common.RpcOptions#DEFAULT_COMPRESS} if compress is open globally
+     *
+     * @param methodName the method name
+     * @return the compress, null if not compress
+     * @since 5.14.3
+     */
+    public String getMethodCompress(String methodName) {
+        return resolveCompress(getMethodConfigValue(methodName, RpcConstants.CONFIG_KEY_COMPRESS));
+    }
+
+    /**
+     * Gets the compress of the method, the config key is prebuilt by the descriptor
+     *
+     * @param descriptor the method descriptor
+     * @return the compress, null if not compress
+     * @since 5.14.3
+     */
+    public String getMethodCompress(MethodDescriptor descriptor) {
+        return resolveCompress(getMethodConfigValueByKey(descriptor.getCompressKey()));
+    }
+
+    private String resolveCompress(Object methodCompress) {
+        String compress = methodCompress == null ? getCompress() : (String) methodCompress;
+        if (StringUtils.isEmpty(compress) && getBooleanValue(COMPRESS_OPEN)) {
+            compress = getStringValue(DEFAULT_COMPRESS);
+        }
+        return StringUtils.isEmpty(compress) ? null : compress;
+    }
+
     /**
      * 引用服务
      *
@@ -53,6 +53,8 @@ import static com.alipay.sofa.rpc.common.RpcOptions.SERVER_POOL_TYPE;
 import static com.alipay.sofa.rpc.common.RpcOptions.SERVER_PORT_START;
 import static com.alipay.sofa.rpc.common.RpcOptions.SERVER_STOP_TIMEOUT;
 import static com.alipay.sofa.rpc.common.RpcOptions.SERVER_TELNET;
+import static com.alipay.sofa.rpc.common.RpcOptions.SERVER_VIRTUAL_THREAD;
+import static com.alipay.sofa.rpc.common.RpcOptions.SERVER_VIRTUAL_THREAD_MAX_CONCURRENCY;
 import static com.alipay.sofa.rpc.common.RpcOptions.SEVER_ADAPTIVE_PORT;
 import static com.alipay.sofa.rpc.common.RpcOptions.SEVER_AUTO_START;
 import static com.alipay.sofa.rpc.common.RpcOptions.TRANSPORT_PAYLOAD_MAX;
@@ -138,6 +140,20 @@ public class ServerConfig extends AbstractIdConfig implements Serializable {
      */
     protected boolean                         preStartCore     = getBooleanValue(SERVER_POOL_PRE_START);
 
+    /**
+     * 是否每个请求使用一个虚拟线程处理，开启后不再使用业务线程池
+     *
+     * @since 5.14.3
+     */
+    protected boolean                         virtualThread    = getBooleanValue(SERVER_VIRTUAL_THREAD);
+
+    /**
+     * 虚拟线程模式下同时处理的最大请求数，小于等于0表示不限制
+     *
+     * @since 5.14.3
+     */
+    protected int                             maxConcurrency   = getIntValue(SERVER_VIRTUAL_THREAD_MAX_CONCURRENCY);
+
     /**
      * 服务端允许客户端建立的连接数
      */
@@ -517,6 +533,50 @@ public class ServerConfig extends AbstractIdConfig implements Serializable {
         return this;
     }
 
+    /**
+     * Is virtual thread mode, every request runs on its own virtual thread.
+     *
+     * @return the boolean
+     * @since 5.14.3
+     */
+    public boolean isVirtualThread() {
+        return virtualThread;
+    }
+
+    /**
+     * Sets virtual thread mode.
+     *
+     * @param virtualThread the virtual thread mode
+     * @return the ServerConfig
+     * @since 5.14.3
+     */
+    public ServerConfig setVirtualThread(boolean virtualThread) {
+        this.virtualThread = virtualThread;
+        return this;
+    }
+
+    /**
+     * Gets max concurrent requests in virtual thread mode.
+     *
+     * @return the max concurrency, not limited if less than or equal to 0
+     * @since 5.14.3
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets max concurrent requests in virtual thread mode.
+     *
+     * @param maxConcurrency the max concurrency
+     * @return the ServerConfig
+     * @since 5.14.3
+     */
+    public ServerConfig setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
     /**
      * Gets accepts.
      *
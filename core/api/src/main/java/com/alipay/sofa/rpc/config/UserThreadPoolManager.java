@@ -37,6 +37,11 @@ public class UserThreadPoolManager {
      */
     private static ConcurrentMap<String, UserThreadPool> userThreadMap = null;
 
+    /**
+     * 注册信息的版本号，每次注册或取消注册都会变化
+     */
+    private static volatile long                         version       = 0;
+
     /**
      * 是否有自定义线程池
      *
@@ -57,6 +62,7 @@ public class UserThreadPoolManager {
             userThreadMap = new ConcurrentHashMap<String, UserThreadPool>();
         }
         userThreadMap.put(service, userThreadPool);
+        version++;
     }
 
     /**
@@ -71,6 +77,7 @@ public class UserThreadPoolManager {
             userThreadMap = new ConcurrentHashMap<String, UserThreadPool>();
         }
         userThreadMap.put(service + SEPARATOR + methodName, userThreadPool);
+        version++;
     }
 
     /**
@@ -82,6 +89,7 @@ public class UserThreadPoolManager {
         if (userThreadMap != null) {
             userThreadMap.remove(service);
         }
+        version++;
     }
 
     /**
@@ -94,6 +102,7 @@ public class UserThreadPoolManager {
         if (userThreadMap != null) {
             userThreadMap.remove(service + SEPARATOR + methodName);
         }
+        version++;
     }
 
     /**
@@ -117,6 +126,16 @@ public class UserThreadPoolManager {
         return userThreadMap == null ? null : userThreadMap.get(service + SEPARATOR + methodName);
     }
 
+    /**
+     * 注册信息的版本号，用于判断基于注册信息预计算的结果是否过期
+     *
+     * @return 版本号
+     * @since 5.14.3
+     */
+    public static long getVersion() {
+        return version;
+    }
+
     public static Set<UserThreadPool> getUserThreadPoolSet() {
         Set<UserThreadPool> userThreadPoolSet = new HashSet<>();
         if (hasUserThread()) {
@@ -45,7 +45,7 @@ public class BaggageResolver {
      * @param request 请求
      */
     public static void carryWithRequest(RpcInvokeContext context, SofaRequest request) {
-        if (context != null) {
+        if (context != null && context.hasRequestBaggage()) {
             Map<String, String> requestBaggage = context.getAllRequestBaggage();
             if (CommonUtils.isNotEmpty(requestBaggage)) { // 需要透传
                 HashMap<String, String> tmp = new HashMap<>(requestBaggage);
@@ -93,7 +93,7 @@ public class BaggageResolver {
      * @param response 响应
      */
     public static void carryWithResponse(RpcInvokeContext context, SofaResponse response) {
-        if (context != null) {
+        if (context != null && context.hasResponseBaggage()) {
             Map<String, String> responseBaggage = context.getAllResponseBaggage();
             if (CommonUtils.isNotEmpty(responseBaggage)) {
                 String prefix = RemotingConstants.RPC_RESPONSE_BAGGAGE + ".";
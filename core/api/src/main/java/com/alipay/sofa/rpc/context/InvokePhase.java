@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.context;
+
+import com.alipay.sofa.rpc.common.RpcConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 一次调用中需要记录耗时或者时间戳的阶段，记录在 {@link PhaseTimings} 的固定下标里。
+ * <p>
+ * 每个阶段对应原来放在 {@link RpcInvokeContext} 里的key，通过 {@link RpcInvokeContext#get(String)} 按key读取仍然兼容。
+ * 后缀为 NANO 的是纳秒，后缀为 MICRO 的是微秒。
+ *
+ * @since 5.14.3
+ */
+public enum InvokePhase {
+
+    /**
+     * R1：路由寻址耗时
+     */
+    CLIENT_ROUTER_TIME_NANO(RpcConstants.INTERNAL_KEY_CLIENT_ROUTER_TIME_NANO),
+    /**
+     * R2：长链接建立时间
+     */
+    CONN_CREATE_TIME_NANO(RpcConstants.INTERNAL_KEY_CONN_CREATE_TIME_NANO),
+    /**
+     * R3：客户端过滤器耗时
+     */
+    CLIENT_FILTER_TIME_NANO(RpcConstants.INTERNAL_KEY_CLIENT_FILTER_TIME_NANO),
+    /**
+     * R3-1：客户端过滤器开始时间
+     */
+    CONSUMER_FILTER_START_TIME_NANO(RpcConstants.INTERNAL_KEY_CONSUMER_FILTER_START_TIME_NANO),
+    /**
+     * R3-2：客户端过滤器结束时间
+     */
+    CONSUMER_FILTER_END_TIME_NANO(RpcConstants.INTERNAL_KEY_CONSUMER_FILTER_END_TIME_NANO),
+    /**
+     * R3-3：客户端调用开始时间
+     */
+    CONSUMER_INVOKE_START_TIME_NANO(RpcConstants.INTERNAL_KEY_CONSUMER_INVOKE_START_TIME_NANO),
+    /**
+     * R3-4：客户端调用结束时间
+     */
+    CONSUMER_INVOKE_END_TIME_NANO(RpcConstants.INTERNAL_KEY_CONSUMER_INVOKE_END_TIME_NANO),
+    /**
+     * R4：负载均衡耗时
+     */
+    CLIENT_BALANCER_TIME_NANO(RpcConstants.INTERNAL_KEY_CLIENT_BALANCER_TIME_NANO),
+    /**
+     * R5-1：请求序列化耗时
+     */
+    REQ_SERIALIZE_TIME_NANO(RpcConstants.INTERNAL_KEY_REQ_SERIALIZE_TIME_NANO),
+    /**
+     * R5-2：请求反序列化耗时
+     */
+    REQ_DESERIALIZE_TIME_NANO(RpcConstants.INTERNAL_KEY_REQ_DESERIALIZE_TIME_NANO),
+    /**
+     * R6-1：响应序列化耗时
+     */
+    RESP_SERIALIZE_TIME_NANO(RpcConstants.INTERNAL_KEY_RESP_SERIALIZE_TIME_NANO),
+    /**
+     * R6-2：响应反序列化耗时
+     */
+    RESP_DESERIALIZE_TIME_NANO(RpcConstants.INTERNAL_KEY_RESP_DESERIALIZE_TIME_NANO),
+    /**
+     * R5-3：请求体压缩或者解压耗时
+     */
+    REQ_COMPRESS_TIME_NANO(RpcConstants.INTERNAL_KEY_REQ_COMPRESS_TIME_NANO),
+    /**
+     * R6-3：响应体压缩或者解压耗时
+     */
+    RESP_COMPRESS_TIME_NANO(RpcConstants.INTERNAL_KEY_RESP_COMPRESS_TIME_NANO),
+    /**
+     * R7：在业务线程池里等待时间
+     */
+    PROCESS_WAIT_TIME_NANO(RpcConstants.INTERNAL_KEY_PROCESS_WAIT_TIME_NANO),
+    /**
+     * R8：业务代码执行耗时
+     */
+    IMPL_ELAPSE_NANO(RpcConstants.INTERNAL_KEY_IMPL_ELAPSE_NANO),
+    /**
+     * R9：服务端埋点耗时
+     */
+    SERVER_AMBUSH_TIME_NANO(RpcConstants.INTERNAL_KEY_SERVER_AMBUSH_TIME_NANO),
+    /**
+     * R10：服务端过滤器耗时
+     */
+    SERVER_FILTER_TIME_NANO(RpcConstants.INTERNAL_KEY_SERVER_FILTER_TIME_NANO),
+    /**
+     * R10-1：服务端过滤器开始时间
+     */
+    PROVIDER_FILTER_START_TIME_NANO(RpcConstants.INTERNAL_KEY_PROVIDER_FILTER_START_TIME_NANO),
+    /**
+     * R10-2：服务端过滤器结束时间
+     */
+    PROVIDER_FILTER_END_TIME_NANO(RpcConstants.INTERNAL_KEY_PROVIDER_FILTER_END_TIME_NANO),
+    /**
+     * R10-3：服务端调用开始时间
+     */
+    PROVIDER_INVOKE_START_TIME_NANO(RpcConstants.INTERNAL_KEY_PROVIDER_INVOKE_START_TIME_NANO),
+    /**
+     * R10-4：服务端调用结束时间
+     */
+    PROVIDER_INVOKE_END_TIME_NANO(RpcConstants.INTERNAL_KEY_PROVIDER_INVOKE_END_TIME_NANO),
+    /**
+     * R11：网络等待时间，head到达到body接收完成
+     */
+    SERVER_NET_WAIT_NANO(RpcConstants.INTERNAL_KEY_SERVER_NET_WAIT_NANO),
+    /**
+     * 客户端收到第一个流式响应的耗时
+     */
+    CLIENT_FIRST_STREAM_RESP_NANO(RpcConstants.INTERNAL_KEY_CLIENT_FIRST_STREAM_RESP_NANO),
+    /**
+     * 客户端总耗时
+     */
+    CLIENT_ELAPSE_MICRO(RpcConstants.INTERNAL_KEY_CLIENT_ELAPSE_MICRO),
+    /**
+     * C1：客户端发送时间戳
+     */
+    CLIENT_SEND_TIME_MICRO(RpcConstants.INTERNAL_KEY_CLIENT_SEND_TIME_MICRO),
+    /**
+     * C2：客户端接收响应时间戳
+     */
+    CLIENT_RECEIVE_TIME_MICRO(RpcConstants.INTERNAL_KEY_CLIENT_RECEIVE_TIME_MICRO),
+    /**
+     * S1：服务端接收时间戳
+     */
+    SERVER_RECEIVE_TIME_MICRO(RpcConstants.INTERNAL_KEY_SERVER_RECEIVE_TIME_MICRO),
+    /**
+     * S2：服务端请求响应完成时间戳
+     */
+    SERVER_SEND_TIME_MICRO(RpcConstants.INTERNAL_KEY_SERVER_SEND_TIME_MICRO);
+
+    private static final Map<String, InvokePhase> KEYS = new HashMap<String, InvokePhase>();
+
+    static {
+        for (InvokePhase phase : values()) {
+            KEYS.put(phase.key, phase);
+        }
+    }
+
+    /**
+     * 在上下文中对应的key
+     */
+    private final String                          key;
+
+    InvokePhase(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets key in context.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 根据上下文中的key查找阶段
+     *
+     * @param key 上下文中的key
+     * @return 阶段，不是阶段的key返回null
+     */
+    public static InvokePhase of(String key) {
+        return key == null ? null : KEYS.get(key);
+    }
+}
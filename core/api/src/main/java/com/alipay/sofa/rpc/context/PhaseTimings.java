@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.context;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 一次调用的各阶段耗时记录，按 {@link InvokePhase} 的下标存放在 long 数组里，记录时不装箱、不计算哈希。
+ * <p>
+ * 异步调用时上下文会交给回调线程，所以可以被多个线程读写：值用 {@link AtomicLongArray} 存放，
+ * 已记录的阶段用 CAS 置位，读到置位后一定能读到对应的值。tracer、metrics 等模块通过
+ * {@link RpcInvokeContext#getPhaseTimings()} 读取。
+ *
+ * @since 5.14.3
+ */
+public final class PhaseTimings {
+
+    private static final InvokePhase[]                        PHASES           = InvokePhase.values();
+
+    static {
+        if (PHASES.length > Long.SIZE) {
+            throw new IllegalStateException("Too many invoke phases: " + PHASES.length);
+        }
+    }
+
+    private static final AtomicLongFieldUpdater<PhaseTimings> RECORDED_UPDATER = AtomicLongFieldUpdater
+                                                                                   .newUpdater(PhaseTimings.class,
+                                                                                       "recorded");
+
+    /**
+     * 各阶段的值
+     */
+    private final AtomicLongArray                             values           = new AtomicLongArray(PHASES.length);
+
+    /**
+     * 已记录的阶段，按下标置位
+     */
+    private volatile long                                     recorded;
+
+    /**
+     * 记录一个阶段
+     *
+     * @param phase 阶段
+     * @param value 耗时或者时间戳
+     */
+    public void record(InvokePhase phase, long value) {
+        int index = phase.ordinal();
+        values.set(index, value);
+        long bit = 1L << index;
+        long current;
+        while (((current = recorded) & bit) == 0) {
+            if (RECORDED_UPDATER.compareAndSet(this, current, current | bit)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 是否记录了某个阶段
+     *
+     * @param phase 阶段
+     * @return 是否已记录
+     */
+    public boolean isRecorded(InvokePhase phase) {
+        return (recorded & (1L << phase.ordinal())) != 0;
+    }
+
+    /**
+     * 读取某个阶段
+     *
+     * @param phase 阶段
+     * @return 记录的值，未记录返回0
+     */
+    public long get(InvokePhase phase) {
+        return values.get(phase.ordinal());
+    }
+
+    /**
+     * 两个时间点之间的间隔
+     *
+     * @param start 开始的阶段
+     * @param end   结束的阶段
+     * @return 间隔，任一阶段未记录返回-1
+     */
+    public long between(InvokePhase start, InvokePhase end) {
+        if (!isRecorded(start) || !isRecorded(end)) {
+            return -1;
+        }
+        return get(end) - get(start);
+    }
+
+    /**
+     * 删除某个阶段
+     *
+     * @param phase 阶段
+     */
+    public void remove(InvokePhase phase) {
+        int index = phase.ordinal();
+        long bit = 1L << index;
+        long current;
+        while (((current = recorded) & bit) != 0) {
+            if (RECORDED_UPDATER.compareAndSet(this, current, current & ~bit)) {
+                break;
+            }
+        }
+        values.set(index, 0);
+    }
+
+    /**
+     * 是否一个阶段都没有记录
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return recorded == 0;
+    }
+
+    /**
+     * 清空全部阶段
+     */
+    public void reset() {
+        if (recorded != 0) {
+            recorded = 0;
+            for (int i = 0; i < PHASES.length; i++) {
+                values.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * 复制一份
+     *
+     * @return 副本
+     */
+    public PhaseTimings copy() {
+        PhaseTimings copy = new PhaseTimings();
+        long bits = recorded;
+        for (int i = 0; i < PHASES.length; i++) {
+            if ((bits & (1L << i)) != 0) {
+                copy.values.set(i, values.get(i));
+            }
+        }
+        copy.recorded = bits;
+        return copy;
+    }
+
+    /**
+     * 转成以上下文key为键的Map，只包含已记录的阶段，用于打印或者兼容按key读取的逻辑
+     *
+     * @return 新的Map
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new LinkedHashMap<String, Long>();
+        for (InvokePhase phase : PHASES) {
+            if (isRecorded(phase)) {
+                map.put(phase.getKey(), get(phase));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
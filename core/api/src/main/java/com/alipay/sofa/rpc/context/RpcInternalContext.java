@@ -27,10 +27,17 @@ import com.alipay.sofa.rpc.log.LogCodes;
 import com.alipay.sofa.rpc.message.ResponseFuture;
 
 import java.net.InetSocketAddress;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * 基于ThreadLocal的内部使用的上下文传递。一般存在于：客户端请求线程、服务端业务线程池、客户端异步线程<br>
@@ -43,18 +50,25 @@ public class RpcInternalContext implements Cloneable {
      * 是否允许携带上下文附件，关闭后只能传递"."开头的key，"_" 开头的Key将不被保持和传递。<br>
      * 在性能测试等场景可能关闭此传递功能。
      */
-    private static final boolean                                ATTACHMENT_ENABLE = RpcConfigs
-                                                                                      .getBooleanValue(RpcOptions.CONTEXT_ATTACHMENT_ENABLE);
+    private static final boolean                                ATTACHMENT_ENABLE    = RpcConfigs
+                                                                                         .getBooleanValue(RpcOptions.CONTEXT_ATTACHMENT_ENABLE);
+
+    /**
+     * 是否使用TransmittableThreadLocal，关闭后使用普通ThreadLocal，清理时只置空不删除Entry，避免每次调用分配
+     */
+    private static final boolean                                TRANSMITTABLE_ENABLE = RpcConfigs
+                                                                                         .getBooleanValue(RpcOptions.CONTEXT_TRANSMITTABLE_ENABLE);
 
     /**
      * The constant LOCAL.
      */
-    private static final ThreadLocal<RpcInternalContext>        LOCAL             = new TransmittableThreadLocal<RpcInternalContext>();
+    private static final ThreadLocal<RpcInternalContext>        LOCAL                = TRANSMITTABLE_ENABLE ? new TransmittableThreadLocal<RpcInternalContext>()
+                                                                                         : new ThreadLocal<RpcInternalContext>();
 
     /**
      * The constant DEQUE_LOCAL.
      */
-    private static final ThreadLocal<Deque<RpcInternalContext>> DEQUE_LOCAL       = new ThreadLocal<Deque<RpcInternalContext>>();
+    private static final ThreadLocal<Deque<RpcInternalContext>> DEQUE_LOCAL          = new ThreadLocal<Deque<RpcInternalContext>>();
 
     /**
      * 设置上下文
@@ -92,7 +106,11 @@ public class RpcInternalContext implements Cloneable {
      * 清理上下文
      */
     public static void removeContext() {
-        LOCAL.remove();
+        if (TRANSMITTABLE_ENABLE) {
+            LOCAL.remove();
+        } else {
+            LOCAL.set(null);
+        }
     }
 
     /**
@@ -125,11 +143,14 @@ public class RpcInternalContext implements Cloneable {
     }
 
     /**
-     * 清理全部上下文
+     * 清理全部上下文，栈只清空不删除，同一线程下次调用不再重新创建
      */
     public static void removeAllContext() {
-        LOCAL.remove();
-        DEQUE_LOCAL.remove();
+        removeContext();
+        Deque<RpcInternalContext> deque = DEQUE_LOCAL.get();
+        if (deque != null) {
+            deque.clear();
+        }
     }
 
     /**
@@ -141,6 +162,127 @@ public class RpcInternalContext implements Cloneable {
         return ATTACHMENT_ENABLE;
     }
 
+    /**
+     * 高频使用的内置key的固定下标，读写不走Map
+     *
+     * @since 5.14.3
+     */
+    private static final int                                                  SLOT_APP_NAME              = 0;
+    private static final int                                                  SLOT_PROTOCOL_NAME         = 1;
+    private static final int                                                  SLOT_REQ_SIZE              = 2;
+    private static final int                                                  SLOT_RESP_SIZE             = 3;
+    private static final int                                                  SLOT_REQ_SERIALIZE_TIME    = 4;
+    private static final int                                                  SLOT_REQ_DESERIALIZE_TIME  = 5;
+    private static final int                                                  SLOT_RESP_SERIALIZE_TIME   = 6;
+    private static final int                                                  SLOT_RESP_DESERIALIZE_TIME = 7;
+    private static final int                                                  SLOT_PROCESS_WAIT_TIME     = 8;
+    private static final int                                                  SLOT_IMPL_ELAPSE           = 9;
+    private static final int                                                  SLOT_CLIENT_ELAPSE         = 10;
+    private static final int                                                  SLOT_CLIENT_SEND_TIME      = 11;
+    private static final int                                                  SLOT_SERVER_RECEIVE_TIME   = 12;
+    private static final int                                                  SLOT_RESULT_CODE           = 13;
+    private static final int                                                  SLOT_INVOKE_TIMES          = 14;
+    private static final int                                                  SLOT_ROUTER_RECORD         = 15;
+    private static final int                                                  SLOT_TRACE_ID              = 16;
+    private static final int                                                  SLOT_SPAN_ID               = 17;
+    private static final int                                                  SLOT_ASYNC_CONTEXT         = 18;
+    private static final int                                                  SLOT_ASYNC_REQUEST         = 19;
+    private static final int                                                  SLOT_INVOKE_CONTEXT        = 20;
+    private static final int                                                  SLOT_COUNT                 = 21;
+
+    /**
+     * 固定下标对应的key
+     */
+    private static final String[]                                             SLOT_KEYS                  = new String[SLOT_COUNT];
+
+    static {
+        SLOT_KEYS[SLOT_APP_NAME] = RpcConstants.INTERNAL_KEY_APP_NAME;
+        SLOT_KEYS[SLOT_PROTOCOL_NAME] = RpcConstants.INTERNAL_KEY_PROTOCOL_NAME;
+        SLOT_KEYS[SLOT_REQ_SIZE] = RpcConstants.INTERNAL_KEY_REQ_SIZE;
+        SLOT_KEYS[SLOT_RESP_SIZE] = RpcConstants.INTERNAL_KEY_RESP_SIZE;
+        SLOT_KEYS[SLOT_REQ_SERIALIZE_TIME] = RpcConstants.INTERNAL_KEY_REQ_SERIALIZE_TIME;
+        SLOT_KEYS[SLOT_REQ_DESERIALIZE_TIME] = RpcConstants.INTERNAL_KEY_REQ_DESERIALIZE_TIME;
+        SLOT_KEYS[SLOT_RESP_SERIALIZE_TIME] = RpcConstants.INTERNAL_KEY_RESP_SERIALIZE_TIME;
+        SLOT_KEYS[SLOT_RESP_DESERIALIZE_TIME] = RpcConstants.INTERNAL_KEY_RESP_DESERIALIZE_TIME;
+        SLOT_KEYS[SLOT_PROCESS_WAIT_TIME] = RpcConstants.INTERNAL_KEY_PROCESS_WAIT_TIME;
+        SLOT_KEYS[SLOT_IMPL_ELAPSE] = RpcConstants.INTERNAL_KEY_IMPL_ELAPSE;
+        SLOT_KEYS[SLOT_CLIENT_ELAPSE] = RpcConstants.INTERNAL_KEY_CLIENT_ELAPSE;
+        SLOT_KEYS[SLOT_CLIENT_SEND_TIME] = RpcConstants.INTERNAL_KEY_CLIENT_SEND_TIME;
+        SLOT_KEYS[SLOT_SERVER_RECEIVE_TIME] = RpcConstants.INTERNAL_KEY_SERVER_RECEIVE_TIME;
+        SLOT_KEYS[SLOT_RESULT_CODE] = RpcConstants.INTERNAL_KEY_RESULT_CODE;
+        SLOT_KEYS[SLOT_INVOKE_TIMES] = RpcConstants.INTERNAL_KEY_INVOKE_TIMES;
+        SLOT_KEYS[SLOT_ROUTER_RECORD] = RpcConstants.INTERNAL_KEY_ROUTER_RECORD;
+        SLOT_KEYS[SLOT_TRACE_ID] = RpcConstants.INTERNAL_KEY_TRACE_ID;
+        SLOT_KEYS[SLOT_SPAN_ID] = RpcConstants.INTERNAL_KEY_SPAN_ID;
+        SLOT_KEYS[SLOT_ASYNC_CONTEXT] = RpcConstants.HIDDEN_KEY_ASYNC_CONTEXT;
+        SLOT_KEYS[SLOT_ASYNC_REQUEST] = RpcConstants.HIDDEN_KEY_ASYNC_REQUEST;
+        SLOT_KEYS[SLOT_INVOKE_CONTEXT] = RpcConstants.HIDDEN_KEY_INVOKE_CONTEXT;
+    }
+
+    /**
+     * 延迟创建 {@link #attachments}
+     */
+    private static final AtomicReferenceFieldUpdater<RpcInternalContext, Map> ATTACHMENTS_UPDATER        = AtomicReferenceFieldUpdater
+                                                                                                             .newUpdater(
+                                                                                                                 RpcInternalContext.class,
+                                                                                                                 Map.class,
+                                                                                                                 "attachments");
+
+    /**
+     * 固定下标，用 switch 匹配字符串常量，不走Map也不装箱
+     *
+     * @param key 参数key
+     * @return 下标，不是固定key返回-1
+     */
+    private static int slotOf(String key) {
+        switch (key) {
+            case RpcConstants.INTERNAL_KEY_APP_NAME:
+                return SLOT_APP_NAME;
+            case RpcConstants.INTERNAL_KEY_PROTOCOL_NAME:
+                return SLOT_PROTOCOL_NAME;
+            case RpcConstants.INTERNAL_KEY_REQ_SIZE:
+                return SLOT_REQ_SIZE;
+            case RpcConstants.INTERNAL_KEY_RESP_SIZE:
+                return SLOT_RESP_SIZE;
+            case RpcConstants.INTERNAL_KEY_REQ_SERIALIZE_TIME:
+                return SLOT_REQ_SERIALIZE_TIME;
+            case RpcConstants.INTERNAL_KEY_REQ_DESERIALIZE_TIME:
+                return SLOT_REQ_DESERIALIZE_TIME;
+            case RpcConstants.INTERNAL_KEY_RESP_SERIALIZE_TIME:
+                return SLOT_RESP_SERIALIZE_TIME;
+            case RpcConstants.INTERNAL_KEY_RESP_DESERIALIZE_TIME:
+                return SLOT_RESP_DESERIALIZE_TIME;
+            case RpcConstants.INTERNAL_KEY_PROCESS_WAIT_TIME:
+                return SLOT_PROCESS_WAIT_TIME;
+            case RpcConstants.INTERNAL_KEY_IMPL_ELAPSE:
+                return SLOT_IMPL_ELAPSE;
+            case RpcConstants.INTERNAL_KEY_CLIENT_ELAPSE:
+                return SLOT_CLIENT_ELAPSE;
+            case RpcConstants.INTERNAL_KEY_CLIENT_SEND_TIME:
+                return SLOT_CLIENT_SEND_TIME;
+            case RpcConstants.INTERNAL_KEY_SERVER_RECEIVE_TIME:
+                return SLOT_SERVER_RECEIVE_TIME;
+            case RpcConstants.INTERNAL_KEY_RESULT_CODE:
+                return SLOT_RESULT_CODE;
+            case RpcConstants.INTERNAL_KEY_INVOKE_TIMES:
+                return SLOT_INVOKE_TIMES;
+            case RpcConstants.INTERNAL_KEY_ROUTER_RECORD:
+                return SLOT_ROUTER_RECORD;
+            case RpcConstants.INTERNAL_KEY_TRACE_ID:
+                return SLOT_TRACE_ID;
+            case RpcConstants.INTERNAL_KEY_SPAN_ID:
+                return SLOT_SPAN_ID;
+            case RpcConstants.HIDDEN_KEY_ASYNC_CONTEXT:
+                return SLOT_ASYNC_CONTEXT;
+            case RpcConstants.HIDDEN_KEY_ASYNC_REQUEST:
+                return SLOT_ASYNC_REQUEST;
+            case RpcConstants.HIDDEN_KEY_INVOKE_CONTEXT:
+                return SLOT_INVOKE_CONTEXT;
+            default:
+                return -1;
+        }
+    }
+
     /**
      * Instantiates a new Rpc context.
      */
@@ -150,40 +292,51 @@ public class RpcInternalContext implements Cloneable {
     /**
      * The Future.
      */
-    private ResponseFuture<?>   future;
+    private ResponseFuture<?>            future;
 
     /**
      * The Local address.
      */
-    private InetSocketAddress   localAddress;
+    private InetSocketAddress            localAddress;
 
     /**
      * The Remote address.
      */
-    private InetSocketAddress   remoteAddress;
+    private InetSocketAddress            remoteAddress;
 
     /**
      * 附带属性功能，遵循谁使用谁清理的原则。Key必须为 "_" 和 "."开头<br>
-     * 如果关闭了 {@link #ATTACHMENT_ENABLE} 功能，"_" 开头的Key将不被保持和传递。
+     * 如果关闭了 {@link #ATTACHMENT_ENABLE} 功能，"_" 开头的Key将不被保持和传递。<br>
+     * {@link #SLOT_KEYS} 里的key存放在固定下标，其它key第一次写入时才创建Map。
      *
      * @see #ATTACHMENT_ENABLE
      */
-    private Map<String, Object> attachments = new ConcurrentHashMap<String, Object>();
+    private AtomicReferenceArray<Object> slots     = new AtomicReferenceArray<Object>(SLOT_COUNT);
+
+    /**
+     * 非固定key的附带属性，延迟创建
+     */
+    private volatile Map<String, Object> attachments;
+
+    /**
+     * {@link #getAttachments()} 返回的视图，延迟创建
+     */
+    private Map<String, Object>          attachmentsView;
 
     /**
      * The Stopwatch
      */
-    private StopWatch           stopWatch   = new StopWatch();
+    private StopWatch                    stopWatch = new StopWatch();
 
     /**
      * The Provider side.
      */
-    private Boolean             providerSide;
+    private Boolean                      providerSide;
 
     /**
      * 要调用的服务端信息
      */
-    private ProviderInfo        providerInfo;
+    private ProviderInfo                 providerInfo;
 
     /**
      * Is provider side.
@@ -331,7 +484,15 @@ public class RpcInternalContext implements Cloneable {
      * @return attachment attachment
      */
     public Object getAttachment(String key) {
-        return key == null ? null : attachments.get(key);
+        if (key == null) {
+            return null;
+        }
+        int index = slotOf(key);
+        if (index >= 0) {
+            return slots.get(index);
+        }
+        Map<String, Object> map = attachments;
+        return map == null ? null : map.get(key);
     }
 
     /**
@@ -357,13 +518,31 @@ public class RpcInternalContext implements Cloneable {
             }
         }
         if (value == null) {
-            attachments.remove(key);
-        } else {
-            attachments.put(key, value);
+            removeAttachment(key);
+            return this;
         }
+        putAttachment(key, value);
         return this;
     }
 
+    private Object putAttachment(String key, Object value) {
+        int index = slotOf(key);
+        if (index >= 0) {
+            return slots.getAndSet(index, value);
+        }
+        return initAttachments().put(key, value);
+    }
+
+    private Map<String, Object> initAttachments() {
+        Map<String, Object> map = attachments;
+        // CAS 创建，不加锁
+        while (map == null) {
+            ATTACHMENTS_UPDATER.compareAndSet(this, null, new ConcurrentHashMap<String, Object>());
+            map = attachments;
+        }
+        return map;
+    }
+
     /**
      * remove attachment.
      *
@@ -371,16 +550,45 @@ public class RpcInternalContext implements Cloneable {
      * @return Old value
      */
     public Object removeAttachment(String key) {
-        return attachments.remove(key);
+        if (key == null) {
+            return null;
+        }
+        int index = slotOf(key);
+        if (index >= 0) {
+            return slots.getAndSet(index, null);
+        }
+        Map<String, Object> map = attachments;
+        return map == null ? null : map.remove(key);
     }
 
     /**
-     * get attachments.
+     * get attachments, returns a live view backed by this context, like the attachments map before 5.14.3.
+     * Iteration works on a snapshot, modifications through the view write to the context.
      *
      * @return attachments attachments
      */
     public Map<String, Object> getAttachments() {
-        return attachments;
+        Map<String, Object> view = attachmentsView;
+        if (view == null) {
+            view = new AttachmentsView();
+            attachmentsView = view;
+        }
+        return view;
+    }
+
+    private Map<String, Object> snapshotAttachments() {
+        Map<String, Object> map = attachments;
+        Map<String, Object> copy = new HashMap<String, Object>(map == null ? 16 : map.size() + 16);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            Object value = slots.get(i);
+            if (value != null) {
+                copy.put(SLOT_KEYS[i], value);
+            }
+        }
+        if (map != null) {
+            copy.putAll(map);
+        }
+        return copy;
     }
 
     /**
@@ -404,8 +612,12 @@ public class RpcInternalContext implements Cloneable {
      * @return the rpc internal context
      */
     public RpcInternalContext clearAttachments() {
-        if (attachments != null && attachments.size() > 0) {
-            attachments.clear();
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots.lazySet(i, null);
+        }
+        Map<String, Object> map = attachments;
+        if (map != null && map.size() > 0) {
+            map.clear();
         }
         return this;
     }
@@ -425,7 +637,11 @@ public class RpcInternalContext implements Cloneable {
     public void clear() {
         this.setRemoteAddress(null).setLocalAddress(null).setFuture(null).setProviderSide(null)
             .setProviderInfo(null);
-        this.attachments = new ConcurrentHashMap<String, Object>();
+        // clone出来的上下文有自己的副本，这里原地清空即可
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots.lazySet(i, null);
+        }
+        this.attachments = null;
         this.stopWatch.reset();
     }
 
@@ -455,7 +671,7 @@ public class RpcInternalContext implements Cloneable {
             "future=" + future +
             ", localAddress=" + localAddress +
             ", remoteAddress=" + remoteAddress +
-            ", attachments=" + attachments +
+            ", attachments=" + getAttachments() +
             ", stopWatch=" + stopWatch +
             ", providerSide=" + providerSide +
             ", providerInfo=" + providerInfo +
@@ -465,7 +681,9 @@ public class RpcInternalContext implements Cloneable {
     @Override
     public RpcInternalContext clone() {
         try {
-            return (RpcInternalContext) super.clone();
+            RpcInternalContext context = (RpcInternalContext) super.clone();
+            context.copyAttachmentsFrom(this);
+            return context;
         } catch (Exception e) {
             RpcInternalContext context = new RpcInternalContext();
             context.future = this.future;
@@ -474,11 +692,106 @@ public class RpcInternalContext implements Cloneable {
             context.stopWatch = this.stopWatch.clone();
             context.providerSide = this.providerSide;
             context.providerInfo = this.providerInfo;
-            context.attachments.putAll(this.attachments);
+            context.copyAttachmentsFrom(this);
             return context;
         }
     }
 
+    private void copyAttachmentsFrom(RpcInternalContext source) {
+        AtomicReferenceArray<Object> copy = new AtomicReferenceArray<Object>(SLOT_COUNT);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            copy.lazySet(i, source.slots.get(i));
+        }
+        this.slots = copy;
+        Map<String, Object> map = source.attachments;
+        this.attachments = map == null ? null : new ConcurrentHashMap<String, Object>(map);
+        this.attachmentsView = null;
+    }
+
+    /**
+     * 附带属性的视图，固定下标和Map合在一起
+     */
+    private class AttachmentsView extends AbstractMap<String, Object> {
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String ? getAttachment((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            if (key == null || value == null) {
+                throw new NullPointerException();
+            }
+            return putAttachment(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return key instanceof String ? removeAttachment((String) key) : null;
+        }
+
+        @Override
+        public void clear() {
+            clearAttachments();
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int i = 0; i < SLOT_COUNT; i++) {
+                if (slots.get(i) != null) {
+                    size++;
+                }
+            }
+            Map<String, Object> map = attachments;
+            return map == null ? size : size + map.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final Iterator<Entry<String, Object>> it = snapshotAttachments().entrySet().iterator();
+                    return new Iterator<Entry<String, Object>>() {
+                        private Entry<String, Object> last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            last = it.next();
+                            return last;
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) {
+                                throw new IllegalStateException();
+                            }
+                            removeAttachment(last.getKey());
+                            last = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return AttachmentsView.this.size();
+                }
+            };
+        }
+    }
+
     /**
      * 合法的内置key，以"_"或者"."开头
      *
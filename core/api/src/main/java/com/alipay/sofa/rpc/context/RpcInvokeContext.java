@@ -17,15 +17,19 @@
 package com.alipay.sofa.rpc.context;
 
 import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.common.RpcOptions;
 import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
 import com.alipay.sofa.rpc.core.util.SafeConcurrentHashMap;
 import com.alipay.sofa.rpc.message.ResponseFuture;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * 基于ThreadLocal的面向业务开发者使用的上下文传递对象
+ * <p>
+ * 自定义属性、自定义header和透传数据的Map都在第一次写入（或者通过getter取出）时才创建，大部分调用不需要分配。
  *
  * @author <a href="mailto:zhanggeng.zg@antfin.com">GengZhang</a>
  */
@@ -34,57 +38,105 @@ public class RpcInvokeContext {
     /**
      * 线程上下文变量
      */
-    protected static final ThreadLocal<RpcInvokeContext> LOCAL = new ThreadLocal<RpcInvokeContext>();
+    protected static final ThreadLocal<RpcInvokeContext>                             LOCAL                    = new ThreadLocal<RpcInvokeContext>();
     /**
      * 是否开启上下文透传功能
      *
      * @since 5.1.2
      */
-    private static boolean BAGGAGE_ENABLE = RpcConfigs.getBooleanValue(RpcOptions.INVOKE_BAGGAGE_ENABLE);
+    private static boolean                                                           BAGGAGE_ENABLE           = RpcConfigs
+                                                                                                                  .getBooleanValue(RpcOptions.INVOKE_BAGGAGE_ENABLE);
     /**
      * 自定义 header ，用完一次即删
      */
-    protected Map<String, String> customHeader = new SafeConcurrentHashMap<>();
+    protected volatile Map<String, String>                                           customHeader;
     /**
      * 用户自定义超时时间，单次调用生效
      */
-    protected Integer timeout;
+    protected Integer                                                                timeout;
     /**
      * 用户自定义的deadline时间
      */
-    protected Long deadline;
+    protected Long                                                                   deadline;
     /**
      * 用户自定义对方地址，单次调用生效
      */
-    protected String targetURL;
+    protected String                                                                 targetURL;
     /**
      * 用户自定义对方分组
      */
-    protected String targetGroup;
+    protected String                                                                 targetGroup;
     /**
      * 用户自定义Callback，单次调用生效
      */
-    protected SofaResponseCallback responseCallback;
+    protected SofaResponseCallback                                                   responseCallback;
     /**
      * The Future.
      */
-    protected ResponseFuture<?> future;
+    protected ResponseFuture<?>                                                      future;
     /**
      * 自定义属性
      */
-    protected Map<String, Object> map = new SafeConcurrentHashMap<>();
+    protected volatile Map<String, Object>                                           map;
     /**
      * 请求上的透传数据
      *
      * @since 5.1.2
      */
-    protected Map<String, String> requestBaggage = BAGGAGE_ENABLE ? new SafeConcurrentHashMap<>() : null;
+    protected volatile Map<String, String>                                           requestBaggage;
     /**
      * 响应上的透传数据
      *
      * @since 5.1.2
      */
-    protected Map<String, String> responseBaggage = BAGGAGE_ENABLE ? new SafeConcurrentHashMap<>() : null;
+    protected volatile Map<String, String>                                           responseBaggage;
+    /**
+     * 各阶段耗时，第一次记录时创建
+     *
+     * @since 5.14.3
+     */
+    protected volatile PhaseTimings                                                  phaseTimings;
+
+    /**
+     * 延迟创建 {@link #map}
+     */
+    private static final AtomicReferenceFieldUpdater<RpcInvokeContext, Map>          MAP_UPDATER              = AtomicReferenceFieldUpdater
+                                                                                                                  .newUpdater(
+                                                                                                                      RpcInvokeContext.class,
+                                                                                                                      Map.class,
+                                                                                                                      "map");
+    /**
+     * 延迟创建 {@link #customHeader}
+     */
+    private static final AtomicReferenceFieldUpdater<RpcInvokeContext, Map>          CUSTOM_HEADER_UPDATER    = AtomicReferenceFieldUpdater
+                                                                                                                  .newUpdater(
+                                                                                                                      RpcInvokeContext.class,
+                                                                                                                      Map.class,
+                                                                                                                      "customHeader");
+    /**
+     * 延迟创建 {@link #requestBaggage}
+     */
+    private static final AtomicReferenceFieldUpdater<RpcInvokeContext, Map>          REQUEST_BAGGAGE_UPDATER  = AtomicReferenceFieldUpdater
+                                                                                                                  .newUpdater(
+                                                                                                                      RpcInvokeContext.class,
+                                                                                                                      Map.class,
+                                                                                                                      "requestBaggage");
+    /**
+     * 延迟创建 {@link #responseBaggage}
+     */
+    private static final AtomicReferenceFieldUpdater<RpcInvokeContext, Map>          RESPONSE_BAGGAGE_UPDATER = AtomicReferenceFieldUpdater
+                                                                                                                  .newUpdater(
+                                                                                                                      RpcInvokeContext.class,
+                                                                                                                      Map.class,
+                                                                                                                      "responseBaggage");
+    /**
+     * 延迟创建 {@link #phaseTimings}
+     */
+    private static final AtomicReferenceFieldUpdater<RpcInvokeContext, PhaseTimings> PHASE_TIMINGS_UPDATER    = AtomicReferenceFieldUpdater
+                                                                                                                  .newUpdater(
+                                                                                                                      RpcInvokeContext.class,
+                                                                                                                      PhaseTimings.class,
+                                                                                                                      "phaseTimings");
 
     /**
      * 得到上下文，没有则初始化
@@ -131,20 +183,62 @@ public class RpcInvokeContext {
         //future
         child.setFuture(parent.getFuture());
         //map
-        child.map.putAll(parent.map);
+        child.map = copyOf(parent.map);
         //customHeader
-        child.customHeader.putAll(parent.customHeader);
+        child.customHeader = copyOf(parent.customHeader);
+        //phaseTimings
+        PhaseTimings timings = parent.phaseTimings;
+        child.phaseTimings = timings == null || timings.isEmpty() ? null : timings.copy();
 
         if (BAGGAGE_ENABLE) {
             //requestBaggage
-            child.requestBaggage.putAll(parent.requestBaggage);
+            child.requestBaggage = copyOf(parent.requestBaggage);
             //responseBaggage
-            child.responseBaggage.putAll(parent.responseBaggage);
+            child.responseBaggage = copyOf(parent.responseBaggage);
         }
 
         return child;
     }
 
+    /**
+     * 复制非空的Map，空的不创建
+     */
+    private static <V> Map<String, V> copyOf(Map<String, V> src) {
+        if (src == null || src.isEmpty()) {
+            return null;
+        }
+        Map<String, V> dst = new SafeConcurrentHashMap<>();
+        dst.putAll(src);
+        return dst;
+    }
+
+    private Map<String, Object> initMap() {
+        return initMap(MAP_UPDATER);
+    }
+
+    private Map<String, String> initCustomHeader() {
+        return initMap(CUSTOM_HEADER_UPDATER);
+    }
+
+    private Map<String, String> initRequestBaggage() {
+        return initMap(REQUEST_BAGGAGE_UPDATER);
+    }
+
+    private Map<String, String> initResponseBaggage() {
+        return initMap(RESPONSE_BAGGAGE_UPDATER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Map<String, V> initMap(AtomicReferenceFieldUpdater<RpcInvokeContext, Map> updater) {
+        Map<String, V> m = updater.get(this);
+        // CAS 创建，不加锁
+        while (m == null) {
+            updater.compareAndSet(this, null, new SafeConcurrentHashMap<String, V>());
+            m = updater.get(this);
+        }
+        return m;
+    }
+
     /**
      * 查看上下文
      *
@@ -225,10 +319,61 @@ public class RpcInvokeContext {
      */
     public void put(String key, Object value) {
         if (key != null && value != null) {
-            map.put(key, value);
+            InvokePhase phase = phaseOf(key);
+            if (phase != null && value instanceof Number) {
+                recordPhase(phase, ((Number) value).longValue());
+                return;
+            }
+            initMap().put(key, value);
         }
     }
 
+    /**
+     * 内置的阶段key以"_"开头，先判断首字母避免普通key查表
+     */
+    private static InvokePhase phaseOf(String key) {
+        return key.length() > 0 && key.charAt(0) == RpcConstants.INTERNAL_KEY_PREFIX ? InvokePhase.of(key) : null;
+    }
+
+    /**
+     * 记录一个阶段的耗时或者时间戳
+     *
+     * @param phase 阶段
+     * @param value 耗时或者时间戳
+     * @since 5.14.3
+     */
+    public void recordPhase(InvokePhase phase, long value) {
+        PhaseTimings timings = phaseTimings;
+        // CAS 创建，不加锁
+        while (timings == null) {
+            PHASE_TIMINGS_UPDATER.compareAndSet(this, null, new PhaseTimings());
+            timings = phaseTimings;
+        }
+        timings.record(phase, value);
+    }
+
+    /**
+     * 读取一个阶段的耗时或者时间戳
+     *
+     * @param phase 阶段
+     * @return 记录的值，未记录返回-1
+     * @since 5.14.3
+     */
+    public long getPhase(InvokePhase phase) {
+        PhaseTimings timings = phaseTimings;
+        return timings != null && timings.isRecorded(phase) ? timings.get(phase) : -1;
+    }
+
+    /**
+     * 得到各阶段耗时记录
+     *
+     * @return 各阶段耗时记录，一个阶段都没有记录时可能为空
+     * @since 5.14.3
+     */
+    public PhaseTimings getPhaseTimings() {
+        return phaseTimings;
+    }
+
     /**
      * 获取一个调用上下文数据
      *
@@ -236,10 +381,18 @@ public class RpcInvokeContext {
      * @return 值
      */
     public Object get(String key) {
-        if (key != null) {
-            return map.get(key);
+        if (key == null) {
+            return null;
         }
-        return null;
+        InvokePhase phase = phaseOf(key);
+        if (phase != null) {
+            PhaseTimings timings = phaseTimings;
+            if (timings != null && timings.isRecorded(phase)) {
+                return timings.get(phase);
+            }
+        }
+        Map<String, Object> m = map;
+        return m == null ? null : m.get(key);
     }
 
     /**
@@ -249,10 +402,20 @@ public class RpcInvokeContext {
      * @return 删除前的值
      */
     public Object remove(String key) {
-        if (key != null) {
-            return map.remove(key);
+        if (key == null) {
+            return null;
         }
-        return null;
+        InvokePhase phase = phaseOf(key);
+        if (phase != null) {
+            PhaseTimings timings = phaseTimings;
+            if (timings != null && timings.isRecorded(phase)) {
+                long old = timings.get(phase);
+                timings.remove(phase);
+                return old;
+            }
+        }
+        Map<String, Object> m = map;
+        return m == null ? null : m.remove(key);
     }
 
     /**
@@ -263,7 +426,7 @@ public class RpcInvokeContext {
      */
     public void putRequestBaggage(String key, String value) {
         if (BAGGAGE_ENABLE && key != null && value != null) {
-            requestBaggage.put(key, value);
+            initRequestBaggage().put(key, value);
         }
     }
 
@@ -274,8 +437,9 @@ public class RpcInvokeContext {
      * @return Value
      */
     public String getRequestBaggage(String key) {
-        if (BAGGAGE_ENABLE && key != null) {
-            return requestBaggage.get(key);
+        Map<String, String> m = requestBaggage;
+        if (BAGGAGE_ENABLE && key != null && m != null) {
+            return m.get(key);
         }
         return null;
     }
@@ -287,19 +451,31 @@ public class RpcInvokeContext {
      * @return Value 删掉的值
      */
     public String removeRequestBaggage(String key) {
-        if (BAGGAGE_ENABLE && key != null) {
-            return requestBaggage.remove(key);
+        Map<String, String> m = requestBaggage;
+        if (BAGGAGE_ENABLE && key != null && m != null) {
+            return m.remove(key);
         }
         return null;
     }
 
     /**
-     * 得到全部请求透传数据
+     * 得到全部请求透传数据，没有则创建
      *
-     * @return 全部响应透传数据
+     * @return 全部请求透传数据，未开启透传功能时为空
      */
     public Map<String, String> getAllRequestBaggage() {
-        return requestBaggage;
+        return BAGGAGE_ENABLE ? initRequestBaggage() : null;
+    }
+
+    /**
+     * 是否有请求透传数据，不会创建Map
+     *
+     * @return 是否有请求透传数据
+     * @since 5.14.3
+     */
+    public boolean hasRequestBaggage() {
+        Map<String, String> m = requestBaggage;
+        return m != null && !m.isEmpty();
     }
 
     /**
@@ -309,11 +485,10 @@ public class RpcInvokeContext {
      */
     public void putAllRequestBaggage(Map<String, String> requestBaggage) {
         if (BAGGAGE_ENABLE && requestBaggage != null) {
-            putAllToBaggage(requestBaggage, this.requestBaggage);
+            putAllToBaggage(requestBaggage, initRequestBaggage());
         }
     }
 
-
     private void putAllToBaggage(Map<String, String> src, Map<String, String> dst) {
         for (Map.Entry<String, String> entry : src.entrySet()) {
             String value = entry.getValue();
@@ -332,7 +507,7 @@ public class RpcInvokeContext {
      */
     public void putResponseBaggage(String key, String value) {
         if (BAGGAGE_ENABLE && key != null && value != null) {
-            responseBaggage.put(key, value);
+            initResponseBaggage().put(key, value);
         }
     }
 
@@ -343,8 +518,9 @@ public class RpcInvokeContext {
      * @return Value
      */
     public String getResponseBaggage(String key) {
-        if (BAGGAGE_ENABLE && key != null) {
-            return responseBaggage.get(key);
+        Map<String, String> m = responseBaggage;
+        if (BAGGAGE_ENABLE && key != null && m != null) {
+            return m.get(key);
         }
         return null;
     }
@@ -356,19 +532,31 @@ public class RpcInvokeContext {
      * @return Value 删掉的值
      */
     public String removeResponseBaggage(String key) {
-        if (BAGGAGE_ENABLE && key != null) {
-            return responseBaggage.remove(key);
+        Map<String, String> m = responseBaggage;
+        if (BAGGAGE_ENABLE && key != null && m != null) {
+            return m.remove(key);
         }
         return null;
     }
 
     /**
-     * 得到全部响应透传数据
+     * 得到全部响应透传数据，没有则创建
      *
-     * @return 全部响应透传数据
+     * @return 全部响应透传数据，未开启透传功能时为空
      */
     public Map<String, String> getAllResponseBaggage() {
-        return responseBaggage;
+        return BAGGAGE_ENABLE ? initResponseBaggage() : null;
+    }
+
+    /**
+     * 是否有响应透传数据，不会创建Map
+     *
+     * @return 是否有响应透传数据
+     * @since 5.14.3
+     */
+    public boolean hasResponseBaggage() {
+        Map<String, String> m = responseBaggage;
+        return m != null && !m.isEmpty();
     }
 
     /**
@@ -378,7 +566,7 @@ public class RpcInvokeContext {
      */
     public void putAllResponseBaggage(Map<String, String> responseBaggage) {
         if (BAGGAGE_ENABLE && responseBaggage != null) {
-            putAllToBaggage(responseBaggage, this.responseBaggage);
+            putAllToBaggage(responseBaggage, initResponseBaggage());
         }
     }
 
@@ -464,9 +652,24 @@ public class RpcInvokeContext {
         return this;
     }
 
-
+    /**
+     * 得到自定义请求头，没有则创建
+     *
+     * @return 自定义请求头
+     */
     public Map<String, String> getCustomHeader() {
-        return customHeader;
+        return initCustomHeader();
+    }
+
+    /**
+     * 是否有自定义请求头，不会创建Map
+     *
+     * @return 是否有自定义请求头
+     * @since 5.14.3
+     */
+    public boolean hasCustomHeader() {
+        Map<String, String> m = customHeader;
+        return m != null && !m.isEmpty();
     }
 
     /**
@@ -479,12 +682,15 @@ public class RpcInvokeContext {
      */
     public void addCustomHeader(String key, String value) {
         if (key != null && value != null) {
-            customHeader.put(key, value);
+            initCustomHeader().put(key, value);
         }
     }
 
     public void clearCustomHeader() {
-        customHeader.clear();
+        Map<String, String> m = customHeader;
+        if (m != null && !m.isEmpty()) {
+            m.clear();
+        }
     }
 
     @Override
@@ -498,6 +704,7 @@ public class RpcInvokeContext {
         sb.append(", responseCallback=").append(responseCallback);
         sb.append(", future=").append(future);
         sb.append(", map=").append(map);
+        sb.append(", phaseTimings=").append(phaseTimings);
         sb.append(", requestBaggage=").append(requestBaggage);
         sb.append(", responseBaggage=").append(responseBaggage);
         sb.append(", customHeader=").append(customHeader);
@@ -505,5 +712,4 @@ public class RpcInvokeContext {
         return sb.toString();
     }
 
-
 }
@@ -18,6 +18,7 @@ package com.alipay.sofa.rpc.core.request;
 
 import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
+import com.alipay.sofa.rpc.message.MethodDescriptor;
 import com.alipay.sofa.rpc.transport.AbstractByteBuf;
 
 import java.lang.reflect.Method;
@@ -134,6 +135,16 @@ public class SofaRequest extends RequestBase {
      */
     private transient Method               method;
 
+    /**
+     * 方法在服务分发表中的下标（服务端使用），-1 表示未解析
+     */
+    private transient int                  methodIndex = -1;
+
+    /**
+     * 客户端代理方法的描述（客户端使用）
+     */
+    private transient MethodDescriptor     methodDescriptor;
+
     /**
      * 接口名
      */
@@ -164,6 +175,11 @@ public class SofaRequest extends RequestBase {
      */
     private transient Integer              timeout;
 
+    /**
+     * 解析请求头时已经过期，请求体未反序列化（服务端使用）
+     */
+    private transient boolean              expired;
+
     /**
      * Gets method.
      *
@@ -174,12 +190,78 @@ public class SofaRequest extends RequestBase {
     }
 
     /**
-     * Sets method.
+     * Sets method. The method index is reset, filters that switch the method must not keep the old index.
      *
      * @param method the method
      */
     public void setMethod(Method method) {
         this.method = method;
+        this.methodIndex = -1;
+    }
+
+    /**
+     * Sets method name. The method index is reset, filters that switch the method must not keep the old index.
+     *
+     * @param methodName the method name
+     */
+    @Override
+    public void setMethodName(String methodName) {
+        super.setMethodName(methodName);
+        this.methodIndex = -1;
+    }
+
+    /**
+     * Gets method index in the service dispatch table, -1 if not resolved.
+     *
+     * @return the method index
+     */
+    public int getMethodIndex() {
+        return methodIndex;
+    }
+
+    /**
+     * Sets method index in the service dispatch table.
+     *
+     * @param methodIndex the method index
+     */
+    public void setMethodIndex(int methodIndex) {
+        this.methodIndex = methodIndex;
+    }
+
+    /**
+     * Is expired when the header was decoded, if true the body is not deserialized.
+     *
+     * @return the boolean
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * Sets expired.
+     *
+     * @param expired the expired
+     */
+    public void setExpired(boolean expired) {
+        this.expired = expired;
+    }
+
+    /**
+     * Gets method descriptor, only set when the request is built by a consumer proxy.
+     *
+     * @return the method descriptor
+     */
+    public MethodDescriptor getMethodDescriptor() {
+        return methodDescriptor;
+    }
+
+    /**
+     * Sets method descriptor.
+     *
+     * @param methodDescriptor the method descriptor
+     */
+    public void setMethodDescriptor(MethodDescriptor methodDescriptor) {
+        this.methodDescriptor = methodDescriptor;
     }
 
     /**
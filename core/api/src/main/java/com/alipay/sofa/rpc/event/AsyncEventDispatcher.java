@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.event;
+
+import com.alipay.sofa.rpc.base.Destroyable;
+import com.alipay.sofa.rpc.common.SystemInfo;
+import com.alipay.sofa.rpc.common.annotation.VisibleForTesting;
+import com.alipay.sofa.rpc.common.struct.NamedThreadFactory;
+import com.alipay.sofa.rpc.context.RpcInternalContext;
+import com.alipay.sofa.rpc.context.RpcRuntimeContext;
+import com.alipay.sofa.rpc.log.Logger;
+import com.alipay.sofa.rpc.log.LoggerFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步订阅者的事件派发器：有新事件写入时向一个小线程池提交该缓冲区的派发任务，
+ * 每个环形缓冲区同一时刻最多只有一个派发任务，每次批量处理后让出线程，还有事件时重新提交。
+ * 每个异步订阅者有自己的缓冲区，慢的订阅者不会拖住同一事件的其它订阅者。
+ * <p>
+ * 订阅者在发送事件时确定，随事件一起写入环形缓冲区。线程池在 {@link RpcRuntimeContext#destroy()} 时关闭，
+ * 之后再有事件时重新创建。
+ *
+ * @since 5.14.3
+ */
+final class AsyncEventDispatcher implements EventRingBuffer.EventHandler {
+
+    private static final Logger         LOGGER = LoggerFactory.getLogger(AsyncEventDispatcher.class);
+
+    private final int                   batchSize;
+
+    private final int                   threads;
+
+    /**
+     * 派发线程池，第一次派发时创建
+     */
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * 是否已经注册关闭钩子
+     */
+    private boolean                     hookRegistered;
+
+    AsyncEventDispatcher(int batchSize) {
+        // 至少两个线程，一个订阅者卡住时其它订阅者仍能派发
+        this(batchSize, Math.max(2, Math.min(4, SystemInfo.getCpuCores())));
+    }
+
+    AsyncEventDispatcher(int batchSize, int threads) {
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * 有新事件写入，该缓冲区没有在派发时提交一个派发任务
+     *
+     * @param ringBuffer 环形缓冲区
+     */
+    void signal(EventRingBuffer ringBuffer) {
+        if (ringBuffer.tryAcquire()) {
+            schedule(ringBuffer);
+        }
+    }
+
+    private void schedule(final EventRingBuffer ringBuffer) {
+        try {
+            getExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    drain(ringBuffer);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 正在关闭，事件留在缓冲区中，下次写入时再派发
+            ringBuffer.release();
+        }
+    }
+
+    private void drain(EventRingBuffer ringBuffer) {
+        try {
+            ringBuffer.drain(this, batchSize);
+        } finally {
+            ringBuffer.release();
+        }
+        // 释放后再检查一次，避免和写入线程同时错过
+        if (!ringBuffer.isEmpty() && ringBuffer.tryAcquire()) {
+            schedule(ringBuffer);
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor pool = executor;
+        if (pool != null) {
+            return pool;
+        }
+        boolean registerHook = false;
+        synchronized (this) {
+            if (executor == null) {
+                pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("RPC-EVENT", true));
+                pool.allowCoreThreadTimeOut(true);
+                executor = pool;
+                registerHook = !hookRegistered;
+                hookRegistered = true;
+            }
+            pool = executor;
+        }
+        if (registerHook) {
+            RpcRuntimeContext.registryDestroyHook(new Destroyable.DestroyHook() {
+                @Override
+                public void preDestroy() {
+                }
+
+                @Override
+                public void postDestroy() {
+                    shutdown();
+                }
+            });
+        }
+        return pool;
+    }
+
+    /**
+     * 关闭派发线程池，已经提交的派发任务会执行完
+     */
+    @VisibleForTesting
+    synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    @VisibleForTesting
+    ThreadPoolExecutor peekExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void handle(Event event, RpcInternalContext context, Subscriber[] subscribers) {
+        try {
+            RpcInternalContext.setContext(context);
+            for (Subscriber subscriber : subscribers) {
+                EventBus.handleEvent(subscriber, event);
+            }
+        } catch (Throwable e) {
+            LOGGER.warn("Dispatch " + event.getClass() + " error", e);
+        } finally {
+            RpcInternalContext.removeContext();
+        }
+    }
+}
@@ -17,8 +17,8 @@
 package com.alipay.sofa.rpc.event;
 
 import com.alipay.sofa.rpc.client.ProviderInfo;
-import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.context.RpcRuntimeContext;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
@@ -44,7 +44,7 @@ public class ClientSyncReceiveEvent implements Event {
         this.response = response;
         this.throwable = throwable;
         // C2:The time when the client receives the request.
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CLIENT_RECEIVE_TIME_MICRO, RpcRuntimeContext.now());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.CLIENT_RECEIVE_TIME_MICRO, RpcRuntimeContext.now());
     }
 
     public ConsumerConfig getConsumerConfig() {
@@ -18,17 +18,16 @@ package com.alipay.sofa.rpc.event;
 
 import com.alipay.sofa.rpc.common.RpcConfigs;
 import com.alipay.sofa.rpc.common.RpcOptions;
-import com.alipay.sofa.rpc.common.utils.CommonUtils;
-import com.alipay.sofa.rpc.context.AsyncRuntime;
+import com.alipay.sofa.rpc.common.annotation.VisibleForTesting;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Simply event bus for internal event transport.
@@ -61,14 +60,25 @@ public class EventBus {
      * @return 是否开启事件总线功能
      */
     public static boolean isEnable(Class<? extends Event> eventClass) {
-        return EVENT_BUS_ENABLE && CommonUtils.isNotEmpty(SUBSCRIBER_MAP.get(eventClass));
+        return EVENT_BUS_ENABLE && SUBSCRIBER_MAP.containsKey(eventClass);
     }
 
     /**
-     * 某中事件的订阅者
+     * 某中事件的订阅者，注册时整体替换，没有订阅者的事件类型不在其中
      */
+    private final static ConcurrentMap<Class<? extends Event>, Subscribers> SUBSCRIBER_MAP         = new ConcurrentHashMap<Class<? extends Event>, Subscribers>();
 
-    private final static ConcurrentMap<Class<? extends Event>, CopyOnWriteArraySet<Subscriber>> SUBSCRIBER_MAP = new ConcurrentHashMap<Class<? extends Event>, CopyOnWriteArraySet<Subscriber>>();
+    /**
+     * 缓冲区满时打印告警的最小间隔（毫秒），期间只计数
+     */
+    private static final long                                               OVERFLOW_WARN_INTERVAL = 60000L;
+
+    /**
+     * 异步订阅者的派发器
+     */
+    private final static AsyncEventDispatcher                               DISPATCHER             = new AsyncEventDispatcher(
+                                                                                                       RpcConfigs
+                                                                                                           .getIntValue(RpcOptions.EVENT_BUS_BATCH_SIZE));
 
     /**
      * 注册一个订阅者
@@ -77,15 +87,14 @@ public class EventBus {
      * @param subscriber 订阅者
      */
     public static void register(Class<? extends Event> eventClass, Subscriber subscriber) {
-        CopyOnWriteArraySet<Subscriber> set = SUBSCRIBER_MAP.get(eventClass);
-        if (set == null) {
-            set = new CopyOnWriteArraySet<Subscriber>();
-            CopyOnWriteArraySet<Subscriber> old = SUBSCRIBER_MAP.putIfAbsent(eventClass, set);
-            if (old != null) {
-                set = old;
+        synchronized (SUBSCRIBER_MAP) {
+            Subscribers old = SUBSCRIBER_MAP.get(eventClass);
+            List<Subscriber> list = old == null ? new ArrayList<Subscriber>() : old.toList();
+            if (!list.contains(subscriber)) {
+                list.add(subscriber);
             }
+            SUBSCRIBER_MAP.put(eventClass, new Subscribers(eventClass, list, old));
         }
-        set.add(subscriber);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Register subscriber: {} of event: {}.", subscriber, eventClass);
         }
@@ -98,17 +107,27 @@ public class EventBus {
      * @param subscriber 订阅者
      */
     public static void unRegister(Class<? extends Event> eventClass, Subscriber subscriber) {
-        CopyOnWriteArraySet<Subscriber> set = SUBSCRIBER_MAP.get(eventClass);
-        if (set != null) {
-            set.remove(subscriber);
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("UnRegister subscriber: {} of event: {}.", subscriber, eventClass);
+        synchronized (SUBSCRIBER_MAP) {
+            Subscribers old = SUBSCRIBER_MAP.get(eventClass);
+            if (old == null) {
+                return;
             }
+            List<Subscriber> list = old.toList();
+            list.remove(subscriber);
+            if (list.isEmpty()) {
+                SUBSCRIBER_MAP.remove(eventClass);
+            } else {
+                SUBSCRIBER_MAP.put(eventClass, new Subscribers(eventClass, list, old));
+            }
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("UnRegister subscriber: {} of event: {}.", subscriber, eventClass);
         }
     }
 
     /**
-     * 给事件总线中丢一个事件
+     * 给事件总线中丢一个事件。同步订阅者在当前线程处理；每个异步订阅者有自己的环形缓冲区，事件写入后由派发线程处理，
+     * 订阅者之间互不阻塞，同一个订阅者按发送顺序处理。缓冲区满时丢弃并计数，见 {@link #getOverflowCount(Class)}
      *
      * @param event 事件
      */
@@ -116,39 +135,56 @@ public class EventBus {
         if (!isEnable()) {
             return;
         }
-        CopyOnWriteArraySet<Subscriber> subscribers = SUBSCRIBER_MAP.get(event.getClass());
-        if (CommonUtils.isNotEmpty(subscribers)) {
-            for (final Subscriber subscriber : subscribers) {
-                if (subscriber.isSync()) {
-                    handleEvent(subscriber, event);
-                } else { // 异步
-                    final RpcInternalContext context = RpcInternalContext.peekContext();
-                    final ThreadPoolExecutor asyncThreadPool = AsyncRuntime.getAsyncThreadPool();
-                    try {
-                        asyncThreadPool.execute(
-                            new Runnable() {
-                                @Override
-                                public void run() {
-                                    try {
-                                        RpcInternalContext.setContext(context);
-                                        handleEvent(subscriber, event);
-                                    } finally {
-                                        RpcInternalContext.removeContext();
-                                    }
-                                }
-                            });
-                    } catch (RejectedExecutionException e) {
-                        LOGGER
-                            .warn("This queue is full when post event to async execute, queue size is " +
-                                asyncThreadPool.getQueue().size() +
-                                ", please optimize this async thread pool of eventbus.");
-                    }
+        Subscribers subscribers = SUBSCRIBER_MAP.get(event.getClass());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers.syncSubscribers) {
+            handleEvent(subscriber, event);
+        }
+        EventRingBuffer[] ringBuffers = subscribers.ringBuffers;
+        if (ringBuffers.length > 0) {
+            RpcInternalContext context = RpcInternalContext.peekContext();
+            for (int i = 0; i < ringBuffers.length; i++) {
+                EventRingBuffer ringBuffer = ringBuffers[i];
+                if (ringBuffer.offer(event, context, subscribers.asyncTargets[i])) {
+                    DISPATCHER.signal(ringBuffer);
+                } else if (LOGGER.isWarnEnabled()
+                    && ringBuffer.tryWarn(System.currentTimeMillis(), OVERFLOW_WARN_INTERVAL)) {
+                    // 按间隔打印，期间只计数
+                    LOGGER.warn("The ring buffer of " + event.getClass() + " for " + subscribers.asyncSubscribers[i]
+                        + " is full, size is " + ringBuffer.capacity() + ", " + ringBuffer.getOverflowCount()
+                        + " events have been dropped, please optimize the async subscribers of eventbus.");
                 }
             }
         }
     }
 
-    private static void handleEvent(final Subscriber subscriber, final Event event) {
+    /**
+     * 某种事件因为异步缓冲区满而丢弃的数量，当前各异步订阅者之和
+     *
+     * @param eventClass 事件类型
+     * @return 丢弃的数量
+     * @since 5.14.3
+     */
+    public static long getOverflowCount(Class<? extends Event> eventClass) {
+        Subscribers subscribers = SUBSCRIBER_MAP.get(eventClass);
+        if (subscribers == null) {
+            return 0;
+        }
+        long count = 0;
+        for (EventRingBuffer ringBuffer : subscribers.ringBuffers) {
+            count += ringBuffer.getOverflowCount();
+        }
+        return count;
+    }
+
+    @VisibleForTesting
+    static AsyncEventDispatcher getDispatcher() {
+        return DISPATCHER;
+    }
+
+    static void handleEvent(final Subscriber subscriber, final Event event) {
         try {
             subscriber.onEvent(event);
         } catch (Throwable e) {
@@ -157,4 +193,61 @@ public class EventBus {
             }
         }
     }
+
+    /**
+     * 某种事件的订阅者，按同步和异步分开，注册时构建，不可变
+     */
+    private static final class Subscribers {
+
+        private final Subscriber[]      syncSubscribers;
+
+        private final Subscriber[]      asyncSubscribers;
+
+        /**
+         * 和 asyncSubscribers 一一对应的环形缓冲区，订阅者不变时沿用之前的缓冲区
+         */
+        private final EventRingBuffer[] ringBuffers;
+
+        /**
+         * 和 asyncSubscribers 一一对应，随事件写入缓冲区，发送时不用创建数组
+         */
+        private final Subscriber[][]    asyncTargets;
+
+        private Subscribers(Class<? extends Event> eventClass, List<Subscriber> subscribers, Subscribers old) {
+            List<Subscriber> sync = new ArrayList<Subscriber>();
+            List<Subscriber> async = new ArrayList<Subscriber>();
+            for (Subscriber subscriber : subscribers) {
+                (subscriber.isSync() ? sync : async).add(subscriber);
+            }
+            this.syncSubscribers = sync.toArray(new Subscriber[0]);
+            this.asyncSubscribers = async.toArray(new Subscriber[0]);
+            this.ringBuffers = new EventRingBuffer[asyncSubscribers.length];
+            this.asyncTargets = new Subscriber[asyncSubscribers.length][];
+            for (int i = 0; i < asyncSubscribers.length; i++) {
+                EventRingBuffer ringBuffer = old == null ? null : old.ringBufferOf(asyncSubscribers[i]);
+                if (ringBuffer == null) {
+                    ringBuffer = new EventRingBuffer(eventClass,
+                        RpcConfigs.getIntValue(RpcOptions.EVENT_BUS_RING_BUFFER_SIZE));
+                }
+                ringBuffers[i] = ringBuffer;
+                asyncTargets[i] = new Subscriber[] { asyncSubscribers[i] };
+            }
+        }
+
+        private EventRingBuffer ringBufferOf(Subscriber subscriber) {
+            for (int i = 0; i < asyncSubscribers.length; i++) {
+                if (asyncSubscribers[i] == subscriber) {
+                    return ringBuffers[i];
+                }
+            }
+            return null;
+        }
+
+        private List<Subscriber> toList() {
+            List<Subscriber> list = new ArrayList<Subscriber>(syncSubscribers.length + asyncSubscribers.length);
+            Collections.addAll(list, syncSubscribers);
+            Collections.addAll(list, asyncSubscribers);
+            return list;
+        }
+    }
 }
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.event;
+
+import com.alipay.sofa.rpc.context.RpcInternalContext;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 某个异步订阅者的某种事件的环形缓冲区，多个发送线程写入，同一时刻只有一个派发任务读取（见 {@link #tryAcquire()}）。
+ * <p>
+ * 槽位全部预先分配，写入时只做一次 CAS 占位；写满后直接丢弃并计数，不阻塞发送线程。
+ * 事件和发送时的异步订阅者一起写入，之后注册或反注册的订阅者不影响已经发送的事件。
+ *
+ * @since 5.14.3
+ */
+final class EventRingBuffer {
+
+    /**
+     * 事件类型
+     */
+    private final Class<? extends Event> eventClass;
+
+    private final Slot[]                 slots;
+
+    private final int                    mask;
+
+    /**
+     * 下一个写入位置
+     */
+    private final AtomicLong             tail     = new AtomicLong();
+
+    /**
+     * 下一个读取位置，只有持有派发权的任务读写
+     */
+    private long                         head;
+
+    /**
+     * 是否已经有派发任务
+     */
+    private final AtomicBoolean          draining = new AtomicBoolean();
+
+    /**
+     * 缓冲区满丢弃的事件数
+     */
+    private final LongAdder              overflow = new LongAdder();
+
+    /**
+     * 上次打印溢出告警的时间
+     */
+    private final AtomicLong             lastWarn = new AtomicLong();
+
+    EventRingBuffer(Class<? extends Event> eventClass, int size) {
+        int capacity = 2;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        this.eventClass = eventClass;
+        this.mask = capacity - 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i);
+        }
+    }
+
+    /**
+     * 写入一个事件
+     *
+     * @param event       事件
+     * @param context     发送线程的上下文
+     * @param subscribers 发送时的异步订阅者
+     * @return 是否写入成功，缓冲区满时返回false
+     */
+    boolean offer(Event event, RpcInternalContext context, Subscriber[] subscribers) {
+        Slot slot;
+        long pos;
+        for (;;) {
+            pos = tail.get();
+            slot = slots[(int) pos & mask];
+            long diff = slot.sequence - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                overflow.increment();
+                return false;
+            }
+        }
+        slot.event = event;
+        slot.context = context;
+        slot.subscribers = subscribers;
+        slot.sequence = pos + 1;
+        return true;
+    }
+
+    /**
+     * 获取派发权，成功后由调用方派发并在结束后 {@link #release()}
+     *
+     * @return 是否获取成功，已经有派发任务时返回false
+     */
+    boolean tryAcquire() {
+        return !draining.get() && draining.compareAndSet(false, true);
+    }
+
+    /**
+     * 释放派发权
+     */
+    void release() {
+        draining.set(false);
+    }
+
+    /**
+     * 批量取出事件，只能由持有派发权的任务调用
+     *
+     * @param handler  处理器
+     * @param maxBatch 最多取出的数量
+     * @return 取出的数量
+     */
+    int drain(EventHandler handler, int maxBatch) {
+        int count = 0;
+        while (count < maxBatch) {
+            Slot slot = slots[(int) head & mask];
+            if (slot.sequence != head + 1) {
+                break;
+            }
+            Event event = slot.event;
+            RpcInternalContext context = slot.context;
+            Subscriber[] subscribers = slot.subscribers;
+            slot.event = null;
+            slot.context = null;
+            slot.subscribers = null;
+            slot.sequence = head + slots.length;
+            head++;
+            count++;
+            handler.handle(event, context, subscribers);
+        }
+        return count;
+    }
+
+    /**
+     * 是否有待派发的事件
+     *
+     * @return 是否有待派发的事件
+     */
+    boolean isEmpty() {
+        return slots[(int) head & mask].sequence != head + 1;
+    }
+
+    Class<? extends Event> getEventClass() {
+        return eventClass;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    long getOverflowCount() {
+        return overflow.sum();
+    }
+
+    /**
+     * 溢出时是否打印告警，每个间隔内只有一个线程返回true
+     *
+     * @param now      当前时间（毫秒）
+     * @param interval 告警间隔（毫秒）
+     * @return 是否打印
+     */
+    boolean tryWarn(long now, long interval) {
+        long last = lastWarn.get();
+        return now - last >= interval && lastWarn.compareAndSet(last, now);
+    }
+
+    /**
+     * 事件处理器
+     */
+    interface EventHandler {
+
+        /**
+         * 处理一个事件
+         *
+         * @param event       事件
+         * @param context     发送线程的上下文
+         * @param subscribers 发送时的异步订阅者
+         */
+        void handle(Event event, RpcInternalContext context, Subscriber[] subscribers);
+    }
+
+    /**
+     * 预先分配的槽位，sequence 等于写入位置时可写，等于写入位置+1时可读
+     */
+    private static final class Slot {
+
+        private volatile long      sequence;
+
+        private Event              event;
+
+        private RpcInternalContext context;
+
+        private Subscriber[]       subscribers;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
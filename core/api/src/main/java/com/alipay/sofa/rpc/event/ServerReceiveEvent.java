@@ -16,7 +16,7 @@
  */
 package com.alipay.sofa.rpc.event;
 
-import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.context.RpcRuntimeContext;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
@@ -32,7 +32,7 @@ public class ServerReceiveEvent implements Event {
     public ServerReceiveEvent(SofaRequest request) {
         this.request = request;
         // S1:The time when the server receives the first packet, in microseconds
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_SERVER_RECEIVE_TIME_MICRO, RpcRuntimeContext.now());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.SERVER_RECEIVE_TIME_MICRO, RpcRuntimeContext.now());
     }
 
     public SofaRequest getRequest() {
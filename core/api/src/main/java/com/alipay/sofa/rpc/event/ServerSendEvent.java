@@ -16,7 +16,7 @@
  */
 package com.alipay.sofa.rpc.event;
 
-import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.context.RpcRuntimeContext;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
@@ -37,7 +37,7 @@ public class ServerSendEvent implements Event {
         this.response = response;
         this.throwable = throwable;
         // S2:Record server processing completion time
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_SERVER_SEND_TIME_MICRO, RpcRuntimeContext.now());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.SERVER_SEND_TIME_MICRO, RpcRuntimeContext.now());
     }
 
     public SofaRequest getRequest() {
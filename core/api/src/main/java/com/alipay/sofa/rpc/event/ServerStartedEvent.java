@@ -17,6 +17,7 @@
 package com.alipay.sofa.rpc.event;
 
 import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
 
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -30,9 +31,25 @@ public class ServerStartedEvent implements Event {
 
     private final ThreadPoolExecutor threadPoolExecutor;
 
+    private final ConcurrencyLimiter concurrencyLimiter;
+
     public ServerStartedEvent(ServerConfig serverConfig, ThreadPoolExecutor threadPoolExecutor) {
+        this(serverConfig, threadPoolExecutor, null);
+    }
+
+    /**
+     * Construct
+     *
+     * @param serverConfig       服务端配置
+     * @param threadPoolExecutor 业务线程池
+     * @param concurrencyLimiter 并发限制，未开启时为null
+     * @since 5.14.3
+     */
+    public ServerStartedEvent(ServerConfig serverConfig, ThreadPoolExecutor threadPoolExecutor,
+                              ConcurrencyLimiter concurrencyLimiter) {
         this.serverConfig = serverConfig;
         this.threadPoolExecutor = threadPoolExecutor;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     public ServerConfig getServerConfig() {
@@ -42,4 +59,14 @@ public class ServerStartedEvent implements Event {
     public ThreadPoolExecutor getThreadPoolExecutor() {
         return threadPoolExecutor;
     }
+
+    /**
+     * 服务端的并发限制
+     *
+     * @return 并发限制，未开启时为null
+     * @since 5.14.3
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
 }
\ No newline at end of file
@@ -19,8 +19,8 @@ package com.alipay.sofa.rpc.filter;
 import com.alipay.sofa.rpc.bootstrap.ConsumerBootstrap;
 import com.alipay.sofa.rpc.client.ProviderInfo;
 import com.alipay.sofa.rpc.client.ProviderInfoAttrs;
-import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
@@ -51,7 +51,7 @@ public class ConsumerInvoker extends FilterInvoker {
 
     @Override
     public SofaResponse invoke(SofaRequest sofaRequest) throws SofaRpcException {
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CONSUMER_INVOKE_START_TIME_NANO, System.nanoTime());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.CONSUMER_INVOKE_START_TIME_NANO, System.nanoTime());
         // 设置下服务器应用
         ProviderInfo providerInfo = RpcInternalContext.getContext().getProviderInfo();
         String appName = providerInfo.getStaticAttr(ProviderInfoAttrs.ATTR_APP_NAME);
@@ -61,7 +61,7 @@ public class ConsumerInvoker extends FilterInvoker {
 
         // 目前只是通过client发送给服务端
         SofaResponse sofaResponse = consumerBootstrap.getCluster().sendMsg(providerInfo, sofaRequest);
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CONSUMER_INVOKE_END_TIME_NANO, System.nanoTime());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.CONSUMER_INVOKE_END_TIME_NANO, System.nanoTime());
         return sofaResponse;
     }
 
@@ -40,6 +40,30 @@ public abstract class Filter {
         return true;
     }
 
+    /**
+     * Is this filter method agnostic. A method agnostic filter is only checked once per interface by
+     * {@link #needToLoad(FilterInvoker)}; otherwise {@link #needToLoad(FilterInvoker, String)} is also checked once
+     * per method when the chain of that method is compiled, and the filter is skipped on the methods it does not need.
+     *
+     * @return is method agnostic
+     * @since 5.14.3
+     */
+    public boolean isMethodAgnostic() {
+        return true;
+    }
+
+    /**
+     * Is this filter need load on the method, only called when {@link #isMethodAgnostic()} returns false.
+     *
+     * @param invoker    Filter invoker contains ProviderConfig or ConsumerConfig.
+     * @param methodName Method name
+     * @return is need load
+     * @since 5.14.3
+     */
+    public boolean needToLoad(FilterInvoker invoker, String methodName) {
+        return true;
+    }
+
     /**
      * Do filtering
      * <p>
@@ -36,16 +36,21 @@ import com.alipay.sofa.rpc.log.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Chain of filter.
+ * <p>
+ * 构造时按接口判断一次 {@link Filter#needToLoad(FilterInvoker)}。如果有过滤器不是与方法无关的（{@link
+ * Filter#isMethodAgnostic()}），第一次调用某个方法时再按方法编译一条调用链并缓存，不需要的过滤器直接跳过，调用时不再判断。
  *
  * @author <a href=mailto:zhanggeng.zg@antfin.com>GengZhang</a>
  */
@@ -103,12 +108,27 @@ public class FilterChain implements Invoker {
     /**
      * 调用链
      */
-    private FilterInvoker invokerChain;
+    private FilterInvoker                            invokerChain;
 
     /**
      * 过滤器列表，从底至上排序
      */
-    private List<Filter>  loadedFilters;
+    private Filter[]                                 loadedFilters = new Filter[0];
+
+    /**
+     * 最终过滤器，按方法编译调用链时使用
+     */
+    private final FilterInvoker                      lastInvoker;
+
+    /**
+     * 接口配置
+     */
+    private final AbstractInterfaceConfig            config;
+
+    /**
+     * 按方法编译的调用链，只有存在与方法相关的过滤器时才不为空
+     */
+    private final ConcurrentMap<String, MethodChain> methodChains;
 
     /**
      * 构造执行链
@@ -118,18 +138,22 @@ public class FilterChain implements Invoker {
      * @param config      接口配置
      */
     protected FilterChain(List<Filter> filters, FilterInvoker lastInvoker, AbstractInterfaceConfig config) {
+        this.lastInvoker = lastInvoker;
+        this.config = config;
         // 调用过程外面包装多层自定义filter
         // 前面的过滤器在最外层
         invokerChain = lastInvoker;
+        boolean methodAware = false;
         if (CommonUtils.isNotEmpty(filters)) {
-            loadedFilters = new LinkedList<Filter>();
+            List<Filter> loaded = new ArrayList<Filter>(filters.size());
             for (int i = filters.size() - 1; i >= 0; i--) {
                 try {
                     Filter filter = filters.get(i);
                     if (filter.needToLoad(invokerChain)) {
                         invokerChain = new FilterInvoker(filter, invokerChain, config);
                         // cache this for filter when async respond
-                        loadedFilters.add(filter);
+                        loaded.add(filter);
+                        methodAware |= !filter.isMethodAgnostic();
                     }
                 } catch (SofaRpcRuntimeException e) {
                     LOGGER.error(LogCodes.getLog(LogCodes.ERROR_FILTER_CONSTRUCT), e);
@@ -139,7 +163,69 @@ public class FilterChain implements Invoker {
                     throw new SofaRpcRuntimeException(LogCodes.getLog(LogCodes.ERROR_FILTER_CONSTRUCT), e);
                 }
             }
+            loadedFilters = loaded.toArray(new Filter[0]);
+        }
+        methodChains = methodAware ? new ConcurrentHashMap<String, MethodChain>() : null;
+    }
+
+    /**
+     * 按方法编译的调用链
+     */
+    private static final class MethodChain {
+
+        /**
+         * 调用链
+         */
+        private final FilterInvoker invoker;
+
+        /**
+         * 过滤器列表，从底至上排序
+         */
+        private final Filter[]      filters;
+
+        private MethodChain(FilterInvoker invoker, Filter[] filters) {
+            this.invoker = invoker;
+            this.filters = filters;
+        }
+    }
+
+    /**
+     * 得到方法的调用链，第一次调用时编译
+     *
+     * @param methodName 方法名
+     * @return 方法的调用链
+     */
+    private MethodChain getMethodChain(String methodName) {
+        MethodChain chain = methodChains.get(methodName);
+        if (chain == null) {
+            chain = compileMethodChain(methodName);
+            MethodChain old = methodChains.putIfAbsent(methodName, chain);
+            if (old != null) {
+                chain = old;
+            }
+        }
+        return chain;
+    }
+
+    private MethodChain compileMethodChain(String methodName) {
+        FilterInvoker invoker = lastInvoker;
+        List<Filter> filters = new ArrayList<Filter>(loadedFilters.length);
+        // loadedFilters 从底至上排序，和构造时的顺序一致
+        for (Filter filter : loadedFilters) {
+            try {
+                if (filter.isMethodAgnostic() || filter.needToLoad(invoker, methodName)) {
+                    invoker = new FilterInvoker(filter, invoker, config);
+                    filters.add(filter);
+                }
+            } catch (SofaRpcRuntimeException e) {
+                LOGGER.error(LogCodes.getLog(LogCodes.ERROR_FILTER_CONSTRUCT), e);
+                throw e;
+            } catch (Exception e) {
+                LOGGER.error(LogCodes.getLog(LogCodes.ERROR_FILTER_CONSTRUCT), e);
+                throw new SofaRpcRuntimeException(LogCodes.getLog(LogCodes.ERROR_FILTER_CONSTRUCT), e);
+            }
         }
+        return new MethodChain(invoker, filters.toArray(new Filter[0]));
     }
 
     /**
@@ -185,7 +271,7 @@ public class FilterChain implements Invoker {
          */
         // 用户通过自己new实例的方式注入的filter，优先级高
         List<Filter> customFilters = config.getFilterRef() == null ?
-            new ArrayList<Filter>() : new CopyOnWriteArrayList<Filter>(config.getFilterRef());
+            new ArrayList<Filter>() : new ArrayList<Filter>(config.getFilterRef());
         // 先解析是否有特殊处理
         HashSet<String> excludes = parseExcludeFilter(customFilters);
 
@@ -206,9 +292,11 @@ public class FilterChain implements Invoker {
         }
         // 解析自动加载的过滤器
         if (!excludes.contains(StringUtils.ALL) && !excludes.contains(StringUtils.DEFAULT)) { // 配了-*和-default表示不加载内置
-            for (Map.Entry<String, ExtensionClass<Filter>> entry : autoActiveFilters.entrySet()) {
-                if (!excludes.contains(entry.getKey())) {
-                    extensionFilters.add(entry.getValue());
+            synchronized (autoActiveFilters) {
+                for (Map.Entry<String, ExtensionClass<Filter>> entry : autoActiveFilters.entrySet()) {
+                    if (!excludes.contains(entry.getKey())) {
+                        extensionFilters.add(entry.getValue());
+                    }
                 }
             }
         }
@@ -234,7 +322,8 @@ public class FilterChain implements Invoker {
     private static HashSet<String> parseExcludeFilter(List<Filter> customFilters) {
         HashSet<String> excludeKeys = new HashSet<String>();
         if (CommonUtils.isNotEmpty(customFilters)) {
-            for (Filter filter : customFilters) {
+            for (Iterator<Filter> iterator = customFilters.iterator(); iterator.hasNext();) {
+                Filter filter = iterator.next();
                 if (filter instanceof ExcludeFilter) {
                     // 存在需要排除的过滤器
                     ExcludeFilter excludeFilter = (ExcludeFilter) filter;
@@ -247,7 +336,7 @@ public class FilterChain implements Invoker {
                             excludeKeys.add(excludeFilterName);
                         }
                     }
-                    customFilters.remove(filter);
+                    iterator.remove();
                 }
             }
         }
@@ -266,7 +355,11 @@ public class FilterChain implements Invoker {
 
     @Override
     public SofaResponse invoke(SofaRequest sofaRequest) throws SofaRpcException {
-        return invokerChain.invoke(sofaRequest);
+        String methodName;
+        if (methodChains == null || (methodName = sofaRequest.getMethodName()) == null) {
+            return invokerChain.invoke(sofaRequest);
+        }
+        return getMethodChain(methodName).invoker.invoke(sofaRequest);
     }
 
     /**
@@ -280,8 +373,13 @@ public class FilterChain implements Invoker {
      */
     public void onAsyncResponse(ConsumerConfig config, SofaRequest request, SofaResponse response, Throwable throwable)
         throws SofaRpcException {
+        Filter[] filters = loadedFilters;
+        String methodName;
+        if (methodChains != null && (methodName = request.getMethodName()) != null) {
+            filters = getMethodChain(methodName).filters;
+        }
         try {
-            for (Filter loadedFilter : loadedFilters) {
+            for (Filter loadedFilter : filters) {
                 loadedFilter.onAsyncResponse(config, request, response, throwable);
             }
         } catch (SofaRpcException e) {
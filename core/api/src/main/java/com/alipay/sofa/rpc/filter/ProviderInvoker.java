@@ -17,9 +17,12 @@
 package com.alipay.sofa.rpc.filter;
 
 import com.alipay.sofa.rpc.common.RemotingConstants;
+import com.alipay.sofa.rpc.common.RpcConfigs;
 import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.RpcOptions;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
 import com.alipay.sofa.rpc.config.ProviderConfig;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.context.RpcRuntimeContext;
@@ -27,16 +30,21 @@ import com.alipay.sofa.rpc.core.exception.RpcErrorType;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
+import com.alipay.sofa.rpc.ext.ExtensionClass;
+import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
+import com.alipay.sofa.rpc.invoke.DispatchArgumentException;
+import com.alipay.sofa.rpc.invoke.ServiceDispatcher;
+import com.alipay.sofa.rpc.invoke.ServiceDispatcherFactory;
+import com.alipay.sofa.rpc.invoke.ServiceMethodTable;
 import com.alipay.sofa.rpc.log.LogCodes;
 import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
+import com.alipay.sofa.rpc.server.RequestExpiry;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
-import static com.alipay.sofa.rpc.common.RpcOptions.CONFIG_KEY_DEADLINE_ENABLE;
-
 /**
  * 服务端调用业务实现类
  *
@@ -55,6 +63,16 @@ public class ProviderInvoker<T> extends FilterInvoker {
      */
     private final ProviderConfig<T> providerConfig;
 
+    /**
+     * 生成的方法分发器，为null时使用反射调用
+     */
+    private ServiceDispatcher       dispatcher;
+
+    /**
+     * 方法分发表，编号即分发器的方法下标
+     */
+    private ServiceMethodTable      methodTable;
+
     private static Field            causeField;
 
     static {
@@ -75,6 +93,59 @@ public class ProviderInvoker<T> extends FilterInvoker {
     public ProviderInvoker(ProviderConfig<T> providerConfig) {
         super(providerConfig);
         this.providerConfig = providerConfig;
+        initDispatcher();
+    }
+
+    /**
+     * 发布时按接口生成一次方法分发表和分发器，分发器生成失败时退回反射调用
+     */
+    private void initDispatcher() {
+        if (StringUtils.isBlank(providerConfig.getInterfaceId())) {
+            return;
+        }
+        Class<?> proxyClass;
+        try {
+            proxyClass = providerConfig.getProxyClass();
+            this.methodTable = ServiceMethodTable.of(proxyClass);
+        } catch (Throwable e) {
+            LOGGER.warnWithApp(providerConfig.getAppName(), "Failed to build method table of "
+                + providerConfig.getInterfaceId(), e);
+            return;
+        }
+        String alias = RpcConfigs.getOrDefaultValue(RpcOptions.PROVIDER_INVOKE_DISPATCHER, null);
+        if (StringUtils.isBlank(alias)) {
+            return;
+        }
+        ExtensionClass<ServiceDispatcherFactory> ext = ExtensionLoaderFactory
+            .getExtensionLoader(ServiceDispatcherFactory.class).getExtensionClass(alias);
+        if (ext == null) {
+            return;
+        }
+        try {
+            this.dispatcher = ext.getExtInstance().create(proxyClass, methodTable.getMethods());
+        } catch (Throwable e) {
+            LOGGER.warnWithApp(providerConfig.getAppName(), "Failed to create " + alias + " dispatcher of "
+                + providerConfig.getInterfaceId() + ", fall back to reflection", e);
+        }
+    }
+
+    /**
+     * 服务的方法分发表，服务端按方法名和参数签名查找方法时使用
+     *
+     * @return 方法分发表，接口类加载失败时为null
+     */
+    public ServiceMethodTable getMethodTable() {
+        return methodTable;
+    }
+
+    /**
+     * 查询方法在分发表中的编号，服务端解码出方法后调用一次，结果设置到 {@link SofaRequest#setMethodIndex(int)}
+     *
+     * @param method 接口方法
+     * @return 编号，方法不在接口中时返回-1
+     */
+    public int getMethodIndex(Method method) {
+        return methodTable == null ? -1 : methodTable.slotOf(method);
     }
 
     @Override
@@ -96,14 +167,16 @@ public class ProviderInvoker<T> extends FilterInvoker {
         SofaResponse sofaResponse = new SofaResponse();
         long startTime = RpcRuntimeContext.now();
         long bizStartTime = System.nanoTime();
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_PROVIDER_INVOKE_START_TIME_NANO, System.nanoTime());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.PROVIDER_INVOKE_START_TIME_NANO, System.nanoTime());
 
         // 在服务端配置中，检查是否启用deadline功能（默认启用，只有明确设置为"false"时才禁用）
-        String deadlineEnabled = providerConfig.getParameter(CONFIG_KEY_DEADLINE_ENABLE);
+        boolean deadlineEnabled = RequestExpiry.isDeadlineEnabled(providerConfig);
         try {
             // 获取deadline时间
-            Integer deadline = (Integer) request.getRequestProp(RemotingConstants.HEAD_DEADLINE_REMAIN_TIME);
-            if (!StringUtils.FALSE.equalsIgnoreCase(deadlineEnabled) && deadline != null) {
+            // HTTP 等协议从请求头透传过来的是字符串
+            Integer deadline = RequestExpiry.parseDeadline(request
+                .getRequestProp(RemotingConstants.HEAD_DEADLINE_REMAIN_TIME));
+            if (deadlineEnabled && deadline != null) {
                 RpcInvokeContext.getContext().setDeadline(deadline + System.currentTimeMillis());
             }
         } catch (Exception e) {
@@ -117,7 +190,7 @@ public class ProviderInvoker<T> extends FilterInvoker {
                 throw new SofaRpcException(RpcErrorType.SERVER_FILTER,
                     LogCodes.getLog(LogCodes.ERROR_NEED_DECODE_METHOD));
             }
-            Object result = method.invoke(providerConfig.getRef(), request.getMethodArgs());
+            Object result = doInvoke(method, request);
 
             sofaResponse.setAppResponse(result);
         } catch (IllegalArgumentException e) { // 非法参数，可能是实现类和接口类不对应)
@@ -138,16 +211,38 @@ public class ProviderInvoker<T> extends FilterInvoker {
                 RpcInternalContext.getContext().setAttachment(RpcConstants.INTERNAL_KEY_IMPL_ELAPSE,
                     endTime - startTime);
             }
-            RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_IMPL_ELAPSE_NANO,
+            RpcInvokeContext.getContext().recordPhase(InvokePhase.IMPL_ELAPSE_NANO,
                 System.nanoTime() - bizStartTime);
 
-            RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_PROVIDER_INVOKE_END_TIME_NANO,
+            RpcInvokeContext.getContext().recordPhase(InvokePhase.PROVIDER_INVOKE_END_TIME_NANO,
                 System.nanoTime());
         }
 
         return sofaResponse;
     }
 
+    private Object doInvoke(Method method, SofaRequest request) throws IllegalAccessException,
+        InvocationTargetException {
+        if (dispatcher == null) {
+            return method.invoke(providerConfig.getRef(), request.getMethodArgs());
+        }
+        int methodIndex = request.getMethodIndex();
+        if (methodIndex < 0) {
+            methodIndex = methodTable.slotOf(method);
+        }
+        if (methodIndex < 0 || !methodTable.isInstanceMethod(methodIndex)) {
+            return method.invoke(providerConfig.getRef(), request.getMethodArgs());
+        }
+        try {
+            return dispatcher.invoke(providerConfig.getRef(), methodIndex, request.getMethodArgs());
+        } catch (DispatchArgumentException e) {
+            throw e;
+        } catch (Throwable e) {
+            // 和反射调用保持一致，业务异常包装后统一处理
+            throw new InvocationTargetException(e);
+        }
+    }
+
     /**
      * 把业务层抛出的业务异常或者RuntimeException/Error，
      * 截断Cause，以免客户端因为无法找到cause类而出现反序列化失败.
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.invoke;
+
+/**
+ * 分发时参数个数或类型与方法不匹配，和业务代码抛出的 {@link IllegalArgumentException} 区分开
+ *
+ * @since 5.14.3
+ */
+public class DispatchArgumentException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = -3581204467389611021L;
+
+    /**
+     * Instantiates a new Dispatch argument exception.
+     *
+     * @param message the message
+     */
+    public DispatchArgumentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.invoke;
+
+/**
+ * 服务方法分发器，按预先计算好的方法下标直接调用业务实现，替代 {@link java.lang.reflect.Method#invoke}。
+ * <p>
+ * 下标对应创建分发器时传入的方法数组，见 {@link ServiceDispatcherFactory#create(Class, java.lang.reflect.Method[])}。
+ *
+ * @since 5.14.3
+ */
+public interface ServiceDispatcher {
+
+    /**
+     * 调用业务实现
+     *
+     * @param target      业务实现对象
+     * @param methodIndex 方法下标
+     * @param args        参数
+     * @return 返回值，void 方法返回null，基本类型返回包装类型
+     * @throws DispatchArgumentException 参数个数或类型与方法不匹配
+     * @throws Throwable                 业务代码抛出的异常，不做包装
+     */
+    Object invoke(Object target, int methodIndex, Object[] args) throws Throwable;
+}
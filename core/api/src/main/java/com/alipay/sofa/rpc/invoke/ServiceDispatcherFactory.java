@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.invoke;
+
+import com.alipay.sofa.rpc.ext.Extensible;
+
+import java.lang.reflect.Method;
+
+/**
+ * 服务方法分发器工厂，服务发布时为每个接口生成一次
+ *
+ * @since 5.14.3
+ */
+@Extensible
+public interface ServiceDispatcherFactory {
+
+    /**
+     * 生成分发器
+     *
+     * @param interfaceClass 服务接口
+     * @param methods        需要分发的接口方法，数组下标即方法下标
+     * @return 分发器
+     */
+    ServiceDispatcher create(Class<?> interfaceClass, Method[] methods);
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.invoke;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 服务方法分发表，服务发布时按接口生成一次。
+ * <p>
+ * 方法按（方法名，参数签名）排序后编号，同一个接口在不同进程中的编号相同，知道方法编号的协议可以直接
+ * {@link #getMethod(int)}。按方法名和参数签名查找时使用开放寻址的哈希表，只计算各字符串的哈希值，不拼接字符串。
+ * 编号同时也是 {@link ServiceDispatcher} 的方法下标。
+ *
+ * @since 5.14.3
+ */
+public final class ServiceMethodTable {
+
+    private static final String[]      EMPTY_SIGS = new String[0];
+
+    /**
+     * 按编号排列的方法
+     */
+    private final Method[]             methods;
+
+    private final String[]             names;
+
+    private final String[][]           sigs;
+
+    /**
+     * 哈希桶，值为编号+1，0 表示空
+     */
+    private final int[]                buckets;
+
+    private final int                  mask;
+
+    /**
+     * 方法对象到编号的映射，同签名的重复方法（多个父接口声明）映射到同一个编号
+     */
+    private final Map<Method, Integer> methodSlots;
+
+    private ServiceMethodTable(Method[] methods, Map<Method, Integer> methodSlots) {
+        this.methods = methods;
+        this.methodSlots = methodSlots;
+        this.names = new String[methods.length];
+        this.sigs = new String[methods.length][];
+        int capacity = 2;
+        while (capacity < methods.length * 2) {
+            capacity <<= 1;
+        }
+        this.buckets = new int[capacity];
+        this.mask = capacity - 1;
+        for (int slot = 0; slot < methods.length; slot++) {
+            names[slot] = methods[slot].getName();
+            sigs[slot] = argSigs(methods[slot]);
+            int i = hash(names[slot], sigs[slot]) & mask;
+            while (buckets[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            buckets[i] = slot + 1;
+        }
+    }
+
+    /**
+     * 生成服务接口的方法分发表
+     *
+     * @param serviceClass 服务接口
+     * @return 方法分发表
+     */
+    public static ServiceMethodTable of(Class<?> serviceClass) {
+        List<Method> methods = new ArrayList<Method>(Arrays.asList(serviceClass.getMethods()));
+        Collections.sort(methods, new Comparator<Method>() {
+            @Override
+            public int compare(Method o1, Method o2) {
+                return compareSignature(o1, o2);
+            }
+        });
+        List<Method> unique = new ArrayList<Method>(methods.size());
+        Map<Method, Integer> methodSlots = new HashMap<Method, Integer>(methods.size() * 2);
+        for (Method method : methods) {
+            int last = unique.size() - 1;
+            if (last < 0 || compareSignature(unique.get(last), method) != 0) {
+                unique.add(method);
+                last++;
+            }
+            methodSlots.put(method, last);
+        }
+        return new ServiceMethodTable(unique.toArray(new Method[0]), methodSlots);
+    }
+
+    /**
+     * 方法个数
+     *
+     * @return the size
+     */
+    public int size() {
+        return methods.length;
+    }
+
+    /**
+     * 按编号获取方法
+     *
+     * @param slot 方法编号
+     * @return 方法，编号不存在时返回null
+     */
+    public Method getMethod(int slot) {
+        return slot >= 0 && slot < methods.length ? methods[slot] : null;
+    }
+
+    /**
+     * 是否为实例方法，静态方法不能通过 {@link ServiceDispatcher} 调用
+     *
+     * @param slot 方法编号
+     * @return 是否为实例方法
+     */
+    public boolean isInstanceMethod(int slot) {
+        return !Modifier.isStatic(methods[slot].getModifiers());
+    }
+
+    /**
+     * 按方法名和参数签名（{@link Class#getName()} 格式）查找编号
+     *
+     * @param methodName 方法名
+     * @param argSigs    参数签名
+     * @return 方法编号，找不到返回-1
+     */
+    public int slotOf(String methodName, String[] argSigs) {
+        if (methodName == null) {
+            return -1;
+        }
+        String[] target = argSigs == null ? EMPTY_SIGS : argSigs;
+        int i = hash(methodName, target) & mask;
+        int slot;
+        while ((slot = buckets[i]) != 0) {
+            slot--;
+            if (names[slot].equals(methodName) && Arrays.equals(sigs[slot], target)) {
+                return slot;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 按方法对象查找编号
+     *
+     * @param method 方法
+     * @return 方法编号，找不到返回-1
+     */
+    public int slotOf(Method method) {
+        Integer slot = method == null ? null : methodSlots.get(method);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * 按编号排列的方法，返回副本
+     *
+     * @return the methods
+     */
+    public Method[] getMethods() {
+        return methods.clone();
+    }
+
+    private static int hash(String methodName, String[] argSigs) {
+        int h = methodName.hashCode();
+        for (String sig : argSigs) {
+            h = 31 * h + (sig == null ? 0 : sig.hashCode());
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static String[] argSigs(Method method) {
+        Class<?>[] paramTypes = method.getParameterTypes();
+        String[] sigs = new String[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            sigs[i] = paramTypes[i].getName();
+        }
+        return sigs;
+    }
+
+    private static int compareSignature(Method o1, Method o2) {
+        int c = o1.getName().compareTo(o2.getName());
+        if (c != 0) {
+            return c;
+        }
+        Class<?>[] p1 = o1.getParameterTypes();
+        Class<?>[] p2 = o2.getParameterTypes();
+        if (p1.length != p2.length) {
+            return p1.length - p2.length;
+        }
+        for (int i = 0; i < p1.length; i++) {
+            c = p1[i].getName().compareTo(p2[i].getName());
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+}
@@ -17,11 +17,16 @@
 package com.alipay.sofa.rpc.message;
 
 import com.alipay.sofa.rpc.context.RpcRuntimeContext;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
 
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author <a href="mailto:zhanggeng.zg@antfin.com">GengZhang</a>
@@ -29,34 +34,45 @@ import java.util.concurrent.TimeoutException;
  */
 public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
 
-    protected static final CancellationException CANCELLATION_CAUSE = new CancellationException();
+    protected static final CancellationException                                                   CANCELLATION_CAUSE = new CancellationException();
+
+    private static final AtomicReferenceFieldUpdater<AbstractResponseFuture, SofaResponseCallback> COMPLETION_UPDATER = AtomicReferenceFieldUpdater
+                                                                                                                          .newUpdater(
+                                                                                                                              AbstractResponseFuture.class,
+                                                                                                                              SofaResponseCallback.class,
+                                                                                                                              "completionCallback");
 
     /**
      * 返回的结果
      */
-    protected volatile Object                    result;
+    protected volatile Object                                                                      result;
 
     /**
      * 异常
      */
-    protected volatile Throwable                 cause;
+    protected volatile Throwable                                                                   cause;
 
     /**
      * 用户设置的超时时间
      */
-    protected final int                          timeout;
+    protected final int                                                                            timeout;
     /**
      * Future生成时间
      */
-    protected final long                         genTime            = RpcRuntimeContext.now();
+    protected final long                                                                           genTime            = RpcRuntimeContext
+                                                                                                                          .now();
     /**
      * Future已发送时间
      */
-    protected volatile long                      sentTime;
+    protected volatile long                                                                        sentTime;
     /**
      * Future完成的时间
      */
-    protected volatile long                      doneTime;
+    protected volatile long                                                                        doneTime;
+    /**
+     * 框架内部的完成回调，和 addListener 是否支持无关
+     */
+    private volatile SofaResponseCallback                                                          completionCallback;
 
     /**
      * 构造函数
@@ -129,7 +145,8 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
         long waitTime = timeoutNanos;
         boolean interrupted = false;
         try {
-            synchronized (this) {
+            lock.lock();
+            try {
                 if (isDone()) {
                     return true;
                 }
@@ -137,7 +154,7 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
                 try {
                     for (;;) {
                         try {
-                            wait(waitTime / 1000000, (int) (waitTime % 1000000));
+                            doneCondition.awaitNanos(waitTime);
                         } catch (InterruptedException e) {
                             if (interruptable) {
                                 throw e;
@@ -158,6 +175,8 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
                 } finally {
                     decWaiters();
                 }
+            } finally {
+                lock.unlock();
             }
         } finally {
             if (interrupted) {
@@ -166,7 +185,14 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
         }
     }
 
-    private short waiters;
+    /**
+     * 等待结果时使用显式锁而不是 synchronized，虚拟线程等待时可以让出载体线程
+     */
+    private final ReentrantLock lock          = new ReentrantLock();
+
+    private final Condition     doneCondition = lock.newCondition();
+
+    private short               waiters;
 
     private boolean hasWaiters() {
         return waiters > 0;
@@ -187,6 +213,7 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
     public boolean cancel(boolean mayInterruptIfRunning) {
         boolean res = this.cancle0(mayInterruptIfRunning);
         notifyListeners();
+        fireCompletionCallback();
         return res;
     }
 
@@ -194,15 +221,18 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
         if (isDone()) {
             return false;
         }
-        synchronized (this) {
+        lock.lock();
+        try {
             if (isDone()) {
                 return false;
             }
             this.cause = CANCELLATION_CAUSE;
             this.setDoneTime();
             if (hasWaiters()) {
-                notifyAll();
+                doneCondition.signalAll();
             }
+        } finally {
+            lock.unlock();
         }
         return true;
     }
@@ -218,6 +248,7 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
         }
         if (setSuccess0(result)) {
             notifyListeners();
+            fireCompletionCallback();
             return;
         }
         throw new IllegalStateException("complete already: " + this);
@@ -227,7 +258,8 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
         if (isDone()) {
             return false;
         }
-        synchronized (this) {
+        lock.lock();
+        try {
             // Allow only once.
             if (isDone()) {
                 return false;
@@ -237,8 +269,10 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
             }
             this.setDoneTime();
             if (hasWaiters()) {
-                notifyAll();
+                doneCondition.signalAll();
             }
+        } finally {
+            lock.unlock();
         }
         return true;
     }
@@ -255,6 +289,7 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
         }
         if (setFailure0(cause)) {
             notifyListeners();
+            fireCompletionCallback();
             return;
         }
         throw new IllegalStateException("complete already: " + this, cause);
@@ -264,15 +299,18 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
         if (isDone()) {
             return false;
         }
-        synchronized (this) {
+        lock.lock();
+        try {
             if (isDone()) {
                 return false;
             }
             this.cause = cause;
             this.setDoneTime();
             if (hasWaiters()) {
-                notifyAll();
+                doneCondition.signalAll();
             }
+        } finally {
+            lock.unlock();
         }
         return true;
     }
@@ -292,6 +330,38 @@ public abstract class AbstractResponseFuture<V> implements ResponseFuture<V> {
      */
     public abstract void notifyListeners();
 
+    /**
+     * 设置框架内部的完成回调，future 完成时（包括已经完成的情况）通知且只通知一次。
+     * 成功时回调 onAppResponse，框架异常回调 onSofaException，其它异常回调 onAppException。
+     *
+     * @param callback 完成回调
+     * @since 5.14.3
+     */
+    public void setCompletionCallback(SofaResponseCallback callback) {
+        this.completionCallback = callback;
+        if (isDone()) {
+            fireCompletionCallback();
+        }
+    }
+
+    private void fireCompletionCallback() {
+        if (completionCallback == null) {
+            return;
+        }
+        SofaResponseCallback callback = COMPLETION_UPDATER.getAndSet(this, null);
+        if (callback == null) {
+            return;
+        }
+        Throwable throwable = cause;
+        if (throwable == null) {
+            callback.onAppResponse(result, null, null);
+        } else if (throwable instanceof SofaRpcException) {
+            callback.onSofaException((SofaRpcException) throwable, null, null);
+        } else {
+            callback.onAppException(throwable, null, null);
+        }
+    }
+
     /**
      * 设置已发送时间
      */
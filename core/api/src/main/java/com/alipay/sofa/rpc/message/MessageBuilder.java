@@ -69,6 +69,24 @@ public class MessageBuilder {
         return request;
     }
 
+    /**
+     * 构建请求，代理类使用生成时获取的方法描述，只需分配请求对象
+     *
+     * @param descriptor 方法描述
+     * @param args       方法参数值
+     * @return 远程调用请求
+     */
+    public static SofaRequest buildSofaRequest(MethodDescriptor descriptor, Object[] args) {
+        SofaRequest request = new SofaRequest();
+        request.setInterfaceName(descriptor.getInterfaceName());
+        request.setMethodName(descriptor.getMethodName());
+        request.setMethod(descriptor.getMethod());
+        request.setMethodDescriptor(descriptor);
+        request.setMethodArgs(args == null ? CodecUtils.EMPTY_OBJECT_ARRAY : args);
+        request.setMethodArgSigs(descriptor.getArgSigs());
+        return request;
+    }
+
     /**
      * 构建rpc错误结果
      *
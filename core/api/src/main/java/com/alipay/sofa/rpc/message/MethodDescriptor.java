@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.message;
+
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.config.AbstractInterfaceConfig;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 客户端代理方法的不可变描述，代理生成时获取一次，每次调用不再重复计算参数签名等信息。
+ * <p>
+ * 方法级配置（超时、调用方式）可以动态修改，这里只预先拼好查询用的key，值仍然从 ConsumerConfig 实时读取。
+ *
+ * @since 5.14.3
+ */
+public final class MethodDescriptor {
+
+    /**
+     * 需要远程调用的业务方法
+     */
+    public static final int                                      KIND_REMOTE     = 0;
+    /**
+     * Object#toString()
+     */
+    public static final int                                      KIND_TO_STRING  = 1;
+    /**
+     * Object#hashCode()
+     */
+    public static final int                                      KIND_HASH_CODE  = 2;
+    /**
+     * Object#equals(Object)
+     */
+    public static final int                                      KIND_EQUALS     = 3;
+
+    private static final AtomicInteger                           ID_GENERATOR    = new AtomicInteger();
+
+    /**
+     * 接口类就是方法声明类时的缓存
+     */
+    private static final ConcurrentMap<Method, MethodDescriptor> DECLARED_CACHE  = new ConcurrentHashMap<Method, MethodDescriptor>();
+
+    /**
+     * 方法从父接口继承时的缓存
+     */
+    private static final ConcurrentMap<Key, MethodDescriptor>    INHERITED_CACHE = new ConcurrentHashMap<Key, MethodDescriptor>();
+
+    private final int                                            methodId;
+
+    private final Method                                         method;
+
+    private final String                                         interfaceName;
+
+    private final String                                         methodName;
+
+    private final String[]                                       argSigs;
+
+    private final int                                            kind;
+
+    private final String                                         timeoutKey;
+
+    private final String                                         invokeTypeKey;
+
+    private final String                                         compressKey;
+
+    private MethodDescriptor(Class<?> interfaceClass, Method method) {
+        this.methodId = ID_GENERATOR.getAndIncrement();
+        this.method = method;
+        this.interfaceName = interfaceClass.getName();
+        this.methodName = method.getName();
+        Class<?>[] paramTypes = method.getParameterTypes();
+        this.argSigs = new String[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            argSigs[i] = paramTypes[i].getName().intern();
+        }
+        if ("toString".equals(methodName) && paramTypes.length == 0) {
+            this.kind = KIND_TO_STRING;
+        } else if ("hashCode".equals(methodName) && paramTypes.length == 0) {
+            this.kind = KIND_HASH_CODE;
+        } else if ("equals".equals(methodName) && paramTypes.length == 1) {
+            this.kind = KIND_EQUALS;
+        } else {
+            this.kind = KIND_REMOTE;
+        }
+        this.timeoutKey = AbstractInterfaceConfig.buildMethodConfigKey(methodName, RpcConstants.CONFIG_KEY_TIMEOUT);
+        this.invokeTypeKey = AbstractInterfaceConfig.buildMethodConfigKey(methodName,
+            RpcConstants.CONFIG_KEY_INVOKE_TYPE);
+        this.compressKey = AbstractInterfaceConfig.buildMethodConfigKey(methodName, RpcConstants.CONFIG_KEY_COMPRESS);
+    }
+
+    /**
+     * 获取方法描述，接口名取方法的声明类
+     *
+     * @param method 方法
+     * @return 方法描述
+     */
+    public static MethodDescriptor of(Method method) {
+        MethodDescriptor descriptor = DECLARED_CACHE.get(method);
+        if (descriptor == null) {
+            descriptor = new MethodDescriptor(method.getDeclaringClass(), method);
+            MethodDescriptor old = DECLARED_CACHE.putIfAbsent(method, descriptor);
+            if (old != null) {
+                descriptor = old;
+            }
+        }
+        return descriptor;
+    }
+
+    /**
+     * 获取方法描述，接口名取代理的接口类
+     *
+     * @param interfaceClass 接口类
+     * @param method         方法
+     * @return 方法描述
+     */
+    public static MethodDescriptor of(Class<?> interfaceClass, Method method) {
+        if (interfaceClass == method.getDeclaringClass()) {
+            return of(method);
+        }
+        Key key = new Key(interfaceClass, method);
+        MethodDescriptor descriptor = INHERITED_CACHE.get(key);
+        if (descriptor == null) {
+            descriptor = new MethodDescriptor(interfaceClass, method);
+            MethodDescriptor old = INHERITED_CACHE.putIfAbsent(key, descriptor);
+            if (old != null) {
+                descriptor = old;
+            }
+        }
+        return descriptor;
+    }
+
+    /**
+     * 进程内唯一的方法编号
+     *
+     * @return the method id
+     */
+    public int getMethodId() {
+        return methodId;
+    }
+
+    /**
+     * Gets method.
+     *
+     * @return the method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets interface name.
+     *
+     * @return the interface name
+     */
+    public String getInterfaceName() {
+        return interfaceName;
+    }
+
+    /**
+     * Gets method name.
+     *
+     * @return the method name
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * 参数签名，所有请求共享同一个数组，不能修改
+     *
+     * @return the arg sigs
+     */
+    public String[] getArgSigs() {
+        return argSigs;
+    }
+
+    /**
+     * 方法类型，见 KIND_*
+     *
+     * @return the kind
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * 方法级超时配置的key
+     *
+     * @return the timeout key
+     */
+    public String getTimeoutKey() {
+        return timeoutKey;
+    }
+
+    /**
+     * 方法级调用方式配置的key
+     *
+     * @return the invoke type key
+     */
+    public String getInvokeTypeKey() {
+        return invokeTypeKey;
+    }
+
+    /**
+     * 方法级压缩算法配置的key
+     *
+     * @return the compress key
+     */
+    public String getCompressKey() {
+        return compressKey;
+    }
+
+    private static final class Key {
+        private final Class<?> interfaceClass;
+        private final Method   method;
+
+        Key(Class<?> interfaceClass, Method method) {
+            this.interfaceClass = interfaceClass;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return interfaceClass == key.interfaceClass && method.equals(key.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * interfaceClass.hashCode() + method.hashCode();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用信号量控制同时处理的请求数的执行器，用于虚拟线程模式。
+ * <p>
+ * 每个请求一个虚拟线程时没有队列可以限制积压，改为提交时申请许可，拿不到许可直接拒绝（{@link RejectedExecutionException}），
+ * 由各协议按线程池满处理；任务结束时归还许可。
+ *
+ * @since 5.14.3
+ */
+public class AdmissionControlledExecutor extends AbstractExecutorService {
+
+    /**
+     * 实际执行任务的执行器
+     */
+    private final ExecutorService delegate;
+
+    /**
+     * 最大并发数，小于等于0表示不限制
+     */
+    private final int             maxConcurrency;
+
+    /**
+     * 许可，不限制时为null
+     */
+    private final Semaphore       permits;
+
+    /**
+     * 正在处理的请求数
+     */
+    private final AtomicInteger   active   = new AtomicInteger();
+
+    /**
+     * 拒绝的请求数
+     */
+    private final AtomicLong      rejected = new AtomicLong();
+
+    public AdmissionControlledExecutor(ExecutorService delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (permits != null && !permits.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Server busy, max concurrency " + maxConcurrency + " exceeded");
+        }
+        active.incrementAndGet();
+        try {
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        command.run();
+                    } finally {
+                        release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release();
+            rejected.incrementAndGet();
+            throw e;
+        } catch (Throwable e) {
+            // 任务没有提交成功，许可不会在 finally 里归还
+            release();
+            throw e;
+        }
+    }
+
+    private void release() {
+        active.decrementAndGet();
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * 实际执行任务的执行器
+     *
+     * @return the delegate
+     */
+    public ExecutorService getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 最大并发数
+     *
+     * @return 最大并发数，小于等于0表示不限制
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 正在处理的请求数
+     *
+     * @return 请求数
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * 因为超过最大并发数或者执行器已关闭而拒绝的请求数
+     *
+     * @return 请求数
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionControlledExecutor[maxConcurrency=" + maxConcurrency + ", active=" + active.get()
+            + ", rejected=" + rejected.get() + ", delegate=" + delegate + "]";
+    }
+}
@@ -22,6 +22,7 @@ import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -47,10 +48,40 @@ public class BusinessPool {
     }
 
     public static Executor initExecutor(String executorName, ServerConfig serverConfig) {
+        if (serverConfig.isVirtualThread()) {
+            return initVirtualThreadExecutor(executorName, serverConfig);
+        }
         Executor executor = ExtensionLoaderFactory.getExtensionLoader(SofaExecutorFactory.class)
             .getExtension(serverConfig.getThreadPoolType())
             .createExecutor(executorName, serverConfig);
         return executor;
     }
 
+    /**
+     * 虚拟线程模式：每个请求一个虚拟线程，用信号量代替队列限制同时处理的请求数
+     *
+     * @param executorName 线程名前缀
+     * @param serverConfig 服务端配置
+     * @return 执行器
+     * @since 5.14.3
+     */
+    public static AdmissionControlledExecutor initVirtualThreadExecutor(String executorName,
+                                                                        ServerConfig serverConfig) {
+        return new AdmissionControlledExecutor(initVirtualThreadPool(executorName, serverConfig),
+            serverConfig.getMaxConcurrency());
+    }
+
+    /**
+     * 不带并发上限的虚拟线程执行器，由调用方自己按请求控制并发（例如 Triple 在拦截器里控制）
+     *
+     * @param executorName 线程名前缀
+     * @param serverConfig 服务端配置
+     * @return 执行器
+     * @since 5.14.3
+     */
+    public static ExecutorService initVirtualThreadPool(String executorName, ServerConfig serverConfig) {
+        return (ExecutorService) ExtensionLoaderFactory.getExtensionLoader(SofaExecutorFactory.class)
+            .getExtension("virtual").createExecutor(executorName, serverConfig);
+    }
+
 }
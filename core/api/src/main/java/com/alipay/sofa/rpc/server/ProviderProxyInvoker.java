@@ -16,8 +16,9 @@
  */
 package com.alipay.sofa.rpc.server;
 
-import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.config.ProviderConfig;
+import com.alipay.sofa.rpc.context.InvokePhase;
+import com.alipay.sofa.rpc.context.PhaseTimings;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
@@ -25,6 +26,9 @@ import com.alipay.sofa.rpc.core.response.SofaResponse;
 import com.alipay.sofa.rpc.filter.FilterChain;
 import com.alipay.sofa.rpc.filter.ProviderInvoker;
 import com.alipay.sofa.rpc.invoke.Invoker;
+import com.alipay.sofa.rpc.invoke.ServiceMethodTable;
+
+import java.lang.reflect.Method;
 
 /**
  * 服务端调用链入口
@@ -36,12 +40,17 @@ public class ProviderProxyInvoker implements Invoker {
     /**
      * 对应的客户端信息
      */
-    private final ProviderConfig providerConfig;
+    private final ProviderConfig  providerConfig;
 
     /**
      * 过滤器执行链
      */
-    private final FilterChain    filterChain;
+    private final FilterChain     filterChain;
+
+    /**
+     * 最底层的业务调用器
+     */
+    private final ProviderInvoker providerInvoker;
 
     /**
      * 构造执行链
@@ -51,8 +60,8 @@ public class ProviderProxyInvoker implements Invoker {
     public ProviderProxyInvoker(ProviderConfig providerConfig) {
         this.providerConfig = providerConfig;
         // 最底层是调用过滤器
-        this.filterChain = FilterChain.buildProviderChain(providerConfig,
-            new ProviderInvoker(providerConfig));
+        this.providerInvoker = new ProviderInvoker(providerConfig);
+        this.filterChain = FilterChain.buildProviderChain(providerConfig, providerInvoker);
     }
 
     /**
@@ -64,27 +73,50 @@ public class ProviderProxyInvoker implements Invoker {
      */
     @Override
     public SofaResponse invoke(SofaRequest request) throws SofaRpcException {
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_PROVIDER_FILTER_START_TIME_NANO, System.nanoTime());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.PROVIDER_FILTER_START_TIME_NANO, System.nanoTime());
         SofaResponse sofaResponse = filterChain.invoke(request);
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_PROVIDER_FILTER_END_TIME_NANO, System.nanoTime());
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.PROVIDER_FILTER_END_TIME_NANO, System.nanoTime());
         calculateProviderFilterTime();
         return sofaResponse;
     }
 
     private void calculateProviderFilterTime() {
         // R10: Record provider filter execution time
-        Long filterStartTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_PROVIDER_FILTER_START_TIME_NANO);
-        Long filterEndTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_PROVIDER_FILTER_END_TIME_NANO);
-        Long invokerStartTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_PROVIDER_INVOKE_START_TIME_NANO);
-        Long invokerEndTime = (Long) RpcInvokeContext.getContext().get(
-            RpcConstants.INTERNAL_KEY_PROVIDER_INVOKE_END_TIME_NANO);
-        if (filterStartTime != null && filterEndTime != null && invokerStartTime != null && invokerEndTime != null) {
-            RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_SERVER_FILTER_TIME_NANO,
-                filterEndTime - filterStartTime - (invokerEndTime - invokerStartTime));
+        RpcInvokeContext invokeContext = RpcInvokeContext.getContext();
+        PhaseTimings timings = invokeContext.getPhaseTimings();
+        if (timings == null) {
+            return;
         }
+        long filterTime = timings.between(InvokePhase.PROVIDER_FILTER_START_TIME_NANO,
+            InvokePhase.PROVIDER_FILTER_END_TIME_NANO);
+        long invokeTime = timings.between(InvokePhase.PROVIDER_INVOKE_START_TIME_NANO,
+            InvokePhase.PROVIDER_INVOKE_END_TIME_NANO);
+        if (filterTime >= 0 && invokeTime >= 0) {
+            invokeContext.recordPhase(InvokePhase.SERVER_FILTER_TIME_NANO, filterTime - invokeTime);
+        }
+    }
+
+    /**
+     * 服务的方法分发表
+     *
+     * @return 方法分发表，可能为null
+     * @see ProviderInvoker#getMethodTable()
+     * @since 5.14.3
+     */
+    public ServiceMethodTable getMethodTable() {
+        return providerInvoker.getMethodTable();
+    }
+
+    /**
+     * 查询方法在分发器中的下标
+     *
+     * @param method 接口方法
+     * @return 下标，不支持时返回-1
+     * @see ProviderInvoker#getMethodIndex(Method)
+     * @since 5.14.3
+     */
+    public int getMethodIndex(Method method) {
+        return providerInvoker.getMethodIndex(method);
     }
 
     /**
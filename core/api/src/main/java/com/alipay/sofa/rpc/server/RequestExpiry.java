@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server;
+
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.struct.ConcurrentHashSet;
+import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.config.ProviderConfig;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务端判断请求是否已经过期，并按阶段统计丢弃的过期请求。
+ * <p>
+ * 过期的依据有两个：客户端的调用超时时间，以及透传的 deadline 剩余时间（{@link
+ * com.alipay.sofa.rpc.common.RemotingConstants#HEAD_DEADLINE_REMAIN_TIME}），都从请求到达服务端开始计算。
+ * 只依赖请求头即可判断，因此可以在反序列化请求体之前丢弃。服务端配置了 {@link RpcOptions#CONFIG_KEY_DEADLINE_ENABLE}
+ * 为 false 的服务不使用透传的 deadline，和 {@link com.alipay.sofa.rpc.filter.ProviderInvoker} 的判断保持一致。
+ *
+ * @since 5.14.3
+ */
+public final class RequestExpiry {
+
+    /**
+     * 丢弃过期请求的阶段
+     */
+    public enum Stage {
+        /**
+         * 已解析请求头，反序列化请求体之前（包括在业务线程池中排队的时间）
+         */
+        DECODE,
+        /**
+         * 已反序列化请求体，调用业务之前
+         */
+        INVOKE,
+        /**
+         * 调用业务之后，返回响应之前
+         */
+        RESPONSE
+    }
+
+    private static final AtomicLong[] DROPPED           = new AtomicLong[Stage.values().length];
+
+    /**
+     * 关闭了 deadline 的服务
+     */
+    private static final Set<String>  DEADLINE_DISABLED = new ConcurrentHashSet<String>();
+
+    static {
+        for (int i = 0; i < DROPPED.length; i++) {
+            DROPPED[i] = new AtomicLong();
+        }
+    }
+
+    private RequestExpiry() {
+    }
+
+    /**
+     * 请求剩余的处理时间
+     *
+     * @param arriveTime     请求到达时间（毫秒）
+     * @param timeout        客户端超时时间（毫秒），小于等于0表示未知
+     * @param deadlineRemain 透传的 deadline 剩余时间（毫秒），可以为空
+     * @param now            当前时间（毫秒）
+     * @return 剩余时间（毫秒），没有限制时返回 {@link Long#MAX_VALUE}
+     */
+    public static long remainTime(long arriveTime, int timeout, Object deadlineRemain, long now) {
+        long remain = Long.MAX_VALUE;
+        if (timeout > 0) {
+            remain = timeout;
+        }
+        Integer deadline = parseDeadline(deadlineRemain);
+        if (deadline != null && deadline < remain) {
+            remain = deadline;
+        }
+        return remain == Long.MAX_VALUE ? remain : remain - (now - arriveTime);
+    }
+
+    /**
+     * 请求是否已经过期
+     *
+     * @param arriveTime     请求到达时间（毫秒）
+     * @param timeout        客户端超时时间（毫秒），小于等于0表示未知
+     * @param deadlineRemain 透传的 deadline 剩余时间（毫秒），可以为空
+     * @param now            当前时间（毫秒）
+     * @return 是否已经过期
+     */
+    public static boolean isExpired(long arriveTime, int timeout, Object deadlineRemain, long now) {
+        return remainTime(arriveTime, timeout, deadlineRemain, now) <= 0;
+    }
+
+    /**
+     * 服务是否使用透传的 deadline，默认启用，只有明确设置为"false"时才禁用
+     *
+     * @param providerConfig 服务端配置，可以为null
+     * @return 是否启用
+     */
+    public static boolean isDeadlineEnabled(ProviderConfig providerConfig) {
+        return providerConfig == null
+            || !StringUtils.FALSE.equalsIgnoreCase(providerConfig.getParameter(RpcOptions.CONFIG_KEY_DEADLINE_ENABLE));
+    }
+
+    /**
+     * 只有服务名时判断服务是否使用透传的 deadline，服务需要先通过 {@link #registerService(String, ProviderConfig)} 登记
+     *
+     * @param service 服务名，可以为null
+     * @return 是否启用
+     */
+    public static boolean isDeadlineEnabled(String service) {
+        return service == null || !DEADLINE_DISABLED.contains(service);
+    }
+
+    /**
+     * 发布服务时登记服务的 deadline 开关，供解析请求头时判断
+     *
+     * @param service        服务名
+     * @param providerConfig 服务端配置
+     */
+    public static void registerService(String service, ProviderConfig providerConfig) {
+        if (isDeadlineEnabled(providerConfig)) {
+            DEADLINE_DISABLED.remove(service);
+        } else {
+            DEADLINE_DISABLED.add(service);
+        }
+    }
+
+    /**
+     * 取消发布服务时清除登记
+     *
+     * @param service 服务名
+     */
+    public static void unRegisterService(String service) {
+        DEADLINE_DISABLED.remove(service);
+    }
+
+    /**
+     * 解析透传的 deadline 剩余时间，在请求头中是字符串，在请求属性中可能是数字
+     *
+     * @param deadlineRemain deadline 剩余时间
+     * @return 剩余时间（毫秒），为空或者格式不对时返回null
+     */
+    public static Integer parseDeadline(Object deadlineRemain) {
+        if (deadlineRemain instanceof Integer) {
+            return (Integer) deadlineRemain;
+        }
+        if (deadlineRemain instanceof Number) {
+            return ((Number) deadlineRemain).intValue();
+        }
+        if (deadlineRemain instanceof String) {
+            try {
+                return Integer.valueOf((String) deadlineRemain);
+            } catch (NumberFormatException ignore) { // NOPMD
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 记录丢弃了一个过期请求
+     *
+     * @param stage 阶段
+     */
+    public static void recordDropped(Stage stage) {
+        DROPPED[stage.ordinal()].incrementAndGet();
+    }
+
+    /**
+     * 某个阶段丢弃的过期请求数
+     *
+     * @param stage 阶段
+     * @return 请求数
+     */
+    public static long getDroppedCount(Stage stage) {
+        return DROPPED[stage.ordinal()].get();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.limit;
+
+import com.alipay.sofa.rpc.core.exception.RpcErrorType;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 提交到业务线程池前先检查并发限制。
+ * <p>
+ * Bolt 在 IO 线程上只解析了请求头就调用 {@link #execute(Runnable)}，超过限制时抛出
+ * {@link RejectedExecutionException}，请求体不会被反序列化，客户端收到线程池繁忙的响应。
+ * gRPC 的执行器上一个调用会提交多批回调，Triple 不用它，改为在服务端拦截器里按调用限制。
+ *
+ * @since 5.14.3
+ */
+public final class ConcurrencyLimitedExecutor implements Executor {
+
+    private final Executor           delegate;
+
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitedExecutor(Executor delegate, ConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (!limiter.tryAcquire()) {
+            throw new RejectedExecutionException("[" + RpcErrorType.SERVER_OVERLOAD
+                + "]Server overload, concurrency limit " + limiter.getLimit() + " exceeded");
+        }
+        final long start = System.nanoTime();
+        try {
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        command.run();
+                    } finally {
+                        limiter.release(System.nanoTime() - start);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            limiter.releaseDropped();
+            throw e;
+        }
+    }
+
+    /**
+     * 实际执行任务的执行器
+     *
+     * @return the delegate
+     */
+    public Executor getDelegate() {
+        return delegate;
+    }
+}
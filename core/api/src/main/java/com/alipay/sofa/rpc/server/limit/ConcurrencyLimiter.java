@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.limit;
+
+import com.alipay.sofa.rpc.ext.Extensible;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务端自适应并发限制。
+ * <p>
+ * 请求进入业务线程池前调用 {@link #tryAcquire()}，超过当前限制时直接拒绝；处理结束后调用 {@link #release(long)}
+ * 上报耗时，子类根据耗时的变化调整限制。每个 Server 一个实例。
+ *
+ * @since 5.14.3
+ */
+@Extensible(singleton = false)
+public abstract class ConcurrencyLimiter {
+
+    /**
+     * 正在处理的请求数
+     */
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    /**
+     * 被拒绝的请求数
+     */
+    private final AtomicLong    rejected = new AtomicLong();
+
+    /**
+     * 尝试占用一个并发
+     *
+     * @return 是否成功，失败时请求应直接拒绝
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求处理结束，释放并发
+     *
+     * @param rttNanos 从占用到处理结束的耗时（纳秒），包括排队时间
+     */
+    public void release(long rttNanos) {
+        onSample(rttNanos, inflight.getAndDecrement(), false);
+    }
+
+    /**
+     * 占用并发后请求被业务线程池拒绝，释放并发
+     */
+    public void releaseDropped() {
+        onSample(0, inflight.getAndDecrement(), true);
+    }
+
+    /**
+     * 上报一次请求的处理结果
+     *
+     * @param rttNanos 耗时（纳秒），被丢弃时为0
+     * @param inflight 结束前正在处理的请求数（包括本请求）
+     * @param dropped  是否被业务线程池拒绝
+     */
+    protected abstract void onSample(long rttNanos, int inflight, boolean dropped);
+
+    /**
+     * 当前的并发限制
+     *
+     * @return 并发限制
+     */
+    public abstract int getLimit();
+
+    /**
+     * 正在处理的请求数
+     *
+     * @return 请求数
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * 超过并发限制被拒绝的请求数
+     *
+     * @return 请求数
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.limit;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
+
+/**
+ * Factory of concurrency limiter
+ *
+ * @since 5.14.3
+ */
+public final class ConcurrencyLimiterFactory {
+
+    /**
+     * 按配置创建服务端的并发限制
+     *
+     * @param serverConfig 服务端配置
+     * @return 并发限制，未开启时返回null
+     * @see RpcOptions#SERVER_CONCURRENCY_LIMITER
+     */
+    public static ConcurrencyLimiter getConcurrencyLimiter(ServerConfig serverConfig) {
+        String alias = RpcConfigs.getOrDefaultValue(RpcOptions.SERVER_CONCURRENCY_LIMITER, "");
+        if (StringUtils.isBlank(alias)) {
+            return null;
+        }
+        return ExtensionLoaderFactory.getExtensionLoader(ConcurrencyLimiter.class)
+            .getExtension(alias, new Class[] { ServerConfig.class }, new Object[] { serverConfig });
+    }
+}
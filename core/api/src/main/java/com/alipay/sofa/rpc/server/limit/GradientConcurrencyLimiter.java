@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.limit;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.ext.Extension;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于耗时梯度的并发限制（参考 Gradient2 算法）。
+ * <p>
+ * 按时间窗口统计平均耗时作为短期耗时，再用指数平均得到长期耗时。短期耗时明显高于长期耗时说明请求开始排队，
+ * 按两者的比例缩小限制；否则在当前限制上加一个 sqrt(limit) 的余量慢慢增长。窗口内并发没有用到一半时不增长，
+ * 避免空闲时限制无限变大。
+ *
+ * @since 5.14.3
+ */
+@Extension("gradient")
+public class GradientConcurrencyLimiter extends ConcurrencyLimiter {
+
+    /**
+     * 短期耗时允许超过长期耗时的比例
+     */
+    private static final double TOLERANCE          = 1.5;
+
+    /**
+     * 每次调整时新限制所占的权重
+     */
+    private static final double SMOOTHING          = 0.2;
+
+    /**
+     * 业务线程池拒绝时限制缩小的比例
+     */
+    private static final double BACKOFF_RATIO      = 0.9;
+
+    /**
+     * 长期耗时指数平均的窗口数
+     */
+    private static final int    LONG_WINDOW        = 600;
+
+    /**
+     * 一个窗口内至少需要的样本数
+     */
+    private static final int    MIN_WINDOW_SAMPLES = 10;
+
+    private final int           minLimit;
+
+    private final int           maxLimit;
+
+    private final long          windowNanos;
+
+    /**
+     * 当前限制，只在持有 updating 时修改
+     */
+    private double              estimatedLimit;
+
+    private volatile int        limit;
+
+    /**
+     * 长期耗时（纳秒），只在持有 updating 时修改
+     */
+    private double              longRtt;
+
+    private final AtomicLong    windowRttSum       = new AtomicLong();
+
+    private final AtomicInteger windowCount        = new AtomicInteger();
+
+    private final AtomicInteger windowMaxInflight  = new AtomicInteger();
+
+    private volatile boolean    windowDropped;
+
+    private volatile long       windowStart        = System.nanoTime();
+
+    private final AtomicBoolean updating           = new AtomicBoolean();
+
+    /**
+     * Construct
+     *
+     * @param serverConfig 服务端配置
+     */
+    public GradientConcurrencyLimiter(ServerConfig serverConfig) {
+        this(RpcConfigs.getIntValue(RpcOptions.SERVER_CONCURRENCY_LIMIT_INITIAL),
+            RpcConfigs.getIntValue(RpcOptions.SERVER_CONCURRENCY_LIMIT_MIN),
+            RpcConfigs.getIntValue(RpcOptions.SERVER_CONCURRENCY_LIMIT_MAX), TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.windowNanos = windowNanos;
+        this.estimatedLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    protected void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped) {
+            windowDropped = true;
+        } else {
+            windowRttSum.addAndGet(rttNanos);
+            windowCount.incrementAndGet();
+        }
+        int max;
+        while (inflight > (max = windowMaxInflight.get())) {
+            if (windowMaxInflight.compareAndSet(max, inflight)) {
+                break;
+            }
+        }
+        long now = System.nanoTime();
+        if (now - windowStart < windowNanos || !updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            boolean windowDrop = windowDropped;
+            int count = windowCount.get();
+            if (count < MIN_WINDOW_SAMPLES && !windowDrop) {
+                return;
+            }
+            long rttSum = windowRttSum.getAndSet(0);
+            count = windowCount.getAndSet(0);
+            int maxInflight = windowMaxInflight.getAndSet(0);
+            windowDropped = false;
+            windowStart = now;
+            update(count > 0 ? (double) rttSum / count : 0, maxInflight, windowDrop);
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void update(double shortRtt, int maxInflight, boolean dropped) {
+        double newLimit;
+        if (dropped) {
+            // 业务线程池已经满了
+            newLimit = estimatedLimit * BACKOFF_RATIO;
+        } else {
+            if (shortRtt <= 0) {
+                return;
+            }
+            if (longRtt <= 0) {
+                longRtt = shortRtt;
+            } else {
+                longRtt += (shortRtt - longRtt) * 2 / (LONG_WINDOW + 1);
+                // 负载下降后长期耗时回落很慢，加速回落
+                if (longRtt > shortRtt * 2) {
+                    longRtt *= 0.95;
+                }
+            }
+            if (maxInflight < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        }
+        estimatedLimit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+}
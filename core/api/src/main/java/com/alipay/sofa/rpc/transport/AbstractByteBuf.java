@@ -17,6 +17,12 @@
 package com.alipay.sofa.rpc.transport;
 
 import com.alipay.sofa.rpc.common.annotation.Unstable;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * <p>ByteBuf的一个抽象，这样可以隔离各种Bytebuf</p>
@@ -40,6 +46,54 @@ public abstract class AbstractByteBuf {
      */
     public abstract int readableBytes();
 
+    /**
+     * Whether {@link #array()} returns the underlying bytes without copying
+     *
+     * @return true if no copy, false if {@link #inputStream()} or {@link #nioBuffer()} is preferred
+     * @since 5.14.3
+     */
+    public boolean hasArray() {
+        return true;
+    }
+
+    /**
+     * Get an input stream over the readable bytes, read in place when possible.
+     * Reading the stream does not change the readable bytes of this buffer.
+     *
+     * @return input stream
+     * @since 5.14.3
+     */
+    public InputStream inputStream() {
+        byte[] bs = array();
+        return bs == null ? new UnsafeByteArrayInputStream(new byte[0]) : new UnsafeByteArrayInputStream(bs, 0,
+            readableBytes());
+    }
+
+    /**
+     * Get a read-only {@link ByteBuffer} view of the readable bytes, may be a direct buffer.
+     *
+     * @return byte buffer
+     * @since 5.14.3
+     */
+    public ByteBuffer nioBuffer() {
+        byte[] bs = array();
+        return bs == null ? ByteBuffer.allocate(0) : ByteBuffer.wrap(bs, 0, readableBytes()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Write readable bytes to output stream, subclass can override it to avoid copying to a new byte[]
+     *
+     * @param out output stream
+     * @throws IOException write exception
+     * @since 5.14.3
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] bs = array();
+        if (bs != null) {
+            out.write(bs, 0, readableBytes());
+        }
+    }
+
     /**
      * release byte buffer
      *
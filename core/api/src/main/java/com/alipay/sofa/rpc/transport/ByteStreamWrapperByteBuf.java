@@ -16,8 +16,14 @@
  */
 package com.alipay.sofa.rpc.transport;
 
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
 import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 /**
  * @author <a href="mailto:zhanggeng.zg@antfin.com">GengZhang</a>
  */
@@ -39,6 +45,28 @@ public class ByteStreamWrapperByteBuf extends AbstractByteBuf {
         return data == null ? 0 : data.size();
     }
 
+    @Override
+    public boolean hasArray() {
+        return false;
+    }
+
+    @Override
+    public InputStream inputStream() {
+        return data == null ? new UnsafeByteArrayInputStream(new byte[0]) : data.toInputStream();
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return data == null ? ByteBuffer.allocate(0) : data.toByteBuffer().asReadOnlyBuffer();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        if (data != null) {
+            data.writeTo(out);
+        }
+    }
+
     @Override
     public boolean release() {
         return true;
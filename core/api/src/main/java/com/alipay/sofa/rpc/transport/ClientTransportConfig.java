@@ -80,6 +80,10 @@ public class ClientTransportConfig {
      * 连接事件监听器
      */
     private List<ChannelListener> channelListeners;
+    /**
+     * 在连接池中的序号，大于0时传输层需要为它建立独立的物理连接，不和同地址的其它连接共用
+     */
+    private int                   poolIndex;
 
     /**
      * Gets consumer config.
@@ -281,6 +285,28 @@ public class ClientTransportConfig {
         return this;
     }
 
+    /**
+     * Gets index in the connection pool.
+     *
+     * @return the pool index, 0 if the transport is not a pool member or is the first one
+     * @since 5.14.3
+     */
+    public int getPoolIndex() {
+        return poolIndex;
+    }
+
+    /**
+     * Sets index in the connection pool.
+     *
+     * @param poolIndex the pool index
+     * @return the client transport config
+     * @since 5.14.3
+     */
+    public ClientTransportConfig setPoolIndex(int poolIndex) {
+        this.poolIndex = poolIndex;
+        return this;
+    }
+
     @Override
     public String toString() {
         return super.toString() + "{" +
@@ -294,6 +320,7 @@ public class ClientTransportConfig {
             ", payload=" + payload +
             ", useEpoll=" + useEpoll +
             ", channelListeners=" + channelListeners +
+            ", poolIndex=" + poolIndex +
             '}';
     }
 }
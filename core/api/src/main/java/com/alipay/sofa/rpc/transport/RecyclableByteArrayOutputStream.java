@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * 线程内复用的序列化输出流，避免每次序列化都新建数组以及扩容时的反复拷贝。
+ * <p>
+ * 通过 {@link #acquire()} 获取，用完后调用 {@link #recycle()} 归还，归还后不能再读取其中的数据。
+ * 同一线程内前一个还未归还时再次获取，返回一个不复用的新实例。
+ * <p>
+ * 缓冲区按 2 的幂次扩容，归还时记录使用的大小：超过 {@link RpcOptions#SERIALIZE_BUFFER_MAX_RETAINED} 的缓冲区直接丢弃；
+ * 一段时间内实际使用的大小都远小于缓冲区时，缩小到能容纳这段时间峰值的大小。
+ *
+ * @since 5.14.3
+ */
+@NotThreadSafe
+public final class RecyclableByteArrayOutputStream extends UnsafeByteArrayOutputStream {
+
+    /**
+     * 初始大小
+     */
+    static final int                                                  INITIAL_SIZE = 256;
+
+    /**
+     * 每归还多少次检查一次是否需要缩小
+     */
+    static final int                                                  SHRINK_CHECK = 64;
+
+    /**
+     * 最多保留的缓冲区大小
+     */
+    private static final int                                          MAX_RETAINED = RpcConfigs
+                                                                                       .getIntValue(RpcOptions.SERIALIZE_BUFFER_MAX_RETAINED);
+
+    private static final ThreadLocal<RecyclableByteArrayOutputStream> LOCAL        = new ThreadLocal<RecyclableByteArrayOutputStream>();
+
+    /**
+     * 是否线程内复用的实例
+     */
+    private final boolean                                             pooled;
+
+    /**
+     * 是否正在使用
+     */
+    private boolean                                                   inUse;
+
+    /**
+     * 本轮检查周期内使用的最大大小
+     */
+    private int                                                       peak;
+
+    /**
+     * 本轮检查周期内归还的次数
+     */
+    private int                                                       recycled;
+
+    private RecyclableByteArrayOutputStream(boolean pooled) {
+        super(INITIAL_SIZE);
+        this.pooled = pooled;
+    }
+
+    /**
+     * 获取当前线程的输出流
+     *
+     * @return 输出流，用完后需要调用 {@link #recycle()}
+     */
+    public static RecyclableByteArrayOutputStream acquire() {
+        RecyclableByteArrayOutputStream stream = LOCAL.get();
+        if (stream == null) {
+            stream = new RecyclableByteArrayOutputStream(true);
+            LOCAL.set(stream);
+        } else if (stream.inUse) {
+            // 嵌套使用，不复用
+            return new RecyclableByteArrayOutputStream(false);
+        }
+        stream.inUse = true;
+        return stream;
+    }
+
+    /**
+     * 归还输出流，之后不能再读取其中的数据
+     */
+    public void recycle() {
+        if (!pooled || !inUse) {
+            return;
+        }
+        peak = Math.max(peak, mCount);
+        reset();
+        if (mBuffer.length > MAX_RETAINED) {
+            mBuffer = new byte[INITIAL_SIZE];
+            peak = 0;
+            recycled = 0;
+        } else if (++recycled >= SHRINK_CHECK) {
+            // 缓冲区超过峰值的4倍，缩小到能容纳峰值的2的幂次
+            if (mBuffer.length > INITIAL_SIZE && mBuffer.length > peak << 2) {
+                mBuffer = new byte[Math.max(INITIAL_SIZE, Integer.highestOneBit(Math.max(peak, 1)) << 1)];
+            }
+            peak = 0;
+            recycled = 0;
+        }
+        inUse = false;
+    }
+
+    /**
+     * 当前缓冲区的容量
+     *
+     * @return 容量
+     */
+    int capacity() {
+        return mBuffer.length;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ */
+public class ProviderInfoSnapshotTest {
+
+    @Test
+    public void testOf() {
+        Assert.assertSame(ProviderInfoSnapshot.EMPTY, ProviderInfoSnapshot.of(null));
+        Assert.assertSame(ProviderInfoSnapshot.EMPTY, ProviderInfoSnapshot.of(new ArrayList<ProviderInfo>()));
+
+        List<ProviderInfo> list = new ArrayList<ProviderInfo>(Arrays.asList(
+            ProviderHelper.toProviderInfo("127.0.0.1:12200"),
+            ProviderHelper.toProviderInfo("127.0.0.1:12201")));
+        ProviderInfoSnapshot snapshot = ProviderInfoSnapshot.of(list);
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertEquals(list, snapshot);
+        Assert.assertEquals(list.hashCode(), snapshot.hashCode());
+
+        // 源列表变化不影响快照
+        list.add(ProviderHelper.toProviderInfo("127.0.0.1:12202"));
+        Assert.assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    public void testVersion() {
+        List<ProviderInfo> list = Arrays.asList(ProviderHelper.toProviderInfo("127.0.0.1:12200"));
+        ProviderInfoSnapshot s1 = ProviderInfoSnapshot.of(list);
+        ProviderInfoSnapshot s2 = ProviderInfoSnapshot.of(list);
+        Assert.assertTrue(s2.getVersion() > s1.getVersion());
+    }
+
+    @Test
+    public void testImmutable() {
+        ProviderInfoSnapshot snapshot = ProviderInfoSnapshot.of(Arrays.asList(
+            ProviderHelper.toProviderInfo("127.0.0.1:12200")));
+        try {
+            snapshot.add(ProviderHelper.toProviderInfo("127.0.0.1:12201"));
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            snapshot.remove(0);
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        List<ProviderInfo> copy = snapshot.toMutableList();
+        copy.remove(0);
+        Assert.assertEquals(1, snapshot.size());
+    }
+}
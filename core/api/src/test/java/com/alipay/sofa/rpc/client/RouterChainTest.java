@@ -73,6 +73,55 @@ public class RouterChainTest {
             RpcInternalContext.getContext().getAttachment(RpcConstants.INTERNAL_KEY_ROUTER_RECORD));
     }
 
+    @Test
+    public void testRouteReadOnlySnapshot() {
+        ConsumerConfig config = new ConsumerConfig();
+        config.setBootstrap("test");
+        final List<List<ProviderInfo>> readOnly = new ArrayList<List<ProviderInfo>>();
+        final List<List<ProviderInfo>> mutable = new ArrayList<List<ProviderInfo>>();
+        List<Router> list = new ArrayList<Router>();
+        // 只读路由拿到快照时不复制
+        list.add(new Router() {
+            @Override
+            public List<ProviderInfo> route(SofaRequest request, List<ProviderInfo> providerInfos) {
+                readOnly.add(providerInfos);
+                return providerInfos;
+            }
+
+            @Override
+            public boolean supportReadOnlyProviders() {
+                return true;
+            }
+        });
+        // 默认的路由拿到可修改的副本，原地筛选不会抛异常
+        list.add(new Router() {
+            @Override
+            public List<ProviderInfo> route(SofaRequest request, List<ProviderInfo> providerInfos) {
+                mutable.add(providerInfos);
+                providerInfos.remove(0);
+                return providerInfos;
+            }
+        });
+        config.setRouterRef(list);
+        RouterChain chain = RouterChain.buildConsumerChain(Bootstraps.from(config));
+
+        ProviderInfoSnapshot snapshot = ProviderInfoSnapshot.of(Arrays.asList(
+            ProviderHelper.toProviderInfo("127.0.0.1:12200"), ProviderHelper.toProviderInfo("127.0.0.1:12201")));
+        List<ProviderInfo> result = chain.route(new SofaRequest(), snapshot);
+        Assert.assertEquals(1, readOnly.size());
+        Assert.assertEquals(1, mutable.size());
+        Assert.assertFalse(mutable.get(0) instanceof ProviderInfoSnapshot);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(12201, result.get(0).getPort());
+        Assert.assertEquals(2, snapshot.size());
+
+        // 快照直接交给只读路由
+        readOnly.clear();
+        chain = new RouterChain(list.subList(0, 1), Bootstraps.from(config));
+        chain.route(new SofaRequest(), snapshot);
+        Assert.assertSame(snapshot, readOnly.get(0));
+    }
+
     @Test
     public void testParseExcludeRouter() throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
         String methodName = "parseExcludeRouter";
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec;
+
+import com.alipay.sofa.rpc.common.RemotingConstants;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.context.RpcInternalContext;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.core.response.SofaResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @since 5.14.3
+ */
+public class CompressNegotiatorTest {
+
+    @Test
+    public void testOnAccept() {
+        CompressNegotiator negotiator = new CompressNegotiator();
+        Assert.assertFalse(negotiator.isAccepted("test"));
+        Assert.assertFalse(negotiator.isAccepted(null));
+
+        negotiator.onAccept(null);
+        negotiator.onAccept("xxx");
+        Assert.assertFalse(negotiator.isAccepted("xxx"));
+
+        negotiator.onAccept("test");
+        Assert.assertTrue(negotiator.isAccepted("test"));
+    }
+
+    @Test
+    public void testDictionary() {
+        SofaRequest request = new SofaRequest();
+        request.setTargetServiceUniqueName("com.test.DictService:1.0");
+        CompressNegotiator.offer(request, "test");
+        Assert.assertEquals("test", request.getRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT));
+        Assert.assertEquals("100", request.getRequestProp(RemotingConstants.HEAD_COMPRESS_DICT));
+
+        SofaRequest noDict = new SofaRequest();
+        noDict.setTargetServiceUniqueName("com.test.Service:1.0");
+        CompressNegotiator.offer(noDict, "test");
+        Assert.assertNull(noDict.getRequestProp(RemotingConstants.HEAD_COMPRESS_DICT));
+
+        try {
+            // 两端字典相同，确认字典并记录服务名
+            RpcInternalContext context = RpcInternalContext.getContext();
+            SofaResponse response = new SofaResponse();
+            CompressNegotiator.confirm(request, response);
+            Assert.assertEquals("100", response.getResponseProp(RemotingConstants.HEAD_COMPRESS_DICT));
+            Assert.assertEquals("com.test.DictService:1.0",
+                context.getAttachment(RpcConstants.HIDDEN_KEY_COMPRESS_SERVICE));
+            RpcInternalContext.removeAllContext();
+
+            // 字典不同，只确认压缩算法，响应不使用字典
+            context = RpcInternalContext.getContext();
+            request.addRequestProp(RemotingConstants.HEAD_COMPRESS_DICT, "200");
+            response = new SofaResponse();
+            CompressNegotiator.confirm(request, response);
+            Assert.assertEquals("test", response.getResponseProp(RemotingConstants.HEAD_COMPRESS_ACCEPT));
+            Assert.assertNull(response.getResponseProp(RemotingConstants.HEAD_COMPRESS_DICT));
+            Assert.assertNull(context.getAttachment(RpcConstants.HIDDEN_KEY_COMPRESS_SERVICE));
+        } finally {
+            RpcInternalContext.removeAllContext();
+        }
+
+        CompressNegotiator negotiator = new CompressNegotiator();
+        negotiator.onAccept("test", "xxx");
+        Assert.assertTrue(negotiator.isAccepted("test"));
+        Assert.assertFalse(negotiator.isDictionaryAccepted("100"));
+        negotiator.onAccept("test", "100");
+        Assert.assertTrue(negotiator.isDictionaryAccepted("100"));
+        Assert.assertFalse(negotiator.isDictionaryAccepted("200"));
+        Assert.assertFalse(negotiator.isDictionaryAccepted(null));
+    }
+
+    @Test
+    public void testConfirm() {
+        SofaRequest request = new SofaRequest();
+        SofaResponse response = new SofaResponse();
+        CompressNegotiator.confirm(request, response);
+        Assert.assertNull(response.getResponseProp(RemotingConstants.HEAD_COMPRESS_ACCEPT));
+
+        request.addRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT, "xxx");
+        CompressNegotiator.confirm(request, response);
+        Assert.assertNull(response.getResponseProp(RemotingConstants.HEAD_COMPRESS_ACCEPT));
+
+        request.addRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT, "test");
+        request.setTargetServiceUniqueName("com.test.Service:1.0");
+        try {
+            RpcInternalContext context = RpcInternalContext.getContext();
+            CompressNegotiator.confirm(request, response);
+            Assert.assertEquals("test", response.getResponseProp(RemotingConstants.HEAD_COMPRESS_ACCEPT));
+            // 调用端没有带字典编号，响应不使用字典
+            Assert.assertNull(response.getResponseProp(RemotingConstants.HEAD_COMPRESS_DICT));
+            Assert.assertNull(context.getAttachment(RpcConstants.HIDDEN_KEY_COMPRESS_SERVICE));
+        } finally {
+            RpcInternalContext.removeAllContext();
+        }
+
+        CompressNegotiator.confirm(null, response);
+        CompressNegotiator.confirm(request, null);
+    }
+
+    @Test
+    public void testAccept() {
+        Assert.assertEquals("test", CompressNegotiator.accept("test"));
+        Assert.assertNull(CompressNegotiator.accept("xxx"));
+        Assert.assertNull(CompressNegotiator.accept(null));
+    }
+
+    @Test
+    public void testBaseline() {
+        Assert.assertFalse(CompressNegotiator.isOverBaseline(0));
+        Assert.assertFalse(CompressNegotiator.isOverBaseline(2047));
+        Assert.assertTrue(CompressNegotiator.isOverBaseline(2048));
+    }
+
+    @Test
+    public void testRecord() {
+        try {
+            RpcInternalContext context = RpcInternalContext.getContext();
+            CompressNegotiator.record(context, true, 100, 25, 1000);
+            CompressNegotiator.record(context, false, 0, 0, 1000);
+            Assert.assertEquals(0.25d, (Double) context.getAttachment(RpcConstants.INTERNAL_KEY_REQ_COMPRESS_RATIO),
+                0.0001d);
+            Assert.assertNull(context.getAttachment(RpcConstants.INTERNAL_KEY_RESP_COMPRESS_RATIO));
+        } finally {
+            RpcInternalContext.removeAllContext();
+        }
+    }
+}
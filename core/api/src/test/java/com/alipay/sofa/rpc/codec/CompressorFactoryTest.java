@@ -51,4 +51,19 @@ public class CompressorFactoryTest {
         } catch (SofaRpcRuntimeException e) {
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void isSupported() throws Exception {
+        Assert.assertTrue(CompressorFactory.isSupported("test"));
+        Assert.assertFalse(CompressorFactory.isSupported("xxx"));
+        Assert.assertFalse(CompressorFactory.isSupported(null));
+        Assert.assertTrue(CompressorFactory.getAliases().contains("test"));
+    }
+
+    @Test
+    public void missingLib() throws Exception {
+        Assert.assertFalse(CompressorFactory.isSupported("missingLib"));
+        Assert.assertFalse(CompressorFactory.getAliases().contains("missingLib"));
+        Assert.assertTrue(CompressorFactory.isSupported("test"));
+    }
+}
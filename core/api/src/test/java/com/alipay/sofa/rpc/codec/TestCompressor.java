@@ -35,4 +35,9 @@ public class TestCompressor implements Compressor {
     public byte[] deCompress(byte[] src) {
         return new byte[0];
     }
+
+    @Override
+    public int getDictionaryId(String service) {
+        return service != null && service.startsWith("com.test.DictService") ? 100 : 0;
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec;
+
+import com.alipay.sofa.rpc.ext.Extension;
+
+/**
+ * 模拟依赖的三方包没有引入的压缩算法
+ *
+ * @since 5.14.3
+ */
+@Extension(value = "missingLib", code = 114)
+public class TestMissingLibCompressor implements Compressor {
+
+    private static final Object LIB = loadLib();
+
+    private static Object loadLib() {
+        throw new NoClassDefFoundError("com/test/MissingLib");
+    }
+
+    @Override
+    public byte[] compress(byte[] src) {
+        return new byte[0];
+    }
+
+    @Override
+    public byte[] deCompress(byte[] src) {
+        return new byte[0];
+    }
+}
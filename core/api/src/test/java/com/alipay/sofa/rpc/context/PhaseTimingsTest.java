@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.context;
+
+import com.alipay.sofa.rpc.common.RpcConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * @since 5.14.3
+ */
+public class PhaseTimingsTest {
+
+    @Test
+    public void testRecord() {
+        PhaseTimings timings = new PhaseTimings();
+        Assert.assertTrue(timings.isEmpty());
+        Assert.assertFalse(timings.isRecorded(InvokePhase.CLIENT_ROUTER_TIME_NANO));
+
+        timings.record(InvokePhase.CLIENT_ROUTER_TIME_NANO, 0);
+        Assert.assertTrue(timings.isRecorded(InvokePhase.CLIENT_ROUTER_TIME_NANO));
+        Assert.assertEquals(0, timings.get(InvokePhase.CLIENT_ROUTER_TIME_NANO));
+
+        timings.record(InvokePhase.PROVIDER_FILTER_START_TIME_NANO, 100);
+        Assert.assertEquals(-1,
+            timings.between(InvokePhase.PROVIDER_FILTER_START_TIME_NANO, InvokePhase.PROVIDER_FILTER_END_TIME_NANO));
+        timings.record(InvokePhase.PROVIDER_FILTER_END_TIME_NANO, 350);
+        Assert.assertEquals(250,
+            timings.between(InvokePhase.PROVIDER_FILTER_START_TIME_NANO, InvokePhase.PROVIDER_FILTER_END_TIME_NANO));
+
+        PhaseTimings copy = timings.copy();
+        timings.remove(InvokePhase.PROVIDER_FILTER_END_TIME_NANO);
+        Assert.assertFalse(timings.isRecorded(InvokePhase.PROVIDER_FILTER_END_TIME_NANO));
+        Assert.assertEquals(350, copy.get(InvokePhase.PROVIDER_FILTER_END_TIME_NANO));
+
+        Map<String, Long> map = copy.toMap();
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(Long.valueOf(100), map.get(RpcConstants.INTERNAL_KEY_PROVIDER_FILTER_START_TIME_NANO));
+
+        timings.reset();
+        Assert.assertTrue(timings.isEmpty());
+        Assert.assertEquals(0, timings.get(InvokePhase.PROVIDER_FILTER_START_TIME_NANO));
+    }
+
+    @Test
+    public void testInvokeContextCompatible() {
+        RpcInvokeContext context = new RpcInvokeContext();
+        Assert.assertNull(context.getPhaseTimings());
+        Assert.assertEquals(-1, context.getPhase(InvokePhase.CLIENT_BALANCER_TIME_NANO));
+
+        // 按key写入的阶段记录到固定下标，按key读取仍然兼容
+        context.put(RpcConstants.INTERNAL_KEY_CLIENT_BALANCER_TIME_NANO, 12L);
+        Assert.assertNull(context.map);
+        Assert.assertEquals(12, context.getPhase(InvokePhase.CLIENT_BALANCER_TIME_NANO));
+        context.recordPhase(InvokePhase.IMPL_ELAPSE_NANO, 34);
+        Assert.assertEquals(34L, context.get(RpcConstants.INTERNAL_KEY_IMPL_ELAPSE_NANO));
+        Assert.assertEquals(34L, context.remove(RpcConstants.INTERNAL_KEY_IMPL_ELAPSE_NANO));
+        Assert.assertNull(context.get(RpcConstants.INTERNAL_KEY_IMPL_ELAPSE_NANO));
+
+        // 非数字的值仍然放在Map里
+        context.put(RpcConstants.INTERNAL_KEY_SERVER_NET_WAIT_NANO, "x");
+        Assert.assertEquals("x", context.get(RpcConstants.INTERNAL_KEY_SERVER_NET_WAIT_NANO));
+
+        RpcInvokeContext.setContext(context);
+        try {
+            RpcInvokeContext child = RpcInvokeContext.peekContext();
+            Assert.assertNotSame(context.getPhaseTimings(), child.getPhaseTimings());
+            Assert.assertEquals(12, child.getPhase(InvokePhase.CLIENT_BALANCER_TIME_NANO));
+        } finally {
+            RpcInvokeContext.removeContext();
+        }
+    }
+
+    @Test
+    public void testConcurrentRecord() throws Exception {
+        final InvokePhase[] phases = InvokePhase.values();
+        for (int round = 0; round < 100; round++) {
+            // 通过上下文记录，同时覆盖 PhaseTimings 的并发创建
+            final RpcInvokeContext context = new RpcInvokeContext();
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                final int offset = t;
+                threads[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        // 每个线程记录不同的阶段，置位不能互相覆盖
+                        for (int i = offset; i < phases.length; i += 4) {
+                            context.recordPhase(phases[i], i + 1);
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (int i = 0; i < phases.length; i++) {
+                Assert.assertEquals(i + 1, context.getPhase(phases[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.context;
+
+import com.alibaba.ttl.TransmittableThreadLocal;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.core.util.SafeConcurrentHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次调用上下文设置和清理的开销，legacy 模拟改造前的实现：TransmittableThreadLocal、
+ * 每次新建的 ConcurrentHashMap 附件、每次新建的栈以及调用上下文里提前创建的四个 Map。
+ * <p>
+ * 加上 -Dcontext.transmittable.enable=false 可以对比普通 ThreadLocal 的效果。
+ *
+ * @since 5.14.3
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RpcContextBenchMark {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(RpcContextBenchMark.class.getSimpleName())
+            .addProfiler("gc")
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public Object current() {
+        RpcInternalContext context = RpcInternalContext.getContext();
+        context.setAttachment(RpcConstants.INTERNAL_KEY_APP_NAME, "app");
+        context.setAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE, 128);
+        context.setAttachment(RpcConstants.INTERNAL_KEY_RESP_SIZE, 256);
+        context.setAttachment(RpcConstants.INTERNAL_KEY_CLIENT_ELAPSE, 3);
+        RpcInvokeContext invokeContext = RpcInvokeContext.getContext();
+        invokeContext.clearCustomHeader();
+        RpcInternalContext.pushContext();
+        RpcInternalContext.popContext();
+        Object result = context.getAttachment(RpcConstants.INTERNAL_KEY_RESP_SIZE);
+        RpcInternalContext.removeAllContext();
+        RpcInvokeContext.removeContext();
+        return result;
+    }
+
+    @Benchmark
+    public Object legacy() {
+        LegacyContext context = LegacyContext.getContext();
+        context.attachments.put(RpcConstants.INTERNAL_KEY_APP_NAME, "app");
+        context.attachments.put(RpcConstants.INTERNAL_KEY_REQ_SIZE, 128);
+        context.attachments.put(RpcConstants.INTERNAL_KEY_RESP_SIZE, 256);
+        context.attachments.put(RpcConstants.INTERNAL_KEY_CLIENT_ELAPSE, 3);
+        LegacyInvokeContext invokeContext = LegacyInvokeContext.getContext();
+        invokeContext.customHeader.clear();
+        LegacyContext.pushContext();
+        LegacyContext.popContext();
+        Object result = context.attachments.get(RpcConstants.INTERNAL_KEY_RESP_SIZE);
+        LegacyContext.removeAllContext();
+        LegacyInvokeContext.LOCAL.remove();
+        return result;
+    }
+
+    static class LegacyContext {
+        static final ThreadLocal<LegacyContext>        LOCAL       = new TransmittableThreadLocal<LegacyContext>();
+
+        static final ThreadLocal<Deque<LegacyContext>> DEQUE_LOCAL = new ThreadLocal<Deque<LegacyContext>>();
+
+        final Map<String, Object>                      attachments = new ConcurrentHashMap<String, Object>();
+
+        static LegacyContext getContext() {
+            LegacyContext context = LOCAL.get();
+            if (context == null) {
+                context = new LegacyContext();
+                LOCAL.set(context);
+            }
+            return context;
+        }
+
+        static void pushContext() {
+            LegacyContext context = LOCAL.get();
+            if (context != null) {
+                Deque<LegacyContext> deque = DEQUE_LOCAL.get();
+                if (deque == null) {
+                    deque = new ArrayDeque<LegacyContext>();
+                    DEQUE_LOCAL.set(deque);
+                }
+                deque.push(context);
+                LOCAL.set(null);
+            }
+        }
+
+        static void popContext() {
+            Deque<LegacyContext> deque = DEQUE_LOCAL.get();
+            if (deque != null && deque.peek() != null) {
+                LOCAL.set(deque.pop());
+            }
+        }
+
+        static void removeAllContext() {
+            LOCAL.remove();
+            DEQUE_LOCAL.remove();
+        }
+    }
+
+    static class LegacyInvokeContext {
+        static final ThreadLocal<LegacyInvokeContext> LOCAL           = new ThreadLocal<LegacyInvokeContext>();
+
+        final Map<String, String>                     customHeader    = new SafeConcurrentHashMap<>();
+
+        final Map<String, Object>                     map             = new SafeConcurrentHashMap<>();
+
+        final Map<String, String>                     requestBaggage  = new SafeConcurrentHashMap<>();
+
+        final Map<String, String>                     responseBaggage = new SafeConcurrentHashMap<>();
+
+        static LegacyInvokeContext getContext() {
+            LegacyInvokeContext context = LOCAL.get();
+            if (context == null) {
+                context = new LegacyInvokeContext();
+                LOCAL.set(context);
+            }
+            return context;
+        }
+    }
+}
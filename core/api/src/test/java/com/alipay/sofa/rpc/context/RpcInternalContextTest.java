@@ -17,6 +17,7 @@
 package com.alipay.sofa.rpc.context;
 
 import com.alipay.sofa.rpc.client.ProviderHelper;
+import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
 import com.alipay.sofa.rpc.message.ResponseFuture;
 import org.junit.After;
@@ -26,6 +27,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -136,6 +138,65 @@ public class RpcInternalContextTest {
         Assert.assertNull(context.removeAttachment("11"));
     }
 
+    @Test
+    public void testAttachmentSlots() {
+        RpcInternalContext context = RpcInternalContext.getContext();
+        context.setAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE, 10);
+        context.setAttachment("_custom", "c");
+        Assert.assertEquals(10, context.getAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE));
+        Assert.assertEquals("c", context.getAttachment("_custom"));
+
+        Map<String, Object> attachments = context.getAttachments();
+        Assert.assertEquals(2, attachments.size());
+        Assert.assertSame(attachments, context.getAttachments());
+        // 返回的是视图，修改会写回上下文
+        attachments.put("_other", "o");
+        Assert.assertEquals("o", context.getAttachment("_other"));
+        Assert.assertEquals(3, attachments.size());
+        attachments.remove("_other");
+        Assert.assertNull(context.getAttachment("_other"));
+        context.setAttachment(RpcConstants.INTERNAL_KEY_RESP_SIZE, 5);
+        Assert.assertEquals(5, attachments.get(RpcConstants.INTERNAL_KEY_RESP_SIZE));
+        Iterator<Map.Entry<String, Object>> it = attachments.entrySet().iterator();
+        while (it.hasNext()) {
+            if (RpcConstants.INTERNAL_KEY_RESP_SIZE.equals(it.next().getKey())) {
+                it.remove();
+            }
+        }
+        Assert.assertNull(context.getAttachment(RpcConstants.INTERNAL_KEY_RESP_SIZE));
+
+        RpcInternalContext cloned = context.clone();
+        context.setAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE, 20);
+        context.setAttachment("_custom", null);
+        Assert.assertEquals(10, cloned.getAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE));
+        Assert.assertEquals("c", cloned.getAttachment("_custom"));
+        Assert.assertNull(context.getAttachment("_custom"));
+
+        Assert.assertEquals(20, context.removeAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE));
+        Assert.assertNull(context.getAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE));
+
+        Assert.assertNotSame(attachments, cloned.getAttachments());
+        Assert.assertEquals("c", cloned.getAttachments().get("_custom"));
+
+        cloned.clear();
+        Assert.assertTrue(cloned.getAttachments().isEmpty());
+    }
+
+    @Test
+    public void testRemoveAllContextKeepStack() {
+        RpcInternalContext parent = RpcInternalContext.getContext();
+        RpcInternalContext.pushContext();
+        RpcInternalContext.removeAllContext();
+        // 栈已经清空，pop不会取回之前的上下文
+        RpcInternalContext.popContext();
+        Assert.assertNull(RpcInternalContext.peekContext());
+
+        RpcInternalContext.getContext();
+        RpcInternalContext.pushContext();
+        RpcInternalContext.popContext();
+        Assert.assertNotSame(parent, RpcInternalContext.peekContext());
+    }
+
     @Test
     public void testClear() {
         RpcInternalContext context = RpcInternalContext.getContext();
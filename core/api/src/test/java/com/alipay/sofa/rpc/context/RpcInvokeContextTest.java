@@ -224,6 +224,75 @@ public class RpcInvokeContextTest {
         Assert.assertEquals(1, ctx.getAllResponseBaggage().size());
     }
 
+    @Test
+    public void testLazyMaps() {
+        RpcInvokeContext ctx = new RpcInvokeContext();
+        Assert.assertNull(ctx.map);
+        Assert.assertNull(ctx.customHeader);
+        Assert.assertNull(ctx.get("key"));
+        Assert.assertNull(ctx.remove("key"));
+        Assert.assertFalse(ctx.hasCustomHeader());
+        Assert.assertFalse(ctx.hasRequestBaggage());
+        Assert.assertFalse(ctx.hasResponseBaggage());
+        ctx.clearCustomHeader();
+        Assert.assertNull(ctx.customHeader);
+
+        ctx.put("key", "value");
+        ctx.addCustomHeader("header", "value");
+        Assert.assertEquals("value", ctx.get("key"));
+        Assert.assertTrue(ctx.hasCustomHeader());
+
+        RpcInvokeContext.setContext(ctx);
+        RpcInvokeContext child = RpcInvokeContext.peekContext();
+        try {
+            Assert.assertNotSame(ctx, child);
+            Assert.assertEquals("value", child.get("key"));
+            child.put("key", "child");
+            Assert.assertEquals("value", ctx.get("key"));
+            Assert.assertNull(child.requestBaggage);
+        } finally {
+            RpcInvokeContext.removeContext();
+        }
+    }
+
+    @Test
+    public void testConcurrentLazyInit() throws InterruptedException {
+        for (int round = 0; round < 100; round++) {
+            final RpcInvokeContext ctx = new RpcInvokeContext();
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[4];
+            for (int i = 0; i < threads.length; i++) {
+                final String key = "key" + i;
+                threads[i] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    ctx.put(key, key);
+                    ctx.addCustomHeader(key, key);
+                    ctx.putRequestBaggage(key, key);
+                    ctx.putResponseBaggage(key, key);
+                });
+                threads[i].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            // 同时创建时只有一个 Map 生效，不会丢失写入
+            for (int i = 0; i < threads.length; i++) {
+                String key = "key" + i;
+                Assert.assertEquals(key, ctx.get(key));
+                Assert.assertEquals(key, ctx.getCustomHeader().get(key));
+                if (RpcInvokeContext.isBaggageEnable()) {
+                    Assert.assertEquals(key, ctx.getRequestBaggage(key));
+                    Assert.assertEquals(key, ctx.getResponseBaggage(key));
+                }
+            }
+        }
+    }
+
     private boolean isEmpty(Map<String, String> allResponseBaggage) {
         return allResponseBaggage == null || allResponseBaggage.size() == 0;
     }
@@ -39,6 +39,17 @@ public class SofaRequestTest {
         Assert.assertNotNull(request.toString());
     }
 
+    @Test
+    public void testMethodIndexReset() throws Exception {
+        SofaRequest request = new SofaRequest();
+        request.setMethodIndex(3);
+        request.setMethod(Invoker.class.getMethod("invoke", SofaRequest.class));
+        Assert.assertEquals(-1, request.getMethodIndex());
+        request.setMethodIndex(3);
+        request.setMethodName("invoke");
+        Assert.assertEquals(-1, request.getMethodIndex());
+    }
+
     @Test
     public void getRequestProp() throws Exception {
         SofaRequest request = new SofaRequest();
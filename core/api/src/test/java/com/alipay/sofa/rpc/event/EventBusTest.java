@@ -21,6 +21,13 @@ import com.alipay.sofa.rpc.common.RpcOptions;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  *
  *
@@ -67,4 +74,139 @@ public class EventBusTest {
         Assert.assertEquals(EventBus.isEnable(TestEvent.class), false);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void asyncPost() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(100);
+        final AtomicInteger count = new AtomicInteger();
+        Subscriber subscriber = new Subscriber(false) {
+            @Override
+            public void onEvent(Event event) {
+                count.incrementAndGet();
+                latch.countDown();
+            }
+        };
+        TestSubscriber syncSubscriber = new TestSubscriber();
+        try {
+            EventBus.register(TestEvent.class, subscriber);
+            EventBus.register(TestEvent.class, syncSubscriber);
+            for (int i = 0; i < 100; i++) {
+                EventBus.post(new TestEvent("async" + i));
+            }
+            Assert.assertEquals("async99", syncSubscriber.getCache());
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(100, count.get());
+            Assert.assertEquals(0, EventBus.getOverflowCount(TestEvent.class));
+        } finally {
+            EventBus.unRegister(TestEvent.class, subscriber);
+            EventBus.unRegister(TestEvent.class, syncSubscriber);
+        }
+        Assert.assertFalse(EventBus.isEnable(TestEvent.class));
+    }
+
+    @Test
+    public void asyncSubscribersOfPostTime() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        Subscriber blocker = new Subscriber(false) {
+            @Override
+            public void onEvent(Event event) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }
+        };
+        final List<String> received = new CopyOnWriteArrayList<String>();
+        final CountDownLatch lateDone = new CountDownLatch(1);
+        Subscriber late = new Subscriber(false) {
+            @Override
+            public void onEvent(Event event) {
+                received.add(((TestEvent) event).getName());
+                lateDone.countDown();
+            }
+        };
+        try {
+            EventBus.register(TestEvent.class, blocker);
+            EventBus.post(new TestEvent("e1"));
+            Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            EventBus.post(new TestEvent("e2"));
+            // 派发前注册的订阅者不会收到之前发送的事件，派发前反注册的订阅者仍会收到
+            EventBus.register(TestEvent.class, late);
+            EventBus.unRegister(TestEvent.class, blocker);
+            release.countDown();
+            Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+            EventBus.post(new TestEvent("e3"));
+            Assert.assertTrue(lateDone.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals("[e3]", received.toString());
+        } finally {
+            release.countDown();
+            EventBus.unRegister(TestEvent.class, blocker);
+            EventBus.unRegister(TestEvent.class, late);
+        }
+    }
+
+    @Test
+    public void asyncSubscribersIndependent() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        Subscriber slow = new Subscriber(false) {
+            @Override
+            public void onEvent(Event event) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final CountDownLatch fastDone = new CountDownLatch(10);
+        Subscriber fast = new Subscriber(false) {
+            @Override
+            public void onEvent(Event event) {
+                fastDone.countDown();
+            }
+        };
+        try {
+            EventBus.register(TestEvent.class, slow);
+            EventBus.register(TestEvent.class, fast);
+            for (int i = 0; i < 10; i++) {
+                EventBus.post(new TestEvent("e" + i));
+            }
+            // 慢的订阅者还没有处理完第一个事件，其它订阅者不受影响
+            Assert.assertTrue(fastDone.await(3, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            EventBus.unRegister(TestEvent.class, slow);
+            EventBus.unRegister(TestEvent.class, fast);
+        }
+    }
+
+    @Test
+    public void shutdownDispatcher() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        Subscriber subscriber = new Subscriber(false) {
+            @Override
+            public void onEvent(Event event) {
+                latch.countDown();
+            }
+        };
+        try {
+            EventBus.register(TestEvent.class, subscriber);
+            EventBus.post(new TestEvent("before"));
+            ThreadPoolExecutor executor = EventBus.getDispatcher().peekExecutor();
+            Assert.assertNotNull(executor);
+            EventBus.getDispatcher().shutdown();
+            Assert.assertNull(EventBus.getDispatcher().peekExecutor());
+            Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            // 关闭后再有事件时重新创建线程池
+            EventBus.post(new TestEvent("after"));
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assert.assertNotNull(EventBus.getDispatcher().peekExecutor());
+        } finally {
+            EventBus.unRegister(TestEvent.class, subscriber);
+        }
+    }
+}
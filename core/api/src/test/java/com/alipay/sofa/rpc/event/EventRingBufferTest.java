@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.event;
+
+import com.alipay.sofa.rpc.context.RpcInternalContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class EventRingBufferTest {
+
+    private static class CollectHandler implements EventRingBuffer.EventHandler {
+
+        private final List<String> names = new ArrayList<String>();
+
+        @Override
+        public void handle(Event event, RpcInternalContext context, Subscriber[] subscribers) {
+            names.add(((TestEvent) event).getName());
+        }
+    }
+
+    @Test
+    public void testOverflowAndDrain() {
+        EventRingBuffer ringBuffer = new EventRingBuffer(TestEvent.class, 3);
+        Assert.assertEquals(4, ringBuffer.capacity());
+        Assert.assertTrue(ringBuffer.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(ringBuffer.offer(new TestEvent("e" + i), null, null));
+        }
+        Assert.assertFalse(ringBuffer.offer(new TestEvent("e4"), null, null));
+        Assert.assertEquals(1, ringBuffer.getOverflowCount());
+
+        CollectHandler handler = new CollectHandler();
+        Assert.assertEquals(3, ringBuffer.drain(handler, 3));
+        Assert.assertTrue(ringBuffer.offer(new TestEvent("e5"), null, null));
+        Assert.assertEquals(2, ringBuffer.drain(handler, 10));
+        Assert.assertTrue(ringBuffer.isEmpty());
+        Assert.assertEquals("[e0, e1, e2, e3, e5]", handler.names.toString());
+    }
+
+    @Test
+    public void testConcurrentOffer() throws Exception {
+        final EventRingBuffer ringBuffer = new EventRingBuffer(TestEvent.class, 1024);
+        int threads = 4;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 500; j++) {
+                            ringBuffer.offer(new TestEvent("e"), null, null);
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        CollectHandler handler = new CollectHandler();
+        int drained = ringBuffer.drain(handler, Integer.MAX_VALUE);
+        Assert.assertEquals(1024, drained);
+        Assert.assertEquals(2000 - 1024, ringBuffer.getOverflowCount());
+    }
+
+    @Test
+    public void testWarnInterval() {
+        EventRingBuffer ringBuffer = new EventRingBuffer(TestEvent.class, 2);
+        Assert.assertTrue(ringBuffer.tryWarn(100000L, 60000L));
+        Assert.assertFalse(ringBuffer.tryWarn(100001L, 60000L));
+        Assert.assertFalse(ringBuffer.tryWarn(159999L, 60000L));
+        Assert.assertTrue(ringBuffer.tryWarn(160000L, 60000L));
+    }
+}
@@ -19,12 +19,15 @@ package com.alipay.sofa.rpc.filter;
 import com.alipay.sofa.rpc.codec.Serializer;
 import com.alipay.sofa.rpc.config.ConsumerConfig;
 import com.alipay.sofa.rpc.config.ProviderConfig;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
@@ -71,4 +74,72 @@ public class FilterChainTest {
         result = (String) response.getAppResponse();
         Assert.assertEquals("xxx_q0_q7_q2_q4_q0_q6_q7_a4_a2_a7_a0", result);
     }
+
+    @Test
+    public void buildMethodChain() {
+        ConsumerConfig consumerConfig = new ConsumerConfig();
+        consumerConfig.setInterfaceId(Serializer.class.getName());
+
+        final AtomicInteger checked = new AtomicInteger();
+        Filter methodFilter = new Filter() {
+            @Override
+            public boolean isMethodAgnostic() {
+                return false;
+            }
+
+            @Override
+            public boolean needToLoad(FilterInvoker invoker, String methodName) {
+                checked.incrementAndGet();
+                return "encode".equals(methodName);
+            }
+
+            @Override
+            public SofaResponse invoke(FilterInvoker invoker, SofaRequest request) throws SofaRpcException {
+                request.getMethodArgs()[0] = request.getMethodArgs()[0] + "_m";
+                return invoker.invoke(request);
+            }
+
+            @Override
+            public void onAsyncResponse(ConsumerConfig config, SofaRequest request, SofaResponse response,
+                                        Throwable exception) throws SofaRpcException {
+                response.setAppResponse(response.getAppResponse() + "_am");
+            }
+        };
+        List<Filter> filters = new ArrayList<Filter>();
+        filters.add(new TestChainFilter2());
+        filters.add(methodFilter);
+        FilterChain chain = new FilterChain(filters, new FilterInvoker(consumerConfig) {
+            @Override
+            public SofaResponse invoke(SofaRequest request) throws SofaRpcException {
+                SofaResponse response = new SofaResponse();
+                response.setAppResponse(request.getMethodArgs()[0]);
+                return response;
+            }
+        }, consumerConfig);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("xxx_q2_m_s2", chain.invoke(buildRequest("encode", "sync")).getAppResponse());
+            Assert.assertEquals("xxx_q2_s2", chain.invoke(buildRequest("decode", "sync")).getAppResponse());
+        }
+        // 每个方法只判断一次
+        Assert.assertEquals(2, checked.get());
+
+        SofaRequest request = buildRequest("encode", "callback");
+        SofaResponse response = chain.invoke(request);
+        chain.onAsyncResponse(consumerConfig, request, response, null);
+        Assert.assertEquals("xxx_q2_m_am_a2", response.getAppResponse());
+
+        request = buildRequest("decode", "callback");
+        response = chain.invoke(request);
+        chain.onAsyncResponse(consumerConfig, request, response, null);
+        Assert.assertEquals("xxx_q2_a2", response.getAppResponse());
+    }
+
+    private SofaRequest buildRequest(String methodName, String invokeType) {
+        SofaRequest request = new SofaRequest();
+        request.setMethodName(methodName);
+        request.setMethodArgs(new String[] { "xxx" });
+        request.setInvokeType(invokeType);
+        return request;
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.invoke;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * @since 5.14.3
+ */
+public class ServiceMethodTableTest {
+
+    public interface ParentA {
+        String echo(String s);
+    }
+
+    public interface ParentB {
+        String echo(String s);
+    }
+
+    public interface OverloadService extends ParentA, ParentB {
+        String echo(String s, int i);
+
+        String echo(int[] a);
+
+        void say(List<String> list);
+
+        static String version() {
+            return "1";
+        }
+    }
+
+    @Test
+    public void testSlotOf() throws Exception {
+        ServiceMethodTable table = ServiceMethodTable.of(OverloadService.class);
+        // 两个父接口声明的 echo(String) 合并为一个
+        Assert.assertEquals(5, table.size());
+
+        int slot = table.slotOf("echo", new String[] { "java.lang.String" });
+        Assert.assertTrue(slot >= 0);
+        Assert.assertEquals("echo", table.getMethod(slot).getName());
+        Assert.assertEquals(slot, table.slotOf(ParentA.class.getMethod("echo", String.class)));
+        Assert.assertEquals(slot, table.slotOf(ParentB.class.getMethod("echo", String.class)));
+
+        Method echo2 = OverloadService.class.getMethod("echo", String.class, int.class);
+        Assert.assertEquals(echo2, table.getMethod(table.slotOf("echo", new String[] { "java.lang.String", "int" })));
+        Assert.assertEquals(table.slotOf(echo2), table.slotOf("echo", new String[] { "java.lang.String", "int" }));
+        Assert.assertEquals(OverloadService.class.getMethod("echo", int[].class),
+            table.getMethod(table.slotOf("echo", new String[] { "[I" })));
+        Assert.assertEquals(OverloadService.class.getMethod("say", List.class),
+            table.getMethod(table.slotOf("say", new String[] { "java.util.List" })));
+
+        int version = table.slotOf("version", null);
+        Assert.assertTrue(version >= 0);
+        Assert.assertFalse(table.isInstanceMethod(version));
+        Assert.assertTrue(table.isInstanceMethod(slot));
+
+        Assert.assertEquals(-1, table.slotOf("echo", new String[] { "int[]" }));
+        Assert.assertEquals(-1, table.slotOf("echo", new String[0]));
+        Assert.assertEquals(-1, table.slotOf("echo", new String[] { null }));
+        Assert.assertEquals(-1, table.slotOf("nothing", null));
+        Assert.assertEquals(-1, table.slotOf(null, null));
+        Assert.assertEquals(-1, table.slotOf(Object.class.getMethod("toString")));
+        Assert.assertNull(table.getMethod(-1));
+        Assert.assertNull(table.getMethod(table.size()));
+    }
+
+    @Test
+    public void testStableOrder() {
+        ServiceMethodTable table = ServiceMethodTable.of(OverloadService.class);
+        Method[] methods = table.getMethods();
+        // 按方法名、参数个数、参数签名排序，不依赖 getMethods() 的顺序
+        Assert.assertArrayEquals(new Class[] { int[].class }, methods[0].getParameterTypes());
+        Assert.assertArrayEquals(new Class[] { String.class }, methods[1].getParameterTypes());
+        Assert.assertArrayEquals(new Class[] { String.class, int.class }, methods[2].getParameterTypes());
+        Assert.assertEquals("say", methods[3].getName());
+        Assert.assertEquals("version", methods[4].getName());
+        methods[0] = null;
+        Assert.assertNotNull(table.getMethod(0));
+    }
+}
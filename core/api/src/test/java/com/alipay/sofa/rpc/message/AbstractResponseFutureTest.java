@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.message;
+
+import com.alipay.sofa.rpc.core.exception.RpcErrorType;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
+import com.alipay.sofa.rpc.core.request.RequestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class AbstractResponseFutureTest {
+
+    @Test
+    public void testCompletionCallback() {
+        RecordCallback callback = new RecordCallback();
+        TestFuture future = new TestFuture();
+        future.setCompletionCallback(callback);
+        Assert.assertEquals(0, callback.count.get());
+        future.setSuccess("ok");
+        Assert.assertEquals(1, callback.count.get());
+        Assert.assertEquals("response", callback.type.get());
+
+        // 已完成时设置，立即通知
+        RecordCallback late = new RecordCallback();
+        future.setCompletionCallback(late);
+        Assert.assertEquals(1, late.count.get());
+        Assert.assertEquals("response", late.type.get());
+    }
+
+    @Test
+    public void testCompletionCallbackFailure() {
+        RecordCallback callback = new RecordCallback();
+        TestFuture future = new TestFuture();
+        future.setCompletionCallback(callback);
+        future.setFailure(new SofaRpcException(RpcErrorType.CLIENT_TIMEOUT, "timeout"));
+        Assert.assertEquals(1, callback.count.get());
+        Assert.assertEquals("sofa", callback.type.get());
+
+        callback = new RecordCallback();
+        future = new TestFuture();
+        future.setCompletionCallback(callback);
+        future.setFailure(new IllegalStateException("biz"));
+        Assert.assertEquals(1, callback.count.get());
+        Assert.assertEquals("app", callback.type.get());
+    }
+
+    private static class RecordCallback implements SofaResponseCallback {
+
+        private final AtomicInteger           count = new AtomicInteger();
+
+        private final AtomicReference<String> type  = new AtomicReference<String>();
+
+        @Override
+        public void onAppResponse(Object appResponse, String methodName, RequestBase request) {
+            count.incrementAndGet();
+            type.set("response");
+        }
+
+        @Override
+        public void onAppException(Throwable throwable, String methodName, RequestBase request) {
+            count.incrementAndGet();
+            type.set("app");
+        }
+
+        @Override
+        public void onSofaException(SofaRpcException sofaException, String methodName, RequestBase request) {
+            count.incrementAndGet();
+            type.set("sofa");
+        }
+    }
+
+    private static class TestFuture extends AbstractResponseFuture<String> {
+
+        TestFuture() {
+            super(1000);
+        }
+
+        @Override
+        protected String getNow() throws ExecutionException {
+            return (String) result;
+        }
+
+        @Override
+        protected void releaseIfNeed(Object result) {
+        }
+
+        @Override
+        public ResponseFuture addListeners(List<SofaResponseCallback> sofaResponseCallbacks) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseFuture addListener(SofaResponseCallback sofaResponseCallback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void notifyListeners() {
+        }
+    }
+}
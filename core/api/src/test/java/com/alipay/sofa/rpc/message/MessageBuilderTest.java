@@ -67,6 +67,23 @@ public class MessageBuilderTest {
         Assert.assertArrayEquals(request.getMethodArgSigs(), new String[] { "java.lang.Object" });
     }
 
+    @Test
+    public void buildSofaRequestWithDescriptor() throws Exception {
+        Method method = Comparable.class.getMethod("compareTo", Object.class);
+        MethodDescriptor descriptor = MethodDescriptor.of(method);
+        SofaRequest request = MessageBuilder.buildSofaRequest(descriptor, new Object[] { null });
+        Assert.assertEquals(Comparable.class.getName(), request.getInterfaceName());
+        Assert.assertEquals("compareTo", request.getMethodName());
+        Assert.assertEquals(method, request.getMethod());
+        Assert.assertSame(descriptor, request.getMethodDescriptor());
+        Assert.assertArrayEquals(new Object[] { null }, request.getMethodArgs());
+        Assert.assertArrayEquals(new String[] { "java.lang.Object" }, request.getMethodArgSigs());
+
+        request = MessageBuilder.buildSofaRequest(MethodDescriptor.of(Number.class.getMethod("intValue")), null);
+        Assert.assertArrayEquals(CodecUtils.EMPTY_OBJECT_ARRAY, request.getMethodArgs());
+        Assert.assertArrayEquals(StringUtils.EMPTY_STRING_ARRAY, request.getMethodArgSigs());
+    }
+
     @Test
     public void buildSofaErrorResponse() throws Exception {
         SofaResponse response = MessageBuilder.buildSofaErrorResponse("xxx");
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.message;
+
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.config.MethodConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @since 5.14.3
+ */
+public class MethodDescriptorTest {
+
+    public interface ParentService {
+        String echo(String s, int[] a, List<String> l);
+    }
+
+    public interface ChildService extends ParentService, Serializable {
+    }
+
+    @Test
+    public void testDescriptor() throws Exception {
+        Method echo = ParentService.class.getMethod("echo", String.class, int[].class, List.class);
+        MethodDescriptor descriptor = MethodDescriptor.of(echo);
+        Assert.assertSame(descriptor, MethodDescriptor.of(echo));
+        Assert.assertSame(descriptor, MethodDescriptor.of(ParentService.class.getMethod("echo", String.class,
+            int[].class, List.class)));
+        Assert.assertEquals(ParentService.class.getName(), descriptor.getInterfaceName());
+        Assert.assertEquals("echo", descriptor.getMethodName());
+        Assert.assertArrayEquals(new String[] { "java.lang.String", "[I", "java.util.List" },
+            descriptor.getArgSigs());
+        Assert.assertSame("java.lang.String", descriptor.getArgSigs()[0]);
+        Assert.assertEquals(MethodDescriptor.KIND_REMOTE, descriptor.getKind());
+
+        // 继承的方法按代理接口区分
+        MethodDescriptor child = MethodDescriptor.of(ChildService.class, echo);
+        Assert.assertNotSame(descriptor, child);
+        Assert.assertSame(child, MethodDescriptor.of(ChildService.class, echo));
+        Assert.assertEquals(ChildService.class.getName(), child.getInterfaceName());
+        Assert.assertNotEquals(descriptor.getMethodId(), child.getMethodId());
+        Assert.assertSame(descriptor, MethodDescriptor.of(ParentService.class, echo));
+    }
+
+    @Test
+    public void testKind() throws Exception {
+        Assert.assertEquals(MethodDescriptor.KIND_TO_STRING,
+            MethodDescriptor.of(Object.class.getMethod("toString")).getKind());
+        Assert.assertEquals(MethodDescriptor.KIND_HASH_CODE,
+            MethodDescriptor.of(Object.class.getMethod("hashCode")).getKind());
+        Assert.assertEquals(MethodDescriptor.KIND_EQUALS,
+            MethodDescriptor.of(Object.class.getMethod("equals", Object.class)).getKind());
+        Assert.assertEquals(MethodDescriptor.KIND_REMOTE,
+            MethodDescriptor.of(Integer.class.getMethod("toString", int.class)).getKind());
+    }
+
+    @Test
+    public void testMethodConfig() throws Exception {
+        MethodDescriptor descriptor = MethodDescriptor.of(ParentService.class.getMethod("echo", String.class,
+            int[].class, List.class));
+        ConsumerConfig<ParentService> consumerConfig = new ConsumerConfig<ParentService>()
+            .setInterfaceId(ParentService.class.getName())
+            .setTimeout(1000);
+        Assert.assertEquals(1000, consumerConfig.getMethodTimeout(descriptor));
+        Assert.assertEquals(RpcConstants.INVOKER_TYPE_SYNC, consumerConfig.getMethodInvokeType(descriptor));
+
+        consumerConfig = new ConsumerConfig<ParentService>()
+            .setInterfaceId(ParentService.class.getName())
+            .setTimeout(1000)
+            .setMethods(Collections.singletonList(new MethodConfig().setName("echo").setTimeout(3000)
+                .setInvokeType(RpcConstants.INVOKER_TYPE_ONEWAY)));
+        consumerConfig.getConfigValueCache(true);
+        Assert.assertEquals(consumerConfig.getMethodTimeout("echo"), consumerConfig.getMethodTimeout(descriptor));
+        Assert.assertEquals(3000, consumerConfig.getMethodTimeout(descriptor));
+        Assert.assertEquals(RpcConstants.INVOKER_TYPE_ONEWAY, consumerConfig.getMethodInvokeType(descriptor));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since 5.14.3
+ */
+public class AdmissionControlledExecutorTest {
+
+    @Test
+    public void testAdmission() throws InterruptedException {
+        ExecutorService delegate = Executors.newCachedThreadPool();
+        AdmissionControlledExecutor executor = new AdmissionControlledExecutor(delegate, 2);
+        final CountDownLatch block = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    block.await();
+                } catch (InterruptedException ignore) {
+                }
+                done.countDown();
+            }
+        };
+        executor.execute(task);
+        executor.execute(task);
+        Assert.assertEquals(2, executor.getActiveCount());
+        try {
+            executor.execute(task);
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            Assert.assertEquals(1, executor.getRejectedCount());
+        }
+
+        block.countDown();
+        // 任务结束后归还许可
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(0, executor.getActiveCount());
+        executor.execute(task);
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertTrue(delegate.isShutdown());
+    }
+
+    @Test
+    public void testUnlimited() throws InterruptedException {
+        AdmissionControlledExecutor executor = new AdmissionControlledExecutor(Executors.newCachedThreadPool(), 0);
+        final CountDownLatch block = new CountDownLatch(1);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    block.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        };
+        for (int i = 0; i < 100; i++) {
+            executor.execute(task);
+        }
+        Assert.assertEquals(100, executor.getActiveCount());
+        block.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testDelegateRejected() {
+        ExecutorService delegate = Executors.newSingleThreadExecutor();
+        delegate.shutdown();
+        AdmissionControlledExecutor executor = new AdmissionControlledExecutor(delegate, 1);
+        for (int i = 0; i < 2; i++) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                    }
+                });
+                Assert.fail();
+            } catch (RejectedExecutionException e) {
+                // 被拒绝时也要归还许可
+                Assert.assertEquals(0, executor.getActiveCount());
+            }
+        }
+        Assert.assertEquals(2, executor.getRejectedCount());
+    }
+
+    @Test
+    public void testDelegateFailed() {
+        ExecutorService delegate = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<Runnable>()) {
+            @Override
+            public void execute(Runnable command) {
+                throw new OutOfMemoryError("unable to create new native thread");
+            }
+        };
+        AdmissionControlledExecutor executor = new AdmissionControlledExecutor(delegate, 1);
+        for (int i = 0; i < 2; i++) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                    }
+                });
+                Assert.fail();
+            } catch (OutOfMemoryError e) {
+                // 其它异常也要归还许可，否则第二次会因为拿不到许可被拒绝
+                Assert.assertEquals(0, executor.getActiveCount());
+            }
+        }
+        Assert.assertEquals(0, executor.getRejectedCount());
+        delegate.shutdown();
+    }
+}
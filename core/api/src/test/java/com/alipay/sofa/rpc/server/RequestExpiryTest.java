@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server;
+
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.config.ProviderConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @since 5.14.3
+ */
+public class RequestExpiryTest {
+
+    @Test
+    public void testRemainTime() {
+        // 没有超时时间，也没有 deadline
+        Assert.assertEquals(Long.MAX_VALUE, RequestExpiry.remainTime(1000, 0, null, 5000));
+        Assert.assertFalse(RequestExpiry.isExpired(1000, 0, null, 5000));
+
+        Assert.assertEquals(200, RequestExpiry.remainTime(1000, 300, null, 1100));
+        Assert.assertTrue(RequestExpiry.isExpired(1000, 300, null, 1300));
+        // 取超时时间和 deadline 中较小的
+        Assert.assertEquals(50, RequestExpiry.remainTime(1000, 300, "150", 1100));
+        Assert.assertEquals(50, RequestExpiry.remainTime(1000, 0, 150, 1100));
+        Assert.assertTrue(RequestExpiry.isExpired(1000, 3000, "100", 1100));
+        // deadline 格式不对时忽略
+        Assert.assertEquals(200, RequestExpiry.remainTime(1000, 300, "abc", 1100));
+    }
+
+    @Test
+    public void testParseDeadline() {
+        Assert.assertNull(RequestExpiry.parseDeadline(null));
+        Assert.assertNull(RequestExpiry.parseDeadline(""));
+        Assert.assertNull(RequestExpiry.parseDeadline(new Object()));
+        Assert.assertEquals(Integer.valueOf(10), RequestExpiry.parseDeadline(10));
+        Assert.assertEquals(Integer.valueOf(10), RequestExpiry.parseDeadline(10L));
+        Assert.assertEquals(Integer.valueOf(-5), RequestExpiry.parseDeadline("-5"));
+    }
+
+    @Test
+    public void testRecordDropped() {
+        long decode = RequestExpiry.getDroppedCount(RequestExpiry.Stage.DECODE);
+        long response = RequestExpiry.getDroppedCount(RequestExpiry.Stage.RESPONSE);
+        RequestExpiry.recordDropped(RequestExpiry.Stage.DECODE);
+        RequestExpiry.recordDropped(RequestExpiry.Stage.DECODE);
+        Assert.assertEquals(decode + 2, RequestExpiry.getDroppedCount(RequestExpiry.Stage.DECODE));
+        Assert.assertEquals(response, RequestExpiry.getDroppedCount(RequestExpiry.Stage.RESPONSE));
+    }
+
+    @Test
+    public void testDeadlineSwitch() {
+        Assert.assertTrue(RequestExpiry.isDeadlineEnabled((ProviderConfig) null));
+        ProviderConfig providerConfig = new ProviderConfig();
+        Assert.assertTrue(RequestExpiry.isDeadlineEnabled(providerConfig));
+        providerConfig.setParameter(RpcOptions.CONFIG_KEY_DEADLINE_ENABLE, "false");
+        Assert.assertFalse(RequestExpiry.isDeadlineEnabled(providerConfig));
+
+        String service = "com.test.DeadlineService:1.0";
+        Assert.assertTrue(RequestExpiry.isDeadlineEnabled(service));
+        RequestExpiry.registerService(service, providerConfig);
+        Assert.assertFalse(RequestExpiry.isDeadlineEnabled(service));
+        RequestExpiry.unRegisterService(service);
+        Assert.assertTrue(RequestExpiry.isDeadlineEnabled(service));
+        Assert.assertTrue(RequestExpiry.isDeadlineEnabled((String) null));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.limit;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.config.ServerConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since 5.14.3
+ */
+public class GradientConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 以当前限制的并发跑一轮，每个请求耗时 rtt
+     */
+    private static void round(ConcurrencyLimiter limiter, long rtt) {
+        int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+        }
+        Assert.assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < limit; i++) {
+            limiter.release(rtt);
+        }
+        Assert.assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void testTryAcquire() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10, Long.MAX_VALUE);
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertFalse(limiter.tryAcquire());
+        Assert.assertEquals(2, limiter.getInflight());
+        Assert.assertEquals(1, limiter.getRejectedCount());
+        limiter.release(RTT);
+        Assert.assertTrue(limiter.tryAcquire());
+        limiter.releaseDropped();
+        limiter.release(RTT);
+        Assert.assertEquals(0, limiter.getInflight());
+        // 窗口未结束，限制不变
+        Assert.assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 10, 200, 0);
+        // 耗时稳定，限制增长
+        for (int i = 0; i < 20; i++) {
+            round(limiter, RTT);
+        }
+        int grown = limiter.getLimit();
+        Assert.assertTrue(grown > 20);
+        Assert.assertTrue(grown <= 200);
+
+        // 开始排队，耗时变为原来的 10 倍，限制缩小
+        for (int i = 0; i < 20; i++) {
+            round(limiter, RTT * 10);
+        }
+        Assert.assertTrue(limiter.getLimit() < grown);
+        Assert.assertTrue(limiter.getLimit() >= 10);
+    }
+
+    @Test
+    public void testNotGrowWhenIdle() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(100, 10, 200, 0);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+            limiter.release(RTT);
+        }
+        Assert.assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    public void testDropped() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(100, 10, 200, 0);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+            limiter.releaseDropped();
+        }
+        Assert.assertTrue(limiter.getLimit() < 100);
+        Assert.assertTrue(limiter.getLimit() >= 10);
+    }
+
+    @Test
+    public void testFactory() {
+        ServerConfig serverConfig = new ServerConfig();
+        Assert.assertNull(ConcurrencyLimiterFactory.getConcurrencyLimiter(serverConfig));
+        try {
+            RpcConfigs.putValue(RpcOptions.SERVER_CONCURRENCY_LIMITER, "gradient");
+            ConcurrencyLimiter limiter1 = ConcurrencyLimiterFactory.getConcurrencyLimiter(serverConfig);
+            ConcurrencyLimiter limiter2 = ConcurrencyLimiterFactory.getConcurrencyLimiter(serverConfig);
+            Assert.assertTrue(limiter1 instanceof GradientConcurrencyLimiter);
+            Assert.assertNotSame(limiter1, limiter2);
+            Assert.assertEquals(RpcConfigs.getIntValue(RpcOptions.SERVER_CONCURRENCY_LIMIT_INITIAL),
+                limiter1.getLimit());
+        } finally {
+            RpcConfigs.putValue(RpcOptions.SERVER_CONCURRENCY_LIMITER, "");
+        }
+    }
+}
@@ -21,6 +21,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * @author <a href="mailto:zhanggeng.zg@antfin.com">GengZhang</a>
@@ -41,4 +43,29 @@ public class ByteStreamWrapperByteBufTest {
         Assert.assertTrue(byteBuf.readableBytes() == 3);
         Assert.assertTrue(byteBuf.release());
     }
+
+    @Test
+    public void inputStream() throws IOException {
+        UnsafeByteArrayOutputStream bs = new UnsafeByteArrayOutputStream();
+        bs.write(new byte[] { 1, 2, 3 });
+        AbstractByteBuf byteBuf = new ByteStreamWrapperByteBuf(bs);
+        Assert.assertFalse(byteBuf.hasArray());
+
+        InputStream in = byteBuf.inputStream();
+        Assert.assertEquals(1, in.read());
+        Assert.assertEquals(2, in.read());
+        Assert.assertEquals(3, in.read());
+        Assert.assertEquals(-1, in.read());
+        // 读取不影响原数据
+        Assert.assertEquals(3, byteBuf.readableBytes());
+
+        ByteBuffer buffer = byteBuf.nioBuffer();
+        Assert.assertTrue(buffer.isReadOnly());
+        Assert.assertEquals(3, buffer.remaining());
+        Assert.assertEquals(1, buffer.get());
+
+        byteBuf = new ByteStreamWrapperByteBuf(null);
+        Assert.assertEquals(-1, byteBuf.inputStream().read());
+        Assert.assertEquals(0, byteBuf.nioBuffer().remaining());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @since 5.14.3
+ */
+public class RecyclableByteArrayOutputStreamTest {
+
+    @Test
+    public void testRecycle() {
+        RecyclableByteArrayOutputStream out = RecyclableByteArrayOutputStream.acquire();
+        out.write(new byte[] { 1, 2, 3 }, 0, 3);
+        Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, out.toByteArray());
+
+        // 嵌套获取时返回新的实例
+        RecyclableByteArrayOutputStream nested = RecyclableByteArrayOutputStream.acquire();
+        Assert.assertNotSame(out, nested);
+        nested.recycle();
+
+        out.recycle();
+        RecyclableByteArrayOutputStream again = RecyclableByteArrayOutputStream.acquire();
+        Assert.assertSame(out, again);
+        Assert.assertEquals(0, again.size());
+        again.recycle();
+    }
+
+    @Test
+    public void testShrink() {
+        RecyclableByteArrayOutputStream out = RecyclableByteArrayOutputStream.acquire();
+        byte[] bs = new byte[64 * 1024];
+        out.write(bs, 0, bs.length);
+        out.recycle();
+        int capacity = out.capacity();
+        Assert.assertTrue(capacity >= bs.length);
+
+        // 之后一直只用很少的空间，缩小到初始大小
+        for (int i = 0; i < RecyclableByteArrayOutputStream.SHRINK_CHECK * 2; i++) {
+            out = RecyclableByteArrayOutputStream.acquire();
+            out.write(bs, 0, 10);
+            out.recycle();
+        }
+        Assert.assertEquals(RecyclableByteArrayOutputStream.INITIAL_SIZE, out.capacity());
+    }
+
+    @Test
+    public void testMaxRetained() {
+        RecyclableByteArrayOutputStream out = RecyclableByteArrayOutputStream.acquire();
+        byte[] bs = new byte[2 * 1024 * 1024];
+        out.write(bs, 0, bs.length);
+        out.recycle();
+        Assert.assertEquals(RecyclableByteArrayOutputStream.INITIAL_SIZE, out.capacity());
+    }
+}
@@ -20,6 +20,7 @@ import com.alipay.sofa.rpc.common.annotation.VisibleForTesting;
 import com.alipay.sofa.rpc.common.utils.ClassLoaderUtils;
 
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
@@ -322,6 +323,73 @@ public final class ReflectCache {
         OVERLOAD_METHOD_CACHE.remove(serviceName);
     }
 
+    /*----------- Arg Types Cache ------------*/
+
+    /**
+     * 按参数签名解析出的参数类型缓存 {service:{方法名#(参数签名):参数类型}} <br>
+     * 类按服务的类加载器解析，所以按ServiceUniqueName缓存，服务取消注册时一起失效
+     */
+    @VisibleForTesting
+    final static ConcurrentMap<String, ConcurrentHashMap<String, Class[]>> ARG_TYPES_CACHE = new ConcurrentHashMap<String, ConcurrentHashMap<String, Class[]>>();
+
+    /**
+     * 往缓存里放入参数类型
+     *
+     * @param serviceName 服务名（非接口名）
+     * @param methodName  方法名
+     * @param argSigs     参数签名
+     * @param argTypes    参数类型
+     * @since 5.14.3
+     */
+    public static void putArgTypesCache(String serviceName, String methodName, List<String> argSigs,
+                                        Class[] argTypes) {
+        ConcurrentHashMap<String, Class[]> cache = ARG_TYPES_CACHE.get(serviceName);
+        if (cache == null) {
+            cache = new ConcurrentHashMap<String, Class[]>();
+            ConcurrentHashMap<String, Class[]> old = ARG_TYPES_CACHE.putIfAbsent(serviceName, cache);
+            if (old != null) {
+                cache = old;
+            }
+        }
+        cache.put(buildArgTypesKey(methodName, argSigs), argTypes);
+    }
+
+    /**
+     * 从缓存里获取参数类型，返回的数组不能修改
+     *
+     * @param serviceName 服务名（非接口名）
+     * @param methodName  方法名
+     * @param argSigs     参数签名
+     * @return 参数类型
+     * @since 5.14.3
+     */
+    public static Class[] getArgTypesCache(String serviceName, String methodName, List<String> argSigs) {
+        ConcurrentHashMap<String, Class[]> cache = ARG_TYPES_CACHE.get(serviceName);
+        return cache == null ? null : cache.get(buildArgTypesKey(methodName, argSigs));
+    }
+
+    /**
+     * 根据服务名使参数类型缓存失效
+     *
+     * @param serviceName 服务名（非接口名）
+     * @since 5.14.3
+     */
+    public static void invalidateArgTypesCache(String serviceName) {
+        ARG_TYPES_CACHE.remove(serviceName);
+    }
+
+    private static String buildArgTypesKey(String methodName, List<String> argSigs) {
+        StringBuilder key = new StringBuilder(128);
+        key.append(methodName).append('(');
+        for (int i = 0; i < argSigs.size(); i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(argSigs.get(i));
+        }
+        return key.append(')').toString();
+    }
+
     /*----------- Cache Management ------------*/
     /**
      * 清理方法
@@ -334,6 +402,7 @@ public final class ReflectCache {
         NOT_OVERLOAD_METHOD_CACHE.clear();
         NOT_OVERLOAD_METHOD_SIGS_CACHE.clear();
         OVERLOAD_METHOD_CACHE.clear();
+        ARG_TYPES_CACHE.clear();
     }
 
 }
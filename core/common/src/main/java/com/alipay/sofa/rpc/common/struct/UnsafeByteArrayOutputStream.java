@@ -18,6 +18,7 @@ package com.alipay.sofa.rpc.common.struct;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
@@ -87,10 +88,42 @@ public class UnsafeByteArrayOutputStream extends OutputStream {
         return ByteBuffer.wrap(mBuffer, 0, mCount);
     }
 
+    /**
+     * 共享当前的缓冲区生成输入流，不拷贝数据
+     *
+     * @return 输入流
+     * @since 5.14.3
+     */
+    public UnsafeByteArrayInputStream toInputStream() {
+        return new UnsafeByteArrayInputStream(mBuffer, 0, mCount);
+    }
+
     public void writeTo(OutputStream out) throws IOException {
         out.write(mBuffer, 0, mCount);
     }
 
+    /**
+     * 读取输入流的全部数据，直接写到当前的缓冲区，不经过临时数组
+     *
+     * @param in 输入流
+     * @return 读取的字节数
+     * @throws IOException 读取异常
+     * @since 5.14.3
+     */
+    public int readFrom(InputStream in) throws IOException {
+        int start = mCount;
+        while (true) {
+            if (mCount == mBuffer.length) {
+                mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length << 1, 32));
+            }
+            int n = in.read(mBuffer, mCount, mBuffer.length - mCount);
+            if (n < 0) {
+                return mCount - start;
+            }
+            mCount += n;
+        }
+    }
+
     @Override
     public String toString() {
         return new String(mBuffer, 0, mCount);
@@ -21,6 +21,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 /**
  * @author <a href=mailto:orezsilence@163.com>zhangchengxi</a>
@@ -64,4 +65,17 @@ public class ReflectCacheTest {
         ReflectCache.putMethodSigsCache("service", "hashCode", sign2);
         Assert.assertSame(sign2, ReflectCache.getMethodSigsCache("service", "hashCode"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void putArgTypesCache() {
+        Class[] argTypes = { String.class, int.class };
+        ReflectCache.putArgTypesCache("service", "say", Arrays.asList("java.lang.String", "int"), argTypes);
+        Assert.assertSame(argTypes,
+            ReflectCache.getArgTypesCache("service", "say", Arrays.asList("java.lang.String", "int")));
+        Assert.assertNull(ReflectCache.getArgTypesCache("service", "say", Arrays.asList("java.lang.String")));
+        Assert.assertNull(ReflectCache.getArgTypesCache("service", "say", Arrays.asList("java.lang.Stringint")));
+
+        ReflectCache.invalidateArgTypesCache("service");
+        Assert.assertNull(ReflectCache.getArgTypesCache("service", "say", Arrays.asList("java.lang.String", "int")));
+    }
+}
@@ -35,6 +35,12 @@ public class RpcErrorType {
      * 服务端已关闭
      */
     public static final int SERVER_CLOSED            = 101;
+    /**
+     * 服务端过载，请求超过了自适应并发限制，未反序列化即被拒绝
+     *
+     * @since 5.14.3
+     */
+    public static final int SERVER_OVERLOAD          = 102;
     /**
      * 服务端未找到Invoker
      */
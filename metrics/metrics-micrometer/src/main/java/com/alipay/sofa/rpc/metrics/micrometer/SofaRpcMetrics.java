@@ -31,6 +31,7 @@ import com.alipay.sofa.rpc.event.ServerSendEvent;
 import com.alipay.sofa.rpc.event.ServerStartedEvent;
 import com.alipay.sofa.rpc.event.ServerStoppedEvent;
 import com.alipay.sofa.rpc.event.Subscriber;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
@@ -76,6 +77,12 @@ public class SofaRpcMetrics extends Subscriber implements MeterBinder, AutoClose
         .tags(tags)
         .baseUnit(BaseUnits.BYTES)
         .register(initialed.get());
+    private final Function<Tags, DistributionSummary> requestCompressRatio = tags -> DistributionSummary.builder("sofa.request.compress.ratio")
+        .tags(tags)
+        .register(initialed.get());
+    private final Function<Tags, DistributionSummary> responseCompressRatio = tags -> DistributionSummary.builder("sofa.response.compress.ratio")
+        .tags(tags)
+        .register(initialed.get());
     private Counter provider;
     private Counter consumer;
 
@@ -83,6 +90,7 @@ public class SofaRpcMetrics extends Subscriber implements MeterBinder, AutoClose
 
     private final AtomicReference<ServerConfig> serverConfig = new AtomicReference<>();
     private final AtomicReference<ThreadPoolExecutor> executor = new AtomicReference<>();
+    private final AtomicReference<ConcurrencyLimiter> concurrencyLimiter = new AtomicReference<>();
 
     public SofaRpcMetrics() {
         this(Collections.emptyList());
@@ -138,6 +146,13 @@ public class SofaRpcMetrics extends Subscriber implements MeterBinder, AutoClose
             .tags(common)
             .baseUnit(BaseUnits.TASKS)
             .register(registry);
+        Gauge.builder("sofa.server.concurrency.limit", () -> Optional.of(concurrencyLimiter)
+            .map(AtomicReference::get)
+            .map(ConcurrencyLimiter::getLimit)
+            .orElse(0))
+            .tags(common)
+            .baseUnit(BaseUnits.TASKS)
+            .register(registry);
         provider = Counter.builder("sofa.provider")
             .tags(common)
             .register(registry);
@@ -196,6 +211,15 @@ public class SofaRpcMetrics extends Subscriber implements MeterBinder, AutoClose
             context.getAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE)));
         responseSize.apply(tags).record(getLongAvoidNull(
             context.getAttachment(RpcConstants.INTERNAL_KEY_RESP_SIZE)));
+        recordRatio(requestCompressRatio, tags, context.getAttachment(RpcConstants.INTERNAL_KEY_REQ_COMPRESS_RATIO));
+        recordRatio(responseCompressRatio, tags, context.getAttachment(RpcConstants.INTERNAL_KEY_RESP_COMPRESS_RATIO));
+    }
+
+    private static void recordRatio(Function<Tags, DistributionSummary> summary, Tags tags, Object ratio) {
+        // 只有真正压缩过的调用才记录，避免未压缩的调用拉低比例
+        if (ratio instanceof Double) {
+            summary.apply(tags).record((Double) ratio);
+        }
     }
 
     private void onEvent(ServerSendEvent event) {
@@ -215,11 +239,13 @@ public class SofaRpcMetrics extends Subscriber implements MeterBinder, AutoClose
     private void onEvent(ServerStartedEvent event) {
         this.serverConfig.set(event.getServerConfig());
         this.executor.set(event.getThreadPoolExecutor());
+        this.concurrencyLimiter.set(event.getConcurrencyLimiter());
     }
 
     private void onEvent(ServerStoppedEvent event) {
         serverConfig.set(null);
         executor.set(null);
+        concurrencyLimiter.set(null);
     }
 
     private void onEvent(ProviderPubEvent event) {
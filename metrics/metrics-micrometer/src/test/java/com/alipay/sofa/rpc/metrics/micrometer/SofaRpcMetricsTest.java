@@ -37,6 +37,7 @@ import com.alipay.sofa.rpc.event.ServerSendEvent;
 import com.alipay.sofa.rpc.event.ServerStartedEvent;
 import com.alipay.sofa.rpc.event.ServerStoppedEvent;
 import com.alipay.sofa.rpc.event.Subscriber;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -75,7 +76,35 @@ public class SofaRpcMetricsTest {
             handleEvent.invoke(EventBus.class, metrics, new ProviderPubEvent(new ProviderConfig<>()));
             handleEvent.invoke(EventBus.class, metrics, new ConsumerSubEvent(new ConsumerConfig<>()));
 
-            Assert.assertEquals(12, registry.getMeters().size());
+            Assert.assertEquals(13, registry.getMeters().size());
+        }
+    }
+
+    @Test
+    public void testCompressRatio() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (SofaRpcMetrics metrics = new SofaRpcMetrics()) {
+            metrics.bindTo(registry);
+
+            Method handleEvent = EventBus.class.getDeclaredMethod(
+                "handleEvent", Subscriber.class, Event.class);
+            handleEvent.setAccessible(true);
+            RpcInternalContext.getContext()
+                .setAttachment(RpcConstants.INTERNAL_KEY_CLIENT_ELAPSE, 100)
+                .setAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE, 3)
+                .setAttachment(RpcConstants.INTERNAL_KEY_RESP_SIZE, 4)
+                .setAttachment(RpcConstants.INTERNAL_KEY_REQ_COMPRESS_RATIO, 0.25d);
+            handleEvent.invoke(EventBus.class, metrics, new ClientEndInvokeEvent(buildRequest(), buildResponse(),
+                null));
+
+            DistributionSummary ratio = registry.find("sofa.request.compress.ratio").summary();
+            Assert.assertNotNull(ratio);
+            Assert.assertEquals(1, ratio.count());
+            Assert.assertEquals(0.25d, ratio.totalAmount(), 0.0001d);
+            // 响应没有压缩时不记录
+            Assert.assertNull(registry.find("sofa.response.compress.ratio").summary());
+        } finally {
+            RpcInternalContext.removeAllContext();
         }
     }
 
@@ -55,6 +55,8 @@ public class MetricsBuilder {
 
     private Gauge.Builder      threadPoolQueueBuilder       = Gauge.build();
 
+    private Gauge.Builder      concurrencyLimitBuilder      = Gauge.build();
+
     public Histogram.Builder getClientTotalBuilder() {
         return clientTotalBuilder;
     }
@@ -111,6 +113,10 @@ public class MetricsBuilder {
         return threadPoolQueueBuilder;
     }
 
+    public Gauge.Builder getConcurrencyLimitBuilder() {
+        return concurrencyLimitBuilder;
+    }
+
     Histogram buildClientTotal(String[] labelNames) {
         return clientTotalBuilder
             .name("sofa_client_total")
@@ -231,6 +237,15 @@ public class MetricsBuilder {
             .create();
     }
 
+    Gauge buildConcurrencyLimit(String[] labelNames) {
+        return concurrencyLimitBuilder
+            .name("sofa_server_concurrency_limit")
+            .help("sofa_server_concurrency_limit")
+            .unit(TASKS)
+            .labelNames(labelNames)
+            .create();
+    }
+
     public static MetricsBuilder defaultOf() {
         return new MetricsBuilder();
     }
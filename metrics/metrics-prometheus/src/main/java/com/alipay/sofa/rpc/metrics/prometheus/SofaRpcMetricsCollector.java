@@ -31,6 +31,7 @@ import com.alipay.sofa.rpc.event.ServerSendEvent;
 import com.alipay.sofa.rpc.event.ServerStartedEvent;
 import com.alipay.sofa.rpc.event.ServerStoppedEvent;
 import com.alipay.sofa.rpc.event.Subscriber;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
 import io.prometheus.client.Collector;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
@@ -81,9 +82,12 @@ public class SofaRpcMetricsCollector extends Collector implements AutoCloseable
 
     private Gauge threadPoolQueue;
 
+    private Gauge concurrencyLimit;
+
 
     private final AtomicReference<ServerConfig> serverConfigReference = new AtomicReference<>();
     private final AtomicReference<ThreadPoolExecutor> executorReference = new AtomicReference<>();
+    private final AtomicReference<ConcurrencyLimiter> concurrencyLimiterReference = new AtomicReference<>();
 
     public SofaRpcMetricsCollector() {
         this(Collections.emptyMap(), MetricsBuilder.defaultOf());
@@ -128,6 +132,7 @@ public class SofaRpcMetricsCollector extends Collector implements AutoCloseable
         this.threadPoolActive = metricsBuilder.buildThreadPoolActive(commonLabelNames);
         this.threadPoolIdle = metricsBuilder.buildThreadPoolIdle(commonLabelNames);
         this.threadPoolQueue = metricsBuilder.buildThreadPoolQueue(commonLabelNames);
+        this.concurrencyLimit = metricsBuilder.buildConcurrencyLimit(commonLabelNames);
 
         registerSubscriber();
     }
@@ -187,6 +192,13 @@ public class SofaRpcMetricsCollector extends Collector implements AutoCloseable
             result.addAll(threadPoolQueue.collect());
         }
 
+        ConcurrencyLimiter concurrencyLimiter = concurrencyLimiterReference.get();
+        if (concurrencyLimiter != null) {
+            concurrencyLimit.labels(commonLabelValues)
+                    .set(concurrencyLimiter.getLimit());
+            result.addAll(concurrencyLimit.collect());
+        }
+
         return result;
     }
 
@@ -281,11 +293,13 @@ public class SofaRpcMetricsCollector extends Collector implements AutoCloseable
         private void onEvent(ServerStartedEvent event) {
             serverConfigReference.set(event.getServerConfig());
             executorReference.set(event.getThreadPoolExecutor());
+            concurrencyLimiterReference.set(event.getConcurrencyLimiter());
         }
 
         private void onEvent(ServerStoppedEvent event) {
             serverConfigReference.set(null);
             executorReference.set(null);
+            concurrencyLimiterReference.set(null);
         }
 
         private void onEvent(ProviderPubEvent event) {
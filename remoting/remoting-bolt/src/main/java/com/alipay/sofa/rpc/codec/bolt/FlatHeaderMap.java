@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.bolt;
+
+import com.alipay.sofa.rpc.common.RpcConstants;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Bolt header 解码后的扁平 Map：key 和 value 按顺序存放在数组中，查找时线性比较。
+ * <p>
+ * header 一般只有十几个条目，数组比 HashMap 更省内存；value 在第一次读取时才从原始字节解码。
+ * 和 HashMap 一样写操作非线程安全，解码完成后可以被多个线程同时读取。
+ *
+ * @since 5.14.3
+ */
+public final class FlatHeaderMap extends AbstractMap<String, String> {
+
+    private static final int NOT_LAZY = -1;
+
+    /**
+     * 原始字节，value 延迟解码时使用
+     */
+    private final byte[]     source;
+
+    private String[]         keys;
+
+    private String[]         values;
+
+    /**
+     * value 在原始字节中的位置，{@link #NOT_LAZY} 表示已经解码或者是直接放入的
+     */
+    private int[]            valueOffsets;
+
+    private int[]            valueLengths;
+
+    private int              size;
+
+    private int              modCount;
+
+    private EntrySet         entrySet;
+
+    public FlatHeaderMap() {
+        this(null, 8);
+    }
+
+    FlatHeaderMap(byte[] source, int capacity) {
+        this.source = source;
+        this.keys = new String[capacity];
+        this.values = new String[capacity];
+        this.valueOffsets = new int[capacity];
+        this.valueLengths = new int[capacity];
+    }
+
+    /**
+     * 放入一个延迟解码的 value，相同的 key 后面的覆盖前面的
+     *
+     * @param key    key
+     * @param offset value 在原始字节中的起始位置
+     * @param length value 的长度
+     */
+    void putLazy(String key, int offset, int length) {
+        int index = indexOf(key);
+        if (index < 0) {
+            index = append(key);
+        }
+        values[index] = null;
+        valueOffsets[index] = offset;
+        valueLengths[index] = length;
+    }
+
+    private int indexOf(Object key) {
+        String[] ks = keys;
+        if (key == null) {
+            for (int i = 0; i < size; i++) {
+                if (ks[i] == null) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(ks[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int append(String key) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size << 1);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            valueOffsets = Arrays.copyOf(valueOffsets, capacity);
+            valueLengths = Arrays.copyOf(valueLengths, capacity);
+        }
+        int index = size++;
+        keys[index] = key;
+        modCount++;
+        return index;
+    }
+
+    private String valueAt(int index) {
+        String value = values[index];
+        if (value == null && valueOffsets[index] != NOT_LAZY) {
+            // 多个线程同时读取时可能重复解码，结果相同
+            value = new String(source, valueOffsets[index], valueLengths[index], RpcConstants.DEFAULT_CHARSET);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    private String setValueAt(int index, String value) {
+        String old = valueAt(index);
+        values[index] = value;
+        valueOffsets[index] = NOT_LAZY;
+        return old;
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+            System.arraycopy(valueOffsets, index + 1, valueOffsets, index, moved);
+            System.arraycopy(valueLengths, index + 1, valueLengths, index, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        int index = indexOf(key);
+        if (index < 0) {
+            index = append(key);
+            values[index] = value;
+            valueOffsets[index] = NOT_LAZY;
+            return null;
+        }
+        return setValueAt(index, value);
+    }
+
+    @Override
+    public String remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        String old = valueAt(index);
+        removeAt(index);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        EntrySet es = entrySet;
+        if (es == null) {
+            es = new EntrySet();
+            entrySet = es;
+        }
+        return es;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, String>> {
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            FlatHeaderMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+
+        private int next;
+
+        private int last             = -1;
+
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Entry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, String> {
+
+        private final int index;
+
+        private Entry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[index];
+        }
+
+        @Override
+        public String getValue() {
+            return valueAt(index);
+        }
+
+        @Override
+        public String setValue(String value) {
+            return setValueAt(index, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object key = getKey();
+            Object value = getValue();
+            return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+                && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            String key = getKey();
+            String value = getValue();
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
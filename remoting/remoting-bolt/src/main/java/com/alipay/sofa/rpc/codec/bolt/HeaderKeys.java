@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.bolt;
+
+import com.alipay.sofa.rpc.common.RemotingConstants;
+import com.alipay.sofa.rpc.common.RpcConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bolt header 中常见 key 的字符串常量表。
+ * <p>
+ * 固定词表在类加载时构建成开放寻址的哈希表，解码时直接按字节查找，命中则复用同一个 String 对象，
+ * 不再为每个请求的每个 key 分配 byte[] 和 String。
+ *
+ * @since 5.14.3
+ */
+final class HeaderKeys {
+
+    private static final String              TRACE_PREFIX   = RemotingConstants.RPC_TRACE_NAME + ".";
+
+    /**
+     * 固定词表，废弃的 Key 仍然会由老版本对端发送，需要保留
+     */
+    @SuppressWarnings("deprecation")
+    private static final String[]            VOCABULARY     = {
+                                                            RemotingConstants.HEAD_SERVICE,
+                                                            RemotingConstants.HEAD_INVOKE_TYPE,
+                                                            RemotingConstants.HEAD_APP_NAME,
+                                                            RemotingConstants.HEAD_PROTOCOL,
+                                                            RemotingConstants.HEAD_METHOD_NAME,
+                                                            RemotingConstants.HEAD_TARGET_APP,
+                                                            RemotingConstants.HEAD_TARGET_SERVICE,
+                                                            RemotingConstants.HEAD_METHOD_ARGSIGS,
+                                                            RemotingConstants.HEAD_REQUEST_PROPS,
+                                                            RemotingConstants.HEAD_RESPONSE_ERROR,
+                                                            RemotingConstants.HEAD_GENERIC_TYPE,
+                                                            RemotingConstants.HEAD_SERIALIZE_TYPE,
+                                                            RemotingConstants.HEAD_DEADLINE_REMAIN_TIME,
+                                                            RemotingConstants.RPC_TRACE_NAME,
+                                                            RemotingConstants.NEW_RPC_TRACE_NAME,
+                                                            TRACE_PREFIX + RemotingConstants.TRACE_ID_KEY,
+                                                            TRACE_PREFIX + RemotingConstants.RPC_ID_KEY,
+                                                            TRACE_PREFIX + RemotingConstants.PEN_ATTRS_KEY,
+                                                            TRACE_PREFIX + "sysPenAttrs",
+                                                            TRACE_PREFIX + "sofaCallerApp",
+                                                            TRACE_PREFIX + "sofaCallerIp",
+                                                            TRACE_PREFIX + "sofaCallerIdc",
+                                                            TRACE_PREFIX + "sofaCallerZone"
+                                                            };
+
+    private static final String[]            TABLE;
+
+    private static final byte[][]            TABLE_BYTES;
+
+    private static final int                 MASK;
+
+    /**
+     * 带 tracer 前缀的 key 到去掉前缀后的 key
+     */
+    private static final Map<String, String> TRACE_SUB_KEYS = new HashMap<String, String>();
+
+    static {
+        int capacity = 1;
+        while (capacity < VOCABULARY.length * 4) {
+            capacity <<= 1;
+        }
+        TABLE = new String[capacity];
+        TABLE_BYTES = new byte[capacity][];
+        MASK = capacity - 1;
+        for (String key : VOCABULARY) {
+            byte[] bytes = key.getBytes(RpcConstants.DEFAULT_CHARSET);
+            int index = hash(bytes, 0, bytes.length) & MASK;
+            while (TABLE[index] != null) {
+                index = (index + 1) & MASK;
+            }
+            TABLE[index] = key;
+            TABLE_BYTES[index] = bytes;
+            if (key.startsWith(TRACE_PREFIX)) {
+                TRACE_SUB_KEYS.put(key, key.substring(TRACE_PREFIX.length()).intern());
+            }
+        }
+    }
+
+    private HeaderKeys() {
+    }
+
+    /**
+     * 按字节查找常见 key
+     *
+     * @param bytes  字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 词表中的 String 对象，不在词表中返回null
+     */
+    static String lookup(byte[] bytes, int offset, int length) {
+        int index = hash(bytes, offset, length) & MASK;
+        for (;;) {
+            byte[] candidate = TABLE_BYTES[index];
+            if (candidate == null) {
+                return null;
+            }
+            if (equals(candidate, bytes, offset, length)) {
+                return TABLE[index];
+            }
+            index = (index + 1) & MASK;
+        }
+    }
+
+    /**
+     * 去掉前缀后的 key，tracer 的常见 key 直接返回常量，不再 substring
+     *
+     * @param key    完整的 key，需以 prefix 开头
+     * @param prefix 前缀
+     * @return 去掉前缀后的 key
+     */
+    static String subKey(String key, String prefix) {
+        String subKey = TRACE_SUB_KEYS.get(key);
+        if (subKey != null && subKey.length() + prefix.length() == key.length()) {
+            return subKey;
+        }
+        return key.substring(prefix.length());
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = length;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(byte[] candidate, byte[] bytes, int offset, int length) {
+        if (candidate.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (candidate[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -19,14 +19,13 @@ package com.alipay.sofa.rpc.codec.bolt;
 import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
 import com.alipay.sofa.rpc.codec.common.StringSerializer;
-import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
+import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -71,33 +70,62 @@ public class SimpleMapSerializer {
      * 简单 map 的反序列化过程, 用来反序列化 bolt 的 header
      * <p>
      * {@link SofaRpcSerialization#deserializeHeader(com.alipay.remoting.rpc.RequestCommand)}
+     * <p>
+     * 直接按字节解析：常见 key 复用 {@link HeaderKeys} 中的常量，value 在第一次读取时才解码，结果为 {@link FlatHeaderMap}
      *
      * @param bytes bolt header
      * @return 反序列化后的 Map 对象
      * @throws DeserializationException DeserializationException
      */
     public Map<String, String> decode(byte[] bytes) throws DeserializationException {
-        Map<String, String> map = new HashMap<String, String>();
         if (bytes == null || bytes.length == 0) {
-            return map;
+            return new FlatHeaderMap();
         }
-
-        UnsafeByteArrayInputStream in = new UnsafeByteArrayInputStream(bytes);
+        FlatHeaderMap map = new FlatHeaderMap(bytes, 16);
+        int limit = bytes.length;
+        int pos = 0;
         try {
-            while (in.available() > 0) {
-                String key = readString(in);
-                String value = readString(in);
-                if (key != null && value != null) {
-                    map.put(key, value);
+            while (pos < limit) {
+                int keyLength = readInt(bytes, pos);
+                pos += 4;
+                String key = null;
+                if (keyLength >= 0) {
+                    checkBounds(pos, keyLength, limit);
+                    key = keyLength == 0 ? StringUtils.EMPTY : HeaderKeys.lookup(bytes, pos, keyLength);
+                    if (key == null) {
+                        key = new String(bytes, pos, keyLength, RpcConstants.DEFAULT_CHARSET);
+                    }
+                    pos += keyLength;
+                }
+                int valueLength = readInt(bytes, pos);
+                pos += 4;
+                if (valueLength >= 0) {
+                    checkBounds(pos, valueLength, limit);
+                    if (key != null) {
+                        map.putLazy(key, pos, valueLength);
+                    }
+                    pos += valueLength;
                 }
             }
-
             return map;
-        } catch (IOException ex) {
-            throw new DeserializationException(ex.getMessage(), ex);
+        } catch (IndexOutOfBoundsException ex) {
+            throw new DeserializationException("Illegal header: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void checkBounds(int pos, int length, int limit) {
+        if (pos + length > limit) {
+            throw new IndexOutOfBoundsException("need " + length + " bytes at " + pos + ", but limit is " + limit);
         }
     }
 
+    private static int readInt(byte[] bytes, int pos) {
+        return (bytes[pos] & 0xff) << 24
+            | (bytes[pos + 1] & 0xff) << 16
+            | (bytes[pos + 2] & 0xff) << 8
+            | bytes[pos + 3] & 0xff;
+    }
+
     /**
      * 写一个String
      *
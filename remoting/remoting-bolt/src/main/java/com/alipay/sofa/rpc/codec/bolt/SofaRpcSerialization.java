@@ -16,8 +16,15 @@
  */
 package com.alipay.sofa.rpc.codec.bolt;
 
+import com.alipay.sofa.rpc.context.InvokePhase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import com.alipay.remoting.DefaultCustomSerializer;
@@ -25,15 +32,21 @@ import com.alipay.remoting.InvokeContext;
 import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
 import com.alipay.remoting.rpc.RequestCommand;
+import com.alipay.remoting.rpc.RpcCommand;
 import com.alipay.remoting.rpc.ResponseCommand;
+import com.alipay.remoting.rpc.RpcCommandType;
 import com.alipay.remoting.rpc.protocol.RpcProtocol;
 import com.alipay.remoting.rpc.protocol.RpcRequestCommand;
 import com.alipay.remoting.rpc.protocol.RpcResponseCommand;
+import com.alipay.sofa.rpc.codec.CompressNegotiator;
+import com.alipay.sofa.rpc.codec.CompressorFactory;
 import com.alipay.sofa.rpc.codec.Serializer;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.common.annotation.VisibleForTesting;
 import com.alipay.sofa.rpc.common.cache.ReflectCache;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayInputStream;
+import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.common.utils.ClassUtils;
 import com.alipay.sofa.rpc.common.utils.CodecUtils;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
@@ -44,8 +57,10 @@ import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
 import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
-import com.alipay.sofa.rpc.transport.AbstractByteBuf;
+import com.alipay.sofa.rpc.server.RequestExpiry;
+import com.alipay.sofa.rpc.transport.RecyclableByteArrayOutputStream;
 import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
+import com.alipay.sofa.rpc.transport.ByteStreamWrapperByteBuf;
 
 import static com.alipay.sofa.rpc.common.RpcConstants.INTERNAL_KEY_RPC_REQUEST_COMMAND;
 
@@ -210,8 +225,8 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
 
                 Serializer rpcSerializer = com.alipay.sofa.rpc.codec.SerializerFactory
                     .getSerializer(serializerCode);
-                AbstractByteBuf byteBuf = rpcSerializer.encode(requestObject, header);
-                request.setContent(byteBuf.array());
+                request.setContent(encode(rpcSerializer, requestObject, header,
+                    getRequestCompress(requestObject, invokeContext), requestCommand, invokeContext));
                 return true;
             } catch (Exception ex) {
                 throw new SerializationException(ex.getMessage(), ex);
@@ -224,6 +239,161 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
         return false;
     }
 
+    /**
+     * 客户端发送请求使用的压缩算法，服务端确认过可以解压时才压缩
+     *
+     * @param requestObject 请求
+     * @param invokeContext 调用上下文
+     * @return 压缩算法，为null不压缩
+     */
+    protected String getRequestCompress(Object requestObject, InvokeContext invokeContext) {
+        if (!(requestObject instanceof SofaRequest) || invokeContext == null) {
+            return null;
+        }
+        CompressNegotiator negotiator = invokeContext.get(RemotingConstants.INVOKE_CTX_COMPRESS_NEGOTIATOR);
+        if (negotiator == null) {
+            return null;
+        }
+        Object compress = ((SofaRequest) requestObject).getRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT);
+        return compress instanceof String && negotiator.isAccepted((String) compress) ? (String) compress : null;
+    }
+
+    /**
+     * 序列化到线程内复用的缓冲区，Bolt 需要 byte[]，这里只拷贝一次
+     * <p>
+     * 指定了压缩算法并且达到压缩基线时，直接从缓冲区压缩，压缩后变小才使用，并在头部追加 {@link RemotingConstants#HEAD_COMPRESS}
+     *
+     * @param serializer 序列化器
+     * @param object     对象
+     * @param context    上下文
+     * @param compress      压缩算法，为null不压缩
+     * @param command       请求或者响应
+     * @param invokeContext 请求的调用上下文，响应为null
+     * @return 序列化后的数据
+     * @throws IOException            压缩异常
+     * @throws SerializationException 追加头部异常
+     */
+    protected byte[] encode(Serializer serializer, Object object, Map<String, String> context, String compress,
+                            RpcCommand command, InvokeContext invokeContext) throws IOException,
+        SerializationException {
+        RecyclableByteArrayOutputStream out = RecyclableByteArrayOutputStream.acquire();
+        try {
+            serializer.encode(object, context, out);
+            if (compress != null && CompressNegotiator.isOverBaseline(out.size())) {
+                byte[] compressed = compress(compress, out, command instanceof RequestCommand,
+                    getCompressService(object, invokeContext));
+                if (compressed != null) {
+                    appendHeader(command, RemotingConstants.HEAD_COMPRESS, compress);
+                    return compressed;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            out.recycle();
+        }
+    }
+
+    /**
+     * 压缩时选择字典使用的服务名，为null时不使用字典。
+     * 请求在服务端确认有相同的字典后取目标服务，响应取服务端确认字典时记录在上下文中的服务
+     *
+     * @param object        请求或者响应
+     * @param invokeContext 请求的调用上下文，响应为null
+     * @return 服务名，可能为null
+     */
+    protected String getCompressService(Object object, InvokeContext invokeContext) {
+        if (object instanceof SofaRequest) {
+            SofaRequest request = (SofaRequest) object;
+            CompressNegotiator negotiator = invokeContext == null ? null : invokeContext
+                .get(RemotingConstants.INVOKE_CTX_COMPRESS_NEGOTIATOR);
+            return negotiator != null
+                && negotiator.isDictionaryAccepted(request.getRequestProp(RemotingConstants.HEAD_COMPRESS_DICT))
+                ? request.getTargetServiceUniqueName() : null;
+        }
+        RpcInternalContext context = RpcInternalContext.peekContext();
+        return context == null ? null : (String) context.getAttachment(RpcConstants.HIDDEN_KEY_COMPRESS_SERVICE);
+    }
+
+    /**
+     * 压缩缓冲区中的数据，记录压缩耗时和压缩比
+     *
+     * @param compress 压缩算法
+     * @param raw      未压缩的数据
+     * @param request  是否请求
+     * @param service  服务名，用于选择压缩字典
+     * @return 压缩后的数据，没有变小时返回null
+     * @throws IOException 压缩异常
+     */
+    protected byte[] compress(String compress, UnsafeByteArrayOutputStream raw, boolean request, String service)
+        throws IOException {
+        long startTime = System.nanoTime();
+        UnsafeByteArrayOutputStream compressed = new UnsafeByteArrayOutputStream(raw.size() >> 1);
+        OutputStream out = CompressorFactory.getCompressor(compress).compress(compressed, service);
+        try {
+            raw.writeTo(out);
+        } finally {
+            out.close();
+        }
+        CompressNegotiator.record(RpcInternalContext.getContext(), request, raw.size(), compressed.size(),
+            System.nanoTime() - startTime);
+        return compressed.size() < raw.size() ? compressed.toByteArray() : null;
+    }
+
+    /**
+     * 反序列化，头部有 {@link RemotingConstants#HEAD_COMPRESS} 时先解压到线程内复用的缓冲区，直接从缓冲区反序列化
+     *
+     * @param serializer 序列化器
+     * @param content    收到的数据
+     * @param template   反序列化的对象
+     * @param header     头部
+     * @param context    记录解压耗时和压缩比的上下文
+     * @param request    是否请求
+     * @throws IOException 解压异常
+     */
+    protected void decode(Serializer serializer, byte[] content, Object template, Map<String, String> header,
+                          RpcInternalContext context, boolean request) throws IOException {
+        String compress = header.get(RemotingConstants.HEAD_COMPRESS);
+        if (compress == null) {
+            serializer.decode(new ByteArrayWrapperByteBuf(content), template, header);
+            return;
+        }
+        long startTime = System.nanoTime();
+        RecyclableByteArrayOutputStream out = RecyclableByteArrayOutputStream.acquire();
+        try {
+            InputStream in = CompressorFactory.getCompressor(compress).deCompress(
+                new UnsafeByteArrayInputStream(content));
+            try {
+                out.readFrom(in);
+            } finally {
+                in.close();
+            }
+            CompressNegotiator.record(context, request, out.size(), content.length, System.nanoTime() - startTime);
+            serializer.decode(new ByteStreamWrapperByteBuf(out), template, header);
+        } finally {
+            out.recycle();
+        }
+    }
+
+    /**
+     * 在已经序列化的头部后面追加一个键值对
+     *
+     * @param command 请求或者响应
+     * @param key     键
+     * @param value   值
+     * @throws SerializationException 序列化异常
+     */
+    protected void appendHeader(RpcCommand command, String key, String value) throws SerializationException {
+        byte[] appended = mapSerializer.encode(Collections.singletonMap(key, value));
+        byte[] header = command.getHeader();
+        if (header == null || header.length == 0) {
+            command.setHeader(appended);
+        } else {
+            byte[] merged = Arrays.copyOf(header, header.length + appended.length);
+            System.arraycopy(appended, 0, merged, header.length, appended.length);
+            command.setHeader(merged);
+        }
+    }
+
     /**
      * 客户端记录序列化请求的耗时和
      *
@@ -231,19 +401,12 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
      */
     protected void recordSerializeRequest(RequestCommand requestCommand, InvokeContext invokeContext,
                                           long serializeStartTime) {
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_REQ_SERIALIZE_TIME_NANO,
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.REQ_SERIALIZE_TIME_NANO,
             System.nanoTime() - serializeStartTime);
         if (!RpcInternalContext.isAttachmentEnable()) {
             return;
         }
-        RpcInternalContext context = null;
-        if (invokeContext != null) {
-            // 客户端异步调用的情况下，上下文会放在InvokeContext中传递
-            context = invokeContext.get(RemotingConstants.INVOKE_CTX_RPC_CTX);
-        }
-        if (context == null) {
-            context = RpcInternalContext.getContext();
-        }
+        RpcInternalContext context = getRpcContext(invokeContext);
         int cost = context.getStopWatch().tick().read();
         int requestSize = RpcProtocol.getRequestHeaderLength()
             + requestCommand.getClazzLength()
@@ -266,6 +429,19 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
             Map<String, String> headerMap = (Map<String, String>) header;
             String traceId = headerMap.get("rpc_trace_context.sofaTraceId");
             String rpcId = headerMap.get("rpc_trace_context.sofaRpcId");
+            if (isExpired(requestCommand, headerMap)) {
+                // 已经过期的请求只解析请求头，不再反序列化请求体
+                SofaRequest sofaRequest = new SofaRequest();
+                sofaRequest.setTargetServiceUniqueName(headerMap.get(RemotingConstants.HEAD_TARGET_SERVICE));
+                sofaRequest.setMethodName(headerMap.get(RemotingConstants.HEAD_METHOD_NAME));
+                sofaRequest.setTargetAppName(headerMap.get(RemotingConstants.HEAD_TARGET_APP));
+                setRequestPropertiesWithHeaderInfo(headerMap, sofaRequest);
+                parseRequestHeader(headerMap, sofaRequest);
+                sofaRequest.setExpired(true);
+                requestCommand.setRequestObject(sofaRequest);
+                RequestExpiry.recordDropped(RequestExpiry.Stage.DECODE);
+                return true;
+            }
             long deserializeStartTime = System.nanoTime();
             try {
                 byte[] content = requestCommand.getContent();
@@ -282,8 +458,7 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
                     Serializer rpcSerializer = com.alipay.sofa.rpc.codec.SerializerFactory
                         .getSerializer(requestCommand.getSerializer());
                     Object sofaRequest = ClassUtils.forName(requestCommand.getRequestClass()).newInstance();
-                    rpcSerializer.decode(new ByteArrayWrapperByteBuf(requestCommand.getContent()),
-                        sofaRequest, headerMap);
+                    decode(rpcSerializer, content, sofaRequest, headerMap, RpcInternalContext.getContext(), true);
 
                     //for service mesh or other scene, we need to add more info from header
                     setRequestPropertiesWithHeaderInfo(headerMap, sofaRequest);
@@ -307,6 +482,24 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
         return false;
     }
 
+    /**
+     * 根据请求头判断请求是否已经过期（包括在业务线程池中排队的时间），单向调用不判断；服务端关闭了 deadline 的服务只按超时时间判断
+     *
+     * @param requestCommand 请求
+     * @param headerMap      请求头
+     * @return 是否已经过期
+     */
+    protected boolean isExpired(RpcRequestCommand requestCommand, Map<String, String> headerMap) {
+        long arriveTime = requestCommand.getArriveTime();
+        if (arriveTime <= 0 || requestCommand.getType() == RpcCommandType.REQUEST_ONEWAY) {
+            return false;
+        }
+        String service = headerMap.get(RemotingConstants.HEAD_TARGET_SERVICE);
+        String deadline = RequestExpiry.isDeadlineEnabled(service) ? headerMap
+            .get(RemotingConstants.HEAD_DEADLINE_REMAIN_TIME) : null;
+        return RequestExpiry.isExpired(arriveTime, requestCommand.getTimeout(), deadline, System.currentTimeMillis());
+    }
+
     @VisibleForTesting
     protected void parseRequestHeader(Map<String, String> headerMap, Object sofaRequest) {
         if (sofaRequest instanceof SofaRequest) {
@@ -329,7 +522,16 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
     private void parseRequestHeader(String key, Map<String, String> headerMap,
                                     SofaRequest sofaRequest) {
         Map<String, String> traceMap = new HashMap<String, String>();
-        CodecUtils.treeCopyTo(key + ".", headerMap, traceMap, true);
+        String prefix = key + ".";
+        Iterator<Map.Entry<String, String>> it = headerMap.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> entry = it.next();
+            if (entry.getKey().startsWith(prefix)) {
+                // 常见的 tracer key 直接取常量，避免 substring
+                traceMap.put(HeaderKeys.subKey(entry.getKey(), prefix), entry.getValue());
+                it.remove();
+            }
+        }
         Object traceCtx = sofaRequest.getRequestProp(key);
         if (traceCtx == null) {
             sofaRequest.addRequestProp(key, traceMap);
@@ -363,7 +565,7 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
      * @param requestCommand 请求对象
      */
     private void recordDeserializeRequest(RequestCommand requestCommand, long deserializeStartTime) {
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_REQ_DESERIALIZE_TIME_NANO, System.nanoTime() -
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.REQ_DESERIALIZE_TIME_NANO, System.nanoTime() -
             deserializeStartTime);
         if (!RpcInternalContext.isAttachmentEnable()) {
             return;
@@ -388,8 +590,12 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
             long serializeStartTime = System.nanoTime();
             try {
                 Serializer rpcSerializer = com.alipay.sofa.rpc.codec.SerializerFactory.getSerializer(serializerCode);
-                AbstractByteBuf byteBuf = rpcSerializer.encode(responseCommand.getResponseObject(), null);
-                responseCommand.setContent(byteBuf.array());
+                Object responseObject = responseCommand.getResponseObject();
+                // 调用端期望并且服务端已经在响应头中确认的压缩算法
+                String compress = responseObject instanceof SofaResponse ? (String) ((SofaResponse) responseObject)
+                    .getResponseProp(RemotingConstants.HEAD_COMPRESS_ACCEPT) : null;
+                responseCommand.setContent(encode(rpcSerializer, responseObject, null, compress, responseCommand,
+                    null));
                 return true;
             } catch (Exception ex) {
                 String traceId = (String) RpcInternalContext.getContext().getAttachment("_trace_id");
@@ -411,7 +617,7 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
      * @param responseCommand 响应体
      */
     private void recordSerializeResponse(RpcResponseCommand responseCommand, long serializeStartTime) {
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_RESP_SERIALIZE_TIME_NANO, System.nanoTime() -
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.RESP_SERIALIZE_TIME_NANO, System.nanoTime() -
             serializeStartTime);
         if (!RpcInternalContext.isAttachmentEnable()) {
             return;
@@ -452,9 +658,15 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
                     (String) invokeContext.get(RemotingConstants.HEAD_METHOD_NAME));
                 putKV(header, RemotingConstants.HEAD_GENERIC_TYPE,
                     (String) invokeContext.get(RemotingConstants.HEAD_GENERIC_TYPE));
+                // 服务端确认可以解压时，之后的请求开始压缩
+                CompressNegotiator negotiator = invokeContext.get(RemotingConstants.INVOKE_CTX_COMPRESS_NEGOTIATOR);
+                if (negotiator != null) {
+                    negotiator.onAccept(header.get(RemotingConstants.HEAD_COMPRESS_ACCEPT),
+                        header.get(RemotingConstants.HEAD_COMPRESS_DICT));
+                }
 
                 Serializer rpcSerializer = com.alipay.sofa.rpc.codec.SerializerFactory.getSerializer(serializer);
-                rpcSerializer.decode(new ByteArrayWrapperByteBuf(responseCommand.getContent()), sofaResponse, header);
+                decode(rpcSerializer, content, sofaResponse, header, getRpcContext(invokeContext), false);
                 if (sofaResponse instanceof SofaResponse) {
                     parseResponseHeader(header, (SofaResponse) sofaResponse);
                 }
@@ -484,6 +696,20 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
         }
     }
 
+    /**
+     * 客户端的上下文，异步调用的情况下，上下文会放在InvokeContext中传递
+     *
+     * @param invokeContext 调用上下文
+     * @return 上下文
+     */
+    protected RpcInternalContext getRpcContext(InvokeContext invokeContext) {
+        RpcInternalContext context = null;
+        if (invokeContext != null) {
+            context = invokeContext.get(RemotingConstants.INVOKE_CTX_RPC_CTX);
+        }
+        return context == null ? RpcInternalContext.getContext() : context;
+    }
+
     protected void putKV(Map<String, String> map, String key, String value) {
         if (map != null && key != null && value != null) {
             map.put(key, value);
@@ -497,19 +723,12 @@ public class SofaRpcSerialization extends DefaultCustomSerializer {
      */
     private void recordDeserializeResponse(RpcResponseCommand responseCommand, InvokeContext invokeContext,
                                            long deserializeStartTime) {
-        RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_RESP_DESERIALIZE_TIME_NANO, System.nanoTime() -
+        RpcInvokeContext.getContext().recordPhase(InvokePhase.RESP_DESERIALIZE_TIME_NANO, System.nanoTime() -
             deserializeStartTime);
         if (!RpcInternalContext.isAttachmentEnable()) {
             return;
         }
-        RpcInternalContext context = null;
-        if (invokeContext != null) {
-            // 客户端异步调用的情况下，上下文会放在InvokeContext中传递
-            context = invokeContext.get(RemotingConstants.INVOKE_CTX_RPC_CTX);
-        }
-        if (context == null) {
-            context = RpcInternalContext.getContext();
-        }
+        RpcInternalContext context = getRpcContext(invokeContext);
         int cost = context.getStopWatch().tick().read();
         int respSize = RpcProtocol.getResponseHeaderLength()
             + responseCommand.getClazzLength()
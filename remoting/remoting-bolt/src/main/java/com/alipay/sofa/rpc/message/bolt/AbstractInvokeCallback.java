@@ -102,9 +102,13 @@ public abstract class AbstractInvokeCallback implements RejectionProcessableInvo
             }
             BaggageResolver.pickupFromResponse(newContext, response);
 
-            if (old != null) {
-                old.getAllResponseBaggage().putAll(newContext.getAllResponseBaggage());
-                old.getAllRequestBaggage().putAll(newContext.getAllRequestBaggage());
+            if (old != null && old != newContext) {
+                if (newContext.hasResponseBaggage()) {
+                    old.putAllResponseBaggage(newContext.getAllResponseBaggage());
+                }
+                if (newContext.hasRequestBaggage()) {
+                    old.putAllRequestBaggage(newContext.getAllRequestBaggage());
+                }
             }
 
         }
@@ -17,6 +17,7 @@
 package com.alipay.sofa.rpc.message.bolt;
 
 import com.alipay.remoting.AsyncContext;
+import com.alipay.sofa.rpc.codec.CompressNegotiator;
 import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.context.BaggageResolver;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
@@ -138,6 +139,7 @@ public abstract class BoltSendableResponseCallback<T> implements SendableRespons
             if (RpcInvokeContext.isBaggageEnable()) {
                 BaggageResolver.carryWithResponse(RpcInvokeContext.peekContext(), response);
             }
+            CompressNegotiator.confirm(request, response);
             asyncContext.sendResponse(response);
         } finally {
             if (EventBus.isEnable(ServerSendEvent.class)) {
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.bolt;
+
+import com.alipay.sofa.rpc.config.UserThreadPoolManager;
+import com.alipay.sofa.rpc.invoke.Invoker;
+import com.alipay.sofa.rpc.invoke.ServiceMethodTable;
+import com.alipay.sofa.rpc.server.ProviderProxyInvoker;
+import com.alipay.sofa.rpc.server.UserThreadPool;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Bolt 服务端的业务线程池路由表：服务（及方法）到线程池的映射。
+ * <p>
+ * 路由表在服务注册、取消注册时重建，自定义线程池的注册信息变化时（见 {@link UserThreadPoolManager#getVersion()}）
+ * 在下一次路由时重建。IO 线程上只需要按服务名查一次表，服务下有方法级线程池时再按方法名查一次，
+ * 不再拼接 key 查询 {@link UserThreadPoolManager}。
+ *
+ * @since 5.14.3
+ */
+public class BoltExecutorRouter {
+
+    private final BoltServer              boltServer;
+
+    /**
+     * 默认业务线程池
+     */
+    private final RoutedExecutor          defaultExecutor;
+
+    /**
+     * 当前的路由表
+     */
+    private volatile Table                table = new Table(-1, Collections.<String, Route> emptyMap());
+
+    /**
+     * 线程池到统计对象的映射，重建路由表时复用，保证统计数据不丢失
+     */
+    private Map<Executor, RoutedExecutor> executors;
+
+    /**
+     * Construct
+     *
+     * @param boltServer      所在的Server
+     * @param defaultExecutor 默认业务线程池
+     */
+    public BoltExecutorRouter(BoltServer boltServer, Executor defaultExecutor) {
+        this.boltServer = boltServer;
+        this.defaultExecutor = new RoutedExecutor(defaultExecutor);
+        this.executors = new IdentityHashMap<Executor, RoutedExecutor>();
+    }
+
+    /**
+     * 查找服务（方法）对应的业务线程池
+     *
+     * @param service    服务唯一名
+     * @param methodName 方法名，可以为空
+     * @return 业务线程池，服务未在当前Server注册时返回null
+     */
+    public RoutedExecutor route(String service, String methodName) {
+        Table current = table;
+        if (current.poolVersion != UserThreadPoolManager.getVersion()) {
+            current = rebuild();
+        }
+        Route route = current.routes.get(service);
+        if (route == null) {
+            return null;
+        }
+        if (route.methodExecutors != null && methodName != null) {
+            RoutedExecutor executor = route.methodExecutors.get(methodName);
+            if (executor != null) {
+                return executor;
+            }
+        }
+        return route.serviceExecutor;
+    }
+
+    /**
+     * 重建路由表
+     *
+     * @return 新的路由表
+     */
+    synchronized Table rebuild() {
+        // 先取版本号再读注册信息，期间有变化时下次路由会再次重建
+        long poolVersion = UserThreadPoolManager.getVersion();
+        Map<Executor, RoutedExecutor> newExecutors = new IdentityHashMap<Executor, RoutedExecutor>();
+        Map<String, Route> routes = new HashMap<String, Route>();
+        for (Map.Entry<String, Invoker> entry : boltServer.invokerMap.entrySet()) {
+            String service = entry.getKey();
+            RoutedExecutor serviceExecutor = toRoutedExecutor(UserThreadPoolManager.getUserThread(service),
+                defaultExecutor, newExecutors);
+            Map<String, RoutedExecutor> methodExecutors = null;
+            Invoker invoker = entry.getValue();
+            ServiceMethodTable methodTable = invoker instanceof ProviderProxyInvoker ?
+                ((ProviderProxyInvoker) invoker).getMethodTable() : null;
+            if (methodTable != null) {
+                for (Method method : methodTable.getMethods()) {
+                    String methodName = method.getName();
+                    UserThreadPool pool = UserThreadPoolManager.getUserThread(service, methodName);
+                    if (pool != null && pool.getUserExecutor() != null) {
+                        if (methodExecutors == null) {
+                            methodExecutors = new HashMap<String, RoutedExecutor>();
+                        }
+                        methodExecutors.put(methodName, toRoutedExecutor(pool, serviceExecutor, newExecutors));
+                    }
+                }
+            }
+            routes.put(service, new Route(serviceExecutor, methodExecutors));
+        }
+        executors = newExecutors;
+        Table newTable = new Table(poolVersion, routes);
+        table = newTable;
+        return newTable;
+    }
+
+    private RoutedExecutor toRoutedExecutor(UserThreadPool pool, RoutedExecutor defaultValue,
+                                            Map<Executor, RoutedExecutor> newExecutors) {
+        Executor executor = pool == null ? null : pool.getUserExecutor();
+        if (executor == null) {
+            return defaultValue;
+        }
+        RoutedExecutor routed = newExecutors.get(executor);
+        if (routed == null) {
+            routed = executors.get(executor);
+            if (routed == null) {
+                routed = new RoutedExecutor(executor);
+            }
+            newExecutors.put(executor, routed);
+        }
+        return routed;
+    }
+
+    /**
+     * 默认业务线程池
+     *
+     * @return 默认业务线程池
+     */
+    public RoutedExecutor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * 当前路由到的所有业务线程池，包括默认业务线程池
+     *
+     * @return 业务线程池列表
+     */
+    public synchronized List<RoutedExecutor> getRoutedExecutors() {
+        Collection<RoutedExecutor> values = executors.values();
+        List<RoutedExecutor> result = new ArrayList<RoutedExecutor>(values.size() + 1);
+        result.add(defaultExecutor);
+        result.addAll(values);
+        return result;
+    }
+
+    /**
+     * 路由表，创建后不再修改
+     */
+    static final class Table {
+
+        /**
+         * 创建时 {@link UserThreadPoolManager} 的版本号
+         */
+        final long               poolVersion;
+
+        /**
+         * 服务唯一名到路由的映射
+         */
+        final Map<String, Route> routes;
+
+        Table(long poolVersion, Map<String, Route> routes) {
+            this.poolVersion = poolVersion;
+            this.routes = routes;
+        }
+    }
+
+    /**
+     * 一个服务的路由
+     */
+    static final class Route {
+
+        /**
+         * 服务级别的线程池，没有自定义时为默认业务线程池
+         */
+        final RoutedExecutor              serviceExecutor;
+
+        /**
+         * 方法级别的线程池，只包含单独指定了线程池的方法，没有时为null
+         */
+        final Map<String, RoutedExecutor> methodExecutors;
+
+        Route(RoutedExecutor serviceExecutor, Map<String, RoutedExecutor> methodExecutors) {
+            this.serviceExecutor = serviceExecutor;
+            this.methodExecutors = methodExecutors;
+        }
+    }
+}
@@ -35,8 +35,11 @@ import com.alipay.sofa.rpc.log.LogCodes;
 import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
 import com.alipay.sofa.rpc.server.BusinessPool;
+import com.alipay.sofa.rpc.server.RequestExpiry;
 import com.alipay.sofa.rpc.server.Server;
 import com.alipay.sofa.rpc.server.SofaRejectedExecutionHandler;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiterFactory;
 
 import java.lang.reflect.Method;
 import java.util.Map;
@@ -91,6 +94,16 @@ public class BoltServer implements Server {
      */
     protected Map<String, Invoker> invokerMap = new ConcurrentHashMap<String, Invoker>();
 
+    /**
+     * 业务线程池路由表
+     */
+    protected BoltExecutorRouter   executorRouter;
+
+    /**
+     * 自适应并发限制，未开启时为null
+     */
+    protected ConcurrencyLimiter   concurrencyLimiter;
+
     @Override
     public void init(ServerConfig serverConfig) {
         this.serverConfig = serverConfig;
@@ -98,6 +111,8 @@ public class BoltServer implements Server {
         if (bizExecutor instanceof ThreadPoolExecutor) {
             bizThreadPool = (ThreadPoolExecutor) bizExecutor;
         }
+        executorRouter = new BoltExecutorRouter(this, bizExecutor);
+        concurrencyLimiter = ConcurrencyLimiterFactory.getConcurrencyLimiter(serverConfig);
         boltServerProcessor = new BoltServerProcessor(this);
     }
 
@@ -150,7 +165,7 @@ public class BoltServer implements Server {
                 started = true;
 
                 if (EventBus.isEnable(ServerStartedEvent.class)) {
-                    EventBus.post(new ServerStartedEvent(serverConfig, bizThreadPool));
+                    EventBus.post(new ServerStartedEvent(serverConfig, bizThreadPool, concurrencyLimiter));
                 }
 
             } catch (SofaRpcRuntimeException e) {
@@ -206,10 +221,15 @@ public class BoltServer implements Server {
         String key = ConfigUniqueNameGenerator.getUniqueName(providerConfig);
         invokerMap.put(key, instance);
         ReflectCache.registerServiceClassLoader(key, providerConfig.getProxyClass().getClassLoader());
+        RequestExpiry.registerService(key, providerConfig);
         // 缓存接口的方法
         for (Method m : providerConfig.getProxyClass().getMethods()) {
             ReflectCache.putOverloadMethodCache(key, m);
         }
+        // 更新业务线程池路由
+        if (executorRouter != null) {
+            executorRouter.rebuild();
+        }
     }
 
     @Override
@@ -218,6 +238,9 @@ public class BoltServer implements Server {
         String key = ConfigUniqueNameGenerator.getUniqueName(providerConfig);
         invokerMap.remove(key);
         cleanReflectCache(providerConfig);
+        if (executorRouter != null) {
+            executorRouter.rebuild();
+        }
         // 如果最后一个需要关闭，则关闭
         if (closeIfNoEntry && invokerMap.isEmpty()) {
             stop();
@@ -324,6 +347,26 @@ public class BoltServer implements Server {
         return bizExecutor;
     }
 
+    /**
+     * 得到业务线程池路由表
+     *
+     * @return 业务线程池路由表
+     * @since 5.14.3
+     */
+    public BoltExecutorRouter getExecutorRouter() {
+        return executorRouter;
+    }
+
+    /**
+     * 得到自适应并发限制
+     *
+     * @return 并发限制，未开启时为null
+     * @since 5.14.3
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
     /**
      * 得到 BoltServerProcessor
      * @return Bolt 处理器
@@ -349,6 +392,7 @@ public class BoltServer implements Server {
     public void cleanReflectCache(ProviderConfig providerConfig) {
         String key = ConfigUniqueNameGenerator.getUniqueName(providerConfig);
         ReflectCache.unRegisterServiceClassLoader(key);
+        RequestExpiry.unRegisterService(key);
         ReflectCache.invalidateMethodCache(key);
         ReflectCache.invalidateMethodSigsCache(key);
         ReflectCache.invalidateOverloadMethodCache(key);
@@ -20,6 +20,7 @@ import com.alipay.remoting.AsyncContext;
 import com.alipay.remoting.BizContext;
 import com.alipay.remoting.InvokeContext;
 import com.alipay.remoting.rpc.protocol.AsyncUserProcessor;
+import com.alipay.sofa.rpc.codec.CompressNegotiator;
 import com.alipay.sofa.rpc.codec.bolt.AbstractSerializationRegister;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.RpcConfigs;
@@ -30,6 +31,7 @@ import com.alipay.sofa.rpc.common.cache.ReflectCache;
 import com.alipay.sofa.rpc.common.utils.CommonUtils;
 import com.alipay.sofa.rpc.config.ProviderConfig;
 import com.alipay.sofa.rpc.config.UserThreadPoolManager;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RecordContextResolver;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
@@ -44,14 +46,20 @@ import com.alipay.sofa.rpc.event.ServerReceiveEvent;
 import com.alipay.sofa.rpc.event.ServerSendEvent;
 import com.alipay.sofa.rpc.ext.ExtensionLoaderFactory;
 import com.alipay.sofa.rpc.invoke.Invoker;
+import com.alipay.sofa.rpc.invoke.ServiceMethodTable;
 import com.alipay.sofa.rpc.log.LogCodes;
 import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
 import com.alipay.sofa.rpc.message.MessageBuilder;
 import com.alipay.sofa.rpc.server.ProviderProxyInvoker;
+import com.alipay.sofa.rpc.server.RequestExpiry;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimitedExecutor;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
 
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -65,7 +73,8 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
     /**
      * Logger for this class
      */
-    private static final Logger LOGGER = LoggerFactory.getLogger(BoltServerProcessor.class);
+    private static final Logger                                       LOGGER = LoggerFactory
+                                                                                 .getLogger(BoltServerProcessor.class);
 
     /**
      * 提前注册序列化器
@@ -79,7 +88,22 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
     /**
      * bolt server, which saved invoker map
      */
-    private final BoltServer    boltServer;
+    private final BoltServer                                          boltServer;
+
+    /**
+     * 自适应并发限制，未开启时为null
+     */
+    private final ConcurrencyLimiter                                  concurrencyLimiter;
+
+    /**
+     * 业务线程池到加了并发限制的线程池的映射
+     */
+    private final ConcurrentMap<Executor, ConcurrencyLimitedExecutor> limitedExecutors;
+
+    /**
+     * 对选出的业务线程池加上并发限制
+     */
+    private final ExecutorSelector                                    limitedExecutorSelector;
 
     /**
      * Construct
@@ -88,7 +112,21 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
      */
     public BoltServerProcessor(BoltServer boltServer) {
         this.boltServer = boltServer;
-        this.executorSelector = new UserThreadPoolSelector(getExecutor()); // 支持自定义业务线程池
+        this.executorSelector = new UserThreadPoolSelector(boltServer.getBizExecutor(),
+            boltServer.getExecutorRouter()); // 支持自定义业务线程池
+        this.concurrencyLimiter = boltServer.getConcurrencyLimiter();
+        if (concurrencyLimiter != null) {
+            this.limitedExecutors = new ConcurrentHashMap<Executor, ConcurrencyLimitedExecutor>();
+            this.limitedExecutorSelector = new ExecutorSelector() {
+                @Override
+                public Executor select(String requestClass, Object requestHeader) {
+                    return limit(executorSelector.select(requestClass, requestHeader));
+                }
+            };
+        } else {
+            this.limitedExecutors = null;
+            this.limitedExecutorSelector = null;
+        }
     }
 
     /**
@@ -146,7 +184,12 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
                         response = MessageBuilder.buildSofaErrorResponse(throwable.getMessage());
                         break invoke;
                     }
+                    if (request.isExpired()) { // 解析请求头时已经过期，请求体没有反序列化
+                        throwable = clientTimeoutWhenReceiveRequest(appName, serviceName, bizCtx.getRemoteAddress());
+                        break invoke;
+                    }
                     if (bizCtx.isRequestTimeout()) { // 加上丢弃超时的请求的逻辑
+                        RequestExpiry.recordDropped(RequestExpiry.Stage.INVOKE);
                         throwable = clientTimeoutWhenReceiveRequest(appName, serviceName, bizCtx.getRemoteAddress());
                         break invoke;
                     }
@@ -164,18 +207,30 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
                     }
                     // 查找方法
                     String methodName = request.getMethodName();
-                    Method serviceMethod = ReflectCache.getOverloadMethodCache(serviceName, methodName,
-                        request.getMethodArgSigs());
+                    ServiceMethodTable methodTable = invoker instanceof ProviderProxyInvoker ?
+                        ((ProviderProxyInvoker) invoker).getMethodTable() : null;
+                    Method serviceMethod;
+                    int methodIndex = -1;
+                    if (methodTable != null) {
+                        // 发布时生成的分发表，按方法名和参数签名查找编号，业务调用时不再查找
+                        methodIndex = methodTable.slotOf(methodName, request.getMethodArgSigs());
+                        serviceMethod = methodTable.getMethod(methodIndex);
+                    } else {
+                        serviceMethod = ReflectCache.getOverloadMethodCache(serviceName, methodName,
+                            request.getMethodArgSigs());
+                    }
                     if (serviceMethod == null) {
                         throwable = cannotFoundServiceMethod(appName, methodName, serviceName);
                         response = MessageBuilder.buildSofaErrorResponse(throwable.getMessage());
                         break invoke;
                     } else {
                         request.setMethod(serviceMethod);
+                        request.setMethodIndex(methodIndex);
                     }
                     // 真正调用
                     response = doInvoke(serviceName, invoker, request);
                     if (bizCtx.isRequestTimeout()) { // 加上丢弃超时的响应的逻辑
+                        RequestExpiry.recordDropped(RequestExpiry.Stage.RESPONSE);
                         throwable = clientTimeoutWhenSendResponse(appName, serviceName, bizCtx.getRemoteAddress());
                         break invoke;
                     }
@@ -196,6 +251,7 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
                 if (!isAsyncChain) {
                     // 其它正常请求
                     try { // 这个try-catch 保证一定要记录tracer
+                        CompressNegotiator.confirm(request, response);
                         asyncCtx.sendResponse(response);
                     } finally {
                         if (EventBus.isEnable(ServerSendEvent.class)) {
@@ -248,7 +304,7 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
         Long enterQueueTime = invokeContext.get(InvokeContext.BOLT_PROCESS_BEFORE_DISPATCH_IN_NANO);
         Long processStartTime = invokeContext.get(InvokeContext.BOLT_PROCESS_START_PROCESS_IN_NANO);
         if (enterQueueTime != null && processStartTime != null) {
-            RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_PROCESS_WAIT_TIME_NANO,
+            RpcInvokeContext.getContext().recordPhase(InvokePhase.PROCESS_WAIT_TIME_NANO,
                 processStartTime - enterQueueTime);
         }
 
@@ -256,7 +312,7 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
         Long headArriveTime = invokeContext.get(InvokeContext.BOLT_PROCESS_ARRIVE_HEADER_IN_NANO);
         Long bodyReceivedTime = invokeContext.get(InvokeContext.BOLT_PROCESS_ARRIVE_BODY_IN_NANO);
         if (headArriveTime != null && bodyReceivedTime != null) {
-            RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_SERVER_NET_WAIT_NANO,
+            RpcInvokeContext.getContext().recordPhase(InvokePhase.SERVER_NET_WAIT_NANO,
                 bodyReceivedTime - headArriveTime);
         }
 
@@ -332,12 +388,36 @@ public class BoltServerProcessor extends AsyncUserProcessor<SofaRequest> {
 
     @Override
     public Executor getExecutor() {
-        return boltServer.getBizExecutor();
+        return concurrencyLimiter == null ? boltServer.getBizExecutor() : limit(null);
     }
 
     @Override
     public ExecutorSelector getExecutorSelector() {
-        return UserThreadPoolManager.hasUserThread() ? executorSelector : null;
+        if (!UserThreadPoolManager.hasUserThread()) {
+            return null;
+        }
+        return concurrencyLimiter == null ? executorSelector : limitedExecutorSelector;
+    }
+
+    /**
+     * 得到加了并发限制的业务线程池
+     *
+     * @param executor 业务线程池，为空表示默认业务线程池
+     * @return 加了并发限制的业务线程池
+     */
+    private Executor limit(Executor executor) {
+        if (executor == null) {
+            executor = boltServer.getBizExecutor();
+        }
+        ConcurrencyLimitedExecutor limited = limitedExecutors.get(executor);
+        if (limited == null) {
+            limited = new ConcurrencyLimitedExecutor(executor, concurrencyLimiter);
+            ConcurrencyLimitedExecutor old = limitedExecutors.putIfAbsent(executor, limited);
+            if (old != null) {
+                limited = old;
+            }
+        }
+        return limited;
     }
 
     @Override
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.bolt;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 路由表中的业务线程池，在原线程池外记录提交和拒绝次数。
+ * <p>
+ * 同一个线程池被多个服务或方法共用时只有一个实例，统计的是整个线程池的数据。
+ *
+ * @since 5.14.3
+ */
+public final class RoutedExecutor implements Executor {
+
+    /**
+     * 实际的线程池
+     */
+    private final Executor   delegate;
+
+    /**
+     * 提交次数（包括被拒绝的）
+     */
+    private final AtomicLong submitted = new AtomicLong();
+
+    /**
+     * 被拒绝次数
+     */
+    private final AtomicLong rejected  = new AtomicLong();
+
+    RoutedExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submitted.incrementAndGet();
+        try {
+            delegate.execute(command);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 实际的线程池
+     *
+     * @return 线程池
+     */
+    public Executor getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 当前排队的任务数
+     *
+     * @return 排队数，不是 {@link ThreadPoolExecutor} 时返回 -1
+     */
+    public int getQueueSize() {
+        return delegate instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) delegate).getQueue().size() : -1;
+    }
+
+    /**
+     * 提交次数（包括被拒绝的）
+     *
+     * @return 提交次数
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * 被拒绝次数
+     *
+     * @return 拒绝次数
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RoutedExecutor{delegate=" + delegate + ", queueSize=" + getQueueSize() + ", submitted="
+            + submitted.get() + ", rejected=" + rejected.get() + '}';
+    }
+}
@@ -34,12 +34,29 @@ import java.util.concurrent.Executor;
  */
 public class UserThreadPoolSelector implements UserProcessor.ExecutorSelector {
 
-    private final static Logger LOGGER = LoggerFactory.getLogger(UserThreadPoolSelector.class);
+    private final static Logger      LOGGER = LoggerFactory.getLogger(UserThreadPoolSelector.class);
 
-    private final Executor      defaultExecutor;
+    private final Executor           defaultExecutor;
+
+    /**
+     * 业务线程池路由表，可以为空
+     */
+    private final BoltExecutorRouter router;
 
     public UserThreadPoolSelector(Executor defaultExecutor) {
+        this(defaultExecutor, null);
+    }
+
+    /**
+     * Construct
+     *
+     * @param defaultExecutor 默认业务线程池
+     * @param router          业务线程池路由表，已注册的服务直接查表
+     * @since 5.14.3
+     */
+    public UserThreadPoolSelector(Executor defaultExecutor, BoltExecutorRouter router) {
         this.defaultExecutor = defaultExecutor;
+        this.router = router;
     }
 
     @Override
@@ -52,8 +69,15 @@ public class UserThreadPoolSelector implements UserProcessor.ExecutorSelector {
                     service = headerMap.get(RemotingConstants.HEAD_TARGET_SERVICE);
                 }
                 if (service != null) {
-                    UserThreadPool threadPool;
                     String methodName = headerMap.get(RemotingConstants.HEAD_METHOD_NAME);
+                    if (router != null) {
+                        Executor executor = router.route(service, methodName);
+                        if (executor != null) {
+                            return executor;
+                        }
+                    }
+                    // 未在路由表中的服务
+                    UserThreadPool threadPool;
                     threadPool = UserThreadPoolManager.getUserThread(service, methodName);
                     if (threadPool != null && threadPool.getUserExecutor() != null) {
                         return threadPool.getUserExecutor();
@@ -30,12 +30,14 @@ import com.alipay.remoting.rpc.exception.InvokeServerBusyException;
 import com.alipay.remoting.rpc.exception.InvokeServerException;
 import com.alipay.remoting.rpc.exception.InvokeTimeoutException;
 import com.alipay.sofa.rpc.client.ProviderInfo;
+import com.alipay.sofa.rpc.codec.CompressNegotiator;
 import com.alipay.sofa.rpc.codec.bolt.AbstractSerializationRegister;
 import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.RpcConfigs;
 import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.common.RpcOptions;
 import com.alipay.sofa.rpc.common.utils.ClassLoaderUtils;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.core.exception.RpcErrorType;
@@ -76,24 +78,25 @@ public class BoltClientTransport extends ClientTransport {
     /**
      * Logger for this class
      */
-    private static final Logger                  LOGGER            = LoggerFactory.getLogger(BoltClientTransport.class);
+    private static final Logger                  LOGGER             = LoggerFactory
+                                                                        .getLogger(BoltClientTransport.class);
     /**
      * Bolt rpc client
      */
-    protected static final RpcClient             RPC_CLIENT        = new RpcClient();
+    protected static final RpcClient             RPC_CLIENT         = new RpcClient();
 
-    protected static final boolean               REUSE_CONNECTION  = RpcConfigs.getOrDefaultValue(
-                                                                       RpcOptions.TRANSPORT_CONNECTION_REUSE, true);
+    protected static final boolean               REUSE_CONNECTION   = RpcConfigs.getOrDefaultValue(
+                                                                        RpcOptions.TRANSPORT_CONNECTION_REUSE, true);
 
     /**
      * Connection manager for reuse connection
      *
      * @since 5.4.0
      */
-    protected static BoltClientConnectionManager connectionManager = REUSE_CONNECTION ? new ReuseBoltClientConnectionManager(
-                                                                       true)
-                                                                       : new AloneBoltClientConnectionManager(
-                                                                           true);
+    protected static BoltClientConnectionManager connectionManager  = REUSE_CONNECTION ? new ReuseBoltClientConnectionManager(
+                                                                        true)
+                                                                        : new AloneBoltClientConnectionManager(
+                                                                            true);
 
     static {
         RPC_CLIENT.init();
@@ -111,7 +114,12 @@ public class BoltClientTransport extends ClientTransport {
     /**
      * 正在发送的调用数量
      */
-    protected volatile AtomicInteger             currentRequests   = new AtomicInteger(0);
+    protected volatile AtomicInteger             currentRequests    = new AtomicInteger(0);
+
+    /**
+     * 服务端的压缩协商状态
+     */
+    protected final CompressNegotiator           compressNegotiator = new CompressNegotiator();
 
     /**
      * Instant BoltClientTransport
@@ -132,7 +140,16 @@ public class BoltClientTransport extends ClientTransport {
      */
     protected Url convertProviderToUrl(ClientTransportConfig transportConfig, ProviderInfo providerInfo) {
         // Url的第一个参数，如果不用事件的话，其实无所谓
-        Url boltUrl = new Url(providerInfo.toString(), providerInfo.getHost(), providerInfo.getPort());
+        Url boltUrl;
+        int poolIndex = transportConfig.getPoolIndex();
+        if (poolIndex > 0) {
+            // bolt 按 uniqueKey 共用连接池，连接池里的其它成员需要不同的 key 才会建立新的物理连接
+            String uniqueKey = providerInfo.getHost() + ":" + providerInfo.getPort() + "#" + poolIndex;
+            boltUrl = new Url(providerInfo.toString(), providerInfo.getHost(), providerInfo.getPort(), uniqueKey,
+                null);
+        } else {
+            boltUrl = new Url(providerInfo.toString(), providerInfo.getHost(), providerInfo.getPort());
+        }
 
         boltUrl.setConnectTimeout(transportConfig.getConnectTimeout());
         // 默认初始化connNum个长连接,为了slb和vip的情况
@@ -378,6 +395,9 @@ public class BoltClientTransport extends ClientTransport {
         if (genericType != null) {
             invokeContext.put(RemotingConstants.HEAD_GENERIC_TYPE, genericType);
         }
+        if (request.getRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT) != null) {
+            invokeContext.put(RemotingConstants.INVOKE_CTX_COMPRESS_NEGOTIATOR, compressNegotiator);
+        }
         return invokeContext;
     }
 
@@ -460,7 +480,7 @@ public class BoltClientTransport extends ClientTransport {
         Long connStartTime = invokeContext.get(InvokeContext.CLIENT_CONN_CREATE_START_IN_NANO);
         Long connEndTime = invokeContext.get(InvokeContext.CLIENT_CONN_CREATE_END_IN_NANO);
         if (connStartTime != null && connEndTime != null) {
-            RpcInvokeContext.getContext().put(RpcConstants.INTERNAL_KEY_CONN_CREATE_TIME_NANO,
+            RpcInvokeContext.getContext().recordPhase(InvokePhase.CONN_CREATE_TIME_NANO,
                 connEndTime - connStartTime);
         }
     }
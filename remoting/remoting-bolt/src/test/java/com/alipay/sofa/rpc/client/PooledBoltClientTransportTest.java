@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.client;
+
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.test.ActivelyDestroyTest;
+import com.alipay.sofa.rpc.transport.ClientTransport;
+import com.alipay.sofa.rpc.transport.ClientTransportConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 连接池里的每个 bolt 连接都要建立独立的物理连接
+ *
+ * @since 5.14.3
+ */
+public class PooledBoltClientTransportTest extends ActivelyDestroyTest {
+
+    private ServerConfig serverConfig;
+
+    @Before
+    public void init() {
+        serverConfig = new ServerConfig().setPort(12231).setProtocol(RpcConstants.PROTOCOL_TYPE_BOLT);
+        serverConfig.buildIfAbsent().start();
+    }
+
+    @After
+    public void destroy() {
+        serverConfig.destroy();
+    }
+
+    @Test
+    public void testEachMemberOwnsSocket() {
+        ClientTransportConfig config = new ClientTransportConfig()
+            .setConsumerConfig(new ConsumerConfig())
+            .setProviderInfo(ProviderHelper.toProviderInfo("bolt://127.0.0.1:12231"))
+            .setContainer("bolt")
+            .setDisconnectTimeout(0);
+        PooledClientTransport pool = new PooledClientTransport(config, 1, 3, PooledClientTransport.ROUND_ROBIN, 8,
+            0);
+        try {
+            pool.connect();
+            pool.grow();
+            pool.grow();
+            Assert.assertEquals(3, pool.size());
+
+            Set<InetSocketAddress> localAddresses = new HashSet<InetSocketAddress>();
+            for (ClientTransport transport : pool.getTransports()) {
+                Assert.assertTrue(transport.isAvailable());
+                localAddresses.add(transport.localAddress());
+            }
+            Assert.assertEquals(3, localAddresses.size());
+
+            pool.shrink();
+            Assert.assertEquals(2, pool.size());
+        } finally {
+            pool.destroy();
+        }
+        Assert.assertFalse(pool.isAvailable());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.codec.bolt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ *
+ * @since 5.14.3
+ */
+public class FlatHeaderMapTest {
+
+    @Test
+    public void testMapOperations() {
+        FlatHeaderMap map = new FlatHeaderMap();
+        Map<String, String> expect = new HashMap<String, String>();
+        for (int i = 0; i < 20; i++) {
+            map.put("k" + i, "v" + i);
+            expect.put("k" + i, "v" + i);
+        }
+        map.put(null, "nullKey");
+        expect.put(null, "nullKey");
+        map.put("nullValue", null);
+        expect.put("nullValue", null);
+        Assert.assertEquals(expect, map);
+        Assert.assertEquals(expect.hashCode(), map.hashCode());
+        Assert.assertTrue(map.containsKey("nullValue"));
+        Assert.assertEquals("v3", map.put("k3", "new"));
+        Assert.assertEquals("new", map.get("k3"));
+        Assert.assertEquals("v5", map.remove("k5"));
+        Assert.assertNull(map.remove("k5"));
+        Assert.assertEquals(21, map.size());
+
+        Iterator<Map.Entry<String, String>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> entry = it.next();
+            if (entry.getKey() != null && entry.getKey().startsWith("k1")) {
+                it.remove();
+            } else if ("k2".equals(entry.getKey())) {
+                entry.setValue("set");
+            }
+        }
+        // k1, k10-k19
+        Assert.assertEquals(10, map.size());
+        Assert.assertEquals("set", map.get("k2"));
+        Assert.assertNull(map.get("k10"));
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testLazyValue() {
+        byte[] source = "abcdef".getBytes();
+        FlatHeaderMap map = new FlatHeaderMap(source, 1);
+        map.putLazy("a", 0, 3);
+        map.putLazy("b", 3, 3);
+        map.putLazy("a", 1, 2);
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals("bc", map.get("a"));
+        Assert.assertSame(map.get("b"), map.get("b"));
+        Assert.assertEquals("def", map.put("b", "x"));
+        Assert.assertEquals("x", map.get("b"));
+    }
+}
@@ -16,12 +16,15 @@
  */
 package com.alipay.sofa.rpc.codec.bolt;
 
+import com.alipay.remoting.exception.DeserializationException;
+import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.struct.UnsafeByteArrayOutputStream;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -197,4 +200,46 @@ public class SimpleMapSerializerTest {
         Assert.assertEquals("fia", responseProps.get("X-Tldc-Target-Tenant"));
         Assert.assertEquals("", responseProps.get("exist"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testInternKeys() throws Exception {
+        SimpleMapSerializer mapSerializer = new SimpleMapSerializer();
+        Map<String, String> map = new HashMap<String, String>();
+        map.put(new String(RemotingConstants.HEAD_SERVICE), "com.xxx.HelloService:1.0");
+        map.put(new String(RPC_TRACE_NAME + "." + TRACE_ID_KEY), "traceId");
+        map.put("custom", "value");
+        Map<String, String> decoded = mapSerializer.decode(mapSerializer.encode(map));
+        Assert.assertTrue(decoded instanceof FlatHeaderMap);
+        Assert.assertEquals(map, decoded);
+        for (String key : decoded.keySet()) {
+            if (key.equals(RemotingConstants.HEAD_SERVICE)) {
+                Assert.assertSame(RemotingConstants.HEAD_SERVICE, key);
+            }
+        }
+        Assert.assertSame(TRACE_ID_KEY,
+            HeaderKeys.subKey(RPC_TRACE_NAME + "." + TRACE_ID_KEY, RPC_TRACE_NAME + "."));
+        Assert.assertEquals("x", HeaderKeys.subKey("rpc_req_baggage.x", "rpc_req_baggage."));
+    }
+
+    @Test
+    public void testDuplicateAndIllegal() throws Exception {
+        SimpleMapSerializer mapSerializer = new SimpleMapSerializer();
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream(64);
+        mapSerializer.writeString(out, "key");
+        mapSerializer.writeString(out, "v1");
+        mapSerializer.writeString(out, "key");
+        mapSerializer.writeString(out, "v2");
+        Map<String, String> decoded = mapSerializer.decode(out.toByteArray());
+        Assert.assertEquals(1, decoded.size());
+        Assert.assertEquals("v2", decoded.get("key"));
+
+        mapSerializer.writeString(out, "truncated");
+        byte[] bs = out.toByteArray();
+        try {
+            mapSerializer.decode(Arrays.copyOf(bs, bs.length - 2));
+            Assert.fail();
+        } catch (DeserializationException e) {
+            // expected
+        }
+    }
+}
@@ -18,14 +18,24 @@ package com.alipay.sofa.rpc.codec.bolt;
 
 import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
+import com.alipay.remoting.rpc.RpcCommandType;
 import com.alipay.remoting.rpc.protocol.RpcRequestCommand;
 import com.alipay.remoting.rpc.protocol.RpcResponseCommand;
+import com.alipay.sofa.rpc.codec.Serializer;
 import com.alipay.sofa.rpc.common.RemotingConstants;
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.config.ProviderConfig;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.server.RequestExpiry;
+import com.alipay.sofa.rpc.transport.AbstractByteBuf;
+import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -52,6 +62,72 @@ public class SofaRpcSerializationTest {
         Assert.assertTrue(exp);
     }
 
+    @Test
+    public void deserializeExpiredRequestContent() throws DeserializationException {
+        Map<String, String> headerMap = new HashMap<>();
+        headerMap.put(RemotingConstants.HEAD_TARGET_SERVICE, "testService:1.0");
+        headerMap.put(RemotingConstants.HEAD_METHOD_NAME, "sayHello");
+        headerMap.put("rpc_trace_context.sofaTraceId", "traceId");
+
+        RpcRequestCommand command = new RpcRequestCommand();
+        command.setRequestHeader(headerMap);
+        command.setArriveTime(System.currentTimeMillis() - 100);
+        command.setTimeout(50);
+        long dropped = RequestExpiry.getDroppedCount(RequestExpiry.Stage.DECODE);
+        // 已经超时的请求没有请求体也不会报错，只解析请求头
+        Assert.assertTrue(new SofaRpcSerialization().deserializeContent(command));
+        SofaRequest request = (SofaRequest) command.getRequestObject();
+        Assert.assertTrue(request.isExpired());
+        Assert.assertEquals("testService:1.0", request.getTargetServiceUniqueName());
+        Assert.assertEquals("sayHello", request.getMethodName());
+        Assert.assertEquals("traceId",
+            ((Map) request.getRequestProp(RemotingConstants.RPC_TRACE_NAME)).get("sofaTraceId"));
+        Assert.assertEquals(dropped + 1, RequestExpiry.getDroppedCount(RequestExpiry.Stage.DECODE));
+
+        // 透传的 deadline 已经用完
+        headerMap.put(RemotingConstants.HEAD_DEADLINE_REMAIN_TIME, "10");
+        command = new RpcRequestCommand();
+        command.setRequestHeader(headerMap);
+        command.setArriveTime(System.currentTimeMillis() - 100);
+        command.setTimeout(3000);
+        Assert.assertTrue(new SofaRpcSerialization().deserializeContent(command));
+        Assert.assertTrue(((SofaRequest) command.getRequestObject()).isExpired());
+
+        // 服务端关闭了 deadline 时只按超时时间判断
+        ProviderConfig providerConfig = new ProviderConfig();
+        providerConfig.setParameter(RpcOptions.CONFIG_KEY_DEADLINE_ENABLE, "false");
+        RequestExpiry.registerService("testService:1.0", providerConfig);
+        try {
+            command = new RpcRequestCommand();
+            command.setRequestHeader(headerMap);
+            command.setArriveTime(System.currentTimeMillis() - 100);
+            command.setTimeout(3000);
+            boolean exp = false;
+            try {
+                new SofaRpcSerialization().deserializeContent(command);
+            } catch (DeserializationException e) {
+                exp = true;
+            }
+            Assert.assertTrue(exp);
+        } finally {
+            RequestExpiry.unRegisterService("testService:1.0");
+        }
+
+        // 单向调用不判断
+        command = new RpcRequestCommand();
+        command.setType(RpcCommandType.REQUEST_ONEWAY);
+        command.setRequestHeader(headerMap);
+        command.setArriveTime(System.currentTimeMillis() - 100);
+        command.setTimeout(50);
+        boolean exp = false;
+        try {
+            new SofaRpcSerialization().deserializeContent(command);
+        } catch (DeserializationException e) {
+            exp = true;
+        }
+        Assert.assertTrue(exp);
+    }
+
     @Test
     public void serializeResponseContent() {
         String traceId = "traceId";
@@ -113,4 +189,75 @@ public class SofaRpcSerializationTest {
         Assert.assertEquals("testBaggageValue2", ((Map) baggageMap).get("testBaggageKey2"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void appendHeader() throws Exception {
+        SofaRpcSerialization sofaRpcSerialization = new SofaRpcSerialization();
+        RpcResponseCommand command = new RpcResponseCommand();
+        sofaRpcSerialization.appendHeader(command, RemotingConstants.HEAD_COMPRESS, "gzip");
+        Assert.assertEquals("gzip", sofaRpcSerialization.mapSerializer.decode(command.getHeader())
+            .get(RemotingConstants.HEAD_COMPRESS));
+
+        Map<String, String> header = new HashMap<>();
+        header.put(RemotingConstants.HEAD_METHOD_NAME, "sayHello");
+        command.setHeader(sofaRpcSerialization.mapSerializer.encode(header));
+        sofaRpcSerialization.appendHeader(command, RemotingConstants.HEAD_COMPRESS, "gzip");
+        Map<String, String> decoded = sofaRpcSerialization.mapSerializer.decode(command.getHeader());
+        Assert.assertEquals("sayHello", decoded.get(RemotingConstants.HEAD_METHOD_NAME));
+        Assert.assertEquals("gzip", decoded.get(RemotingConstants.HEAD_COMPRESS));
+    }
+
+    @Test
+    public void encodeAndDecodeWithCompress() throws Exception {
+        SofaRpcSerialization sofaRpcSerialization = new SofaRpcSerialization();
+        StringSerializer serializer = new StringSerializer();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1024; i++) {
+            builder.append("compress");
+        }
+        String content = builder.toString();
+        try {
+            // 没有指定压缩算法或者小于基线时不压缩
+            RpcResponseCommand command = new RpcResponseCommand();
+            Assert.assertArrayEquals(content.getBytes("UTF-8"),
+                sofaRpcSerialization.encode(serializer, content, null, null, command, null));
+            Assert.assertArrayEquals("small".getBytes("UTF-8"),
+                sofaRpcSerialization.encode(serializer, "small", null, "gzip", command, null));
+            Assert.assertNull(command.getHeader());
+
+            byte[] compressed = sofaRpcSerialization.encode(serializer, content, null, "gzip", command, null);
+            Assert.assertTrue(compressed.length < content.length());
+            Map<String, String> header = sofaRpcSerialization.mapSerializer.decode(command.getHeader());
+            Assert.assertEquals("gzip", header.get(RemotingConstants.HEAD_COMPRESS));
+            Assert.assertNotNull(RpcInternalContext.getContext().getAttachment(
+                RpcConstants.INTERNAL_KEY_RESP_COMPRESS_RATIO));
+
+            StringBuilder template = new StringBuilder();
+            sofaRpcSerialization.decode(serializer, compressed, template, header, RpcInternalContext.getContext(),
+                false);
+            Assert.assertEquals(content, template.toString());
+        } finally {
+            RpcInternalContext.removeAllContext();
+        }
+    }
+
+    private static class StringSerializer implements Serializer {
+
+        @Override
+        public AbstractByteBuf encode(Object object, Map<String, String> context) throws SofaRpcException {
+            return new ByteArrayWrapperByteBuf(((String) object).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Object decode(AbstractByteBuf data, Class clazz, Map<String, String> context)
+            throws SofaRpcException {
+            return new String(data.array(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void decode(AbstractByteBuf data, Object template, Map<String, String> context)
+            throws SofaRpcException {
+            ((StringBuilder) template).append(new String(data.array(), StandardCharsets.UTF_8));
+        }
+    }
+}
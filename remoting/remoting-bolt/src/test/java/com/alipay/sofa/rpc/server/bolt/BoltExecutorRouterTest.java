@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.bolt;
+
+import com.alipay.sofa.rpc.common.RemotingConstants;
+import com.alipay.sofa.rpc.config.ConfigUniqueNameGenerator;
+import com.alipay.sofa.rpc.config.ProviderConfig;
+import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.config.UserThreadPoolManager;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.server.ProviderProxyInvoker;
+import com.alipay.sofa.rpc.server.UserThreadPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since 5.14.3
+ */
+public class BoltExecutorRouterTest {
+
+    public interface RouteService {
+        String hello(String name);
+
+        String message(String name);
+    }
+
+    public static class RouteServiceImpl implements RouteService {
+        @Override
+        public String hello(String name) {
+            return name;
+        }
+
+        @Override
+        public String message(String name) {
+            return name;
+        }
+    }
+
+    private BoltServer                   boltServer;
+
+    private ProviderConfig<RouteService> providerConfig;
+
+    private String                       service;
+
+    private UserThreadPool               servicePool;
+
+    private UserThreadPool               methodPool;
+
+    @Before
+    public void before() {
+        boltServer = new BoltServer();
+        boltServer.init(new ServerConfig());
+        providerConfig = new ProviderConfig<RouteService>()
+            .setInterfaceId(RouteService.class.getName())
+            .setRef(new RouteServiceImpl())
+            .setUniqueId("router");
+        service = ConfigUniqueNameGenerator.getUniqueName(providerConfig);
+        servicePool = new UserThreadPool();
+        methodPool = new UserThreadPool();
+    }
+
+    @After
+    public void after() {
+        UserThreadPoolManager.unRegisterUserThread(service);
+        UserThreadPoolManager.unRegisterUserThread(service, "hello");
+        servicePool.destroy();
+        methodPool.destroy();
+        boltServer.destroy();
+    }
+
+    @Test
+    public void testRoute() {
+        BoltExecutorRouter router = boltServer.getExecutorRouter();
+        Assert.assertNull(router.route(service, "hello"));
+
+        boltServer.registerProcessor(providerConfig, new ProviderProxyInvoker(providerConfig));
+        // 没有自定义线程池时走默认业务线程池
+        Assert.assertSame(router.getDefaultExecutor(), router.route(service, "hello"));
+        Assert.assertSame(boltServer.getBizExecutor(), router.getDefaultExecutor().getDelegate());
+
+        // 注册自定义线程池后下一次路由生效
+        UserThreadPoolManager.registerUserThread(service, servicePool);
+        UserThreadPoolManager.registerUserThread(service, "hello", methodPool);
+        RoutedExecutor helloExecutor = router.route(service, "hello");
+        Assert.assertSame(methodPool.getUserExecutor(), helloExecutor.getDelegate());
+        Assert.assertSame(servicePool.getUserExecutor(), router.route(service, "message").getDelegate());
+        Assert.assertSame(servicePool.getUserExecutor(), router.route(service, null).getDelegate());
+        Assert.assertSame(servicePool.getUserExecutor(), router.route(service, "nothing").getDelegate());
+        Assert.assertEquals(3, router.getRoutedExecutors().size());
+
+        // 重建路由表后统计对象不变
+        router.rebuild();
+        Assert.assertSame(helloExecutor, router.route(service, "hello"));
+
+        UserThreadPoolManager.unRegisterUserThread(service, "hello");
+        Assert.assertSame(servicePool.getUserExecutor(), router.route(service, "hello").getDelegate());
+
+        boltServer.unRegisterProcessor(providerConfig, false);
+        Assert.assertNull(router.route(service, "hello"));
+        Assert.assertEquals(1, router.getRoutedExecutors().size());
+    }
+
+    @Test
+    public void testSelector() {
+        boltServer.registerProcessor(providerConfig, new ProviderProxyInvoker(providerConfig));
+        UserThreadPoolManager.registerUserThread(service, "hello", methodPool);
+        UserThreadPoolSelector selector = new UserThreadPoolSelector(boltServer.getBizExecutor(),
+            boltServer.getExecutorRouter());
+        Map<String, String> header = new HashMap<String, String>();
+        header.put(RemotingConstants.HEAD_SERVICE, service);
+        header.put(RemotingConstants.HEAD_METHOD_NAME, "hello");
+        Executor executor = selector.select(SofaRequest.class.getName(), header);
+        Assert.assertTrue(executor instanceof RoutedExecutor);
+        Assert.assertSame(methodPool.getUserExecutor(), ((RoutedExecutor) executor).getDelegate());
+
+        header.put(RemotingConstants.HEAD_METHOD_NAME, "message");
+        Assert.assertSame(boltServer.getExecutorRouter().getDefaultExecutor(),
+            selector.select(SofaRequest.class.getName(), header));
+        Assert.assertSame(boltServer.getBizExecutor(), selector.select("other", header));
+    }
+
+    @Test
+    public void testCounter() throws Exception {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(1));
+        final CountDownLatch latch = new CountDownLatch(1);
+        Runnable blocked = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignore) { // NOPMD
+                }
+            }
+        };
+        RoutedExecutor executor = new RoutedExecutor(pool);
+        try {
+            executor.execute(blocked);
+            executor.execute(blocked);
+            Assert.assertEquals(1, executor.getQueueSize());
+            try {
+                executor.execute(blocked);
+                Assert.fail();
+            } catch (RejectedExecutionException expected) { // NOPMD
+            }
+            Assert.assertEquals(3, executor.getSubmittedCount());
+            Assert.assertEquals(1, executor.getRejectedCount());
+        } finally {
+            latch.countDown();
+            pool.shutdown();
+        }
+        Assert.assertEquals(-1, new RoutedExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        }).getQueueSize());
+    }
+}
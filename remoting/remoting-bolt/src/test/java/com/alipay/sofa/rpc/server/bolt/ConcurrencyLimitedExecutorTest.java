@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.bolt;
+
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
+import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimitedExecutor;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @since 5.14.3
+ */
+public class ConcurrencyLimitedExecutorTest {
+
+    /**
+     * 固定限制，记录上报的结果
+     */
+    private static class FixedLimiter extends ConcurrencyLimiter {
+
+        private final int     limit;
+
+        private AtomicInteger released = new AtomicInteger();
+
+        private AtomicInteger dropped  = new AtomicInteger();
+
+        FixedLimiter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        protected void onSample(long rttNanos, int inflight, boolean drop) {
+            if (drop) {
+                dropped.incrementAndGet();
+            } else {
+                Assert.assertTrue(rttNanos >= 0);
+                released.incrementAndGet();
+            }
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+    }
+
+    @Test
+    public void testExecute() {
+        FixedLimiter limiter = new FixedLimiter(1);
+        final Runnable[] pending = new Runnable[1];
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                pending[0] = command;
+            }
+        }, limiter);
+        final AtomicInteger ran = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                ran.incrementAndGet();
+            }
+        };
+        executor.execute(task);
+        Assert.assertEquals(1, limiter.getInflight());
+        // 超过限制，直接拒绝
+        try {
+            executor.execute(task);
+            Assert.fail();
+        } catch (RejectedExecutionException expected) { // NOPMD
+        }
+        Assert.assertEquals(1, limiter.getRejectedCount());
+        pending[0].run();
+        Assert.assertEquals(1, ran.get());
+        Assert.assertEquals(0, limiter.getInflight());
+        Assert.assertEquals(1, limiter.released.get());
+    }
+
+    @Test
+    public void testDelegateRejected() {
+        FixedLimiter limiter = new FixedLimiter(1);
+        ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        }, limiter);
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+            Assert.fail();
+        } catch (RejectedExecutionException expected) { // NOPMD
+        }
+        Assert.assertEquals(0, limiter.getInflight());
+        Assert.assertEquals(1, limiter.dropped.get());
+        Assert.assertEquals(0, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testBoltServer() {
+        BoltServer boltServer = new BoltServer();
+        boltServer.init(new ServerConfig());
+        Assert.assertNull(boltServer.getConcurrencyLimiter());
+        Assert.assertSame(boltServer.getBizExecutor(), boltServer.getBoltServerProcessor().getExecutor());
+        boltServer.destroy();
+
+        RpcConfigs.putValue(RpcOptions.SERVER_CONCURRENCY_LIMITER, "gradient");
+        try {
+            boltServer = new BoltServer();
+            boltServer.init(new ServerConfig());
+            Assert.assertNotNull(boltServer.getConcurrencyLimiter());
+            Executor executor = boltServer.getBoltServerProcessor().getExecutor();
+            Assert.assertTrue(executor instanceof ConcurrencyLimitedExecutor);
+            Assert.assertSame(boltServer.getBizExecutor(), ((ConcurrencyLimitedExecutor) executor).getDelegate());
+            Assert.assertSame(executor, boltServer.getBoltServerProcessor().getExecutor());
+            boltServer.destroy();
+        } finally {
+            RpcConfigs.putValue(RpcOptions.SERVER_CONCURRENCY_LIMITER, "");
+        }
+    }
+}
@@ -31,6 +31,7 @@ import com.alipay.sofa.rpc.log.LogCodes;
 import com.alipay.sofa.rpc.server.BusinessPool;
 import com.alipay.sofa.rpc.server.Server;
 import com.alipay.sofa.rpc.server.SofaRejectedExecutionHandler;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiterFactory;
 import com.alipay.sofa.rpc.transport.ServerTransport;
 import com.alipay.sofa.rpc.transport.ServerTransportConfig;
 import com.alipay.sofa.rpc.transport.ServerTransportFactory;
@@ -38,6 +39,7 @@ import com.alipay.sofa.rpc.transport.ServerTransportFactory;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -82,6 +84,11 @@ public abstract class AbstractHttpServer implements Server {
      */
     protected ThreadPoolExecutor    bizThreadPool;
 
+    /**
+     * 虚拟线程模式下处理请求的执行器
+     */
+    protected ExecutorService       bizExecutor;
+
     @Override
     public void init(ServerConfig serverConfig) {
         this.serverConfig = serverConfig;
@@ -90,6 +97,7 @@ public abstract class AbstractHttpServer implements Server {
         this.bizThreadPool = initThreadPool(serverConfig);
         // 服务端处理器
         this.serverHandler = new HttpServerHandler();
+        this.serverHandler.setConcurrencyLimiter(ConcurrencyLimiterFactory.getConcurrencyLimiter(serverConfig));
 
         // set default transport config
         this.serverTransportConfig.setContainer(container);
@@ -120,12 +128,19 @@ public abstract class AbstractHttpServer implements Server {
                 // 启动线程池
                 this.bizThreadPool = initThreadPool(serverConfig);
                 this.serverHandler.setBizThreadPool(bizThreadPool);
+                if (serverConfig.isVirtualThread()) {
+                    // 每个请求一个虚拟线程，不再占用 IO 线程
+                    this.bizExecutor = BusinessPool.initVirtualThreadExecutor("SEV-"
+                        + serverConfig.getProtocol().toUpperCase() + "-BIZ-" + serverConfig.getPort(), serverConfig);
+                    this.serverHandler.setBizExecutor(bizExecutor);
+                }
                 serverTransport = ServerTransportFactory.getServerTransport(serverTransportConfig);
                 started = serverTransport.start();
 
                 if (started) {
                     if (EventBus.isEnable(ServerStartedEvent.class)) {
-                        EventBus.post(new ServerStartedEvent(serverConfig, bizThreadPool));
+                        EventBus.post(new ServerStartedEvent(serverConfig, bizThreadPool,
+                            serverHandler.getConcurrencyLimiter()));
                     }
                 }
             } catch (SofaRpcRuntimeException e) {
@@ -165,6 +180,11 @@ public abstract class AbstractHttpServer implements Server {
                 bizThreadPool = null;
                 serverHandler.setBizThreadPool(null);
             }
+            if (bizExecutor != null) {
+                bizExecutor.shutdown();
+                bizExecutor = null;
+                serverHandler.setBizExecutor(null);
+            }
 
             started = false;
 
@@ -43,8 +43,10 @@ import com.alipay.sofa.rpc.log.LoggerFactory;
 import com.alipay.sofa.rpc.message.MessageBuilder;
 import com.alipay.sofa.rpc.server.AbstractTask;
 import com.alipay.sofa.rpc.server.ProviderProxyInvoker;
+import com.alipay.sofa.rpc.server.RequestExpiry;
 import com.alipay.sofa.rpc.transport.AbstractByteBuf;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -68,11 +70,16 @@ public abstract class AbstractHttpServerTask extends AbstractTask {
     protected final SofaRequest           request;
     protected final ChannelHandlerContext ctx;
     protected final HttpServerHandler     serverHandler;
+    /**
+     * 请求到达时间（毫秒）
+     */
+    protected final long                  arriveTime;
 
     public AbstractHttpServerTask(HttpServerHandler serverHandler, SofaRequest request, ChannelHandlerContext ctx) {
         this.serverHandler = serverHandler;
         this.request = request;
         this.ctx = ctx;
+        this.arriveTime = System.currentTimeMillis();
     }
 
     @Override
@@ -123,6 +130,18 @@ public abstract class AbstractHttpServerTask extends AbstractTask {
                         // 找到服务后，打印服务的appName
                         appName = providerConfig != null ? providerConfig.getAppName() : null;
                     }
+                    // 请求头中的 deadline 已经过期，不再反序列化请求体；服务端关闭了 deadline 的服务不判断
+                    if (RequestExpiry.isDeadlineEnabled(providerConfig)
+                        && RequestExpiry.isExpired(arriveTime, 0,
+                            request.getRequestProp(RemotingConstants.HEAD_DEADLINE_REMAIN_TIME),
+                            System.currentTimeMillis())) {
+                        RequestExpiry.recordDropped(RequestExpiry.Stage.DECODE);
+                        throwable = clientTimeoutWhenReceiveRequest(appName, serviceName,
+                            String.valueOf(channel.remoteAddress()));
+                        response = MessageBuilder.buildSofaErrorResponse(throwable.getMessage());
+                        status = HttpResponseStatus.REQUEST_TIMEOUT;
+                        break invoke;
+                    }
                     // 查找方法
                     String methodName = request.getMethodName();
                     Method serviceMethod = serverHandler.getMethod(serviceName, methodName);
@@ -133,6 +152,10 @@ public abstract class AbstractHttpServerTask extends AbstractTask {
                         break invoke;
                     } else {
                         request.setMethod(serviceMethod);
+                        if (invoker instanceof ProviderProxyInvoker) {
+                            // 解码时确定分发下标，业务调用时不再查找
+                            request.setMethodIndex(((ProviderProxyInvoker) invoker).getMethodIndex(serviceMethod));
+                        }
                     }
 
                     AbstractByteBuf reqData = request.getData();
@@ -184,8 +207,7 @@ public abstract class AbstractHttpServerTask extends AbstractTask {
                         } else {
                             ByteBuf content = ctx.alloc().buffer();
                             if (request.getSerializeType() > 0) {
-                                AbstractByteBuf bs = serializer.encode(response, null);
-                                content.writeBytes(bs.array());
+                                serializer.encode(response, null, new ByteBufOutputStream(content));
                             } else {
                                 content.writeBytes(StringSerializer.encode(response.getAppResponse().toString()));
                             }
@@ -250,6 +272,22 @@ public abstract class AbstractHttpServerTask extends AbstractTask {
      */
     protected abstract void sendRpcError(HttpResponseStatus status, ByteBuf data);
 
+    /**
+     * 客户端已经超时了，丢弃这个请求
+     *
+     * @param appName       应用
+     * @param serviceName   服务
+     * @param remoteAddress 远程地址
+     * @return 丢弃的异常
+     */
+    private SofaRpcException clientTimeoutWhenReceiveRequest(String appName, String serviceName, String remoteAddress) {
+        String errorMsg = LogCodes.getLog(LogCodes.ERROR_DISCARD_TIMEOUT_REQUEST, serviceName, remoteAddress);
+        if (LOGGER.isWarnEnabled(appName)) {
+            LOGGER.warnWithApp(appName, errorMsg);
+        }
+        return new SofaRpcException(RpcErrorType.SERVER_UNDECLARED_ERROR, errorMsg);
+    }
+
     /**
      * 找不到服务
      *
@@ -17,17 +17,23 @@
 package com.alipay.sofa.rpc.server.http;
 
 import com.alipay.sofa.rpc.common.cache.ReflectCache;
+import com.alipay.sofa.rpc.core.exception.RpcErrorType;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.invoke.Invoker;
 import com.alipay.sofa.rpc.server.ProviderProxyInvoker;
 import com.alipay.sofa.rpc.server.ServerHandler;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
+import com.alipay.sofa.rpc.transport.AbstractByteBuf;
 import com.alipay.sofa.rpc.transport.AbstractChannel;
+import com.alipay.sofa.rpc.transport.netty.NettyByteBuffer;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http2.Http2ConnectionEncoder;
 
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -53,6 +59,16 @@ public class HttpServerHandler implements ServerHandler {
      */
     protected ThreadPoolExecutor   bizThreadPool;
 
+    /**
+     * 自适应并发限制，未开启时为null
+     */
+    protected ConcurrencyLimiter   concurrencyLimiter;
+
+    /**
+     * 虚拟线程模式下处理请求的执行器，为null时直接在 IO 线程处理
+     */
+    protected Executor             bizExecutor;
+
     public Map<String, Invoker> getInvokerMap() {
         return invokerMap;
     }
@@ -80,15 +96,7 @@ public class HttpServerHandler implements ServerHandler {
      */
     public void handleHttp1Request(SofaRequest request, ChannelHandlerContext ctx, boolean keepAlive) {
         Http1ServerTask task = new Http1ServerTask(this, request, ctx, keepAlive);
-
-        processingCount.incrementAndGet();
-        try {
-            task.run();
-        } catch (RejectedExecutionException e) {
-            processingCount.decrementAndGet();
-            throw e;
-        }
-
+        dispatch(task, request);
     }
 
     /**
@@ -102,13 +110,82 @@ public class HttpServerHandler implements ServerHandler {
     public void handleHttp2Request(int streamId, SofaRequest request, ChannelHandlerContext ctx,
                                    Http2ConnectionEncoder encoder) {
         Http2ServerTask task = new Http2ServerTask(this, request, ctx, streamId, encoder);
+        dispatch(task, request);
+    }
 
+    /**
+     * 处理请求：默认在当前 IO 线程执行，虚拟线程模式下每个请求提交到一个虚拟线程
+     *
+     * @param task    任务
+     * @param request 请求
+     * @throws SofaRpcException 超过并发限制时抛出 {@link RpcErrorType#SERVER_OVERLOAD}，
+     *                          虚拟线程模式下拒绝时抛出 {@link RpcErrorType#SERVER_BUSY}
+     */
+    private void dispatch(final AbstractHttpServerTask task, SofaRequest request) {
+        final long start = acquire();
         processingCount.incrementAndGet();
+        if (bizExecutor == null) {
+            try {
+                task.run();
+            } catch (RejectedExecutionException e) {
+                processingCount.decrementAndGet();
+                throw e;
+            } finally {
+                release(start);
+            }
+            return;
+        }
+        // 请求体在 IO 线程返回后会被释放，交给其它线程前先占用一次
+        final AbstractByteBuf data = request.getData();
+        if (data instanceof NettyByteBuffer) {
+            ((NettyByteBuffer) data).retain();
+        }
         try {
-            task.run();
+            bizExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        releaseData(data);
+                        release(start);
+                    }
+                }
+            });
         } catch (RejectedExecutionException e) {
+            releaseData(data);
             processingCount.decrementAndGet();
-            throw e;
+            release(start);
+            throw new SofaRpcException(RpcErrorType.SERVER_BUSY, e.getMessage());
+        }
+    }
+
+    private void releaseData(AbstractByteBuf data) {
+        if (data instanceof NettyByteBuffer) {
+            data.release();
+        }
+    }
+
+    /**
+     * 占用一个并发，此时请求体还没有反序列化
+     *
+     * @return 开始时间
+     * @throws SofaRpcException 超过并发限制时抛出 {@link RpcErrorType#SERVER_OVERLOAD}
+     */
+    private long acquire() {
+        if (concurrencyLimiter == null) {
+            return 0;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw new SofaRpcException(RpcErrorType.SERVER_OVERLOAD, "Server overload, concurrency limit "
+                + concurrencyLimiter.getLimit() + " exceeded");
+        }
+        return System.nanoTime();
+    }
+
+    private void release(long start) {
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(System.nanoTime() - start);
         }
     }
 
@@ -140,4 +217,22 @@ public class HttpServerHandler implements ServerHandler {
         this.bizThreadPool = bizThreadPool;
         return this;
     }
+
+    public Executor getBizExecutor() {
+        return bizExecutor;
+    }
+
+    public HttpServerHandler setBizExecutor(Executor bizExecutor) {
+        this.bizExecutor = bizExecutor;
+        return this;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public HttpServerHandler setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        return this;
+    }
 }
\ No newline at end of file
@@ -44,9 +44,12 @@ import com.alipay.sofa.rpc.transport.AbstractChannel;
 import com.alipay.sofa.rpc.transport.ClientHandler;
 import com.alipay.sofa.rpc.transport.ClientTransport;
 import com.alipay.sofa.rpc.transport.ClientTransportConfig;
+import com.alipay.sofa.rpc.transport.netty.NettyByteBuffer;
 import com.alipay.sofa.rpc.transport.netty.NettyChannel;
 import com.alipay.sofa.rpc.transport.netty.NettyHelper;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
@@ -289,7 +292,10 @@ public abstract class AbstractHttp2ClientTransport extends ClientTransport {
             // 序列化
             byte serializeType = request.getSerializeType();
             Serializer serializer = SerializerFactory.getSerializer(serializeType);
-            data = serializer.encode(request, null);
+            // 直接序列化到 Netty 的缓冲区
+            ByteBuf content = channel.channel().alloc().buffer();
+            data = new NettyByteBuffer(content);
+            serializer.encode(request, null, new ByteBufOutputStream(content));
             request.setData(data);
             // 记录请求序列化大小 不是很准，没有记录HTTP头
             RpcInternalContext.getContext().setAttachment(RpcConstants.INTERNAL_KEY_REQ_SIZE, data.readableBytes());
@@ -331,8 +337,11 @@ public abstract class AbstractHttp2ClientTransport extends ClientTransport {
         }
 
         // Create a simple POST request with a body.
-        FullHttpRequest httpRequest = new DefaultFullHttpRequest(HTTP_1_1, POST, url,
-            wrappedBuffer(request.getData().array()));
+        AbstractByteBuf data = request.getData();
+        // 请求发出后 Netty 会释放一次，这里多引用一次，原始的缓冲区由调用方释放
+        ByteBuf content = data instanceof NettyByteBuffer ? ((NettyByteBuffer) data).getByteBuf().retainedDuplicate()
+            : wrappedBuffer(data.array());
+        FullHttpRequest httpRequest = new DefaultFullHttpRequest(HTTP_1_1, POST, url, content);
         HttpHeaders headers = httpRequest.headers();
         addToHeader(headers, HttpHeaderNames.HOST, hostName);
         addToHeader(headers, HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(), scheme.name());
@@ -152,7 +152,7 @@ public class Http1ServerChannelHandler extends SimpleChannelInboundHandler<FullH
             serverHandler.handleHttp1Request(sofaRequest, ctx, keepAlive);
         } catch (SofaRpcException e) {
             int type = e.getErrorType();
-            if (type == RpcErrorType.SERVER_BUSY) {
+            if (type == RpcErrorType.SERVER_BUSY || type == RpcErrorType.SERVER_OVERLOAD) {
                 sendHttp1Response(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE, e.getMessage(), keepAlive);
             } else if (type == RpcErrorType.SERVER_NOT_FOUND_INVOKER) {
                 sendHttp1Response(ctx, HttpResponseStatus.NOT_FOUND, e.getMessage(), keepAlive);
@@ -205,7 +205,7 @@ public final class Http2ServerChannelHandler extends Http2ConnectionHandler impl
                 serverHandler.handleHttp2Request(streamId, sofaRequest, ctx, encoder());
             } catch (SofaRpcException e) {
                 int type = e.getErrorType();
-                if (type == RpcErrorType.SERVER_BUSY) {
+                if (type == RpcErrorType.SERVER_BUSY || type == RpcErrorType.SERVER_OVERLOAD) {
                     sendHttp2Response(ctx, streamId, HttpResponseStatus.SERVICE_UNAVAILABLE, e.getMessage());
                 } else if (type == RpcErrorType.SERVER_NOT_FOUND_INVOKER) {
                     sendHttp2Response(ctx, streamId, HttpResponseStatus.NOT_FOUND, e.getMessage());
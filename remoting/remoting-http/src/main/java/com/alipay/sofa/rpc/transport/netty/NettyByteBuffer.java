@@ -18,6 +18,11 @@ package com.alipay.sofa.rpc.transport.netty;
 
 import com.alipay.sofa.rpc.transport.AbstractByteBuf;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * @author <a href="mailto:zhanggeng.zg@antfin.com">GengZhang</a>
@@ -33,22 +38,58 @@ public class NettyByteBuffer extends AbstractByteBuf {
 
     @Override
     public byte[] array() {
-        if (byteBuf.hasArray()) {
-            // 堆内 ByteBuf
+        if (hasArray()) {
+            // 堆内 ByteBuf，且底层数组正好就是可读的数据
             return byteBuf.array();
         } else {
-            // 堆外 ByteBuf
-            byte[] bs = new byte[byteBuf.readableBytes()];
-            byteBuf.readBytes(bs);
-            return bs;
+            // 堆外 ByteBuf 或者只占用了底层数组的一部分，拷贝一份，不改变读索引
+            return ByteBufUtil.getBytes(byteBuf);
         }
     }
 
+    @Override
+    public boolean hasArray() {
+        return byteBuf.hasArray() && byteBuf.arrayOffset() == 0 && byteBuf.readerIndex() == 0
+            && byteBuf.array().length == byteBuf.readableBytes();
+    }
+
+    @Override
+    public InputStream inputStream() {
+        // 直接从 ByteBuf 中读取，不拷贝
+        return new ByteBufInputStream(byteBuf.duplicate());
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return byteBuf.nioBuffer().asReadOnlyBuffer();
+    }
+
+    /**
+     * 获取原始的 ByteBuf
+     *
+     * @return ByteBuf
+     * @since 5.14.3
+     */
+    public ByteBuf getByteBuf() {
+        return byteBuf;
+    }
+
     @Override
     public int readableBytes() {
         return byteBuf.readableBytes();
     }
 
+    /**
+     * 增加一次引用，交给其它线程处理前调用，处理完后调用 {@link #release()}
+     *
+     * @return this
+     * @since 5.14.3
+     */
+    public NettyByteBuffer retain() {
+        byteBuf.retain();
+        return this;
+    }
+
     @Override
     public boolean release() {
         return byteBuf.refCnt() <= 0 || byteBuf.release();
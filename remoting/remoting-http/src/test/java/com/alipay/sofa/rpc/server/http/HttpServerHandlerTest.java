@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.http;
+
+import com.alipay.sofa.rpc.core.exception.RpcErrorType;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.request.SofaRequest;
+import com.alipay.sofa.rpc.transport.netty.NettyByteBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @since 5.14.3
+ */
+public class HttpServerHandlerTest {
+
+    @Test
+    public void testDispatchToExecutor() {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        HttpServerHandler handler = new HttpServerHandler().setBizExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+        ByteBuf data = Unpooled.buffer().writeInt(1);
+        SofaRequest request = new SofaRequest();
+        request.setData(new NettyByteBuffer(data));
+
+        handler.handleHttp2Request(3, request, null, null);
+        Assert.assertEquals(1, tasks.size());
+        Assert.assertEquals(1, handler.getProcessingCount().get());
+        // IO 线程返回后请求体仍然可用
+        Assert.assertEquals(2, data.refCnt());
+
+        tasks.get(0).run();
+        Assert.assertEquals(0, handler.getProcessingCount().get());
+        Assert.assertEquals(1, data.refCnt());
+    }
+
+    @Test
+    public void testDispatchRejected() {
+        HttpServerHandler handler = new HttpServerHandler().setBizExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException("busy");
+            }
+        });
+        ByteBuf data = Unpooled.buffer().writeInt(1);
+        SofaRequest request = new SofaRequest();
+        request.setData(new NettyByteBuffer(data));
+        try {
+            handler.handleHttp1Request(request, null, true);
+            Assert.fail();
+        } catch (SofaRpcException e) {
+            Assert.assertEquals(RpcErrorType.SERVER_BUSY, e.getErrorType());
+        }
+        Assert.assertEquals(0, handler.getProcessingCount().get());
+        Assert.assertEquals(1, data.refCnt());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @since 5.14.3
+ */
+public class NettyByteBufferTest {
+
+    @Test
+    public void testHeap() {
+        ByteBuf byteBuf = Unpooled.wrappedBuffer(new byte[] { 1, 2, 3 });
+        NettyByteBuffer buffer = new NettyByteBuffer(byteBuf);
+        Assert.assertTrue(buffer.hasArray());
+        Assert.assertSame(byteBuf.array(), buffer.array());
+
+        // 只占用底层数组的一部分时需要拷贝
+        byteBuf.readByte();
+        Assert.assertFalse(buffer.hasArray());
+        Assert.assertArrayEquals(new byte[] { 2, 3 }, buffer.array());
+        Assert.assertEquals(2, buffer.readableBytes());
+        Assert.assertTrue(buffer.release());
+    }
+
+    @Test
+    public void testDirect() throws IOException {
+        ByteBuf byteBuf = Unpooled.directBuffer().writeBytes(new byte[] { 1, 2, 3 });
+        NettyByteBuffer buffer = new NettyByteBuffer(byteBuf);
+        Assert.assertFalse(buffer.hasArray());
+        Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, buffer.array());
+        // 拷贝不改变读索引
+        Assert.assertEquals(3, buffer.readableBytes());
+
+        InputStream in = buffer.inputStream();
+        Assert.assertEquals(1, in.read());
+        Assert.assertEquals(3, buffer.readableBytes());
+        Assert.assertTrue(buffer.nioBuffer().isDirect());
+        Assert.assertTrue(buffer.release());
+        Assert.assertEquals(0, byteBuf.refCnt());
+    }
+}
@@ -20,8 +20,11 @@ import com.alipay.common.tracer.core.context.trace.SofaTraceContext;
 import com.alipay.common.tracer.core.holder.SofaTraceContextHolder;
 import com.alipay.common.tracer.core.span.SofaTracerSpan;
 import com.alipay.common.tracer.core.span.SpanEventData;
+import com.alipay.sofa.rpc.codec.CompressNegotiator;
+import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.context.RpcRunningState;
@@ -33,6 +36,7 @@ import com.alipay.sofa.rpc.server.triple.TripleContants;
 import com.alipay.sofa.rpc.tracer.sofatracer.TripleTracerAdapter;
 import com.alipay.sofa.rpc.tracer.sofatracer.code.TracerResultCode;
 import com.alipay.sofa.rpc.tracer.sofatracer.log.tags.RpcEventTags;
+import com.alipay.sofa.rpc.transport.triple.TripleCompressors;
 import com.alipay.sofa.rpc.utils.TripleExceptionUtils;
 import com.google.protobuf.GeneratedMessageV3;
 import io.grpc.CallOptions;
@@ -49,7 +53,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static com.alipay.sofa.rpc.common.RpcConstants.INTERNAL_KEY_CLIENT_FIRST_STREAM_RESP_NANO;
 
 /**
  * Grpc客户端侧的拦截器，主要是发送隐式传参，状态记录等
@@ -61,6 +64,17 @@ public class ClientHeaderClientInterceptor implements ClientInterceptor {
     public static final Logger LOGGER = LoggerFactory
                                           .getLogger(ClientHeaderClientInterceptor.class);
 
+    /**
+     * 服务端通过 grpc-accept-encoding 声明的可解压算法
+     */
+    private static final Metadata.Key<String> ACCEPT_ENCODING_KEY = Metadata.Key.of("grpc-accept-encoding",
+                                                                       Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * 每个连接一个拦截器，记录对端已确认可以解压的算法
+     */
+    private final CompressNegotiator          compressNegotiator  = new CompressNegotiator();
+
     public ClientHeaderClientInterceptor() {
     }
 
@@ -79,9 +93,15 @@ public class ClientHeaderClientInterceptor implements ClientInterceptor {
         AtomicInteger receiveId = new AtomicInteger();
         AtomicInteger sendId = new AtomicInteger();
         long startTimeNano = System.nanoTime();
+        // 对端确认能解压之后才压缩请求，老版本服务端不会收到压缩的请求
+        String compress = sofaRequest == null ? null : (String) sofaRequest
+            .getRequestProp(RemotingConstants.HEAD_COMPRESS_ACCEPT);
+        boolean compressRequest = compressNegotiator.isAccepted(compress);
+        CallOptions options = compressRequest ? callOptions.withCompression(TripleCompressors
+            .getMessageEncoding(compress)) : callOptions;
 
         return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(next.newCall(
-            method, callOptions)) {
+            method, options)) {
 
             @Override
             public void start(Listener<RespT> responseListener, Metadata requestHeader) {
@@ -98,6 +118,9 @@ public class ClientHeaderClientInterceptor implements ClientInterceptor {
                         if (RpcRunningState.isDebugMode()) {
                             LOGGER.info("[3]response header received from server:{}", responseHeader);
                         }
+                        if (compress != null) {
+                            onAcceptEncoding(responseHeader.get(ACCEPT_ENCODING_KEY));
+                        }
                         super.onHeaders(responseHeader);
                     }
 
@@ -109,7 +132,7 @@ public class ClientHeaderClientInterceptor implements ClientInterceptor {
                         try {
                             int messageId = receiveId.incrementAndGet();
                             if (messageId == 1) {
-                                context.put(INTERNAL_KEY_CLIENT_FIRST_STREAM_RESP_NANO, System.nanoTime() -
+                                context.recordPhase(InvokePhase.CLIENT_FIRST_STREAM_RESP_NANO, System.nanoTime() -
                                     startTimeNano);
                             }
                             int messageSize = 0;
@@ -222,6 +245,9 @@ public class ClientHeaderClientInterceptor implements ClientInterceptor {
                         spanEventData.addTag(RpcEventTags.CURRENT_THREAD_NAME, Thread.currentThread().getName());
                         spanEventData.addTag(RpcEventTags.SIZE, messageSize);
                     }
+                    if (compressRequest) {
+                        super.setMessageCompression(CompressNegotiator.isOverBaseline(messageSize));
+                    }
                     super.sendMessage(message);
                 } catch (Throwable t) {
                     throwable = t;
@@ -240,4 +266,13 @@ public class ClientHeaderClientInterceptor implements ClientInterceptor {
             }
         };
     }
-}
\ No newline at end of file
+
+    private void onAcceptEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            compressNegotiator.onAccept(encoding.trim());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.interceptor;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 虚拟线程模式下服务端限制最大并发数的拦截器
+ * <p>
+ * 虚拟线程执行器没有队列，改为每个调用在 {@link #interceptCall} 时申请一个许可，拿不到时以
+ * {@link Status#RESOURCE_EXHAUSTED} 关闭；调用结束（onComplete / onCancel）时归还。
+ * 同一个服务端的所有服务共用一组许可。
+ *
+ * @since 5.14.3
+ */
+public class ServerAdmissionInterceptor extends TripleServerInterceptor {
+
+    private final Semaphore permits;
+
+    private final int       maxConcurrency;
+
+    public ServerAdmissionInterceptor(ServerServiceDefinition serverServiceDefinition, Semaphore permits,
+                                      int maxConcurrency) {
+        super(serverServiceDefinition);
+        this.permits = permits;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata requestHeaders,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!permits.tryAcquire()) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Server busy, max concurrency "
+                + maxConcurrency + " exceeded"), new Metadata());
+            return new ServerCall.Listener<ReqT>() {
+            };
+        }
+        final AtomicBoolean released = new AtomicBoolean();
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(call, requestHeaders);
+        } catch (RuntimeException e) {
+            release(released);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(listener) {
+            @Override
+            public void onComplete() {
+                try {
+                    super.onComplete();
+                } finally {
+                    release(released);
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    release(released);
+                }
+            }
+        };
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+}
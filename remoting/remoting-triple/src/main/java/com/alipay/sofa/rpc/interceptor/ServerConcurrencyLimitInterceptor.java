@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.interceptor;
+
+import com.alipay.sofa.rpc.core.exception.RpcErrorType;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 服务端自适应并发限制的拦截器
+ * <p>
+ * 每个调用在 {@link #interceptCall} 时申请一次，超过限制时直接以 {@link Status#RESOURCE_EXHAUSTED} 关闭，
+ * 不再反序列化请求体；调用结束（onComplete / onCancel）时归还并把整个调用的耗时作为样本。
+ * 不能把限制放在 gRPC 的执行器上，那里一个调用会提交多批回调，限制的不是请求数。
+ *
+ * @since 5.14.3
+ */
+public class ServerConcurrencyLimitInterceptor extends TripleServerInterceptor {
+
+    private final ConcurrencyLimiter limiter;
+
+    public ServerConcurrencyLimitInterceptor(ServerServiceDefinition serverServiceDefinition,
+                                             ConcurrencyLimiter limiter) {
+        super(serverServiceDefinition);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata requestHeaders,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!limiter.tryAcquire()) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("[" + RpcErrorType.SERVER_OVERLOAD
+                + "]Server overload, concurrency limit " + limiter.getLimit() + " exceeded"), new Metadata());
+            return new ServerCall.Listener<ReqT>() {
+            };
+        }
+        final long start = System.nanoTime();
+        final AtomicBoolean released = new AtomicBoolean();
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(call, requestHeaders);
+        } catch (RuntimeException e) {
+            release(released, start);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(listener) {
+            @Override
+            public void onComplete() {
+                try {
+                    super.onComplete();
+                } finally {
+                    release(released, start);
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    release(released, start);
+                }
+            }
+        };
+    }
+
+    private void release(AtomicBoolean released, long start) {
+        if (released.compareAndSet(false, true)) {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 得到并发限制
+     *
+     * @return 并发限制
+     */
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
@@ -20,16 +20,22 @@ import com.alipay.common.tracer.core.context.trace.SofaTraceContext;
 import com.alipay.common.tracer.core.holder.SofaTraceContextHolder;
 import com.alipay.common.tracer.core.span.SofaTracerSpan;
 import com.alipay.common.tracer.core.span.SpanEventData;
+import com.alipay.sofa.rpc.codec.CompressNegotiator;
+import com.alipay.sofa.rpc.common.RemotingConstants;
 import com.alipay.sofa.rpc.common.RpcConstants;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.context.RpcRunningState;
 import com.alipay.sofa.rpc.core.request.SofaRequest;
 import com.alipay.sofa.rpc.core.response.SofaResponse;
+import com.alipay.sofa.rpc.server.RequestExpiry;
+import com.alipay.sofa.rpc.server.triple.ArriveTimeStreamTracerFactory;
+import com.alipay.sofa.rpc.server.triple.TripleHeadKeys;
 import com.alipay.sofa.rpc.tracer.sofatracer.TracingContextKey;
 import com.alipay.sofa.rpc.tracer.sofatracer.TripleTracerAdapter;
 import com.alipay.sofa.rpc.tracer.sofatracer.code.TracerResultCode;
 import com.alipay.sofa.rpc.tracer.sofatracer.log.tags.RpcEventTags;
+import com.alipay.sofa.rpc.transport.triple.TripleCompressors;
 import com.google.protobuf.GeneratedMessageV3;
 import io.grpc.Context;
 import io.grpc.Contexts;
@@ -66,6 +72,15 @@ public class ServerReqHeaderInterceptor extends TripleServerInterceptor {
                                                                  final Metadata requestHeaders,
                                                                  ServerCallHandler<ReqT, RespT> next) {
         try {
+            if (isExpired(requestHeaders)) {
+                // 排队期间透传的 deadline 已经用完，不再反序列化请求体和调用业务
+                RequestExpiry.recordDropped(RequestExpiry.Stage.DECODE);
+                call.close(Status.DEADLINE_EXCEEDED.withDescription("Deadline of request to "
+                    + requestHeaders.get(TripleHeadKeys.HEAD_KEY_TARGET_SERVICE) + " is exceeded when received"),
+                    new Metadata());
+                return new ServerCall.Listener<ReqT>() {
+                };
+            }
             RpcInvokeContext invokeContext = RpcInvokeContext.getContext();
             RpcInternalContext internalContext = RpcInternalContext.getContext();
             internalContext.setProviderSide(true);
@@ -76,6 +91,12 @@ public class ServerReqHeaderInterceptor extends TripleServerInterceptor {
             AtomicInteger receiveId = new AtomicInteger();
             AtomicInteger sendId = new AtomicInteger();
             AtomicBoolean traceEnd = new AtomicBoolean();
+            // 客户端声明了压缩算法且本端支持时，响应按 grpc-encoding 压缩；客户端不能解压时 gRPC 会退回不压缩
+            String compress = CompressNegotiator.accept(requestHeaders.get(TripleHeadKeys
+                .getKey(RemotingConstants.HEAD_COMPRESS_ACCEPT)));
+            if (compress != null) {
+                call.setCompression(TripleCompressors.getMessageEncoding(compress));
+            }
             //这里和下面不在一个线程
             if (RpcRunningState.isDebugMode()) {
                 LOGGER.info("[1]header received from client:{}", requestHeaders);
@@ -121,6 +142,9 @@ public class ServerReqHeaderInterceptor extends TripleServerInterceptor {
                             spanEventData.addTag(RpcEventTags.CURRENT_THREAD_NAME, Thread.currentThread().getName());
                             spanEventData.addTag(RpcEventTags.SIZE, messageSize);
                         }
+                        if (compress != null) {
+                            super.setMessageCompression(CompressNegotiator.isOverBaseline(messageSize));
+                        }
                         super.sendMessage(message);
                         sofaResponse.setAppResponse(message);
                     } catch (Throwable t) {
@@ -303,6 +327,23 @@ public class ServerReqHeaderInterceptor extends TripleServerInterceptor {
         }
     }
 
+    /**
+     * 按到达时间判断透传的 deadline 是否已经用完，服务端关闭了 deadline 的服务不判断；
+     * gRPC 自身的超时（grpc-timeout）由 gRPC 在到期时取消调用
+     *
+     * @param requestHeaders 请求头
+     * @return 是否已经过期
+     */
+    protected boolean isExpired(Metadata requestHeaders) {
+        String deadline = requestHeaders.get(TripleHeadKeys.getKey(RemotingConstants.HEAD_DEADLINE_REMAIN_TIME));
+        if (deadline == null
+            || !RequestExpiry.isDeadlineEnabled(requestHeaders.get(TripleHeadKeys.HEAD_KEY_TARGET_SERVICE))) {
+            return false;
+        }
+        return RequestExpiry.isExpired(ArriveTimeStreamTracerFactory.getArriveTime(), 0, deadline,
+            System.currentTimeMillis());
+    }
+
     protected <ReqT, RespT> Context convertHeaderToContext(ServerCall<ReqT, RespT> call,
                                                            Metadata requestHeaders, SofaRequest sofaRequest,
                                                            ServerServiceDefinition serverServiceDefinition) {
@@ -20,8 +20,9 @@ import com.alipay.sofa.rpc.codec.Serializer;
 import com.alipay.sofa.rpc.codec.SerializerFactory;
 import com.alipay.sofa.rpc.core.exception.RpcErrorType;
 import com.alipay.sofa.rpc.core.exception.SofaRpcException;
-import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
 import com.alipay.sofa.rpc.transport.SofaStreamObserver;
+import com.alipay.sofa.rpc.transport.triple.ByteStringWrapperByteBuf;
+import com.google.protobuf.ByteString;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,17 +58,17 @@ public class ClientStreamObserverAdapter implements StreamObserver<triple.Respon
 
     @Override
     public void onNext(triple.Response response) {
-        byte[] responseData = response.getData().toByteArray();
+        ByteString responseData = response.getData();
         Object appResponse;
         String returnTypeName = response.getType();
-        if (responseData != null && responseData.length > 0) {
+        if (responseData != null && !responseData.isEmpty()) {
             ClassLoader oldClassloader = Thread.currentThread().getContextClassLoader();
             try {
                 Thread.currentThread().setContextClassLoader(classLoader);
                 if (returnType == null && !returnTypeName.isEmpty()) {
                     returnType = Class.forName(returnTypeName, true, classLoader);
                 }
-                appResponse = serializer.decode(new ByteArrayWrapperByteBuf(responseData), returnType, null);
+                appResponse = serializer.decode(new ByteStringWrapperByteBuf(responseData), returnType, null);
                 sofaStreamObserver.onNext(appResponse);
             } catch (ClassNotFoundException e) {
                 LOGGER.error("Can not find return type :" + returnType, e);
@@ -20,8 +20,8 @@ import com.alipay.sofa.rpc.codec.Serializer;
 import com.alipay.sofa.rpc.codec.SerializerFactory;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
 import com.alipay.sofa.rpc.transport.SofaStreamObserver;
+import com.alipay.sofa.rpc.utils.SofaProtoUtils;
 import com.alipay.sofa.rpc.utils.TripleExceptionUtils;
-import com.google.protobuf.ByteString;
 import io.grpc.stub.StreamObserver;
 import triple.Response;
 
@@ -56,7 +56,7 @@ public class ResponseSerializeSofaStreamObserver<T> implements SofaStreamObserve
         Response.Builder builder = Response.newBuilder();
         builder.setType(message.getClass().getName());
         builder.setSerializeType(serializeType);
-        builder.setData(ByteString.copyFrom(serializer.encode(message, null).array()));
+        builder.setData(SofaProtoUtils.encode(serializer, message));
 
         writeLock.lock();
         try {
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.server.triple;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.ServerStreamTracer;
+
+/**
+ * 在 IO 线程收到请求头时记录请求到达时间，放到 gRPC 的 {@link Context} 中。
+ * <p>
+ * 拦截器在业务线程池中执行，据此可以把排队的时间算进透传的 deadline，和 Bolt 按到达时间判断过期保持一致。
+ *
+ * @since 5.14.3
+ */
+public class ArriveTimeStreamTracerFactory extends ServerStreamTracer.Factory {
+
+    /**
+     * 请求到达时间（毫秒）
+     */
+    public static final Context.Key<Long> ARRIVE_TIME_KEY = Context.key("sofa-rpc-arrive-time");
+
+    @Override
+    public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+        final long arriveTime = System.currentTimeMillis();
+        return new ServerStreamTracer() {
+            @Override
+            public Context filterContext(Context context) {
+                return context.withValue(ARRIVE_TIME_KEY, arriveTime);
+            }
+        };
+    }
+
+    /**
+     * 当前请求的到达时间
+     *
+     * @return 到达时间（毫秒），没有记录时返回当前时间
+     */
+    public static long getArriveTime() {
+        Long arriveTime = ARRIVE_TIME_KEY.get();
+        return arriveTime == null ? System.currentTimeMillis() : arriveTime;
+    }
+}
@@ -31,8 +31,9 @@ import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
 import com.alipay.sofa.rpc.message.triple.stream.ResponseSerializeSofaStreamObserver;
 import com.alipay.sofa.rpc.tracer.sofatracer.TracingContextKey;
-import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
 import com.alipay.sofa.rpc.transport.SofaStreamObserver;
+import com.alipay.sofa.rpc.transport.triple.ByteStringWrapperByteBuf;
+import com.alipay.sofa.rpc.utils.SofaProtoUtils;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.ProtocolStringList;
 import io.grpc.Context;
@@ -42,6 +43,7 @@ import triple.Response;
 import triple.SofaGenericServiceTriple;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -65,17 +67,19 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
 
         SofaRequest sofaRequest = TracingContextKey.getKeySofaRequest().get(Context.current());
         String methodName = sofaRequest.getMethodName();
-        Method declaredMethod = invoker.getDeclaredMethod(sofaRequest, request, RpcConstants.INVOKER_TYPE_UNARY);
+        String uniqueName = invoker.getServiceUniqueName(sofaRequest);
+        Method declaredMethod = invoker.getDeclaredMethod(uniqueName, sofaRequest, request,
+            RpcConstants.INVOKER_TYPE_UNARY);
         if (declaredMethod == null) {
             throw new SofaRpcException(RpcErrorType.SERVER_NOT_FOUND_INVOKER, "Cannot find invoke method " +
                 methodName);
         }
 
         try {
-            ClassLoader serviceClassLoader = invoker.getServiceClassLoader(sofaRequest);
+            ClassLoader serviceClassLoader = ReflectCache.getServiceClassLoader(uniqueName);
             Thread.currentThread().setContextClassLoader(serviceClassLoader);
             Serializer serializer = SerializerFactory.getSerializer(request.getSerializeType());
-            setUnaryOrServerRequestParams(sofaRequest, request, serializer, declaredMethod, false);
+            setUnaryOrServerRequestParams(uniqueName, sofaRequest, request, serializer, declaredMethod, false);
 
             SofaResponse response = invoker.invoke(sofaRequest);
             Object ret = getAppResponse(declaredMethod, response);
@@ -83,7 +87,7 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
             Response.Builder builder = Response.newBuilder();
             builder.setSerializeType(request.getSerializeType());
             builder.setType(declaredMethod.getReturnType().getName());
-            builder.setData(ByteString.copyFrom(serializer.encode(ret, null).array()));
+            builder.setData(SofaProtoUtils.encode(serializer, ret));
             Response build = builder.build();
             responseObserver.onNext(build);
             responseObserver.onCompleted();
@@ -110,7 +114,7 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
         }
         String methodName = serviceMethod.getName();
         try {
-            ClassLoader serviceClassLoader = invoker.getServiceClassLoader(sofaRequest);
+            ClassLoader serviceClassLoader = ReflectCache.getServiceClassLoader(uniqueName);
             Thread.currentThread().setContextClassLoader(serviceClassLoader);
             ResponseSerializeSofaStreamObserver serverResponseHandler = new ResponseSerializeSofaStreamObserver(
                 responseObserver,
@@ -180,7 +184,7 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
                             if (serializer == null && argTypes == null) {
                                 serializeType = request.getSerializeType();
                                 serializer = SerializerFactory.getSerializer(request.getSerializeType());
-                                argTypes = getArgTypes(request, false);
+                                argTypes = getArgTypes(uniqueName, sofaRequest.getMethodName(), request, false);
                             }
                         }
                     }
@@ -198,7 +202,9 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
     public void genericServerStream(Request request, StreamObserver<Response> responseObserver) {
         ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
         SofaRequest sofaRequest = TracingContextKey.getKeySofaRequest().get(Context.current());
-        Method serviceMethod = invoker.getDeclaredMethod(sofaRequest, request, RpcConstants.INVOKER_TYPE_SERVER_STREAMING);
+        String uniqueName = invoker.getServiceUniqueName(sofaRequest);
+        Method serviceMethod = invoker.getDeclaredMethod(uniqueName, sofaRequest, request,
+            RpcConstants.INVOKER_TYPE_SERVER_STREAMING);
 
         if (serviceMethod == null) {
             throw new SofaRpcException(RpcErrorType.SERVER_NOT_FOUND_INVOKER, "Cannot find invoke method " +
@@ -207,11 +213,11 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
 
         String methodName = serviceMethod.getName();
         try {
-            ClassLoader serviceClassLoader = invoker.getServiceClassLoader(sofaRequest);
+            ClassLoader serviceClassLoader = ReflectCache.getServiceClassLoader(uniqueName);
             Thread.currentThread().setContextClassLoader(serviceClassLoader);
             Serializer serializer = SerializerFactory.getSerializer(request.getSerializeType());
 
-            setUnaryOrServerRequestParams(sofaRequest, request, serializer, serviceMethod, true);
+            setUnaryOrServerRequestParams(uniqueName, sofaRequest, request, serializer, serviceMethod, true);
             sofaRequest.getMethodArgs()[sofaRequest.getMethodArgs().length -1] = new ResponseSerializeSofaStreamObserver<>(responseObserver, request.getSerializeType());
 
             invoker.invoke(sofaRequest);
@@ -226,14 +232,15 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
     /**
      * Resolve method invoke args into request for unary or server-streaming calls.
      *
+     * @param uniqueName     Service unique name
      * @param sofaRequest    SofaRequest
      * @param request        Request
      * @param serializer     Serializer
      * @param declaredMethod Target invoke method
      */
-    private void setUnaryOrServerRequestParams(SofaRequest sofaRequest, Request request,
+    private void setUnaryOrServerRequestParams(String uniqueName, SofaRequest sofaRequest, Request request,
                                                Serializer serializer, Method declaredMethod, boolean isServerStreamCall) {
-        Class[] argTypes = getArgTypes(request, isServerStreamCall);
+        Class[] argTypes = getArgTypes(uniqueName, sofaRequest.getMethodName(), request, isServerStreamCall);
         Object[] invokeArgs = getInvokeArgs(request, argTypes, serializer, isServerStreamCall);
 
         // fill sofaRequest
@@ -276,6 +283,11 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
 
     /**
      * Get argument types from request.
+     * <p>
+     * Resolved types are cached by service, method and arg sigs, so the class names are only resolved once.
+     *
+     * @param uniqueName service unique name
+     * @param methodName method name
      * @param request original request
      * @param addStreamHandler Whether add StreamHandler as the first method param.
      * <p>
@@ -284,19 +296,21 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
      *
      * @return param types of target method
      */
-    private Class[] getArgTypes(Request request, boolean addStreamHandler) {
+    private Class[] getArgTypes(String uniqueName, String methodName, Request request, boolean addStreamHandler) {
         ProtocolStringList argTypesList = request.getArgTypesList();
-
-        int size = addStreamHandler ? argTypesList.size() + 1 : argTypesList.size();
-        Class[] argTypes = new Class[size];
-
-        for (int i = 0; i < argTypesList.size(); i++) {
-            String typeName = argTypesList.get(i);
-            argTypes[i] = ClassTypeUtils.getClass(typeName);
+        Class[] argTypes = ReflectCache.getArgTypesCache(uniqueName, methodName, argTypesList);
+        if (argTypes == null) {
+            argTypes = new Class[argTypesList.size()];
+            for (int i = 0; i < argTypesList.size(); i++) {
+                argTypes[i] = ClassTypeUtils.getClass(argTypesList.get(i));
+            }
+            ReflectCache.putArgTypesCache(uniqueName, methodName, argTypesList, argTypes);
         }
 
         if (addStreamHandler) {
-            argTypes[size - 1] = SofaStreamObserver.class;
+            // the cached array is shared, copy before appending
+            argTypes = Arrays.copyOf(argTypes, argTypes.length + 1);
+            argTypes[argTypes.length - 1] = SofaStreamObserver.class;
         }
         return argTypes;
     }
@@ -313,9 +327,7 @@ public class GenericServiceImpl extends SofaGenericServiceTriple.GenericServiceI
 
         Object[] args = new Object[size];
         for (int i = 0; i < argsList.size(); i++) {
-            byte[] data = argsList.get(i).toByteArray();
-            args[i] = serializer.decode(new ByteArrayWrapperByteBuf(data), argTypes[i],
-                null);
+            args[i] = serializer.decode(new ByteStringWrapperByteBuf(argsList.get(i)), argTypes[i], null);
         }
         return args;
     }
@@ -27,6 +27,8 @@ import com.alipay.sofa.rpc.core.exception.SofaRpcRuntimeException;
 import com.alipay.sofa.rpc.event.EventBus;
 import com.alipay.sofa.rpc.event.ServerStartedEvent;
 import com.alipay.sofa.rpc.ext.Extension;
+import com.alipay.sofa.rpc.interceptor.ServerAdmissionInterceptor;
+import com.alipay.sofa.rpc.interceptor.ServerConcurrencyLimitInterceptor;
 import com.alipay.sofa.rpc.interceptor.ServerReqHeaderInterceptor;
 import com.alipay.sofa.rpc.interceptor.TripleServerInterceptor;
 import com.alipay.sofa.rpc.invoke.Invoker;
@@ -35,8 +37,13 @@ import com.alipay.sofa.rpc.log.Logger;
 import com.alipay.sofa.rpc.log.LoggerFactory;
 import com.alipay.sofa.rpc.proxy.ProxyFactory;
 import com.alipay.sofa.rpc.server.BusinessPool;
+import com.alipay.sofa.rpc.server.RequestExpiry;
 import com.alipay.sofa.rpc.server.Server;
 import com.alipay.sofa.rpc.server.SofaRejectedExecutionHandler;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiterFactory;
+import com.alipay.sofa.rpc.transport.triple.TripleCompressors;
+import com.alipay.sofa.rpc.transport.triple.TripleMessageMarshaller;
 import com.alipay.sofa.rpc.utils.SofaProtoUtils;
 import io.grpc.BindableService;
 import io.grpc.MethodDescriptor;
@@ -51,7 +58,6 @@ import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
 import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerSocketChannel;
 import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
 import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.grpc.protobuf.ProtoUtils;
 import io.grpc.util.MutableHandlerRegistry;
 import triple.Request;
 import triple.Response;
@@ -63,6 +69,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -119,6 +127,21 @@ public class TripleServer implements Server {
      */
     private ThreadPoolExecutor                                           bizThreadPool;
 
+    /**
+     * 业务执行器，开启虚拟线程时为虚拟线程执行器，否则和 bizThreadPool 相同
+     */
+    protected Executor                                                   bizExecutor;
+
+    /**
+     * 虚拟线程模式下的并发许可，按调用申请，未开启或者不限制时为null
+     */
+    protected Semaphore                                                  admissionPermits;
+
+    /**
+     * 自适应并发限制，未开启时为null
+     */
+    protected ConcurrencyLimiter                                         concurrencyLimiter;
+
     /**
      * lock
      */
@@ -127,17 +150,28 @@ public class TripleServer implements Server {
     @Override
     public void init(ServerConfig serverConfig) {
         this.serverConfig = serverConfig;
-        bizThreadPool = initThreadPool(serverConfig);
+        bizExecutor = initExecutor(serverConfig);
+        if (bizExecutor instanceof ThreadPoolExecutor) {
+            bizThreadPool = (ThreadPoolExecutor) bizExecutor;
+        }
+        if (serverConfig.isVirtualThread() && serverConfig.getMaxConcurrency() > 0) {
+            admissionPermits = new Semaphore(serverConfig.getMaxConcurrency());
+        }
+        // 并发限制按调用在拦截器里做，见 buildInterceptorChain
+        concurrencyLimiter = ConcurrencyLimiterFactory.getConcurrencyLimiter(serverConfig);
         server = NettyServerBuilder.forPort(serverConfig.getPort()).
             fallbackHandlerRegistry(handlerRegistry)
             .bossEventLoopGroup(constructBossEventLoopGroup())
             .workerEventLoopGroup(constructWorkerEventLoopGroup())
-            .executor(bizThreadPool)
+            .executor(bizExecutor)
             .channelType(constructChannel())
             .maxInboundMetadataSize(RpcConfigs.getIntValue(RpcOptions.TRANSPORT_GRPC_MAX_INBOUND_METADATA_SIZE))
             .maxInboundMessageSize(RpcConfigs.getIntValue(RpcOptions.TRANSPORT_GRPC_MAX_INBOUND_MESSAGE_SIZE))
             .permitKeepAliveTime(1, TimeUnit.SECONDS)
             .permitKeepAliveWithoutCalls(true)
+            .compressorRegistry(TripleCompressors.compressorRegistry())
+            .decompressorRegistry(TripleCompressors.decompressorRegistry())
+            .addStreamTracerFactory(new ArriveTimeStreamTracerFactory())
             .build();
         this.lock = new ReentrantLock();
     }
@@ -175,6 +209,19 @@ public class TripleServer implements Server {
         return bossGroup;
     }
 
+    /**
+     * 开启虚拟线程时使用虚拟线程执行器（并发上限由拦截器按调用控制），否则使用业务线程池
+     *
+     * @param serverConfig ServerConfig
+     * @return 业务执行器
+     */
+    protected Executor initExecutor(ServerConfig serverConfig) {
+        if (serverConfig.isVirtualThread()) {
+            return BusinessPool.initVirtualThreadPool("SEV-TRIPLE-BIZ-" + serverConfig.getPort(), serverConfig);
+        }
+        return initThreadPool(serverConfig);
+    }
+
     protected ThreadPoolExecutor initThreadPool(ServerConfig serverConfig) {
         ThreadPoolExecutor threadPool = BusinessPool.initPool(serverConfig);
         threadPool.setThreadFactory(new NamedThreadFactory(
@@ -201,7 +248,7 @@ public class TripleServer implements Server {
                     LOGGER.info("Start the triple server at port {}", serverConfig.getPort());
                 }
                 if (EventBus.isEnable(ServerStartedEvent.class)) {
-                    EventBus.post(new ServerStartedEvent(serverConfig, bizThreadPool));
+                    EventBus.post(new ServerStartedEvent(serverConfig, bizThreadPool, concurrencyLimiter));
                 }
             } catch (SofaRpcRuntimeException e) {
                 throw e;
@@ -246,6 +293,7 @@ public class TripleServer implements Server {
         try {
             String key = ConfigUniqueNameGenerator.getUniqueName(providerConfig);
             ReflectCache.registerServiceClassLoader(key, providerConfig.getProxyClass().getClassLoader());
+            RequestExpiry.registerService(key, providerConfig);
             // 缓存接口的方法
             for (Method m : providerConfig.getProxyClass().getMethods()) {
                 ReflectCache.putOverloadMethodCache(key, m);
@@ -377,10 +425,8 @@ public class TripleServer implements Server {
                     .setType(methodType)
                     .setFullMethodName(generateFullMethodName(providerConfig.getInterfaceId(), name))
                     .setSampledToLocalTracing(true)
-                    .setRequestMarshaller(ProtoUtils.marshaller(
-                            Request.getDefaultInstance()))
-                    .setResponseMarshaller(ProtoUtils.marshaller(
-                            Response.getDefaultInstance()))
+                    .setRequestMarshaller(TripleMessageMarshaller.REQUEST)
+                    .setResponseMarshaller(TripleMessageMarshaller.RESPONSE)
                     .build();
             result.add(methodDescriptor);
         }
@@ -396,6 +442,14 @@ public class TripleServer implements Server {
     protected List<TripleServerInterceptor> buildInterceptorChain(ServerServiceDefinition serviceDef) {
         List<TripleServerInterceptor> interceptorList = new ArrayList<>();
         interceptorList.add(new ServerReqHeaderInterceptor(serviceDef));
+        // 最后一个最先执行，超过限制时不再解析请求头
+        if (concurrencyLimiter != null) {
+            interceptorList.add(new ServerConcurrencyLimitInterceptor(serviceDef, concurrencyLimiter));
+        }
+        if (admissionPermits != null) {
+            interceptorList.add(new ServerAdmissionInterceptor(serviceDef, admissionPermits,
+                serverConfig.getMaxConcurrency()));
+        }
         return interceptorList;
     }
 
@@ -429,9 +483,11 @@ public class TripleServer implements Server {
     public void cleanReflectCache(ProviderConfig providerConfig) {
         String key = ConfigUniqueNameGenerator.getUniqueName(providerConfig);
         ReflectCache.unRegisterServiceClassLoader(key);
+        RequestExpiry.unRegisterService(key);
         ReflectCache.invalidateMethodCache(key);
         ReflectCache.invalidateMethodSigsCache(key);
         ReflectCache.invalidateOverloadMethodCache(key);
+        ReflectCache.invalidateArgTypesCache(key);
     }
 
     @Override
@@ -460,4 +516,22 @@ public class TripleServer implements Server {
         return bizThreadPool;
     }
 
+    /**
+     * 得到业务执行器
+     *
+     * @return 业务执行器
+     */
+    public Executor getBizExecutor() {
+        return bizExecutor;
+    }
+
+    /**
+     * 得到自适应并发限制
+     *
+     * @return 并发限制，未开启时为null
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
 }
\ No newline at end of file
@@ -179,7 +179,20 @@ public class UniqueIdInvoker implements Invoker {
     }
 
     public Method getDeclaredMethod(SofaRequest sofaRequest, Request request, String callType) {
-        String uniqueName = this.getServiceUniqueName(sofaRequest);
+        return getDeclaredMethod(this.getServiceUniqueName(sofaRequest), sofaRequest, request, callType);
+    }
+
+    /**
+     * 按已经查出的服务唯一名查找方法，避免同一次调用里重复查找服务
+     *
+     * @param uniqueName  服务唯一名
+     * @param sofaRequest 请求
+     * @param request     triple 请求
+     * @param callType    调用类型
+     * @return 方法，找不到时返回null
+     * @since 5.14.3
+     */
+    public Method getDeclaredMethod(String uniqueName, SofaRequest sofaRequest, Request request, String callType) {
         List<String> argTypesList = request.getArgTypesList();
         if (RpcConstants.INVOKER_TYPE_SERVER_STREAMING.equals(callType)) {
             List<String> a = new ArrayList<>(argTypesList.size() + 1);
@@ -186,15 +186,18 @@ public class TripleTracerAdapter {
         }
 
         // set custom headers
+        RpcInvokeContext invokeContext = RpcInvokeContext.getContext();
         try{
-            Set<Map.Entry<String, String>> customHeader = RpcInvokeContext.getContext().getCustomHeader().entrySet();
-            for (Map.Entry<String, String> entry : customHeader) {
-                if (StringUtils.isNotBlank(entry.getValue())) {
-                    requestHeader.put(TripleHeadKeys.getKey(entry.getKey()), entry.getValue());
+            if (invokeContext.hasCustomHeader()) {
+                Set<Map.Entry<String, String>> customHeader = invokeContext.getCustomHeader().entrySet();
+                for (Map.Entry<String, String> entry : customHeader) {
+                    if (StringUtils.isNotBlank(entry.getValue())) {
+                        requestHeader.put(TripleHeadKeys.getKey(entry.getKey()), entry.getValue());
+                    }
                 }
             }
         }finally {
-            RpcInvokeContext.getContext().clearCustomHeader();
+            invokeContext.clearCustomHeader();
         }
 
 
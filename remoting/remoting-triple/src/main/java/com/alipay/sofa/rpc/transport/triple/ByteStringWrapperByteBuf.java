@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport.triple;
+
+import com.alipay.sofa.rpc.transport.AbstractByteBuf;
+import com.google.protobuf.ByteString;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 包装 protobuf 的 ByteString，反序列化时直接从 ByteString 中读取，不再先 toByteArray 拷贝一份
+ *
+ * @since 5.14.3
+ */
+public class ByteStringWrapperByteBuf extends AbstractByteBuf {
+
+    private final ByteString data;
+
+    public ByteStringWrapperByteBuf(ByteString data) {
+        this.data = data;
+    }
+
+    @Override
+    public byte[] array() {
+        return data.toByteArray();
+    }
+
+    @Override
+    public int readableBytes() {
+        return data.size();
+    }
+
+    @Override
+    public boolean hasArray() {
+        return false;
+    }
+
+    @Override
+    public InputStream inputStream() {
+        return data.newInput();
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return data.asReadOnlyByteBuffer();
+    }
+
+    @Override
+    public boolean release() {
+        return true;
+    }
+}
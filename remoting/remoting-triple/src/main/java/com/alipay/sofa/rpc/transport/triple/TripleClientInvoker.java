@@ -41,16 +41,15 @@ import com.alipay.sofa.rpc.log.LoggerFactory;
 import com.alipay.sofa.rpc.message.ResponseFuture;
 import com.alipay.sofa.rpc.message.triple.TripleResponseFuture;
 import com.alipay.sofa.rpc.message.triple.stream.ClientStreamObserverAdapter;
-import com.alipay.sofa.rpc.transport.ByteArrayWrapperByteBuf;
 import com.alipay.sofa.rpc.transport.SofaStreamObserver;
 import com.alipay.sofa.rpc.utils.SofaProtoUtils;
 import com.alipay.sofa.rpc.utils.TripleExceptionUtils;
+import com.google.protobuf.ByteString;
 import io.grpc.CallOptions;
 import io.grpc.Channel;
 import io.grpc.ClientCall;
 import io.grpc.MethodDescriptor;
 import io.grpc.Status;
-import io.grpc.protobuf.ProtoUtils;
 import io.grpc.stub.ClientCalls;
 import io.grpc.stub.StreamObserver;
 import triple.Request;
@@ -93,6 +92,11 @@ public class TripleClientInvoker implements TripleInvoker {
 
     private final Map<String, Method> methodMap = new ConcurrentHashMap<>();
 
+    /**
+     * 通用调用的方法描述 {方法名：MethodDescriptor}，同一个接口下的方法名唯一
+     */
+    private final Map<String, MethodDescriptor<Request, Response>> methodDescriptors = new ConcurrentHashMap<>();
+
     /**
      * Method call type (Full method name - Streaming call type)
      * Since gRPC does not support method overload, each method here will only represent a single call type.
@@ -172,12 +176,12 @@ public class TripleClientInvoker implements TripleInvoker {
                 buildCustomCallOptions(sofaRequest, timeout), request);
 
         SofaResponse sofaResponse = new SofaResponse();
-        byte[] responseData = response.getData().toByteArray();
+        ByteString responseData = response.getData();
         Class returnType = sofaRequest.getMethod().getReturnType();
         if (returnType != void.class) {
-            if (responseData != null && responseData.length > 0) {
+            if (responseData != null && !responseData.isEmpty()) {
                 Serializer responseSerializer = SerializerFactory.getSerializer(response.getSerializeType());
-                Object appResponse = responseSerializer.decode(new ByteArrayWrapperByteBuf(responseData), returnType, null);
+                Object appResponse = responseSerializer.decode(new ByteStringWrapperByteBuf(responseData), returnType, null);
                 sofaResponse.setAppResponse(appResponse);
             }
         }
@@ -372,12 +376,12 @@ public class TripleClientInvoker implements TripleInvoker {
             Object appResponse = o;
             if (needDecode) {
                 Response response = (Response) o;
-                byte[] responseData = response.getData().toByteArray();
+                ByteString responseData = response.getData();
                 Class returnType = sofaRequest.getMethod().getReturnType();
                 if (returnType != void.class) {
-                    if (responseData != null && responseData.length > 0) {
+                    if (responseData != null && !responseData.isEmpty()) {
                         Serializer responseSerializer = SerializerFactory.getSerializer(response.getSerializeType());
-                        appResponse = responseSerializer.decode(new ByteArrayWrapperByteBuf(responseData), returnType, null);
+                        appResponse = responseSerializer.decode(new ByteStringWrapperByteBuf(responseData), returnType, null);
                     }
                 }
             }
@@ -456,27 +460,34 @@ public class TripleClientInvoker implements TripleInvoker {
             newContext = RpcInvokeContext.getContext();
             BaggageResolver.pickupFromResponse(newContext, response);
 
-            if (old != null) {
-                old.getAllResponseBaggage().putAll(newContext.getAllResponseBaggage());
-                old.getAllRequestBaggage().putAll(newContext.getAllRequestBaggage());
+            if (old != null && old != newContext) {
+                if (newContext.hasResponseBaggage()) {
+                    old.putAllResponseBaggage(newContext.getAllResponseBaggage());
+                }
+                if (newContext.hasRequestBaggage()) {
+                    old.putAllRequestBaggage(newContext.getAllRequestBaggage());
+                }
             }
 
         }
     }
 
     private MethodDescriptor<Request, Response> getMethodDescriptor(SofaRequest sofaRequest) {
+        return methodDescriptors.computeIfAbsent(sofaRequest.getMethodName(),
+            methodName -> buildMethodDescriptor(sofaRequest));
+    }
+
+    private MethodDescriptor<Request, Response> buildMethodDescriptor(SofaRequest sofaRequest) {
         String serviceName = sofaRequest.getInterfaceName();
         String methodName = sofaRequest.getMethodName();
-        MethodDescriptor.Marshaller<?> requestMarshaller = ProtoUtils.marshaller(Request.getDefaultInstance());
-        MethodDescriptor.Marshaller<?> responseMarshaller = ProtoUtils.marshaller(Response.getDefaultInstance());
         String fullMethodName = generateFullMethodName(serviceName, methodName);
 
-        MethodDescriptor.Builder builder = MethodDescriptor
-                .newBuilder()
+        MethodDescriptor.Builder<Request, Response> builder = MethodDescriptor
+                .<Request, Response>newBuilder()
                 .setFullMethodName(fullMethodName)
                 .setSampledToLocalTracing(true)
-                .setRequestMarshaller((MethodDescriptor.Marshaller<Object>) requestMarshaller)
-                .setResponseMarshaller((MethodDescriptor.Marshaller<Object>) responseMarshaller);
+                .setRequestMarshaller(TripleMessageMarshaller.REQUEST)
+                .setResponseMarshaller(TripleMessageMarshaller.RESPONSE);
 
         String streamType = methodCallType.get(sofaRequest.getMethod().getName());
         MethodDescriptor.MethodType callType = SofaProtoUtils.mapGrpcCallType(streamType);
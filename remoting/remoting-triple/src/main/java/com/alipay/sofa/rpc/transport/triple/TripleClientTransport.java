@@ -278,6 +278,8 @@ public class TripleClientTransport extends ClientTransport {
         builder.usePlaintext();
         builder.disableRetry();
         builder.intercept(clientHeaderClientInterceptor);
+        builder.compressorRegistry(TripleCompressors.compressorRegistry());
+        builder.decompressorRegistry(TripleCompressors.decompressorRegistry());
         builder.maxInboundMetadataSize(RpcConfigs.getIntValue(RpcOptions.TRANSPORT_GRPC_MAX_INBOUND_METADATA_SIZE));
         builder.maxInboundMessageSize(RpcConfigs.getIntValue(RpcOptions.TRANSPORT_GRPC_MAX_INBOUND_MESSAGE_SIZE));
 
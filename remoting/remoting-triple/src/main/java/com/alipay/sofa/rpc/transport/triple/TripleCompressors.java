@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport.triple;
+
+import com.alipay.sofa.rpc.codec.CompressorFactory;
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 把 SPI 中的 {@link com.alipay.sofa.rpc.codec.Compressor} 注册为 gRPC 的消息编码，
+ * Triple 的压缩协商直接复用 gRPC 的 grpc-encoding / grpc-accept-encoding 机制。
+ * <p>
+ * SPI 实现的帧格式是 SOFARPC 自定义的（例如 zstd 带字典 ID 前缀），和标准 gRPC 实现不兼容，
+ * 所以除 gzip 外都以 {@link #ENCODING_PREFIX} 开头的名字注册，避免其它 gRPC 实现按标准名字协商后无法解压
+ *
+ * @since 5.14.3
+ */
+public final class TripleCompressors {
+
+    /**
+     * SOFARPC 自定义帧格式的消息编码前缀
+     */
+    public static final String                ENCODING_PREFIX       = "sofa-";
+
+    private static final String               GZIP                  = "gzip";
+
+    private static final CompressorRegistry   COMPRESSOR_REGISTRY   = CompressorRegistry.newEmptyInstance();
+
+    private static final DecompressorRegistry DECOMPRESSOR_REGISTRY;
+
+    static {
+        DecompressorRegistry decompressorRegistry = DecompressorRegistry.getDefaultInstance();
+        // gRPC 自带的 gzip 保持不变，其它别名由 SPI 实现
+        COMPRESSOR_REGISTRY.register(new Codec.Gzip());
+        for (String alias : CompressorFactory.getAliases()) {
+            if (GZIP.equals(alias)) {
+                continue;
+            }
+            SofaCodec codec = new SofaCodec(alias);
+            COMPRESSOR_REGISTRY.register(codec);
+            decompressorRegistry = decompressorRegistry.with(codec, true);
+        }
+        DECOMPRESSOR_REGISTRY = decompressorRegistry;
+    }
+
+    private TripleCompressors() {
+    }
+
+    /**
+     * 压缩算法别名对应的 gRPC 消息编码名
+     *
+     * @param alias 压缩算法别名
+     * @return grpc-encoding 中使用的名字，别名为空时返回 null
+     */
+    public static String getMessageEncoding(String alias) {
+        if (alias == null || GZIP.equals(alias)) {
+            return alias;
+        }
+        return ENCODING_PREFIX + alias;
+    }
+
+    /**
+     * 客户端和服务端共用的压缩注册表
+     *
+     * @return CompressorRegistry
+     */
+    public static CompressorRegistry compressorRegistry() {
+        return COMPRESSOR_REGISTRY;
+    }
+
+    /**
+     * 客户端和服务端共用的解压注册表，会通过 grpc-accept-encoding 告知对端
+     *
+     * @return DecompressorRegistry
+     */
+    public static DecompressorRegistry decompressorRegistry() {
+        return DECOMPRESSOR_REGISTRY;
+    }
+
+    private static final class SofaCodec implements Codec {
+
+        private final String alias;
+
+        private final String messageEncoding;
+
+        private SofaCodec(String alias) {
+            this.alias = alias;
+            this.messageEncoding = TripleCompressors.getMessageEncoding(alias);
+        }
+
+        @Override
+        public String getMessageEncoding() {
+            return messageEncoding;
+        }
+
+        @Override
+        public OutputStream compress(OutputStream os) throws IOException {
+            return CompressorFactory.getCompressor(alias).compress(os);
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) throws IOException {
+            return CompressorFactory.getCompressor(alias).deCompress(is);
+        }
+    }
+}
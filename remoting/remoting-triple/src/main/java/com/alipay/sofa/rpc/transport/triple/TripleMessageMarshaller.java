@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport.triple;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import triple.Request;
+import triple.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * 通用服务 {@link Request} 和 {@link Response} 的 gRPC 编解码
+ * <p>
+ * 写出时和 {@link ProtoUtils#marshaller(com.google.protobuf.Message)} 一样直接把消息写入 gRPC 的输出缓冲区；
+ * 读入时把整个消息读到一个数组里，以共享内存的方式解析，参数和返回值的 ByteString 都是这个数组的切片，
+ * 等到真正反序列化时才从切片中读取，不再为每个参数拷贝一次
+ *
+ * @param <T> 消息类型
+ * @since 5.14.3
+ */
+public final class TripleMessageMarshaller<T extends MessageLite> implements MethodDescriptor.Marshaller<T> {
+
+    /**
+     * 请求的编解码
+     */
+    public static final TripleMessageMarshaller<Request>  REQUEST  = new TripleMessageMarshaller<>(
+                                                                       ProtoUtils.marshaller(Request
+                                                                           .getDefaultInstance()),
+                                                                       Request.parser());
+
+    /**
+     * 响应的编解码
+     */
+    public static final TripleMessageMarshaller<Response> RESPONSE = new TripleMessageMarshaller<>(
+                                                                       ProtoUtils.marshaller(Response
+                                                                           .getDefaultInstance()),
+                                                                       Response.parser());
+
+    private final MethodDescriptor.Marshaller<T>          delegate;
+
+    private final Parser<T>                               parser;
+
+    TripleMessageMarshaller(MethodDescriptor.Marshaller<T> delegate, Parser<T> parser) {
+        this.delegate = delegate;
+        this.parser = parser;
+    }
+
+    @Override
+    public InputStream stream(T value) {
+        return delegate.stream(value);
+    }
+
+    @Override
+    public T parse(InputStream stream) {
+        try {
+            byte[] bytes = readFully(stream);
+            // 数组只归这个消息所有，可以放心让 bytes 字段直接引用它
+            CodedInputStream input = UnsafeByteOperations.unsafeWrap(bytes).newCodedInput();
+            input.enableAliasing(true);
+            input.setSizeLimit(Integer.MAX_VALUE);
+            T message = parser.parseFrom(input);
+            input.checkLastTagWas(0);
+            return message;
+        } catch (InvalidProtocolBufferException e) {
+            throw Status.INTERNAL.withDescription("Invalid protobuf byte sequence").withCause(e)
+                .asRuntimeException();
+        } catch (IOException e) {
+            throw Status.INTERNAL.withDescription("Failed to read message").withCause(e).asRuntimeException();
+        }
+    }
+
+    private static byte[] readFully(InputStream stream) throws IOException {
+        // gRPC 传入的流都知道长度，一次分配刚好大小的数组
+        int size = stream instanceof KnownLength ? stream.available() : 0;
+        byte[] bytes = new byte[size > 0 ? size : 32];
+        int count = 0;
+        while (true) {
+            if (count == bytes.length) {
+                int b = stream.read();
+                if (b < 0) {
+                    break;
+                }
+                bytes = Arrays.copyOf(bytes, bytes.length << 1);
+                bytes[count++] = (byte) b;
+            }
+            int n = stream.read(bytes, count, bytes.length - count);
+            if (n < 0) {
+                break;
+            }
+            count += n;
+        }
+        return count == bytes.length ? bytes : Arrays.copyOf(bytes, count);
+    }
+}
@@ -142,10 +142,24 @@ public class SofaProtoUtils {
         builder.setSerializeType(serialization);
         for (int i = 0; i < methodArgSigs.length - backOffset; i++) {
             Object arg = methodArgs[i];
-            ByteString argByteString = ByteString.copyFrom(serializer.encode(arg, null).array());
+            ByteString argByteString = encode(serializer, arg);
             builder.addArgs(argByteString);
             builder.addArgTypes(methodArgSigs[i]);
         }
         return builder.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * 序列化为 ByteString，直接写入 ByteString 的输出流，不再先生成 byte[] 再拷贝一次
+     *
+     * @param serializer 序列化器
+     * @param object     对象
+     * @return ByteString
+     * @since 5.14.3
+     */
+    public static ByteString encode(Serializer serializer, Object object) {
+        ByteString.Output output = ByteString.newOutput();
+        serializer.encode(object, null, output);
+        return output.toByteString();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.interceptor;
+
+import io.grpc.Attributes;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * @since 5.14.3
+ */
+public class ServerAdmissionInterceptorTest {
+
+    @Test
+    public void testAdmissionPerCall() {
+        Semaphore permits = new Semaphore(1);
+        ServerAdmissionInterceptor interceptor = new ServerAdmissionInterceptor(null, permits, 1);
+        ServerCallHandler<String, String> handler = new ServerCallHandler<String, String>() {
+            @Override
+            public ServerCall.Listener<String> startCall(ServerCall<String, String> call, Metadata headers) {
+                return new ServerCall.Listener<String>() {
+                };
+            }
+        };
+
+        StubCall first = new StubCall();
+        ServerCall.Listener<String> listener = interceptor.interceptCall(first, new Metadata(), handler);
+        // 一个调用的多批回调只占一个许可
+        listener.onMessage("a");
+        listener.onHalfClose();
+        Assert.assertNull(first.status);
+        Assert.assertEquals(0, permits.availablePermits());
+
+        StubCall second = new StubCall();
+        interceptor.interceptCall(second, new Metadata(), handler);
+        Assert.assertEquals(Status.Code.RESOURCE_EXHAUSTED, second.status.getCode());
+
+        listener.onCancel();
+        listener.onComplete();
+        Assert.assertEquals(1, permits.availablePermits());
+    }
+
+    private static class StubCall extends ServerCall<String, String> {
+
+        private Status status;
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            this.status = status;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return Attributes.EMPTY;
+        }
+
+        @Override
+        public MethodDescriptor<String, String> getMethodDescriptor() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.interceptor;
+
+import com.alipay.sofa.rpc.server.limit.ConcurrencyLimiter;
+import io.grpc.Attributes;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @since 5.14.3
+ */
+public class ServerConcurrencyLimitInterceptorTest {
+
+    @Test
+    public void testAcquirePerCall() {
+        FixedLimiter limiter = new FixedLimiter(1);
+        ServerConcurrencyLimitInterceptor interceptor = new ServerConcurrencyLimitInterceptor(null, limiter);
+        ServerCallHandler<String, String> handler = new ServerCallHandler<String, String>() {
+            @Override
+            public ServerCall.Listener<String> startCall(ServerCall<String, String> call, Metadata headers) {
+                return new ServerCall.Listener<String>() {
+                };
+            }
+        };
+
+        StubCall first = new StubCall();
+        ServerCall.Listener<String> listener = interceptor.interceptCall(first, new Metadata(), handler);
+        // 多次回调不会重复申请
+        listener.onMessage("a");
+        listener.onHalfClose();
+        listener.onReady();
+        Assert.assertEquals(1, limiter.getInflight());
+        Assert.assertNull(first.status);
+
+        StubCall second = new StubCall();
+        interceptor.interceptCall(second, new Metadata(), handler);
+        Assert.assertEquals(Status.Code.RESOURCE_EXHAUSTED, second.status.getCode());
+        Assert.assertEquals(1, limiter.getRejectedCount());
+
+        listener.onComplete();
+        listener.onCancel();
+        Assert.assertEquals(0, limiter.getInflight());
+        Assert.assertEquals(1, limiter.samples.size());
+
+        StubCall third = new StubCall();
+        listener = interceptor.interceptCall(third, new Metadata(), handler);
+        Assert.assertNull(third.status);
+        listener.onCancel();
+        Assert.assertEquals(0, limiter.getInflight());
+        Assert.assertEquals(2, limiter.samples.size());
+    }
+
+    @Test
+    public void testReleaseWhenStartCallFails() {
+        FixedLimiter limiter = new FixedLimiter(1);
+        ServerConcurrencyLimitInterceptor interceptor = new ServerConcurrencyLimitInterceptor(null, limiter);
+        try {
+            interceptor.interceptCall(new StubCall(), new Metadata(), new ServerCallHandler<String, String>() {
+                @Override
+                public ServerCall.Listener<String> startCall(ServerCall<String, String> call, Metadata headers) {
+                    throw new IllegalStateException("boom");
+                }
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(0, limiter.getInflight());
+    }
+
+    private static class FixedLimiter extends ConcurrencyLimiter {
+
+        private final int        limit;
+
+        private final List<Long> samples = new ArrayList<Long>();
+
+        FixedLimiter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        protected void onSample(long rttNanos, int inflight, boolean dropped) {
+            samples.add(rttNanos);
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+    }
+
+    private static class StubCall extends ServerCall<String, String> {
+
+        private Status status;
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            this.status = status;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return Attributes.EMPTY;
+        }
+
+        @Override
+        public MethodDescriptor<String, String> getMethodDescriptor() {
+            return null;
+        }
+    }
+}
@@ -113,6 +113,22 @@ public class GenericServiceImplTest {
 
     }
 
+    @Test
+    public void testArgTypesCache() throws Exception {
+        String methodName = "testPrimitiveType";
+        Method method = HelloService.class.getDeclaredMethod(methodName, long.class);
+        Request request = buildRequest(method, new Object[] { 100L });
+        String key = ConfigUniqueNameGenerator.getUniqueName(providerConfig);
+
+        doInvoke(request);
+        Class[] argTypes = ReflectCache.getArgTypesCache(key, methodName, request.getArgTypesList());
+        Assert.assertArrayEquals(new Class[] { long.class }, argTypes);
+
+        doInvoke(request);
+        Assert.assertEquals(100L, getReturnValue(method));
+        Assert.assertSame(argTypes, ReflectCache.getArgTypesCache(key, methodName, request.getArgTypesList()));
+    }
+
     private void doInvoke(Request request) {
         genericService.generic(request, responseObserver);
     }
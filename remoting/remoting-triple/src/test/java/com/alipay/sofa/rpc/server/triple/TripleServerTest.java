@@ -16,11 +16,16 @@
  */
 package com.alipay.sofa.rpc.server.triple;
 
+import com.alipay.sofa.rpc.common.RpcConfigs;
+import com.alipay.sofa.rpc.common.RpcOptions;
 import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.interceptor.ServerConcurrencyLimitInterceptor;
+import com.alipay.sofa.rpc.interceptor.TripleServerInterceptor;
 import com.alipay.sofa.rpc.server.Server;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -41,4 +46,27 @@ public class TripleServerTest {
         Assert.assertNotNull(bizThreadPool);
         server.stop();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConcurrencyLimiter() {
+        TripleServer server = new TripleServer();
+        server.init(new ServerConfig().setProtocol("tri").setPort(50056));
+        Assert.assertNull(server.getConcurrencyLimiter());
+        Assert.assertEquals(1, server.buildInterceptorChain(null).size());
+        server.destroy();
+
+        RpcConfigs.putValue(RpcOptions.SERVER_CONCURRENCY_LIMITER, "gradient");
+        try {
+            server = new TripleServer();
+            server.init(new ServerConfig().setProtocol("tri").setPort(50056));
+            Assert.assertNotNull(server.getConcurrencyLimiter());
+            // 按调用限制，gRPC 执行器仍是业务线程池
+            Assert.assertSame(server.getBizThreadPool(), server.getBizExecutor());
+            List<TripleServerInterceptor> chain = server.buildInterceptorChain(null);
+            Assert.assertTrue(chain.get(chain.size() - 1) instanceof ServerConcurrencyLimitInterceptor);
+            server.destroy();
+        } finally {
+            RpcConfigs.putValue(RpcOptions.SERVER_CONCURRENCY_LIMITER, "");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport.triple;
+
+import com.alipay.sofa.rpc.codec.CompressorFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @since 5.14.3
+ */
+public class TripleCompressorsTest {
+
+    @Test
+    public void testMessageEncoding() {
+        Assert.assertNull(TripleCompressors.getMessageEncoding(null));
+        Assert.assertEquals("gzip", TripleCompressors.getMessageEncoding("gzip"));
+        Assert.assertEquals("sofa-zstd", TripleCompressors.getMessageEncoding("zstd"));
+        Assert.assertNotNull(TripleCompressors.compressorRegistry().lookupCompressor("gzip"));
+    }
+
+    @Test
+    public void testNotRegisteredWithStandardName() throws IOException {
+        byte[] data = "hello triple compressor".getBytes(StandardCharsets.UTF_8);
+        for (String alias : CompressorFactory.getAliases()) {
+            if ("gzip".equals(alias)) {
+                continue;
+            }
+            // 自定义帧格式不能占用标准 gRPC 的编码名
+            Assert.assertNull(TripleCompressors.compressorRegistry().lookupCompressor(alias));
+            Assert.assertNull(TripleCompressors.decompressorRegistry().lookupDecompressor(alias));
+            String encoding = TripleCompressors.getMessageEncoding(alias);
+            Assert.assertTrue(TripleCompressors.decompressorRegistry().getKnownMessageEncodings()
+                .contains(encoding));
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            OutputStream os = TripleCompressors.compressorRegistry().lookupCompressor(encoding).compress(bos);
+            os.write(data);
+            os.close();
+            InputStream is = TripleCompressors.decompressorRegistry().lookupDecompressor(encoding)
+                .decompress(new ByteArrayInputStream(bos.toByteArray()));
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buf = new byte[64];
+            int len;
+            while ((len = is.read(buf)) != -1) {
+                result.write(buf, 0, len);
+            }
+            Assert.assertArrayEquals(alias, data, result.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.transport.triple;
+
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+import triple.Request;
+import triple.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @since 5.14.3
+ */
+public class TripleMessageMarshallerTest {
+
+    @Test
+    public void testRequest() throws IOException {
+        Request request = Request.newBuilder().setSerializeType("hessian2")
+            .addArgs(ByteString.copyFrom("arg0", StandardCharsets.UTF_8)).addArgTypes("java.lang.String")
+            .addArgs(ByteString.EMPTY).addArgTypes("java.lang.Object").build();
+
+        Request parsed = TripleMessageMarshaller.REQUEST.parse(TripleMessageMarshaller.REQUEST.stream(request));
+        Assert.assertEquals(request, parsed);
+
+        // 不知道长度的流也能完整读取
+        byte[] bytes = read(TripleMessageMarshaller.REQUEST.stream(request));
+        parsed = TripleMessageMarshaller.REQUEST.parse(new ByteArrayInputStream(bytes));
+        Assert.assertEquals(request, parsed);
+        Assert.assertEquals("arg0", parsed.getArgs(0).toStringUtf8());
+    }
+
+    @Test
+    public void testResponse() {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            data.append(i);
+        }
+        Response response = Response.newBuilder().setSerializeType("hessian2").setType("java.lang.String")
+            .setData(ByteString.copyFrom(data.toString(), StandardCharsets.UTF_8)).build();
+
+        Response parsed = TripleMessageMarshaller.RESPONSE.parse(TripleMessageMarshaller.RESPONSE.stream(response));
+        Assert.assertEquals(response, parsed);
+        Assert.assertEquals(Response.getDefaultInstance(),
+            TripleMessageMarshaller.RESPONSE.parse(new ByteArrayInputStream(new byte[0])));
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
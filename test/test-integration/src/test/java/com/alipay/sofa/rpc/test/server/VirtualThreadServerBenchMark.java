@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.rpc.test.server;
+
+import com.alipay.sofa.rpc.common.RpcConstants;
+import com.alipay.sofa.rpc.config.ConsumerConfig;
+import com.alipay.sofa.rpc.config.ProviderConfig;
+import com.alipay.sofa.rpc.config.ServerConfig;
+import com.alipay.sofa.rpc.context.RpcInvokeContext;
+import com.alipay.sofa.rpc.context.RpcRuntimeContext;
+import com.alipay.sofa.rpc.core.exception.SofaRpcException;
+import com.alipay.sofa.rpc.core.invoke.SofaResponseCallback;
+import com.alipay.sofa.rpc.core.request.RequestBase;
+import com.alipay.sofa.rpc.test.HelloService;
+import com.alipay.sofa.rpc.test.HelloServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对比虚拟线程模式和业务线程池在大量慢请求下的耗时。
+ * <p>
+ * 服务端每个请求 sleep 一段时间，每次调用用 callback 方式同时发出 concurrency 个请求并等待全部返回。
+ * 业务线程池为 200 个线程加 concurrency 的队列，虚拟线程模式最大并发为 concurrency。
+ * 虚拟线程需要 JDK 21 及以上。
+ *
+ * @since 5.14.3
+ */
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadServerBenchMark {
+
+    @Param({ "false", "true" })
+    private boolean                      virtualThread;
+
+    @Param({ "10000" })
+    private int                          concurrency;
+
+    @Param({ "50" })
+    private int                          sleep;
+
+    private ProviderConfig<HelloService> providerConfig;
+
+    private ConsumerConfig<HelloService> consumerConfig;
+
+    private HelloService                 helloService;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(VirtualThreadServerBenchMark.class.getSimpleName())
+            .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        ServerConfig serverConfig = new ServerConfig().setPort(22701).setProtocol(RpcConstants.PROTOCOL_TYPE_BOLT);
+        if (virtualThread) {
+            serverConfig.setVirtualThread(true).setMaxConcurrency(concurrency);
+        } else {
+            serverConfig.setCoreThreads(200).setMaxThreads(200).setQueues(concurrency);
+        }
+        providerConfig = new ProviderConfig<HelloService>()
+            .setInterfaceId(HelloService.class.getName())
+            .setRef(new HelloServiceImpl(sleep))
+            .setServer(serverConfig)
+            .setRegister(false);
+        providerConfig.export();
+
+        consumerConfig = new ConsumerConfig<HelloService>()
+            .setInterfaceId(HelloService.class.getName())
+            .setDirectUrl("bolt://127.0.0.1:" + serverConfig.getPort())
+            .setInvokeType(RpcConstants.INVOKER_TYPE_CALLBACK)
+            .setTimeout(60000)
+            .setRegister(false);
+        helloService = consumerConfig.refer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        consumerConfig.unRefer();
+        providerConfig.unExport();
+        RpcRuntimeContext.destroy();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(concurrency);
+        final AtomicInteger failures = new AtomicInteger();
+        SofaResponseCallback callback = new SofaResponseCallback() {
+            @Override
+            public void onAppResponse(Object appResponse, String methodName, RequestBase request) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onAppException(Throwable throwable, String methodName, RequestBase request) {
+                failures.incrementAndGet();
+                latch.countDown();
+            }
+
+            @Override
+            public void onSofaException(SofaRpcException sofaException, String methodName,
+                                        RequestBase request) {
+                failures.incrementAndGet();
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < concurrency; i++) {
+            RpcInvokeContext.getContext().setResponseCallback(callback);
+            helloService.sayHello("benchmark", i);
+        }
+        latch.await(120, TimeUnit.SECONDS);
+        return failures.get();
+    }
+}
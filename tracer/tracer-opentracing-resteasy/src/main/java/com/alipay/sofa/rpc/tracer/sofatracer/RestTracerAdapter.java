@@ -259,8 +259,7 @@ public class RestTracerAdapter {
             // Attach baggage items
             RpcInvokeContext rpcInvokeContext = RpcInvokeContext.peekContext();
             if (rpcInvokeContext == null || !RpcInvokeContext.isBaggageEnable() ||
-                rpcInvokeContext.getAllRequestBaggage() == null ||
-                rpcInvokeContext.getAllRequestBaggage().isEmpty()) {
+                !rpcInvokeContext.hasRequestBaggage()) {
                 return;
             }
 
@@ -313,8 +312,7 @@ public class RestTracerAdapter {
                                                          SofaResponse sofaResponse) {
             RpcInvokeContext context = RpcInvokeContext.peekContext();
             if (response == null || context == null ||
-                context.getAllResponseBaggage() == null ||
-                context.getAllResponseBaggage().isEmpty()) {
+                !context.hasResponseBaggage()) {
                 return;
             }
 
@@ -34,6 +34,7 @@ import com.alipay.sofa.rpc.common.TracerCompatibleConstants;
 import com.alipay.sofa.rpc.common.utils.ExceptionUtils;
 import com.alipay.sofa.rpc.common.utils.NetUtils;
 import com.alipay.sofa.rpc.common.utils.StringUtils;
+import com.alipay.sofa.rpc.context.InvokePhase;
 import com.alipay.sofa.rpc.context.RpcInternalContext;
 import com.alipay.sofa.rpc.context.RpcInvokeContext;
 import com.alipay.sofa.rpc.core.exception.RpcErrorType;
@@ -408,22 +409,21 @@ public class RpcSofaTracer extends Tracer {
     }
 
     private String generateClientSpecialTimeMarkSpan(RpcInvokeContext context) {
-        Long sendTime = (Long) context.get(RpcConstants.INTERNAL_KEY_CLIENT_SEND_TIME_MICRO);
-        Long receiverTime = (Long) context.get(RpcConstants.INTERNAL_KEY_CLIENT_RECEIVE_TIME_MICRO);
-        StringBuilder sb = new StringBuilder(checkTime(sendTime).toString());
-        return sb.append("&").append(checkTime(receiverTime).toString()).toString();
+        long sendTime = context.getPhase(InvokePhase.CLIENT_SEND_TIME_MICRO);
+        long receiverTime = context.getPhase(InvokePhase.CLIENT_RECEIVE_TIME_MICRO);
+        return sendTime + "&" + receiverTime;
     }
 
     private String generateClientPhaseTimeCostSpan(RpcInvokeContext context){
 
         TreeMap<String, String> resultMap = new TreeMap<>();
-        Long streamFirstRespTime = (Long) context.get(RpcConstants.INTERNAL_KEY_CLIENT_FIRST_STREAM_RESP_NANO);
-        Long routerTime = (Long) context.get(RpcConstants.INTERNAL_KEY_CLIENT_ROUTER_TIME_NANO);
-        Long connTime = (Long) context.get(RpcConstants.INTERNAL_KEY_CONN_CREATE_TIME_NANO);
-        Long filterTime = (Long) context.get(RpcConstants.INTERNAL_KEY_CLIENT_FILTER_TIME_NANO);
-        Long balancerTime = (Long) context.get(RpcConstants.INTERNAL_KEY_CLIENT_BALANCER_TIME_NANO);
-        Long reqSerializeTime = (Long) context.get(RpcConstants.INTERNAL_KEY_REQ_SERIALIZE_TIME_NANO);
-        Long respDeSerializeTime = (Long) context.get(RpcConstants.INTERNAL_KEY_RESP_DESERIALIZE_TIME_NANO);
+        long streamFirstRespTime = context.getPhase(InvokePhase.CLIENT_FIRST_STREAM_RESP_NANO);
+        long routerTime = context.getPhase(InvokePhase.CLIENT_ROUTER_TIME_NANO);
+        long connTime = context.getPhase(InvokePhase.CONN_CREATE_TIME_NANO);
+        long filterTime = context.getPhase(InvokePhase.CLIENT_FILTER_TIME_NANO);
+        long balancerTime = context.getPhase(InvokePhase.CLIENT_BALANCER_TIME_NANO);
+        long reqSerializeTime = context.getPhase(InvokePhase.REQ_SERIALIZE_TIME_NANO);
+        long respDeSerializeTime = context.getPhase(InvokePhase.RESP_DESERIALIZE_TIME_NANO);
         resultMap.put(TracerRecord.R0.toString(), calculateNanoTime(streamFirstRespTime).toString());
         resultMap.put(TracerRecord.R1.toString(), calculateNanoTime(routerTime).toString());
         resultMap.put(TracerRecord.R2.toString(), calculateNanoTime(connTime).toString());
@@ -442,20 +442,13 @@ public class RpcSofaTracer extends Tracer {
         return sb.toString();
     }
 
-    private Long calculateNanoTime(Long time) {
-        if (time == null) {
+    private Long calculateNanoTime(long time) {
+        if (time < 0) {
             return -1L;
         }
         return TimeUnit.MICROSECONDS.convert(time, TimeUnit.NANOSECONDS);
     }
 
-    private Long checkTime(Long time) {
-        if (time == null) {
-            return -1L;
-        }
-        return time;
-    }
-
     private String appendResult(String... strings) {
         StringJoiner stringJoiner = new StringJoiner("/");
         for (String string : strings) {
@@ -665,21 +658,20 @@ public class RpcSofaTracer extends Tracer {
     }
 
     private String generateServerSpecialTimeMark(RpcInvokeContext context) {
-        Long boltReceiveTime = (Long) context.get(RpcConstants.INTERNAL_KEY_SERVER_RECEIVE_TIME_MICRO);
-        Long serverSendTime = (Long) context.get(RpcConstants.INTERNAL_KEY_SERVER_SEND_TIME_MICRO);
-        StringBuilder sb = new StringBuilder(checkTime(boltReceiveTime).toString());
-        return sb.append("&").append(checkTime(serverSendTime).toString()).toString();
+        long boltReceiveTime = context.getPhase(InvokePhase.SERVER_RECEIVE_TIME_MICRO);
+        long serverSendTime = context.getPhase(InvokePhase.SERVER_SEND_TIME_MICRO);
+        return boltReceiveTime + "&" + serverSendTime;
     }
 
     private String generateServerPhaseTimeCostSpan(RpcInvokeContext context) {
         TreeMap<String, String> resultMap = new TreeMap<>();
-        Long reqDeSerializeTime = (Long) context.get(RpcConstants.INTERNAL_KEY_REQ_DESERIALIZE_TIME_NANO);
-        Long respSerializeTime = (Long) context.get(RpcConstants.INTERNAL_KEY_RESP_SERIALIZE_TIME_NANO);
-        Long bizWaitTime = (Long) context.get(RpcConstants.INTERNAL_KEY_PROCESS_WAIT_TIME_NANO);
-        Long bizProcessTime = (Long) context.get(RpcConstants.INTERNAL_KEY_IMPL_ELAPSE_NANO);
-        Long ambushTime = (Long) context.get(RpcConstants.INTERNAL_KEY_SERVER_AMBUSH_TIME_NANO);
-        Long filterTime = (Long) context.get(RpcConstants.INTERNAL_KEY_SERVER_FILTER_TIME_NANO);
-        Long netWaitTime = (Long) context.get(RpcConstants.INTERNAL_KEY_SERVER_NET_WAIT_NANO);
+        long reqDeSerializeTime = context.getPhase(InvokePhase.REQ_DESERIALIZE_TIME_NANO);
+        long respSerializeTime = context.getPhase(InvokePhase.RESP_SERIALIZE_TIME_NANO);
+        long bizWaitTime = context.getPhase(InvokePhase.PROCESS_WAIT_TIME_NANO);
+        long bizProcessTime = context.getPhase(InvokePhase.IMPL_ELAPSE_NANO);
+        long ambushTime = context.getPhase(InvokePhase.SERVER_AMBUSH_TIME_NANO);
+        long filterTime = context.getPhase(InvokePhase.SERVER_FILTER_TIME_NANO);
+        long netWaitTime = context.getPhase(InvokePhase.SERVER_NET_WAIT_NANO);
 
         resultMap.put(TracerRecord.R6.toString(),appendResult(calculateNanoTime(reqDeSerializeTime).toString(), calculateNanoTime(respSerializeTime).toString()));
         resultMap.put(TracerRecord.R7.toString(), calculateNanoTime(bizWaitTime).toString());